@@ -1,5 +1,6 @@
 package com.groupe.gestin_inscription.config;
 
+import com.groupe.gestin_inscription.services.serviceImpl.SchedulerLockService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -26,6 +27,10 @@ public class DatabaseBackupConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(DatabaseBackupConfig.class);
 
+    private static final String BACKUP_JOB = "database-backup";
+
+    private final SchedulerLockService schedulerLockService;
+
     @Value("${spring.datasource.url}")
     private String dbUrl;
 
@@ -41,12 +46,21 @@ public class DatabaseBackupConfig {
     @Value("${app.backup.retention-days:30}")
     private int retentionDays;
 
+    public DatabaseBackupConfig(SchedulerLockService schedulerLockService) {
+        this.schedulerLockService = schedulerLockService;
+    }
+
     /**
      * Backup automatique quotidien à 2h du matin
      * Cron: 0 0 2 * * * = Tous les jours à 2h00
+     * Une seule réplique exécute pg_dump (verrou scheduler_lock)
      */
     @Scheduled(cron = "${app.backup.cron:0 0 2 * * *}")
     public void performDatabaseBackup() {
+        schedulerLockService.runExclusively(BACKUP_JOB, this::backup);
+    }
+
+    private void backup() {
         logger.info("Starting automatic database backup...");
         
         try {
@@ -2,15 +2,20 @@ package com.groupe.gestin_inscription.controller;
 
 import com.groupe.gestin_inscription.dto.response.ApplicationStatusResponseDto;
 import com.groupe.gestin_inscription.dto.response.DocumentResponseDTO;
+import com.groupe.gestin_inscription.dto.response.ReviewQueueItemDto;
 import com.groupe.gestin_inscription.model.Application;
+import com.groupe.gestin_inscription.model.ApplicationStatusEvent;
 import com.groupe.gestin_inscription.model.Document;
 import com.groupe.gestin_inscription.model.User;
 import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import com.groupe.gestin_inscription.services.serviceImpl.ApplicationListingService;
 import com.groupe.gestin_inscription.services.serviceImpl.ApplicationServiceImpl;
+import com.groupe.gestin_inscription.services.serviceImpl.ApplicationStatusHistoryService;
 import com.groupe.gestin_inscription.services.serviceImpl.DocumentServiceImpl;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -32,21 +37,29 @@ public class AdminApplicationController {
     @Autowired
     private DocumentServiceImpl documentService;
 
-    @Operation(summary = "Get all applications with documents for review")
+    @Autowired
+    private ApplicationListingService applicationListingService;
+
+    @Autowired
+    private ApplicationStatusHistoryService statusHistoryService;
+
+    @Operation(summary = "Get the review queue (UNDER_REVIEW and MANUAL_REVIEW), oldest first, with document counts")
     @GetMapping("/review")
-    public ResponseEntity<?> getApplicationsForReview() {
+    public ResponseEntity<?> getApplicationsForReview(@RequestParam(defaultValue = "0") int page,
+                                                      @RequestParam(defaultValue = "50") int size) {
         try {
-            List<Application> applications = applicationService.getApplicationsByStatus(ApplicationStatus.UNDER_REVIEW);
-            applications.addAll(applicationService.getApplicationsByStatus(ApplicationStatus.MANUAL_REVIEW));
-            
-            List<Map<String, Object>> applicationsWithDocuments = applications.stream()
+            Page<ReviewQueueItemDto> queue = applicationListingService.reviewQueue(page, size);
+            List<Map<String, Object>> applicationsWithDocuments = queue.getContent().stream()
                 .map(this::convertToDetailedDto)
                 .collect(Collectors.toList());
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("applications", applicationsWithDocuments);
-            response.put("count", applicationsWithDocuments.size());
+            response.put("count", queue.getTotalElements());
+            response.put("page", queue.getNumber());
+            response.put("size", queue.getSize());
+            response.put("totalPages", queue.getTotalPages());
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -79,6 +92,12 @@ public class AdminApplicationController {
         }
     }
 
+    @Operation(summary = "Get the status history of an application, oldest transition first")
+    @GetMapping("/{applicationId}/history")
+    public ResponseEntity<List<ApplicationStatusEvent>> getApplicationHistory(@PathVariable Long applicationId) {
+        return ResponseEntity.ok(statusHistoryService.history(applicationId));
+    }
+
     @Operation(summary = "Get applications dashboard statistics")
     @GetMapping("/dashboard")
     public ResponseEntity<?> getDashboardStats() {
@@ -113,6 +132,41 @@ public class AdminApplicationController {
         }
     }
 
+    // Même forme que pour une entité, à partir de la ligne de la file de revue
+    private Map<String, Object> convertToDetailedDto(ReviewQueueItemDto item) {
+        Map<String, Object> dto = new HashMap<>();
+        dto.put("id", item.getId());
+        dto.put("status", item.getStatus() != null ? item.getStatus().name() : "UNKNOWN");
+        dto.put("submissionDate", item.getSubmissionDate());
+        dto.put("lastUpdated", item.getLastUpdated());
+        dto.put("completionRate", item.getCompletionRate());
+        dto.put("targetInstitution", item.getTargetInstitution());
+        dto.put("specialization", item.getSpecialization());
+        dto.put("assignedAgentId", item.getAssignedAgentId());
+        dto.put("assignedAgent", item.getAssignedAgentUserName());
+
+        if (item.getApplicantId() != null) {
+            Map<String, Object> candidateInfo = new HashMap<>();
+            candidateInfo.put("id", item.getApplicantId());
+            candidateInfo.put("firstName", item.getApplicantFirstName());
+            candidateInfo.put("lastName", item.getApplicantLastName());
+            candidateInfo.put("email", item.getApplicantEmail());
+            candidateInfo.put("phone", item.getApplicantPhone());
+            candidateInfo.put("nationality", item.getApplicantNationality());
+            candidateInfo.put("address", item.getApplicantAddress());
+            dto.put("candidate", candidateInfo);
+        }
+
+        Map<String, Object> docsSummary = new HashMap<>();
+        docsSummary.put("total", item.getDocumentsTotal());
+        docsSummary.put("validated", item.getDocumentsValidated());
+        docsSummary.put("rejected", item.getDocumentsRejected());
+        docsSummary.put("pending", item.getDocumentsPending());
+        dto.put("documentsSummary", docsSummary);
+
+        return dto;
+    }
+
     private Map<String, Object> convertToDetailedDto(Application application) {
         Map<String, Object> dto = new HashMap<>();
         dto.put("id", application.getId());
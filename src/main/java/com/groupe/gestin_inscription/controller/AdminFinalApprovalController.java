@@ -1,11 +1,13 @@
 package com.groupe.gestin_inscription.controller;
 
+import com.groupe.gestin_inscription.events.ApplicationStatusChangedEvent;
 import com.groupe.gestin_inscription.model.Application;
 import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
 import com.groupe.gestin_inscription.repository.ApplicationRepository;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -23,6 +25,9 @@ public class AdminFinalApprovalController {
     @Autowired
     private ApplicationRepository applicationRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @PostMapping("/applications/{applicationId}/final-approve")
     @PreAuthorize("hasRole('SUPER_ADMIN')")
     @Operation(summary = "Approbation finale - génère la fiche d'inscription")
@@ -47,6 +52,7 @@ public class AdminFinalApprovalController {
             app.setStatus(ApplicationStatus.APPROVED);
             app.setLastUpdated(LocalDateTime.now());
             applicationRepository.save(app);
+            eventPublisher.publishEvent(new ApplicationStatusChangedEvent(applicationId, ApplicationStatus.AGENT_VALIDATED, ApplicationStatus.APPROVED));
 
             // Générer la fiche d'inscription (simulation)
             String registrationFormUrl = generateRegistrationForm(applicationId);
@@ -27,6 +27,13 @@ public class AdvancedAnalyticsController {
         return ResponseEntity.ok(statistics);
     }
 
+    @Operation(summary = "Rebuild the in-memory status counters from the database")
+    @PostMapping("/counters/rebuild")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Long>> rebuildStatusCounters() {
+        return ResponseEntity.ok(analyticsService.rebuildStatusCounters());
+    }
+
     @Operation(summary = "Get completion rate statistics by step")
     @GetMapping("/completion-rates")
     @PreAuthorize("hasAnyRole('AGENT', 'SUPER_ADMIN')")
@@ -62,11 +69,25 @@ public class AdvancedAnalyticsController {
     @Operation(summary = "Get agent performance statistics")
     @GetMapping("/agent-performance")
     @PreAuthorize("hasRole('SUPER_ADMIN')")
-    public ResponseEntity<Map<String, Object>> getAgentPerformanceStats() {
-        Map<String, Object> performanceStats = analyticsService.getAgentPerformanceStats();
+    public ResponseEntity<Map<String, Object>> getAgentPerformanceStats(@RequestParam(defaultValue = "90") int days) {
+        Map<String, Object> performanceStats = analyticsService.getAgentPerformanceStats(days);
         return ResponseEntity.ok(performanceStats);
     }
 
+    @Operation(summary = "Get time spent in each status, from the status history")
+    @GetMapping("/time-in-status")
+    @PreAuthorize("hasAnyRole('AGENT', 'SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getTimeInStatusStatistics(@RequestParam(defaultValue = "90") int days) {
+        return ResponseEntity.ok(analyticsService.getTimeInStatusStatistics(days));
+    }
+
+    @Operation(summary = "Get the number of applications that reached each status")
+    @GetMapping("/funnel")
+    @PreAuthorize("hasAnyRole('AGENT', 'SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Long>> getStatusFunnel(@RequestParam(defaultValue = "90") int days) {
+        return ResponseEntity.ok(analyticsService.getStatusFunnel(days));
+    }
+
     @Operation(summary = "Get top countries by application count")
     @GetMapping("/countries/top")
     @PreAuthorize("hasAnyRole('AGENT', 'SUPER_ADMIN')")
@@ -1,10 +1,12 @@
 package com.groupe.gestin_inscription.controller;
 
 import com.groupe.gestin_inscription.dto.response.AgentResponseDTO;
+import com.groupe.gestin_inscription.events.UserAccountChangedEvent;
 import com.groupe.gestin_inscription.model.Administrator;
 import com.groupe.gestin_inscription.model.Enums.AdministratorRole;
 import com.groupe.gestin_inscription.repository.AdministratorRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -12,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -47,6 +50,9 @@ public class AgentController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @PostMapping
     @PreAuthorize("hasRole('SUPER_ADMIN')")
     public ResponseEntity<AgentResponseDTO> createAgent(@RequestBody CreateAgentRequestDTO request) {
@@ -81,6 +87,8 @@ public class AgentController {
         }
         
         Administrator agent = optionalAgent.get();
+        String previousUserName = agent.getUserName();
+        String previousEmail = agent.getEmail();
         
         // Mettre à jour les champs
         if (request.getFirstName() != null) {
@@ -95,11 +103,17 @@ public class AgentController {
         if (request.getUsername() != null) {
             agent.setUserName(request.getUsername());
         }
-        if (request.getPassword() != null && !request.getPassword().trim().isEmpty()) {
+        boolean passwordChanged = request.getPassword() != null && !request.getPassword().trim().isEmpty();
+        if (passwordChanged) {
             agent.setPassword(passwordEncoder.encode(request.getPassword()));
         }
         
         Administrator updatedAgent = administratorRepository.save(agent);
+        boolean credentialsChanged = passwordChanged
+                || !Objects.equals(previousUserName, updatedAgent.getUserName())
+                || !Objects.equals(previousEmail, updatedAgent.getEmail());
+        eventPublisher.publishEvent(new UserAccountChangedEvent(credentialsChanged, previousUserName, previousEmail,
+                updatedAgent.getUserName(), updatedAgent.getEmail()));
         return ResponseEntity.ok(AgentResponseDTO.fromAdministrator(updatedAgent));
     }
 
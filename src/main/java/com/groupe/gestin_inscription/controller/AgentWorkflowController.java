@@ -1,11 +1,13 @@
 package com.groupe.gestin_inscription.controller;
 
+import com.groupe.gestin_inscription.events.ApplicationStatusChangedEvent;
 import com.groupe.gestin_inscription.model.Application;
 import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
 import com.groupe.gestin_inscription.repository.ApplicationRepository;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -23,6 +25,9 @@ public class AgentWorkflowController {
     @Autowired
     private ApplicationRepository applicationRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @PostMapping("/applications/{applicationId}/validate")
     @PreAuthorize("hasRole('AGENT')")
     @Operation(summary = "Agent valide une candidature pour révision admin")
@@ -37,9 +42,11 @@ public class AgentWorkflowController {
             }
 
             Application app = appOpt.get();
+            ApplicationStatus previousStatus = app.getStatus();
             app.setStatus(ApplicationStatus.AGENT_VALIDATED);
             app.setLastUpdated(LocalDateTime.now());
             applicationRepository.save(app);
+            eventPublisher.publishEvent(new ApplicationStatusChangedEvent(applicationId, previousStatus, ApplicationStatus.AGENT_VALIDATED));
 
             String agentComment = (String) validationData.get("comment");
             Boolean documentsValid = (Boolean) validationData.get("documentsValid");
@@ -75,9 +82,11 @@ public class AgentWorkflowController {
             }
 
             Application app = appOpt.get();
+            ApplicationStatus previousStatus = app.getStatus();
             app.setStatus(ApplicationStatus.CHANGES_REQUESTED);
             app.setLastUpdated(LocalDateTime.now());
             applicationRepository.save(app);
+            eventPublisher.publishEvent(new ApplicationStatusChangedEvent(applicationId, previousStatus, ApplicationStatus.CHANGES_REQUESTED));
 
             String agentComment = (String) requestData.get("comment");
             String requiredChanges = (String) requestData.get("requiredChanges");
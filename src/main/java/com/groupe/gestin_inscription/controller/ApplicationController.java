@@ -2,9 +2,12 @@ package com.groupe.gestin_inscription.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.groupe.gestin_inscription.dto.request.ApplicationSearchCriteria;
 import com.groupe.gestin_inscription.dto.request.ApplicationSubmissionRequestDTO;
 import com.groupe.gestin_inscription.dto.request.DocumentUploadRequestDTO;
+import com.groupe.gestin_inscription.dto.response.ApplicationKeysetPageDto;
 import com.groupe.gestin_inscription.dto.response.ApplicationStatusResponseDto;
+import com.groupe.gestin_inscription.events.ApplicationStatusChangedEvent;
 import com.groupe.gestin_inscription.model.Application;
 import com.groupe.gestin_inscription.model.User;
 import com.groupe.gestin_inscription.model.AcademicHistory;
@@ -13,11 +16,16 @@ import com.groupe.gestin_inscription.model.Enums.Gender;
 import com.groupe.gestin_inscription.repository.UserRepository;
 import com.groupe.gestin_inscription.repository.AcademicHistoryRepository;
 import com.groupe.gestin_inscription.repository.ApplicationRepository;
+import com.groupe.gestin_inscription.services.serviceImpl.ApplicationListingService;
+import com.groupe.gestin_inscription.services.serviceImpl.ApplicationSearchService;
 import com.groupe.gestin_inscription.services.serviceImpl.ApplicationServiceImpl;
 import com.groupe.gestin_inscription.services.serviceImpl.DocumentServiceImpl;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -52,6 +60,13 @@ public class ApplicationController {
     private ApplicationRepository applicationRepository;
     @Autowired
     private DocumentServiceImpl documentService;
+    @Autowired
+    private ApplicationListingService applicationListingService;
+    @Autowired
+    private ApplicationSearchService applicationSearchService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     @GetMapping("/test")
     public ResponseEntity<?> testEndpoint() {
@@ -205,15 +220,10 @@ public class ApplicationController {
             boolean isAgent = authentication.getAuthorities().stream()
                 .anyMatch(auth -> auth.getAuthority().equals("ROLE_AGENT") || auth.getAuthority().equals("ROLE_SUPER_ADMIN"));
 
-            List<Application> applications = applicationServiceImpl.getApplicationsByStatus(status);
-            
-            if (!isAgent) {
-                // Pour les candidats, filtrer seulement leurs propres candidatures
-                applications = applications.stream()
-                        .filter(app -> app.getApplicantName() != null &&
-                                currentUsername.equals(app.getApplicantName().getUsername()))
-                        .collect(Collectors.toList());
-            }
+            // Pour les candidats, seulement leurs propres candidatures (filtrées en base)
+            List<Application> applications = isAgent
+                    ? applicationServiceImpl.getApplicationsByStatus(status)
+                    : applicationRepository.findByStatusAndApplicantName_Username(status, currentUsername);
 
             // Pour les agents, retourner toutes les données complètes
             List<Map<String, Object>> responseDtos = applications.stream()
@@ -264,12 +274,7 @@ public class ApplicationController {
         try {
             String currentUsername = getCurrentUsername(email);
             
-            List<Application> allApplications = applicationServiceImpl.getAllApplications();
-            List<Application> userApplications = allApplications.stream()
-                    .filter(app -> app.getApplicantName() != null &&
-                            (currentUsername.equals(app.getApplicantName().getUsername()) ||
-                             currentUsername.equals(app.getApplicantName().getEmail())))
-                    .collect(Collectors.toList());
+            List<Application> userApplications = applicationRepository.findByApplicantLogin(currentUsername);
 
             List<Map<String, Object>> responseDtos = userApplications.stream()
                     .map(app -> {
@@ -325,10 +330,7 @@ public class ApplicationController {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             String currentUsername = authentication.getName();
             
-            List<Application> allApplications = applicationServiceImpl.getAllApplications();
-            boolean hasExistingApplication = allApplications.stream()
-                    .anyMatch(app -> app.getApplicantName() != null &&
-                            currentUsername.equals(app.getApplicantName().getUsername()));
+            boolean hasExistingApplication = applicationRepository.existsByApplicantName_Username(currentUsername);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -385,10 +387,7 @@ public class ApplicationController {
             }
             
             // Applications
-            List<Application> userApplications = applicationRepository.findAll().stream()
-                    .filter(app -> app.getApplicantName() != null && 
-                            user.getUsername().equals(app.getApplicantName().getUsername()))
-                    .collect(Collectors.toList());
+            List<Application> userApplications = applicationRepository.findByApplicantName(user);
             
             userData.put("applicationsCount", userApplications.size());
             userData.put("applications", userApplications.stream()
@@ -403,6 +402,60 @@ public class ApplicationController {
         }
     }
 
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyAuthority('ROLE_CANDIDATE', 'ROLE_AGENT', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Filtered application list, paginated by cursor (pass back nextCursor to get the next page). "
+            + "With q: accent-insensitive, prefix and typo-tolerant search on applicant name, e-mail, ID number, phone, "
+            + "institution and specialization, most relevant first")
+    public ResponseEntity<?> searchApplications(ApplicationSearchCriteria criteria,
+                                                @RequestParam(required = false) String q,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "20") int size) {
+        boolean fullText = q != null && !q.isBlank();
+        try {
+            if (!restrictToCurrentApplicant(criteria)) {
+                return ResponseEntity.ok(new ApplicationKeysetPageDto(List.of(), 0, null));
+            }
+            if (fullText) {
+                return ResponseEntity.ok(applicationSearchService.search(q, criteria, cursor, size));
+            }
+            return ResponseEntity.ok(applicationListingService.searchAfter(criteria, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(fullText ? "INVALID_SEARCH" : "INVALID_CURSOR", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(createErrorResponse("SEARCH_UNAVAILABLE", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/search/page")
+    @PreAuthorize("hasAnyAuthority('ROLE_CANDIDATE', 'ROLE_AGENT', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Filtered application list, paginated by page number with the total count")
+    public ResponseEntity<?> searchApplicationsPage(ApplicationSearchCriteria criteria,
+                                                    @RequestParam(defaultValue = "0") int page,
+                                                    @RequestParam(defaultValue = "20") int size) {
+        if (!restrictToCurrentApplicant(criteria)) {
+            return ResponseEntity.ok(new PagedModel<>(Page.empty()));
+        }
+        return ResponseEntity.ok(new PagedModel<>(applicationListingService.search(criteria, page, size)));
+    }
+
+    /**
+     * Un candidat ne voit que ses propres candidatures, quel que soit le filtre demandé.
+     * @return false si le candidat connecté n'a pas de compte utilisateur
+     */
+    private boolean restrictToCurrentApplicant(ApplicationSearchCriteria criteria) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean isAgent = authentication.getAuthorities().stream()
+                .anyMatch(auth -> auth.getAuthority().equals("ROLE_AGENT") || auth.getAuthority().equals("ROLE_SUPER_ADMIN"));
+        if (isAgent) {
+            return true;
+        }
+        Optional<User> user = userRepository.findByUsername(authentication.getName())
+                .or(() -> userRepository.findByEmail(authentication.getName()));
+        user.ifPresent(u -> criteria.setApplicantId(u.getId()));
+        return user.isPresent();
+    }
+
     @GetMapping("/all")
     @PreAuthorize("hasAuthority('ROLE_SUPER_ADMIN')")
     public ResponseEntity<List<Map<String, Object>>> getAllApplications() {
@@ -655,7 +708,9 @@ public class ApplicationController {
         double completionRate = calculateCompletionRate(user, documents);
         application.setCompletionRate(completionRate);
         
-        return applicationRepository.save(application);
+        Application savedApplication = applicationRepository.save(application);
+        eventPublisher.publishEvent(ApplicationStatusChangedEvent.created(savedApplication.getId(), savedApplication.getStatus()));
+        return savedApplication;
     }
 
     private double calculateCompletionRate(User user, List<DocumentUploadRequestDTO> documents) {
@@ -882,10 +937,12 @@ public class ApplicationController {
             
             Application application = applicationOpt.get();
             ApplicationStatus newStatus = ApplicationStatus.valueOf(status.toUpperCase());
+            ApplicationStatus previousStatus = application.getStatus();
             application.setStatus(newStatus);
             application.setLastUpdated(LocalDateTime.now());
             
             applicationRepository.save(application);
+            eventPublisher.publishEvent(new ApplicationStatusChangedEvent(applicationId, previousStatus, newStatus));
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
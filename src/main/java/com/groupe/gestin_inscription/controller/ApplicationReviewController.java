@@ -1,11 +1,13 @@
 package com.groupe.gestin_inscription.controller;
 
+import com.groupe.gestin_inscription.events.ApplicationStatusChangedEvent;
 import com.groupe.gestin_inscription.model.Application;
 import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
 import com.groupe.gestin_inscription.repository.ApplicationRepository;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -23,6 +25,9 @@ public class ApplicationReviewController {
     @Autowired
     private ApplicationRepository applicationRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
 
 
     @PostMapping("/{applicationId}/approve")
@@ -39,9 +44,11 @@ public class ApplicationReviewController {
             }
 
             Application app = appOpt.get();
+            ApplicationStatus previousStatus = app.getStatus();
             app.setStatus(ApplicationStatus.APPROVED);
             app.setLastUpdated(LocalDateTime.now());
             applicationRepository.save(app);
+            eventPublisher.publishEvent(new ApplicationStatusChangedEvent(applicationId, previousStatus, ApplicationStatus.APPROVED));
 
             String comment = requestBody != null ? requestBody.get("comment") : null;
 
@@ -81,9 +88,11 @@ public class ApplicationReviewController {
             String customMessage = (String) requestBody.get("customMessage");
 
             Application app = appOpt.get();
+            ApplicationStatus previousStatus = app.getStatus();
             app.setStatus(ApplicationStatus.REJECTED);
             app.setLastUpdated(LocalDateTime.now());
             applicationRepository.save(app);
+            eventPublisher.publishEvent(new ApplicationStatusChangedEvent(applicationId, previousStatus, ApplicationStatus.REJECTED));
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
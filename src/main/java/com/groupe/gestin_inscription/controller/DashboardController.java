@@ -1,13 +1,12 @@
 package com.groupe.gestin_inscription.controller;
 
-import com.groupe.gestin_inscription.model.Application;
+import com.groupe.gestin_inscription.dto.response.InstitutionCountDto;
+import com.groupe.gestin_inscription.dto.response.MonthlyCountDto;
+import com.groupe.gestin_inscription.dto.response.RecentApplicationDto;
 import com.groupe.gestin_inscription.model.User;
-import com.groupe.gestin_inscription.model.Administrator;
-import com.groupe.gestin_inscription.repository.ApplicationRepository;
 import com.groupe.gestin_inscription.repository.UserRepository;
-import com.groupe.gestin_inscription.repository.AdministratorRepository;
 import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
-import com.groupe.gestin_inscription.model.Enums.AdministratorRole;
+import com.groupe.gestin_inscription.services.serviceImpl.DashboardQueryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -23,35 +22,18 @@ import java.util.stream.Collectors;
 public class DashboardController {
 
     @Autowired
-    private ApplicationRepository applicationRepository;
+    private DashboardQueryService dashboardQueryService;
     
     @Autowired
     private UserRepository userRepository;
-    
-    @Autowired
-    private AdministratorRepository administratorRepository;
 
     @GetMapping("/statistics")
     @PreAuthorize("hasAuthority('ROLE_AGENT') or hasAuthority('ROLE_SUPER_ADMIN')")
     public ResponseEntity<?> getStatistics() {
         try {
-            List<Application> allApplications = applicationRepository.findAll();
-            List<User> allUsers = userRepository.findAll();
-            
-            Map<String, Object> statistics = new HashMap<>();
-            statistics.put("totalApplications", allApplications.size());
-            statistics.put("approvedApplications", allApplications.stream()
-                .mapToInt(app -> app.getStatus() == ApplicationStatus.APPROVED ? 1 : 0).sum());
-            statistics.put("pendingApplications", allApplications.stream()
-                .mapToInt(app -> app.getStatus() == ApplicationStatus.PENDING ? 1 : 0).sum());
-            statistics.put("rejectedApplications", allApplications.stream()
-                .mapToInt(app -> app.getStatus() == ApplicationStatus.REJECTED ? 1 : 0).sum());
-            statistics.put("reviewApplications", allApplications.stream()
-                .mapToInt(app -> app.getStatus() == ApplicationStatus.UNDER_REVIEW ? 1 : 0).sum());
-            statistics.put("totalUsers", allUsers.size());
-            List<Administrator> allAdministrators = administratorRepository.findAll();
-            statistics.put("totalAgents", allAdministrators.stream()
-                .mapToInt(admin -> admin.getRole() == AdministratorRole.AGENT ? 1 : 0).sum());
+            Map<String, Object> statistics = toStatistics(dashboardQueryService.getStatusCounts());
+            statistics.put("totalUsers", dashboardQueryService.getTotalUsers());
+            statistics.put("totalAgents", dashboardQueryService.getTotalAgents());
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -71,20 +53,15 @@ public class DashboardController {
     @PreAuthorize("hasAuthority('ROLE_AGENT') or hasAuthority('ROLE_SUPER_ADMIN')")
     public ResponseEntity<?> getRecentApplications(@RequestParam(defaultValue = "10") int limit) {
         try {
-            List<Application> recentApplications = applicationRepository.findAll()
-                .stream()
-                .sorted((a, b) -> b.getSubmissionDate().compareTo(a.getSubmissionDate()))
-                .limit(limit)
-                .collect(Collectors.toList());
+            List<RecentApplicationDto> recentApplications = dashboardQueryService.getRecentApplications(limit);
             
             List<Map<String, Object>> applicationsData = recentApplications.stream()
                 .map(app -> {
                     Map<String, Object> appData = new HashMap<>();
                     appData.put("id", app.getId());
-                    appData.put("candidatName", app.getApplicantName() != null ? 
-                        app.getApplicantName().getFirstName() + " " + app.getApplicantName().getLastName() : "N/A");
-                    appData.put("email", app.getApplicantName() != null ? 
-                        app.getApplicantName().getEmail() : "N/A");
+                    appData.put("candidatName", app.getFirstName() != null || app.getLastName() != null ?
+                        app.getFirstName() + " " + app.getLastName() : "N/A");
+                    appData.put("email", app.getEmail() != null ? app.getEmail() : "N/A");
                     appData.put("status", app.getStatus().toString());
                     appData.put("submissionDate", app.getSubmissionDate());
                     return appData;
@@ -123,21 +100,7 @@ public class DashboardController {
                 return ResponseEntity.status(404).body(error);
             }
             
-            List<Application> userApplications = applicationRepository.findAll()
-                .stream()
-                .filter(app -> app.getApplicantName() != null && app.getApplicantName().getId().equals(user.getId()))
-                .collect(Collectors.toList());
-            
-            Map<String, Object> statistics = new HashMap<>();
-            statistics.put("totalApplications", userApplications.size());
-            statistics.put("approvedApplications", userApplications.stream()
-                .mapToInt(app -> app.getStatus() == ApplicationStatus.APPROVED ? 1 : 0).sum());
-            statistics.put("pendingApplications", userApplications.stream()
-                .mapToInt(app -> app.getStatus() == ApplicationStatus.PENDING ? 1 : 0).sum());
-            statistics.put("rejectedApplications", userApplications.stream()
-                .mapToInt(app -> app.getStatus() == ApplicationStatus.REJECTED ? 1 : 0).sum());
-            statistics.put("reviewApplications", userApplications.stream()
-                .mapToInt(app -> app.getStatus() == ApplicationStatus.UNDER_REVIEW ? 1 : 0).sum());
+            Map<String, Object> statistics = toStatistics(dashboardQueryService.getStatusCountsForApplicant(user.getId()));
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -170,12 +133,8 @@ public class DashboardController {
                 return ResponseEntity.status(404).body(error);
             }
             
-            List<Application> userApplications = applicationRepository.findAll()
-                .stream()
-                .filter(app -> app.getApplicantName() != null && app.getApplicantName().getId().equals(user.getId()))
-                .sorted((a, b) -> b.getSubmissionDate().compareTo(a.getSubmissionDate()))
-                .limit(limit)
-                .collect(Collectors.toList());
+            List<RecentApplicationDto> userApplications =
+                dashboardQueryService.getRecentApplicationsForApplicant(user.getId(), limit);
             
             List<Map<String, Object>> applicationsData = userApplications.stream()
                 .map(app -> {
@@ -206,23 +165,15 @@ public class DashboardController {
     @PreAuthorize("hasAuthority('ROLE_AGENT') or hasAuthority('ROLE_SUPER_ADMIN')")
     public ResponseEntity<?> getInscriptionsEvolution() {
         try {
-            List<Application> allApplications = applicationRepository.findAll();
-            
-            // Grouper par mois
-            Map<String, Long> monthlyData = allApplications.stream()
-                .collect(Collectors.groupingBy(
-                    app -> app.getSubmissionDate().getYear() + "-" + 
-                           String.format("%02d", app.getSubmissionDate().getMonthValue()),
-                    Collectors.counting()
-                ));
+            // Groupement par mois effectué par la base
+            List<MonthlyCountDto> monthlyData = dashboardQueryService.getMonthlySubmissions();
             
             // Convertir en format pour graphique
-            List<Map<String, Object>> chartData = monthlyData.entrySet().stream()
-                .sorted(Map.Entry.comparingByKey())
-                .map(entry -> {
+            List<Map<String, Object>> chartData = monthlyData.stream()
+                .map(row -> {
                     Map<String, Object> point = new HashMap<>();
-                    point.put("month", entry.getKey());
-                    point.put("count", entry.getValue());
+                    point.put("month", row.getMonthKey());
+                    point.put("count", row.getCount());
                     return point;
                 })
                 .collect(Collectors.toList());
@@ -246,17 +197,12 @@ public class DashboardController {
     @PreAuthorize("hasAuthority('ROLE_AGENT') or hasAuthority('ROLE_SUPER_ADMIN')")
     public ResponseEntity<?> getStatusDistribution() {
         try {
-            List<Application> allApplications = applicationRepository.findAll();
-            
-            // Grouper par statut
-            Map<ApplicationStatus, Long> statusCounts = allApplications.stream()
-                .collect(Collectors.groupingBy(
-                    Application::getStatus,
-                    Collectors.counting()
-                ));
+            // Groupement par statut effectué par la base
+            Map<ApplicationStatus, Long> statusCounts = dashboardQueryService.getStatusCounts();
             
             // Convertir en format pour graphique en secteurs
             List<Map<String, Object>> chartData = statusCounts.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
                 .map(entry -> {
                     Map<String, Object> segment = new HashMap<>();
                     segment.put("status", entry.getKey().name());
@@ -270,7 +216,7 @@ public class DashboardController {
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("data", chartData);
-            response.put("total", allApplications.size());
+            response.put("total", statusCounts.values().stream().mapToLong(Long::longValue).sum());
             
             return ResponseEntity.ok(response);
             
@@ -281,6 +227,46 @@ public class DashboardController {
             return ResponseEntity.status(500).body(error);
         }
     }
+
+    // Endpoint pour les données du graphique de répartition par établissement
+    @GetMapping("/chart/institution-distribution")
+    @PreAuthorize("hasAuthority('ROLE_AGENT') or hasAuthority('ROLE_SUPER_ADMIN')")
+    public ResponseEntity<?> getInstitutionDistribution(@RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<InstitutionCountDto> institutionCounts = dashboardQueryService.getInstitutionDistribution(limit);
+            
+            List<Map<String, Object>> chartData = institutionCounts.stream()
+                .map(row -> {
+                    Map<String, Object> segment = new HashMap<>();
+                    segment.put("institution", row.getInstitution());
+                    segment.put("count", row.getCount());
+                    return segment;
+                })
+                .collect(Collectors.toList());
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", chartData);
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Erreur: " + e.getMessage());
+            return ResponseEntity.status(500).body(error);
+        }
+    }
+
+    private Map<String, Object> toStatistics(Map<ApplicationStatus, Long> statusCounts) {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("totalApplications", statusCounts.values().stream().mapToLong(Long::longValue).sum());
+        statistics.put("approvedApplications", statusCounts.get(ApplicationStatus.APPROVED));
+        statistics.put("pendingApplications", statusCounts.get(ApplicationStatus.PENDING));
+        statistics.put("rejectedApplications", statusCounts.get(ApplicationStatus.REJECTED));
+        statistics.put("reviewApplications", statusCounts.get(ApplicationStatus.UNDER_REVIEW));
+        return statistics;
+    }
     
     private String getStatusLabel(ApplicationStatus status) {
         switch (status) {
@@ -5,6 +5,9 @@ import com.groupe.gestin_inscription.repository.DocumentRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -12,6 +15,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -32,7 +36,7 @@ public class DocumentViewController {
     @PreAuthorize("hasAnyAuthority('ROLE_AGENT', 'ROLE_SUPER_ADMIN', 'ROLE_CANDIDATE')")
     public ResponseEntity<?> previewDocument(@PathVariable Long documentId) {
         try {
-            logger.info("Preview request for document ID: {}", documentId);
+            logger.debug("Preview request for document ID: {}", documentId);
             
             Optional<Document> docOpt = documentRepository.findById(documentId);
             
@@ -42,11 +46,7 @@ public class DocumentViewController {
             }
             
             Document document = docOpt.get();
-            logger.info("Found document: {} at path: {}", document.getName(), document.getFilePath());
-            logger.info("Document details - ID: {}, Name: {}, Type: {}, Size: {} MB, Hash: {}, Application ID: {}", 
-                document.getId(), document.getName(), document.getFileType(), 
-                document.getFileSizeMB(), document.getHash(), 
-                document.getApplication() != null ? document.getApplication().getId() : "null");
+            logger.debug("Found document: {} at path: {}", document.getName(), document.getFilePath());
             
             if (document.getFilePath() == null || document.getFilePath().trim().isEmpty()) {
                 logger.error("Document {} has no file path", documentId);
@@ -57,29 +57,14 @@ public class DocumentViewController {
             
             Path filePath = Paths.get(document.getFilePath());
             
-            if (!Files.exists(filePath)) {
+            if (!Files.isRegularFile(filePath)) {
                 logger.error("File does not exist at path: {}", document.getFilePath());
                 Map<String, String> error = new HashMap<>();
                 error.put("error", "Fichier non trouvé sur le disque");
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
             }
             
-            byte[] fileContent = Files.readAllBytes(filePath);
-            logger.info("Successfully read {} bytes from file", fileContent.length);
-            
-            // Vérifier l'intégrité du fichier avec le hash stocké
-            if (document.getHash() != null && !document.getHash().isEmpty()) {
-                String currentHash = calculateFileHash(fileContent);
-                if (!document.getHash().equals(currentHash)) {
-                    logger.warn("File integrity check failed! Stored hash: {}, Current hash: {}", 
-                        document.getHash(), currentHash);
-                } else {
-                    logger.info("File integrity verified - hash matches: {}", currentHash);
-                }
-            }
-            
-            HttpHeaders headers = new HttpHeaders();
-            
+            MediaType mediaType;
             String contentType = document.getFileType();
             if (contentType == null || contentType.trim().isEmpty()) {
                 // Détecter le type à partir de l'extension du fichier
@@ -87,26 +72,19 @@ public class DocumentViewController {
                 if (contentType == null) {
                     contentType = "application/octet-stream";
                 }
-                logger.info("Detected content type from file path: {}", contentType);
+                logger.debug("Detected content type from file path: {}", contentType);
             }
             
             try {
-                headers.setContentType(MediaType.parseMediaType(contentType));
+                mediaType = MediaType.parseMediaType(contentType);
             } catch (Exception e) {
                 logger.warn("Invalid content type: {}, detecting from filename", contentType);
                 String detectedType = detectContentTypeFromFilename(document.getName());
-                if (detectedType != null) {
-                    headers.setContentType(MediaType.parseMediaType(detectedType));
-                } else {
-                    headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-                }
+                mediaType = detectedType != null ? MediaType.parseMediaType(detectedType) : MediaType.APPLICATION_OCTET_STREAM;
             }
             
             String filename = getProperFilename(document);
-            headers.add("Content-Disposition", "inline; filename=\"" + filename + "\"");
-            headers.setContentLength(fileContent.length);
-            
-            return ResponseEntity.ok().headers(headers).body(fileContent);
+            return streamFile(document, filePath, mediaType, "inline; filename=\"" + filename + "\"");
             
         } catch (Exception e) {
             logger.error("Error previewing document {}: {}", documentId, e.getMessage(), e);
@@ -115,6 +93,32 @@ public class DocumentViewController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
+
+    /**
+     * Réponse en flux depuis le disque, sans copie en mémoire.
+     * Spring sert les requêtes Range en 206 pour un corps de type Resource, et répond 304
+     * lorsque If-None-Match / If-Modified-Since correspondent à l'ETag / Last-Modified fournis.
+     */
+    private ResponseEntity<Resource> streamFile(Document document, Path filePath, MediaType mediaType,
+                                                String contentDisposition) throws IOException {
+        long lastModified = Files.getLastModifiedTime(filePath).toMillis();
+        
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition)
+                .eTag(buildETag(document, filePath, lastModified))
+                .lastModified(lastModified)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(new FileSystemResource(filePath));
+    }
+
+    // ETag fort basé sur le hash SHA-256 stocké, ou ETag faible dérivé de la taille et de la date à défaut
+    private String buildETag(Document document, Path filePath, long lastModified) throws IOException {
+        if (document.getHash() != null && !document.getHash().isEmpty()) {
+            return "\"" + document.getHash() + "\"";
+        }
+        return "W/\"" + document.getId() + "-" + Files.size(filePath) + "-" + lastModified + "\"";
+    }
     
     private String getProperFilename(Document document) {
         String name = document.getName();
@@ -194,7 +198,7 @@ public class DocumentViewController {
 
     @GetMapping("/{documentId}/download")
     @PreAuthorize("hasAnyAuthority('ROLE_AGENT', 'ROLE_SUPER_ADMIN', 'ROLE_CANDIDATE')")
-    public ResponseEntity<byte[]> downloadDocument(@PathVariable Long documentId) {
+    public ResponseEntity<Resource> downloadDocument(@PathVariable Long documentId) {
         try {
             Optional<Document> docOpt = documentRepository.findById(documentId);
             
@@ -203,40 +207,24 @@ public class DocumentViewController {
             }
             
             Document document = docOpt.get();
+            if (document.getFilePath() == null) {
+                return ResponseEntity.notFound().build();
+            }
             Path filePath = Paths.get(document.getFilePath());
             
-            if (!Files.exists(filePath)) {
+            if (!Files.isRegularFile(filePath)) {
                 return ResponseEntity.notFound().build();
             }
             
-            byte[] fileContent = Files.readAllBytes(filePath);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
             String filename = getProperFilename(document);
-            headers.add("Content-Disposition", "attachment; filename=\"" + filename + "\"");
-            
-            return ResponseEntity.ok().headers(headers).body(fileContent);
+            return streamFile(document, filePath, MediaType.APPLICATION_OCTET_STREAM,
+                    "attachment; filename=\"" + filename + "\"");
         } catch (Exception e) {
+            logger.error("Error downloading document {}: {}", documentId, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     
-    private String calculateFileHash(byte[] fileContent) {
-        try {
-            java.security.MessageDigest md = java.security.MessageDigest.getInstance("SHA-256");
-            byte[] hashBytes = md.digest(fileContent);
-            StringBuilder sb = new StringBuilder();
-            for (byte b : hashBytes) {
-                sb.append(String.format("%02x", b));
-            }
-            return sb.toString();
-        } catch (Exception e) {
-            logger.error("Error calculating file hash", e);
-            return null;
-        }
-    }
-    
     private String detectContentTypeFromFilename(String filename) {
         if (filename == null) return null;
         
@@ -3,14 +3,16 @@ package com.groupe.gestin_inscription.controller;
 import com.groupe.gestin_inscription.services.serviceImpl.ExportServiceImpl;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -19,60 +21,76 @@ import java.time.format.DateTimeFormatter;
 @Tag(name = "Export", description = "Endpoints for data export")
 public class ExportController {
 
+    private static final Logger logger = LoggerFactory.getLogger(ExportController.class);
+
     @Autowired
     private ExportServiceImpl exportService;
 
     @Operation(summary = "Export applications to Excel")
     @GetMapping("/excel")
     @PreAuthorize("hasRole('SUPER_ADMIN') or hasRole('AGENT')")
-    public ResponseEntity<ByteArrayResource> exportToExcel(
+    public void exportToExcel(
             @RequestParam(required = false) String dateFrom,
             @RequestParam(required = false) String dateTo,
-            @RequestParam(required = false) String[] statuses) {
-        
+            @RequestParam(required = false) String[] statuses,
+            HttpServletResponse response) throws IOException {
+
+        ExportServiceImpl.ExportCriteria criteria;
+        try {
+            criteria = exportService.parseCriteria(dateFrom, dateTo, statuses);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+
+        prepareAttachment(response, "xlsx", MediaType.APPLICATION_OCTET_STREAM_VALUE);
         try {
-            byte[] excelData = exportService.exportToExcel(dateFrom, dateTo, statuses);
-            ByteArrayResource resource = new ByteArrayResource(excelData);
-            
-            String filename = "candidatures_" + 
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm")) + 
-                ".xlsx";
-            
-            return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .contentLength(excelData.length)
-                .body(resource);
-                
+            exportService.exportToExcel(criteria, response.getOutputStream());
         } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+            handleStreamingError(response, e);
         }
     }
 
     @Operation(summary = "Export applications to CSV")
     @GetMapping("/csv")
     @PreAuthorize("hasRole('SUPER_ADMIN') or hasRole('AGENT')")
-    public ResponseEntity<ByteArrayResource> exportToCsv(
+    public void exportToCsv(
             @RequestParam(required = false) String dateFrom,
             @RequestParam(required = false) String dateTo,
-            @RequestParam(required = false) String[] statuses) {
-        
+            @RequestParam(required = false) String[] statuses,
+            HttpServletResponse response) throws IOException {
+
+        ExportServiceImpl.ExportCriteria criteria;
         try {
-            byte[] csvData = exportService.exportToCsv(dateFrom, dateTo, statuses);
-            ByteArrayResource resource = new ByteArrayResource(csvData);
-            
-            String filename = "candidatures_" + 
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm")) + 
-                ".csv";
-            
-            return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .contentLength(csvData.length)
-                .body(resource);
-                
+            criteria = exportService.parseCriteria(dateFrom, dateTo, statuses);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+
+        prepareAttachment(response, "csv", "text/csv; charset=UTF-8");
+        try {
+            exportService.exportToCsv(criteria, response.getOutputStream());
         } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+            handleStreamingError(response, e);
+        }
+    }
+
+    private void prepareAttachment(HttpServletResponse response, String extension, String contentType) {
+        String filename = "candidatures_" +
+            LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm")) +
+            "." + extension;
+
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename);
+    }
+
+    // Une fois les premiers octets envoyés, le statut HTTP ne peut plus être modifié
+    private void handleStreamingError(HttpServletResponse response, Exception e) throws IOException {
+        logger.error("Export interrompu", e);
+        if (!response.isCommitted()) {
+            response.reset();
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
         }
     }
-}
\ No newline at end of file
+}
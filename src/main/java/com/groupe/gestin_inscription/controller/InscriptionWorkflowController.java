@@ -3,6 +3,7 @@ package com.groupe.gestin_inscription.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.groupe.gestin_inscription.dto.request.ApplicationSubmissionRequestDTO;
 import com.groupe.gestin_inscription.dto.response.ApplicationStatusResponseDto;
+import com.groupe.gestin_inscription.events.ApplicationStatusChangedEvent;
 import com.groupe.gestin_inscription.model.Application;
 import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
 import com.groupe.gestin_inscription.model.User;
@@ -11,6 +12,7 @@ import com.groupe.gestin_inscription.repository.UserRepository;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -35,6 +37,9 @@ public class InscriptionWorkflowController {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Étape 1-5: Soumission complète du formulaire d'inscription
      * Processus en 5 étapes selon le cahier des charges
@@ -79,6 +84,7 @@ public class InscriptionWorkflowController {
             
             // Étape 5: Sauvegarde et réponse
             Application savedApplication = applicationRepository.save(application);
+            eventPublisher.publishEvent(ApplicationStatusChangedEvent.created(savedApplication.getId(), savedApplication.getStatus()));
             
             // Création de la réponse selon le format attendu
             ApplicationStatusResponseDto response = createSuccessResponse(savedApplication, user);
@@ -211,6 +217,8 @@ public class InscriptionWorkflowController {
         if (!existingApps.isEmpty()) {
             System.out.println("Suppression de " + existingApps.size() + " applications existantes");
             applicationRepository.deleteAll(existingApps);
+            existingApps.forEach(app -> eventPublisher.publishEvent(
+                    ApplicationStatusChangedEvent.deleted(app.getId(), app.getStatus())));
         }
         
         // Création nouvelle application
@@ -0,0 +1,56 @@
+package com.groupe.gestin_inscription.controller;
+
+import com.groupe.gestin_inscription.dto.response.LoginAuditPageDto;
+import com.groupe.gestin_inscription.services.LoginAuditService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/login-audit")
+@Tag(name = "Login Audit", description = "Login history for administrators")
+@PreAuthorize("hasRole('SUPER_ADMIN')")
+public class LoginAuditController {
+
+    @Autowired
+    private LoginAuditService loginAuditService;
+
+    @GetMapping
+    @Operation(summary = "Login attempts in a period (default: last 30 days), most recent first, paginated by cursor (pass back nextCursor)")
+    public ResponseEntity<?> getLoginHistory(@RequestParam(required = false) String username,
+                                             @RequestParam(defaultValue = "false") boolean failedOnly,
+                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(defaultValue = "50") int size) {
+        try {
+            LoginAuditPageDto page = loginAuditService.getHistory(username, failedOnly, from, to, cursor, size);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("logins", page.getItems());
+            response.put("count", page.getSize());
+            response.put("nextCursor", page.getNextCursor());
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Erreur lors de la récupération de l'historique des connexions");
+            return ResponseEntity.status(500).body(error);
+        }
+    }
+}
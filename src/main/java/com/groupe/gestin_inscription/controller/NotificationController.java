@@ -1,7 +1,7 @@
 package com.groupe.gestin_inscription.controller;
 
-import com.groupe.gestin_inscription.model.Notification;
-import com.groupe.gestin_inscription.model.Enums.NotificationType;
+import com.groupe.gestin_inscription.dto.response.NotificationPageDto;
+import com.groupe.gestin_inscription.repository.UserRepository;
 import com.groupe.gestin_inscription.services.serviceImpl.NotificationServiceImpl;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -24,22 +25,35 @@ public class NotificationController {
     @Autowired
     private NotificationServiceImpl notificationService;
 
+    @Autowired
+    private UserRepository userRepository;
+
     @GetMapping("/my")
     @PreAuthorize("hasAnyAuthority('ROLE_CANDIDATE', 'ROLE_AGENT', 'ROLE_SUPER_ADMIN')")
-    public ResponseEntity<?> getMyNotifications() {
+    @Operation(summary = "Current user's inbox, most recent first, paginated by cursor (pass back nextCursor)")
+    public ResponseEntity<?> getMyNotifications(@RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "20") int size) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String currentUsername = authentication.getName();
-            
-            // Pour l'instant, retourner des notifications de test
+            Optional<Long> userId = currentUserId();
+            NotificationPageDto page = userId.isPresent()
+                    ? notificationService.getInbox(userId.get(), cursor, size)
+                    : new NotificationPageDto(List.of(), 0, null, 0);
+
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("notifications", List.of());
-            response.put("count", 0);
-            response.put("message", "Aucune notification");
+            response.put("notifications", page.getItems());
+            response.put("count", page.getSize());
+            response.put("unreadCount", page.getUnreadCount());
+            response.put("nextCursor", page.getNextCursor());
+            response.put("message", page.getItems().isEmpty() ? "Aucune notification" : "Notifications récupérées");
             
             return ResponseEntity.ok(response);
             
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
         } catch (Exception e) {
             Map<String, Object> error = new HashMap<>();
             error.put("success", false);
@@ -48,13 +62,26 @@ public class NotificationController {
         }
     }
 
+    @GetMapping("/my/unread-count")
+    @PreAuthorize("hasAnyAuthority('ROLE_CANDIDATE', 'ROLE_AGENT', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Number of unread notifications of the current user")
+    public ResponseEntity<?> getMyUnreadCount() {
+        long unreadCount = currentUserId().map(notificationService::countUnread).orElse(0L);
+        return ResponseEntity.ok(Map.of("success", true, "unreadCount", unreadCount));
+    }
+
     @PostMapping("/{id}/read")
     @PreAuthorize("hasAnyAuthority('ROLE_CANDIDATE', 'ROLE_AGENT', 'ROLE_SUPER_ADMIN')")
     public ResponseEntity<?> markAsRead(@PathVariable Long id) {
         try {
+            Optional<Long> userId = currentUserId();
+            // Seules les notifications de l'utilisateur connecté peuvent être marquées
+            boolean updated = userId.isPresent() && notificationService.markAsRead(userId.get(), id);
+
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("message", "Notification marquée comme lue");
+            response.put("updated", updated);
+            response.put("message", updated ? "Notification marquée comme lue" : "Notification déjà lue ou introuvable");
             
             return ResponseEntity.ok(response);
             
@@ -65,4 +92,18 @@ public class NotificationController {
             return ResponseEntity.status(500).body(error);
         }
     }
-}
\ No newline at end of file
+
+    @PostMapping("/my/read-all")
+    @PreAuthorize("hasAnyAuthority('ROLE_CANDIDATE', 'ROLE_AGENT', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Mark all notifications of the current user as read")
+    public ResponseEntity<?> markAllAsRead() {
+        currentUserId().ifPresent(notificationService::markAllAsRead);
+        return ResponseEntity.ok(Map.of("success", true, "message", "Notifications marquées comme lues"));
+    }
+
+    // Identifiant du compte candidat connecté ; vide pour les comptes administrateurs
+    private Optional<Long> currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return userRepository.findIdByLogin(authentication.getName());
+    }
+}
@@ -1,10 +1,12 @@
 package com.groupe.gestin_inscription.controller;
 
+import com.groupe.gestin_inscription.events.ApplicationStatusChangedEvent;
 import com.groupe.gestin_inscription.model.Application;
 import com.groupe.gestin_inscription.model.User;
 import com.groupe.gestin_inscription.repository.ApplicationRepository;
 import com.groupe.gestin_inscription.repository.DocumentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -29,6 +31,9 @@ public class RegistrationFormController {
 
     @Autowired
     private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
     @Autowired
     private DocumentRepository documentRepository;
@@ -51,9 +56,11 @@ public class RegistrationFormController {
             com.groupe.gestin_inscription.model.Enums.ApplicationStatus newStatus = 
                 com.groupe.gestin_inscription.model.Enums.ApplicationStatus.valueOf(status.toUpperCase());
             
+            com.groupe.gestin_inscription.model.Enums.ApplicationStatus previousStatus = application.getStatus();
             application.setStatus(newStatus);
             application.setLastUpdated(java.time.LocalDateTime.now());
             applicationRepository.save(application);
+            eventPublisher.publishEvent(new ApplicationStatusChangedEvent(applicationId, previousStatus, newStatus));
             
             java.util.Map<String, Object> response = new java.util.HashMap<>();
             response.put("success", true);
@@ -0,0 +1,29 @@
+package com.groupe.gestin_inscription.dto.request;
+
+import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Filtres de la liste des candidatures ; un champ null n'est pas filtré.
+ * Les dates de soumission sont inclusives.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApplicationSearchCriteria {
+    private List<ApplicationStatus> status;
+    private Long assignedAgentId;
+    private String institution;
+    private String specialization;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate submittedFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate submittedTo;
+    private Long applicantId;
+}
@@ -0,0 +1,20 @@
+package com.groupe.gestin_inscription.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page d'une liste parcourue par curseur : nextCursor est à renvoyer tel quel pour la page suivante
+ * (null sur la dernière page).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApplicationKeysetPageDto {
+    private List<ApplicationSummaryDto> items;
+    private int size;
+    private String nextCursor;
+}
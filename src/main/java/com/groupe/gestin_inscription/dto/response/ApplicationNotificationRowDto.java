@@ -0,0 +1,20 @@
+package com.groupe.gestin_inscription.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ligne minimale lue par les traitements planifiés pour notifier un candidat ou son agent.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApplicationNotificationRowDto {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private Double completionRate;
+    private String agentEmail;
+}
@@ -0,0 +1,27 @@
+package com.groupe.gestin_inscription.dto.response;
+
+import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApplicationSummaryDto {
+    private Long id;
+    private ApplicationStatus status;
+    private Double completionRate;
+    private LocalDateTime submissionDate;
+    private LocalDateTime lastUpdated;
+    private String targetInstitution;
+    private String specialization;
+    private Long applicantId;
+    private String applicantFirstName;
+    private String applicantLastName;
+    private String applicantEmail;
+    private Long assignedAgentId;
+    private String assignedAgentUserName;
+}
@@ -0,0 +1,17 @@
+package com.groupe.gestin_inscription.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompletionRateSummaryDto {
+    private Double average;
+    private Long below25;
+    private Long below50;
+    private Long below75;
+    private Long below100;
+    private Long complete;
+}
@@ -0,0 +1,23 @@
+package com.groupe.gestin_inscription.dto.response;
+
+import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportRowDto {
+    private Long id;
+    private String lastName;
+    private String firstName;
+    private String email;
+    private String phoneNumber;
+    private String nationality;
+    private ApplicationStatus status;
+    private LocalDateTime submissionDate;
+    private LocalDateTime lastUpdated;
+}
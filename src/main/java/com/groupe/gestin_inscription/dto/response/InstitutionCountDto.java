@@ -0,0 +1,13 @@
+package com.groupe.gestin_inscription.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InstitutionCountDto {
+    private String institution;
+    private Long count;
+}
@@ -0,0 +1,21 @@
+package com.groupe.gestin_inscription.dto.response;
+
+import com.groupe.gestin_inscription.model.LoginAudit;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page de l'historique des connexions, la plus récente d'abord : nextCursor est à renvoyer tel quel
+ * pour la page suivante (null sur la dernière page).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginAuditPageDto {
+    private List<LoginAudit> items;
+    private int size;
+    private String nextCursor;
+}
@@ -0,0 +1,21 @@
+package com.groupe.gestin_inscription.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyCountDto {
+    private Integer year;
+    private Integer month;
+    private Long count;
+
+    /**
+     * Clé de mois au format yyyy-MM utilisée par les graphiques du tableau de bord.
+     */
+    public String getMonthKey() {
+        return year + "-" + String.format("%02d", month);
+    }
+}
@@ -0,0 +1,20 @@
+package com.groupe.gestin_inscription.dto.response;
+
+import com.groupe.gestin_inscription.model.Enums.NotificationType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationItemDto {
+    private Long id;
+    private NotificationType type;
+    private String title;
+    private String message;
+    private boolean read;
+    private LocalDateTime createdAt;
+}
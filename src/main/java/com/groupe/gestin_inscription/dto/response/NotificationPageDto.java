@@ -0,0 +1,21 @@
+package com.groupe.gestin_inscription.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page de la boîte de réception, la plus récente d'abord : nextCursor est à renvoyer tel quel
+ * pour la page suivante (null sur la dernière page).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationPageDto {
+    private List<NotificationItemDto> items;
+    private int size;
+    private String nextCursor;
+    private long unreadCount;
+}
@@ -0,0 +1,22 @@
+package com.groupe.gestin_inscription.dto.response;
+
+import com.groupe.gestin_inscription.model.Enums.NotificationType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Notification poussée en temps réel sur /user/queue/notifications.
+ * sentAt (epoch ms) sert à mesurer la latence de livraison entre nœuds.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RealtimeNotificationDto {
+    private Long id;
+    private Long userId;
+    private NotificationType type;
+    private String title;
+    private String message;
+    private long sentAt;
+}
@@ -0,0 +1,20 @@
+package com.groupe.gestin_inscription.dto.response;
+
+import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecentApplicationDto {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private ApplicationStatus status;
+    private LocalDateTime submissionDate;
+}
@@ -0,0 +1,38 @@
+package com.groupe.gestin_inscription.dto.response;
+
+import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ligne de la file de revue des agents : candidature, candidat, agent assigné
+ * et décompte des documents par statut, lus en une seule requête.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewQueueItemDto {
+    private Long id;
+    private ApplicationStatus status;
+    private LocalDateTime submissionDate;
+    private LocalDateTime lastUpdated;
+    private Double completionRate;
+    private String targetInstitution;
+    private String specialization;
+    private Long applicantId;
+    private String applicantFirstName;
+    private String applicantLastName;
+    private String applicantEmail;
+    private String applicantPhone;
+    private String applicantNationality;
+    private String applicantAddress;
+    private Long assignedAgentId;
+    private String assignedAgentUserName;
+    private Long documentsTotal;
+    private Long documentsValidated;
+    private Long documentsRejected;
+    private Long documentsPending;
+}
@@ -0,0 +1,31 @@
+package com.groupe.gestin_inscription.events;
+
+import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Publié à chaque transition de statut d'une candidature.
+ * Un statut précédent null signale une création, un nouveau statut null une suppression.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ApplicationStatusChangedEvent {
+
+    private final Long applicationId;
+    private final ApplicationStatus previousStatus;
+    private final ApplicationStatus newStatus;
+    private final LocalDateTime occurredAt = LocalDateTime.now();
+
+    public static ApplicationStatusChangedEvent created(Long applicationId, ApplicationStatus status) {
+        return new ApplicationStatusChangedEvent(applicationId, null, status);
+    }
+
+    public static ApplicationStatusChangedEvent deleted(Long applicationId, ApplicationStatus status) {
+        return new ApplicationStatusChangedEvent(applicationId, status, null);
+    }
+}
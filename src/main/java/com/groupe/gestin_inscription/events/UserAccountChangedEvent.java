@@ -0,0 +1,34 @@
+package com.groupe.gestin_inscription.events;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Publié quand un compte (candidat ou administrateur) est modifié ou supprimé.
+ * Porte tous les identifiants de connexion concernés, anciens et nouveaux (email, nom d'utilisateur).
+ * {@code revokeTokens} indique que les JWT déjà émis doivent être invalidés
+ * (identifiant, mot de passe ou rôle modifié, compte supprimé, déconnexion).
+ */
+@Getter
+@ToString
+public class UserAccountChangedEvent {
+
+    private final Set<String> subjects;
+    private final boolean revokeTokens;
+
+    public UserAccountChangedEvent(String... subjects) {
+        this(false, subjects);
+    }
+
+    public UserAccountChangedEvent(boolean revokeTokens, String... subjects) {
+        this.revokeTokens = revokeTokens;
+        this.subjects = Arrays.stream(subjects)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
@@ -0,0 +1,11 @@
+package com.groupe.gestin_inscription.exceptions;
+
+/**
+ * L'OCR n'a pas pu s'exécuter (aucune instance disponible, Tesseract mal configuré, rendu PDF en échec) :
+ * le document n'a pas été lu, ce n'est pas un document illisible.
+ */
+public class OcrUnavailableException extends RuntimeException {
+    public OcrUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -26,5 +26,11 @@ public class Administrator {
     @Enumerated(EnumType.STRING)
     private AdministratorRole role;
 
+    // Spécialités traitées en priorité par l'agent, séparées par des virgules (vide = généraliste)
+    private String specializations;
+
+    // Poids de l'agent dans la répartition des dossiers (null = 1)
+    private Integer reviewWeight;
+
     // Getters and Setters
 }
\ No newline at end of file
@@ -14,7 +14,11 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 @Entity
-@Table(name = "application")
+@Table(name = "application", indexes = {
+        @Index(name = "idx_application_status_last_updated", columnList = "status, last_updated"),
+        @Index(name = "idx_application_user", columnList = "user_id"),
+        @Index(name = "idx_application_assigned_admin", columnList = "assigned_admin_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,53 @@
+package com.groupe.gestin_inscription.model;
+
+import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Journal des transitions de statut des candidatures, en ajout seul.
+ * Pas de clé étrangère vers application : l'historique survit à la suppression du dossier.
+ */
+@Entity
+@Immutable
+@Table(name = "application_status_event", indexes = {
+        @Index(name = "idx_status_event_application_time", columnList = "application_id, occurred_at"),
+        @Index(name = "idx_status_event_to_status_time", columnList = "to_status, occurred_at"),
+        @Index(name = "idx_status_event_actor_time", columnList = "actor, occurred_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApplicationStatusEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "application_id", nullable = false)
+    private Long applicationId;
+
+    // Null pour une création
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", length = 32)
+    private ApplicationStatus fromStatus;
+
+    // Null pour une suppression
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", length = 32)
+    private ApplicationStatus toStatus;
+
+    // Identifiant de l'utilisateur connecté, ou "system" pour les traitements automatiques
+    @Column(nullable = false)
+    private String actor;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,51 @@
+package com.groupe.gestin_inscription.model;
+
+import com.groupe.gestin_inscription.model.Enums.BatchJobStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Point de reprise d'un traitement planifié par lots : une exécution interrompue
+ * (redémarrage, crash du pod) reprend après le dernier identifiant validé
+ * au lieu de retraiter, ou de renotifier, tout depuis le début.
+ */
+@Entity
+@Table(name = "batch_job_checkpoint")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchJobCheckpoint {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private BatchJobStatus status;
+
+    // Référence temporelle des critères de l'exécution, conservée lors d'une reprise
+    @Column(name = "run_started_at", nullable = false)
+    private LocalDateTime runStartedAt;
+
+    @Column(name = "last_id", nullable = false)
+    private long lastId;
+
+    @Column(nullable = false)
+    private long processed;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
@@ -10,7 +10,10 @@ import lombok.NoArgsConstructor;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-
+@Table(indexes = {
+        @Index(name = "idx_document_application", columnList = "application_id"),
+        @Index(name = "idx_document_hash", columnList = "hash")
+})
 public class Document {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -19,12 +22,17 @@ public class Document {
     private String name;
     private String fileType;
     private double fileSizeMB;
+    @Column(columnDefinition = "TEXT")
     private String ocrNotes;
     private String filePath;
 
-    @Column(unique = true)
+    // Plusieurs dossiers peuvent contenir le même fichier : la détection de copie se fait à la lecture
     private String hash;
 
+    // dHash 64 bits (première page pour les PDF), comparé par distance de Hamming
+    @Column(name = "perceptual_hash")
+    private Long perceptualHash;
+
     @Enumerated(EnumType.STRING)
     private ValidationStatus validationStatus;
 
@@ -0,0 +1,7 @@
+package com.groupe.gestin_inscription.model.Enums;
+
+public enum BatchJobStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
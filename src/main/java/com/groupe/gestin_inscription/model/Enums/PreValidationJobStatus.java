@@ -0,0 +1,8 @@
+package com.groupe.gestin_inscription.model.Enums;
+
+public enum PreValidationJobStatus {
+    PENDING,
+    RUNNING,
+    DONE,
+    FAILED
+}
@@ -9,7 +9,11 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "login_audit")
+@Table(name = "login_audit", indexes = {
+        @Index(name = "idx_login_audit_username_time", columnList = "username, login_time"),
+        @Index(name = "idx_login_audit_ip_time", columnList = "ip_address, login_time"),
+        @Index(name = "idx_login_audit_time", columnList = "login_time")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -10,6 +10,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(name = "notification", indexes = {
+        @Index(name = "idx_notification_user_date", columnList = "user_id, date_creation"),
+        @Index(name = "idx_notification_user_unread", columnList = "user_id, is_read")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,48 @@
+package com.groupe.gestin_inscription.model;
+
+import com.groupe.gestin_inscription.model.Enums.NotificationStatus;
+import com.groupe.gestin_inscription.model.Enums.NotificationType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notification sortie de la boîte de réception par la rétention (voir NotificationServiceImpl.archiveOldNotifications).
+ * Mêmes colonnes que notification, sans clé étrangère : l'archive survit à la suppression du compte.
+ */
+@Entity
+@Table(name = "notification_archive", indexes = {
+        @Index(name = "idx_notification_archive_user", columnList = "user_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationArchive {
+
+    @Id
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private NotificationType type;
+
+    private String titre;
+    private String message;
+
+    @Column(name = "is_read")
+    private boolean read;
+
+    @Enumerated(EnumType.STRING)
+    private NotificationStatus status;
+
+    @Column(name = "date_creation")
+    private LocalDateTime dateCreation;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,28 @@
+package com.groupe.gestin_inscription.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Nombre de notifications non lues d'un utilisateur, tenu à jour à chaque création ou lecture
+ * dans la même transaction : partagé par toutes les réplicas, lu par clé primaire.
+ */
+@Entity
+@Table(name = "notification_unread_counter")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationUnreadCounter {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "unread_count", nullable = false)
+    private long unreadCount;
+}
@@ -0,0 +1,66 @@
+package com.groupe.gestin_inscription.model;
+
+import com.groupe.gestin_inscription.model.Enums.PreValidationJobStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tâche de pré-validation persistée : une candidature soumise n'est jamais perdue
+ * si l'application redémarre avant que ses documents aient été contrôlés.
+ */
+@Entity
+@Table(name = "pre_validation_job", indexes = {
+        @Index(name = "idx_pre_validation_job_status_created", columnList = "status, created_at"),
+        @Index(name = "idx_pre_validation_job_application", columnList = "application_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PreValidationJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "application_id", nullable = false)
+    private Long applicationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PreValidationJobStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    // Prolongé tant que la réplique qui traite la tâche est vivante ; expiré, la tâche est remise en file
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (status == null) {
+            status = PreValidationJobStatus.PENDING;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.groupe.gestin_inscription.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Seau de jetons partagé entre réplicas (app.rate-limit.store=postgres), une ligne par politique et IP.
+ * Les jetons sont recalculés à chaque requête à partir du temps écoulé depuis refilled_at.
+ */
+@Entity
+@Table(name = "rate_limit_bucket", indexes = {
+        @Index(name = "idx_rate_limit_bucket_refilled", columnList = "refilled_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitBucket {
+
+    @Id
+    @Column(name = "bucket_key", length = 128)
+    private String bucketKey;
+
+    @Column(nullable = false)
+    private double tokens;
+
+    @Column(name = "refilled_at", nullable = false)
+    private LocalDateTime refilledAt;
+
+    /** Résultat de la dernière consommation, renvoyé par l'upsert. */
+    @Column(nullable = false)
+    private boolean allowed;
+}
@@ -0,0 +1,30 @@
+package com.groupe.gestin_inscription.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version courante des jetons d'un compte, indexée par le sujet JWT (email ou nom d'utilisateur).
+ * Un jeton portant une version inférieure est considéré comme révoqué (déconnexion, changement de rôle...).
+ */
+@Entity
+@Table(name = "token_version", indexes = @Index(name = "idx_token_version_updated_at", columnList = "updated_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenVersion {
+
+    @Id
+    @Column(length = 255)
+    private String subject;
+
+    @Column(nullable = false)
+    private int version;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
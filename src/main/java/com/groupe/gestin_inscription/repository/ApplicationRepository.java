@@ -1,17 +1,36 @@
 package com.groupe.gestin_inscription.repository;
 
+import com.groupe.gestin_inscription.dto.response.ApplicationNotificationRowDto;
+import com.groupe.gestin_inscription.dto.response.CompletionRateSummaryDto;
+import com.groupe.gestin_inscription.dto.response.ExportRowDto;
+import com.groupe.gestin_inscription.dto.response.InstitutionCountDto;
+import com.groupe.gestin_inscription.dto.response.MonthlyCountDto;
+import com.groupe.gestin_inscription.dto.response.RecentApplicationDto;
+import com.groupe.gestin_inscription.dto.response.ReviewQueueItemDto;
+import com.groupe.gestin_inscription.dto.response.StatusCountDto;
+import com.groupe.gestin_inscription.model.Administrator;
 import com.groupe.gestin_inscription.model.Application;
 import com.groupe.gestin_inscription.model.User;
 import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import com.groupe.gestin_inscription.model.Enums.ValidationStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ApplicationRepository extends JpaRepository<Application, Long> {
@@ -57,6 +76,29 @@ public interface ApplicationRepository extends JpaRepository<Application, Long>
      */
     boolean existsByApplicantName(User applicant);
     
+    /**
+     * Finds the applications of the applicant whose username or email matches the given login.
+     * @param login The username or email of the applicant.
+     * @return The applicant's applications.
+     */
+    @Query("SELECT a FROM Application a JOIN a.applicantName u WHERE u.username = :login OR u.email = :login")
+    List<Application> findByApplicantLogin(@Param("login") String login);
+
+    /**
+     * Finds the applications of one applicant having a specific status.
+     * @param status The status of the applications to find.
+     * @param username The applicant's username.
+     * @return The matching applications.
+     */
+    List<Application> findByStatusAndApplicantName_Username(ApplicationStatus status, String username);
+
+    /**
+     * Checks if an application exists for the applicant with the given username.
+     * @param username The applicant's username.
+     * @return true if application exists, false otherwise.
+     */
+    boolean existsByApplicantName_Username(String username);
+
     /**
      * Checks if an application exists for the given applicant, target institution and specialization.
      * @param applicant The User to check.
@@ -82,6 +124,259 @@ public interface ApplicationRepository extends JpaRepository<Application, Long>
     @Query("SELECT a.id, a.status, a.submissionDate, a.completionRate, u.firstName, u.lastName, u.email " +
            "FROM Application a LEFT JOIN a.applicantName u")
     List<Object[]> findApplicationsWithUserInfo();
-    
 
+    /**
+     * Counts applications per status in a single GROUP BY query.
+     * @return One row per status present in the table.
+     */
+    @Query("SELECT new com.groupe.gestin_inscription.dto.response.StatusCountDto(a.status, COUNT(a)) " +
+           "FROM Application a GROUP BY a.status")
+    List<StatusCountDto> countGroupedByStatus();
+
+    /**
+     * Counts the applications of one applicant per status.
+     * @param userId The applicant's user ID.
+     * @return One row per status present for this applicant.
+     */
+    @Query("SELECT new com.groupe.gestin_inscription.dto.response.StatusCountDto(a.status, COUNT(a)) " +
+           "FROM Application a WHERE a.applicantName.id = :userId GROUP BY a.status")
+    List<StatusCountDto> countGroupedByStatusForApplicant(@Param("userId") Long userId);
+
+    /**
+     * Counts submitted applications per calendar month, oldest month first.
+     * @return One row per (year, month) having at least one submission.
+     */
+    @Query("SELECT new com.groupe.gestin_inscription.dto.response.MonthlyCountDto(" +
+           "YEAR(a.submissionDate), MONTH(a.submissionDate), COUNT(a)) " +
+           "FROM Application a WHERE a.submissionDate IS NOT NULL " +
+           "GROUP BY YEAR(a.submissionDate), MONTH(a.submissionDate) " +
+           "ORDER BY YEAR(a.submissionDate), MONTH(a.submissionDate)")
+    List<MonthlyCountDto> countGroupedBySubmissionMonth();
+
+    /**
+     * Counts applications per target institution, most requested first.
+     * @param pageable Page holding the number of institutions to return.
+     * @return One row per institution.
+     */
+    @Query("SELECT new com.groupe.gestin_inscription.dto.response.InstitutionCountDto(a.targetInstitution, COUNT(a)) " +
+           "FROM Application a GROUP BY a.targetInstitution ORDER BY COUNT(a) DESC")
+    List<InstitutionCountDto> countGroupedByInstitution(Pageable pageable);
+
+    /**
+     * Most recently submitted applications, limited by the given page.
+     * @param pageable Page holding the number of rows to return.
+     * @return Lightweight rows joined with the applicant's identity.
+     */
+    @Query("SELECT new com.groupe.gestin_inscription.dto.response.RecentApplicationDto(" +
+           "a.id, u.firstName, u.lastName, u.email, a.status, a.submissionDate) " +
+           "FROM Application a LEFT JOIN a.applicantName u " +
+           "ORDER BY a.submissionDate DESC NULLS LAST, a.id DESC")
+    List<RecentApplicationDto> findRecentApplications(Pageable pageable);
+
+    /**
+     * Most recently submitted applications of one applicant, limited by the given page.
+     * @param userId The applicant's user ID.
+     * @param pageable Page holding the number of rows to return.
+     * @return Lightweight rows joined with the applicant's identity.
+     */
+    @Query("SELECT new com.groupe.gestin_inscription.dto.response.RecentApplicationDto(" +
+           "a.id, u.firstName, u.lastName, u.email, a.status, a.submissionDate) " +
+           "FROM Application a JOIN a.applicantName u WHERE u.id = :userId " +
+           "ORDER BY a.submissionDate DESC NULLS LAST, a.id DESC")
+    List<RecentApplicationDto> findRecentApplicationsForApplicant(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Average completion rate and distribution by range, computed in one pass.
+     * @return A single summary row (sums are null when the table is empty).
+     */
+    @Query("SELECT new com.groupe.gestin_inscription.dto.response.CompletionRateSummaryDto(" +
+           "AVG(COALESCE(a.completionRate, 0)), " +
+           "SUM(CASE WHEN COALESCE(a.completionRate, 0) < 25 THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN COALESCE(a.completionRate, 0) >= 25 AND COALESCE(a.completionRate, 0) < 50 THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN COALESCE(a.completionRate, 0) >= 50 AND COALESCE(a.completionRate, 0) < 75 THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN COALESCE(a.completionRate, 0) >= 75 AND COALESCE(a.completionRate, 0) < 100 THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN COALESCE(a.completionRate, 0) >= 100 THEN 1 ELSE 0 END)) " +
+           "FROM Application a")
+    CompletionRateSummaryDto summarizeCompletionRates();
+
+    /**
+     * Counts applications stuck in a status since before the given date.
+     */
+    long countByStatusAndLastUpdatedBefore(ApplicationStatus status, LocalDateTime lastUpdated);
+
+    /**
+     * Counts applications submitted after the given date.
+     */
+    long countBySubmissionDateAfter(LocalDateTime submissionDate);
+
+    /**
+     * Counts applications in one of the given statuses updated after the given date.
+     */
+    long countByStatusInAndLastUpdatedAfter(Collection<ApplicationStatus> statuses, LocalDateTime lastUpdated);
+
+    /**
+     * Next chunk of applications stuck in a status since before the given date, in ID order (keyset pagination).
+     * @param status The status to inspect.
+     * @param lastUpdated The cut-off date.
+     * @param afterId Last ID of the previous chunk (0 for the first one).
+     * @param pageable Page holding the chunk size; its offset must stay 0.
+     * @return Notification rows with the assigned agent's e-mail, if any.
+     */
+    @Query("SELECT new com.groupe.gestin_inscription.dto.response.ApplicationNotificationRowDto(" +
+           "a.id, u.firstName, u.lastName, u.email, a.completionRate, ad.email) " +
+           "FROM Application a LEFT JOIN a.applicantName u LEFT JOIN a.assignedAdmin ad " +
+           "WHERE a.status = :status AND a.lastUpdated < :lastUpdated AND a.id > :afterId ORDER BY a.id")
+    List<ApplicationNotificationRowDto> findStaleChunk(@Param("status") ApplicationStatus status,
+                                                       @Param("lastUpdated") LocalDateTime lastUpdated,
+                                                       @Param("afterId") long afterId,
+                                                       Pageable pageable);
+
+    /**
+     * Next chunk of applications in a status whose completion rate is below the given rate, in ID order.
+     * @param status The status to inspect.
+     * @param completionRate Exclusive upper bound of the completion rate (a missing rate counts as 0).
+     * @param afterId Last ID of the previous chunk (0 for the first one).
+     * @param pageable Page holding the chunk size; its offset must stay 0.
+     * @return Notification rows of the applicants.
+     */
+    @Query("SELECT new com.groupe.gestin_inscription.dto.response.ApplicationNotificationRowDto(" +
+           "a.id, u.firstName, u.lastName, u.email, a.completionRate, ad.email) " +
+           "FROM Application a LEFT JOIN a.applicantName u LEFT JOIN a.assignedAdmin ad " +
+           "WHERE a.status = :status AND COALESCE(a.completionRate, 0) < :completionRate AND a.id > :afterId " +
+           "ORDER BY a.id")
+    List<ApplicationNotificationRowDto> findIncompleteChunk(@Param("status") ApplicationStatus status,
+                                                            @Param("completionRate") double completionRate,
+                                                            @Param("afterId") long afterId,
+                                                            Pageable pageable);
+
+    /**
+     * Oldest applications stuck in a status since before the given date.
+     * @param status The status to inspect.
+     * @param lastUpdated The cut-off date.
+     * @param pageable Page holding the number of rows to return.
+     * @return Lightweight rows, oldest update first.
+     */
+    @Query("SELECT new com.groupe.gestin_inscription.dto.response.RecentApplicationDto(" +
+           "a.id, u.firstName, u.lastName, u.email, a.status, a.submissionDate) " +
+           "FROM Application a LEFT JOIN a.applicantName u " +
+           "WHERE a.status = :status AND a.lastUpdated < :lastUpdated ORDER BY a.lastUpdated")
+    List<RecentApplicationDto> findStaleApplications(@Param("status") ApplicationStatus status,
+                                                     @Param("lastUpdated") LocalDateTime lastUpdated,
+                                                     Pageable pageable);
+
+    /**
+     * Counts applications per applicant nationality, most frequent first.
+     * @param pageable Page holding the number of countries to return.
+     * @return Rows of [nationality, count].
+     */
+    @Query("SELECT u.nationality, COUNT(a) FROM Application a JOIN a.applicantName u " +
+           "WHERE u.nationality IS NOT NULL GROUP BY u.nationality ORDER BY COUNT(a) DESC")
+    List<Object[]> countGroupedByNationality(Pageable pageable);
+
+    /**
+     * Streams flat export rows through a server-side cursor; must be consumed inside a transaction.
+     * @param allStatuses true to ignore the status filter.
+     * @param statuses Statuses to keep (never empty).
+     * @param dateFrom Inclusive lower bound of the submission date.
+     * @param dateTo Exclusive upper bound of the submission date.
+     * @param dateFiltered false to also keep applications without a submission date.
+     * @return A stream of rows ordered by application ID; close it after use.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.groupe.gestin_inscription.dto.response.ExportRowDto(" +
+           "a.id, u.lastName, u.firstName, u.email, u.phoneNumber, u.nationality, a.status, a.submissionDate, a.lastUpdated) " +
+           "FROM Application a LEFT JOIN a.applicantName u " +
+           "WHERE (:allStatuses = true OR a.status IN :statuses) " +
+           "AND (:dateFiltered = false OR (a.submissionDate >= :dateFrom AND a.submissionDate < :dateTo)) " +
+           "ORDER BY a.id")
+    Stream<ExportRowDto> streamForExport(@Param("allStatuses") boolean allStatuses,
+                                         @Param("statuses") Collection<ApplicationStatus> statuses,
+                                         @Param("dateFiltered") boolean dateFiltered,
+                                         @Param("dateFrom") LocalDateTime dateFrom,
+                                         @Param("dateTo") LocalDateTime dateTo);
+
+    /**
+     * Review queue: applications in the given statuses with their applicant, assigned agent
+     * and per-status document counts, in one query whatever the page size.
+     * Oldest submission first, so the applications closest to their processing deadline come first.
+     * @param statuses The review statuses.
+     * @param validated The document status counted as validated.
+     * @param rejected The document status counted as rejected.
+     * @param pending The document status counted as pending.
+     * @param pageable Page number and size; the order is fixed by the query.
+     * @return One row per application.
+     */
+    @Query(value = "SELECT new com.groupe.gestin_inscription.dto.response.ReviewQueueItemDto(" +
+                   "a.id, a.status, a.submissionDate, a.lastUpdated, a.completionRate, a.targetInstitution, a.specialization, " +
+                   "u.id, u.firstName, u.lastName, u.email, u.phoneNumber, u.nationality, u.address, ad.id, ad.userName, " +
+                   "COUNT(d.id), " +
+                   "SUM(CASE WHEN d.validationStatus = :validated THEN 1L ELSE 0L END), " +
+                   "SUM(CASE WHEN d.validationStatus = :rejected THEN 1L ELSE 0L END), " +
+                   "SUM(CASE WHEN d.validationStatus = :pending THEN 1L ELSE 0L END)) " +
+                   "FROM Application a LEFT JOIN a.applicantName u LEFT JOIN a.assignedAdmin ad LEFT JOIN a.documents d " +
+                   "WHERE a.status IN :statuses " +
+                   "GROUP BY a.id, a.status, a.submissionDate, a.lastUpdated, a.completionRate, a.targetInstitution, a.specialization, " +
+                   "u.id, u.firstName, u.lastName, u.email, u.phoneNumber, u.nationality, u.address, ad.id, ad.userName " +
+                   "ORDER BY a.submissionDate ASC NULLS LAST, a.id ASC",
+           countQuery = "SELECT COUNT(a) FROM Application a WHERE a.status IN :statuses")
+    Page<ReviewQueueItemDto> findReviewQueue(@Param("statuses") Collection<ApplicationStatus> statuses,
+                                             @Param("validated") ValidationStatus validated,
+                                             @Param("rejected") ValidationStatus rejected,
+                                             @Param("pending") ValidationStatus pending,
+                                             Pageable pageable);
+
+    /**
+     * Counts the open applications of each assigned agent in a single GROUP BY query.
+     * @param statuses The statuses considered as open.
+     * @return Rows of [agentId, count].
+     */
+    @Query("SELECT a.assignedAdmin.id, COUNT(a) FROM Application a " +
+           "WHERE a.status IN :statuses AND a.assignedAdmin IS NOT NULL GROUP BY a.assignedAdmin.id")
+    List<Object[]> countOpenByAgent(@Param("statuses") Collection<ApplicationStatus> statuses);
+
+    /**
+     * ID of the agent assigned to an application.
+     * @param applicationId The application ID.
+     * @return The agent ID, empty when the application is unassigned or unknown.
+     */
+    @Query("SELECT a.assignedAdmin.id FROM Application a WHERE a.id = :applicationId AND a.assignedAdmin IS NOT NULL")
+    Optional<Long> findAssignedAdminId(@Param("applicationId") Long applicationId);
+
+    /**
+     * Oldest applications stuck in a status since before the given date, with their current agent.
+     * @param status The status to inspect.
+     * @param lastUpdated The cut-off date.
+     * @param pageable Page holding the number of rows to return.
+     * @return Rows of [applicationId, agentId (null if unassigned), specialization], oldest update first.
+     */
+    @Query("SELECT a.id, ad.id, a.specialization FROM Application a LEFT JOIN a.assignedAdmin ad " +
+           "WHERE a.status = :status AND a.lastUpdated < :lastUpdated ORDER BY a.lastUpdated")
+    List<Object[]> findAssignmentsToRebalance(@Param("status") ApplicationStatus status,
+                                              @Param("lastUpdated") LocalDateTime lastUpdated,
+                                              Pageable pageable);
+
+    /**
+     * Moves an application to another agent, only if it is still in the given status with the expected agent.
+     * @return 1 if the application was moved, 0 if it changed in the meantime.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Application a SET a.assignedAdmin = :agent " +
+           "WHERE a.id = :applicationId AND a.status = :status AND a.assignedAdmin = :currentAgent")
+    int reassign(@Param("applicationId") Long applicationId,
+                 @Param("status") ApplicationStatus status,
+                 @Param("currentAgent") Administrator currentAgent,
+                 @Param("agent") Administrator agent);
+
+    /**
+     * Assigns an agent to an application still unassigned and in the given status.
+     * @return 1 if the application was assigned, 0 if it changed in the meantime.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Application a SET a.assignedAdmin = :agent " +
+           "WHERE a.id = :applicationId AND a.status = :status AND a.assignedAdmin IS NULL")
+    int assignIfUnassigned(@Param("applicationId") Long applicationId,
+                           @Param("status") ApplicationStatus status,
+                           @Param("agent") Administrator agent);
 }
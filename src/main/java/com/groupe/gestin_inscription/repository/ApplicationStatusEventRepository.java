@@ -0,0 +1,103 @@
+package com.groupe.gestin_inscription.repository;
+
+import com.groupe.gestin_inscription.dto.response.StatusCountDto;
+import com.groupe.gestin_inscription.model.ApplicationStatusEvent;
+import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ApplicationStatusEventRepository extends JpaRepository<ApplicationStatusEvent, Long> {
+
+    /**
+     * Full status history of one application, oldest transition first.
+     * @param applicationId The application ID.
+     * @return The recorded transitions.
+     */
+    List<ApplicationStatusEvent> findByApplicationIdOrderByOccurredAtAscIdAsc(Long applicationId);
+
+    /**
+     * Time spent in each status, measured between a transition and the next one of the same application
+     * (or now for the current status), for the stays that started after the given date.
+     * @param since Lower bound of the transition date.
+     * @param now End of the stays still in progress.
+     * @return Rows of [status, stays, averageSeconds, medianSeconds, p90Seconds].
+     */
+    @Query(value = "SELECT e.to_status, COUNT(*), AVG(e.seconds), " +
+                   "PERCENTILE_CONT(0.5) WITHIN GROUP (ORDER BY e.seconds), " +
+                   "PERCENTILE_CONT(0.9) WITHIN GROUP (ORDER BY e.seconds) " +
+                   "FROM (SELECT to_status, EXTRACT(EPOCH FROM (COALESCE(LEAD(occurred_at) OVER " +
+                   "(PARTITION BY application_id ORDER BY occurred_at, id), :now) - occurred_at)) AS seconds " +
+                   "FROM application_status_event WHERE occurred_at >= :since) e " +
+                   "WHERE e.to_status IS NOT NULL GROUP BY e.to_status",
+           nativeQuery = true)
+    List<Object[]> summarizeTimeInStatus(@Param("since") LocalDateTime since, @Param("now") LocalDateTime now);
+
+    /**
+     * Decisions taken by each actor and the time the application had spent in its previous status.
+     * The previous transition is looked up in the whole history of the applications decided in the period,
+     * so a decision is measured even when the status it leaves was entered before the period.
+     * @param statuses Target statuses counted as decisions (enum names).
+     * @param since Lower bound of the decision date.
+     * @return Rows of [actor, decisions, averageSeconds].
+     */
+    @Query(value = "SELECT e.actor, COUNT(*), AVG(EXTRACT(EPOCH FROM (e.occurred_at - e.previous_at))) " +
+                   "FROM (SELECT actor, to_status, occurred_at, LAG(occurred_at) OVER " +
+                   "(PARTITION BY application_id ORDER BY occurred_at, id) AS previous_at " +
+                   "FROM application_status_event WHERE application_id IN " +
+                   "(SELECT application_id FROM application_status_event " +
+                   "WHERE occurred_at >= :since AND to_status IN (:statuses))) e " +
+                   "WHERE e.occurred_at >= :since AND e.to_status IN (:statuses) GROUP BY e.actor",
+           nativeQuery = true)
+    List<Object[]> summarizeDecisionsByActor(@Param("statuses") Collection<String> statuses,
+                                             @Param("since") LocalDateTime since);
+
+    /**
+     * Funnel: number of distinct applications that reached each status after the given date.
+     * @param since Lower bound of the transition date.
+     * @return One row per status reached.
+     */
+    @Query("SELECT new com.groupe.gestin_inscription.dto.response.StatusCountDto(e.toStatus, COUNT(DISTINCT e.applicationId)) " +
+           "FROM ApplicationStatusEvent e WHERE e.occurredAt >= :since AND e.toStatus IS NOT NULL GROUP BY e.toStatus")
+    List<StatusCountDto> countApplicationsReachingStatus(@Param("since") LocalDateTime since);
+
+    /**
+     * Counts transitions to the given statuses per day of week (1 = Sunday ... 7 = Saturday).
+     * @return Rows of [dayOfWeek, count].
+     */
+    @Query("SELECT EXTRACT(DAY OF WEEK FROM e.occurredAt), COUNT(e) FROM ApplicationStatusEvent e " +
+           "WHERE e.toStatus IN :statuses AND e.occurredAt >= :since GROUP BY EXTRACT(DAY OF WEEK FROM e.occurredAt)")
+    List<Object[]> countTransitionsByDayOfWeek(@Param("statuses") Collection<ApplicationStatus> statuses,
+                                               @Param("since") LocalDateTime since);
+
+    /**
+     * Counts transitions to the given statuses per hour of day.
+     * @return Rows of [hour, count].
+     */
+    @Query("SELECT EXTRACT(HOUR FROM e.occurredAt), COUNT(e) FROM ApplicationStatusEvent e " +
+           "WHERE e.toStatus IN :statuses AND e.occurredAt >= :since GROUP BY EXTRACT(HOUR FROM e.occurredAt)")
+    List<Object[]> countTransitionsByHour(@Param("statuses") Collection<ApplicationStatus> statuses,
+                                          @Param("since") LocalDateTime since);
+
+    /**
+     * Seeds the history of applications created before it existed with their current status,
+     * dated from their last update. Does nothing once the table holds an event.
+     * @return The number of events created.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO application_status_event (application_id, from_status, to_status, actor, occurred_at) " +
+                   "SELECT a.id, NULL, a.status, 'system', COALESCE(a.last_updated, a.submission_date, a.created_at, :now) " +
+                   "FROM application a WHERE a.status IS NOT NULL " +
+                   "AND NOT EXISTS (SELECT 1 FROM application_status_event)",
+           nativeQuery = true)
+    int seedFromCurrentStatuses(@Param("now") LocalDateTime now);
+}
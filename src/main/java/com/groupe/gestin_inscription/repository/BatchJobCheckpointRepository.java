@@ -0,0 +1,39 @@
+package com.groupe.gestin_inscription.repository;
+
+import com.groupe.gestin_inscription.model.BatchJobCheckpoint;
+import com.groupe.gestin_inscription.model.Enums.BatchJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface BatchJobCheckpointRepository extends JpaRepository<BatchJobCheckpoint, String> {
+
+    /**
+     * Enregistre la fin d'un lot ; appelé dans la transaction du lot pour que le point
+     * de reprise et les effets du lot soient validés ensemble.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE BatchJobCheckpoint c SET c.lastId = :lastId, c.processed = c.processed + :count, c.updatedAt = :now " +
+           "WHERE c.jobName = :jobName")
+    int advance(@Param("jobName") String jobName,
+                @Param("lastId") long lastId,
+                @Param("count") long count,
+                @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE BatchJobCheckpoint c SET c.status = :status, c.updatedAt = :now, c.finishedAt = :finishedAt, " +
+           "c.lastError = :error WHERE c.jobName = :jobName")
+    int finish(@Param("jobName") String jobName,
+               @Param("status") BatchJobStatus status,
+               @Param("now") LocalDateTime now,
+               @Param("finishedAt") LocalDateTime finishedAt,
+               @Param("error") String error);
+}
@@ -2,11 +2,19 @@ package com.groupe.gestin_inscription.repository;
 
 import com.groupe.gestin_inscription.model.Document;
 import com.groupe.gestin_inscription.model.Enums.ValidationStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, Long> {
@@ -23,7 +31,42 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
      * @return A list of documents with a PENDING validation status.
      */
     List<Document> findByValidationStatus(ValidationStatus status);
-    Optional<Document> findByHash(String hash);
-    
+    boolean existsByHash(String hash);
+
+    /**
+     * Empreintes perceptuelles de tous les documents (id, id de candidature, empreinte), lues en flux.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("SELECT d.id, d.application.id, d.perceptualHash FROM Document d WHERE d.perceptualHash IS NOT NULL")
+    Stream<Object[]> streamPerceptualHashes();
+
+    /**
+     * Empreintes des documents d'id supérieur à {@code afterId}, par id croissant : dépôts faits sur les autres réplicas.
+     */
+    @Query("SELECT d.id, d.application.id, d.perceptualHash FROM Document d " +
+           "WHERE d.perceptualHash IS NOT NULL AND d.id > :afterId ORDER BY d.id")
+    List<Object[]> findPerceptualHashesAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Documents sans empreinte perceptuelle (id, id de candidature, chemin du fichier), par id croissant.
+     */
+    @Query("SELECT d.id, d.application.id, d.filePath FROM Document d " +
+           "WHERE d.perceptualHash IS NULL AND d.id > :afterId ORDER BY d.id")
+    List<Object[]> findMissingPerceptualHashChunk(@Param("afterId") long afterId, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Document d SET d.perceptualHash = :hash WHERE d.id = :id")
+    int updatePerceptualHash(@Param("id") Long id, @Param("hash") Long hash);
+
+    /**
+     * Enregistre le résultat d'un contrôle automatique sans recharger le document.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Document d SET d.validationStatus = :status, d.ocrNotes = :notes WHERE d.id = :id")
+    int updateValidationResult(@Param("id") Long id,
+                               @Param("status") ValidationStatus status,
+                               @Param("notes") String notes);
 
 }
@@ -0,0 +1,73 @@
+package com.groupe.gestin_inscription.repository;
+
+import com.groupe.gestin_inscription.model.EmailOutbox;
+import com.groupe.gestin_inscription.model.Enums.EmailOutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    long countByStatus(EmailOutboxStatus status);
+
+    /**
+     * Identifiants des e-mails dont la prochaine tentative est échue, les plus anciens d'abord.
+     */
+    @Query("SELECT e.id FROM EmailOutbox e WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.id")
+    List<Long> findDueIds(@Param("status") EmailOutboxStatus status,
+                          @Param("now") LocalDateTime now,
+                          Pageable pageable);
+
+    /**
+     * Réserve un lot en une requête. Les lignes déjà prises par une autre instance sont ignorées ;
+     * le lot effectivement réservé se relit avec {@link #findByClaimToken(String)}.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = :sending, e.claimToken = :token, e.nextAttemptAt = :leaseUntil, " +
+           "e.attempts = e.attempts + 1 WHERE e.id IN :ids AND e.status = :pending")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("token") String token,
+              @Param("leaseUntil") LocalDateTime leaseUntil,
+              @Param("pending") EmailOutboxStatus pending,
+              @Param("sending") EmailOutboxStatus sending);
+
+    List<EmailOutbox> findByClaimToken(String claimToken);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = :sent, e.sentAt = :now, e.claimToken = null, e.lastError = null " +
+           "WHERE e.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids,
+                 @Param("now") LocalDateTime now,
+                 @Param("sent") EmailOutboxStatus sent);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = :status, e.nextAttemptAt = :nextAttemptAt, e.claimToken = null, " +
+           "e.lastError = :error WHERE e.id = :id")
+    int reschedule(@Param("id") Long id,
+                   @Param("status") EmailOutboxStatus status,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("error") String error);
+
+    /**
+     * Remet en file les lots dont le bail a expiré (instance arrêtée pendant l'envoi).
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = :pending, e.claimToken = null " +
+           "WHERE e.status = :sending AND e.nextAttemptAt < :now")
+    int requeueExpired(@Param("now") LocalDateTime now,
+                       @Param("sending") EmailOutboxStatus sending,
+                       @Param("pending") EmailOutboxStatus pending);
+}
@@ -1,6 +1,7 @@
 package com.groupe.gestin_inscription.repository;
 
 import com.groupe.gestin_inscription.model.LoginAudit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -8,21 +9,65 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface LoginAuditRepository extends JpaRepository<LoginAudit, Long> {
     
-    List<LoginAudit> findByUsernameOrderByLoginTimeDesc(String username);
-    
-    List<LoginAudit> findBySuccessOrderByLoginTimeDesc(Boolean success);
-    
-    @Query("SELECT la FROM LoginAudit la WHERE la.loginTime BETWEEN :startDate AND :endDate ORDER BY la.loginTime DESC")
-    List<LoginAudit> findByLoginTimeBetween(@Param("startDate") LocalDateTime startDate, 
-                                           @Param("endDate") LocalDateTime endDate);
+    /**
+     * Page of login attempts in [from, to], most recent first, before the (loginTime, id) of the last row
+     * already returned (to and Long.MAX_VALUE for the first page). Both bounds keep the scan to the
+     * monthly partitions of the window.
+     */
+    @Query("SELECT la FROM LoginAudit la WHERE la.loginTime >= :from " +
+           "AND (la.loginTime < :beforeTime OR (la.loginTime = :beforeTime AND la.id < :beforeId)) " +
+           "ORDER BY la.loginTime DESC, la.id DESC")
+    List<LoginAudit> findPage(@Param("from") LocalDateTime from,
+                              @Param("beforeTime") LocalDateTime beforeTime,
+                              @Param("beforeId") long beforeId,
+                              Pageable pageable);
+
+    /**
+     * Same as {@link #findPage} restricted to one user.
+     */
+    @Query("SELECT la FROM LoginAudit la WHERE la.username = :username AND la.loginTime >= :from " +
+           "AND (la.loginTime < :beforeTime OR (la.loginTime = :beforeTime AND la.id < :beforeId)) " +
+           "ORDER BY la.loginTime DESC, la.id DESC")
+    List<LoginAudit> findPageForUsername(@Param("username") String username,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("beforeTime") LocalDateTime beforeTime,
+                                         @Param("beforeId") long beforeId,
+                                         Pageable pageable);
+
+    /**
+     * Same as {@link #findPage} restricted to the failed attempts of one user.
+     */
+    @Query("SELECT la FROM LoginAudit la WHERE la.username = :username AND la.success = false AND la.loginTime >= :from " +
+           "AND (la.loginTime < :beforeTime OR (la.loginTime = :beforeTime AND la.id < :beforeId)) " +
+           "ORDER BY la.loginTime DESC, la.id DESC")
+    List<LoginAudit> findFailedPageForUsername(@Param("username") String username,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("beforeTime") LocalDateTime beforeTime,
+                                               @Param("beforeId") long beforeId,
+                                               Pageable pageable);
+
+    /**
+     * Same as {@link #findPage} restricted to failed attempts.
+     */
+    @Query("SELECT la FROM LoginAudit la WHERE la.success = false AND la.loginTime >= :from " +
+           "AND (la.loginTime < :beforeTime OR (la.loginTime = :beforeTime AND la.id < :beforeId)) " +
+           "ORDER BY la.loginTime DESC, la.id DESC")
+    List<LoginAudit> findFailedPage(@Param("from") LocalDateTime from,
+                                    @Param("beforeTime") LocalDateTime beforeTime,
+                                    @Param("beforeId") long beforeId,
+                                    Pageable pageable);
     
     @Query("SELECT COUNT(la) FROM LoginAudit la WHERE la.username = :username AND la.success = false AND la.loginTime > :since")
     Long countFailedLoginAttempts(@Param("username") String username, @Param("since") LocalDateTime since);
     
     @Query("SELECT COUNT(la) FROM LoginAudit la WHERE la.ipAddress = :ipAddress AND la.success = false AND la.loginTime > :since")
     Long countFailedLoginAttemptsByIp(@Param("ipAddress") String ipAddress, @Param("since") LocalDateTime since);
+
+    @Query("SELECT la.username, la.ipAddress, la.loginTime FROM LoginAudit la WHERE la.success = false AND la.loginTime > :since ORDER BY la.loginTime")
+    Stream<Object[]> streamFailedLoginsSince(@Param("since") LocalDateTime since);
 }
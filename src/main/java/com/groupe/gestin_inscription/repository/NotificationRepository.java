@@ -1,9 +1,17 @@
 package com.groupe.gestin_inscription.repository;
 
+import com.groupe.gestin_inscription.dto.response.NotificationItemDto;
 import com.groupe.gestin_inscription.model.Notification;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -15,4 +23,91 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
      * @return A list of notifications for the user.
      */
     List<Notification> findByUserId(Long userId);
+
+    /**
+     * First page of a user's inbox, most recent first.
+     * @param userId The ID of the user.
+     * @param pageable Page holding the number of rows to return; its offset must stay 0.
+     * @return Lightweight inbox rows.
+     */
+    @Query("SELECT new com.groupe.gestin_inscription.dto.response.NotificationItemDto(" +
+           "n.id, n.type, n.titre, n.message, n.isRead, n.dateCreation) " +
+           "FROM Notification n WHERE n.user.id = :userId ORDER BY n.dateCreation DESC, n.id DESC")
+    List<NotificationItemDto> findInbox(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Next page of a user's inbox, after the (dateCreation, id) of the last row already returned.
+     * @param userId The ID of the user.
+     * @param dateCreation Creation date of the last row returned.
+     * @param id ID of the last row returned.
+     * @param pageable Page holding the number of rows to return; its offset must stay 0.
+     * @return Lightweight inbox rows.
+     */
+    @Query("SELECT new com.groupe.gestin_inscription.dto.response.NotificationItemDto(" +
+           "n.id, n.type, n.titre, n.message, n.isRead, n.dateCreation) " +
+           "FROM Notification n WHERE n.user.id = :userId " +
+           "AND (n.dateCreation < :dateCreation OR (n.dateCreation = :dateCreation AND n.id < :id)) " +
+           "ORDER BY n.dateCreation DESC, n.id DESC")
+    List<NotificationItemDto> findInboxAfter(@Param("userId") Long userId,
+                                             @Param("dateCreation") LocalDateTime dateCreation,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
+
+    /**
+     * Counts the unread notifications of a user.
+     */
+    @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.id = :userId AND n.isRead = false")
+    long countUnread(@Param("userId") Long userId);
+
+    /**
+     * Marks one notification of a user as read.
+     * @return 1 if it was unread, 0 if already read or not owned by this user.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.user.id = :userId AND n.isRead = false")
+    int markRead(@Param("id") Long id, @Param("userId") Long userId);
+
+    /**
+     * Marks all notifications of a user as read in a single statement.
+     * @return The number of notifications that were unread.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllRead(@Param("userId") Long userId);
+
+    /**
+     * Moves one batch of old notifications to notification_archive: read ones created before readCutoff,
+     * any created before unreadCutoff. Copy and delete run in one transaction, in standard SQL
+     * (PostgreSQL and H2).
+     * @return The number of notifications archived (less than batchSize on the last batch).
+     */
+    @Transactional
+    default int archiveBatch(LocalDateTime readCutoff, LocalDateTime unreadCutoff, int batchSize, LocalDateTime now) {
+        List<Long> ids = findIdsToArchive(readCutoff, unreadCutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        copyToArchive(ids, now);
+        return deleteByIds(ids);
+    }
+
+    @Query("SELECT n.id FROM Notification n " +
+           "WHERE (n.isRead = true AND n.dateCreation < :readCutoff) OR n.dateCreation < :unreadCutoff ORDER BY n.id")
+    List<Long> findIdsToArchive(@Param("readCutoff") LocalDateTime readCutoff,
+                                @Param("unreadCutoff") LocalDateTime unreadCutoff,
+                                Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO notification_archive (id, type, titre, message, is_read, status, date_creation, user_id, archived_at) " +
+                   "SELECT id, type, titre, message, is_read, status, date_creation, user_id, :now FROM notification WHERE id IN (:ids)",
+           nativeQuery = true)
+    int copyToArchive(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM notification WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIds(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,59 @@
+package com.groupe.gestin_inscription.repository;
+
+import com.groupe.gestin_inscription.model.NotificationUnreadCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface NotificationUnreadCounterRepository extends JpaRepository<NotificationUnreadCounter, Long> {
+
+    /**
+     * Compte une nouvelle notification non lue.
+     * @return 0 si le compteur de l'utilisateur n'existe pas encore (voir {@link #initialize})
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationUnreadCounter c SET c.unreadCount = c.unreadCount + 1 WHERE c.userId = :userId")
+    int increment(@Param("userId") Long userId);
+
+    /**
+     * Crée le compteur d'un utilisateur à partir de ses notifications non lues déjà validées, dans sa propre
+     * transaction : la notification en cours d'écriture n'y est pas comptée, l'appelant l'ajoute par
+     * {@link #increment}. Échoue sur la clé primaire si une autre transaction l'a créé au même moment.
+     * SQL standard (PostgreSQL et H2).
+     */
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "INSERT INTO notification_unread_counter (user_id, unread_count) " +
+                   "SELECT :userId, COUNT(*) FROM notification WHERE user_id = :userId AND is_read = false " +
+                   "AND NOT EXISTS (SELECT 1 FROM notification_unread_counter WHERE user_id = :userId)",
+           nativeQuery = true)
+    int initialize(@Param("userId") Long userId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationUnreadCounter c " +
+           "SET c.unreadCount = CASE WHEN c.unreadCount > :count THEN c.unreadCount - :count ELSE 0 END " +
+           "WHERE c.userId = :userId")
+    int decrement(@Param("userId") Long userId, @Param("count") long count);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationUnreadCounter c SET c.unreadCount = 0 WHERE c.userId = :userId")
+    int reset(@Param("userId") Long userId);
+
+    /**
+     * Recalcule tous les compteurs depuis la table notification (après archivage).
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE notification_unread_counter c SET unread_count = " +
+                   "(SELECT COUNT(*) FROM notification n WHERE n.user_id = c.user_id AND n.is_read = false)",
+           nativeQuery = true)
+    int recountAll();
+}
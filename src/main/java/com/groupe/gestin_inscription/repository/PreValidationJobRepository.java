@@ -0,0 +1,72 @@
+package com.groupe.gestin_inscription.repository;
+
+import com.groupe.gestin_inscription.model.Enums.PreValidationJobStatus;
+import com.groupe.gestin_inscription.model.PreValidationJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PreValidationJobRepository extends JpaRepository<PreValidationJob, Long> {
+
+    /**
+     * Les plus anciennes tâches dans un statut donné (file FIFO).
+     */
+    List<PreValidationJob> findByStatusOrderByCreatedAtAsc(PreValidationJobStatus status, Pageable pageable);
+
+    long countByStatus(PreValidationJobStatus status);
+
+    boolean existsByApplicationIdAndStatusIn(Long applicationId, Collection<PreValidationJobStatus> statuses);
+
+    /**
+     * Réserve une tâche en attente jusqu'à {@code leaseUntil}. Renvoie 0 si une autre instance l'a déjà prise.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE PreValidationJob j SET j.status = :running, j.startedAt = :now, j.leaseUntil = :leaseUntil, " +
+           "j.attempts = j.attempts + 1 WHERE j.id = :id AND j.status = :pending")
+    int claim(@Param("id") Long id,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil,
+              @Param("pending") PreValidationJobStatus pending,
+              @Param("running") PreValidationJobStatus running);
+
+    /**
+     * Prolonge le bail des tâches encore en cours sur cette instance.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE PreValidationJob j SET j.leaseUntil = :leaseUntil WHERE j.id IN :ids AND j.status = :running")
+    int extendLease(@Param("ids") Collection<Long> ids,
+                    @Param("leaseUntil") LocalDateTime leaseUntil,
+                    @Param("running") PreValidationJobStatus running);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE PreValidationJob j SET j.status = :status, j.finishedAt = :now, j.leaseUntil = null, " +
+           "j.lastError = :error WHERE j.id = :id")
+    int finish(@Param("id") Long id,
+               @Param("status") PreValidationJobStatus status,
+               @Param("now") LocalDateTime now,
+               @Param("error") String error);
+
+    /**
+     * Remet en file les tâches dont le bail a expiré : l'instance qui les traitait s'est arrêtée.
+     * Les tâches encore prolongées par une autre réplique ne sont pas touchées.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE PreValidationJob j SET j.status = :pending, j.startedAt = null, j.leaseUntil = null " +
+           "WHERE j.status = :running AND (j.leaseUntil IS NULL OR j.leaseUntil < :now)")
+    int requeueExpired(@Param("now") LocalDateTime now,
+                       @Param("running") PreValidationJobStatus running,
+                       @Param("pending") PreValidationJobStatus pending);
+}
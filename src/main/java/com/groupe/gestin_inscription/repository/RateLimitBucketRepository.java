@@ -0,0 +1,43 @@
+package com.groupe.gestin_inscription.repository;
+
+import com.groupe.gestin_inscription.model.RateLimitBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface RateLimitBucketRepository extends JpaRepository<RateLimitBucket, String> {
+
+    /**
+     * Recharge le seau du temps écoulé (refillPerSecond jetons par seconde, plafonné à capacity)
+     * puis consomme un jeton s'il y en a un, en un seul aller-retour verrouillant la ligne.
+     * Renvoie true si la requête est autorisée.
+     */
+    @Transactional
+    @Query(value = "INSERT INTO rate_limit_bucket AS b (bucket_key, tokens, refilled_at, allowed) " +
+                   "VALUES (:key, :capacity - 1, :now, true) " +
+                   "ON CONFLICT (bucket_key) DO UPDATE SET " +
+                   "tokens = CASE WHEN LEAST(:capacity, b.tokens + EXTRACT(EPOCH FROM (CAST(:now AS timestamp) - b.refilled_at)) * :refillPerSecond) >= 1 " +
+                   "THEN LEAST(:capacity, b.tokens + EXTRACT(EPOCH FROM (CAST(:now AS timestamp) - b.refilled_at)) * :refillPerSecond) - 1 " +
+                   "ELSE LEAST(:capacity, b.tokens + EXTRACT(EPOCH FROM (CAST(:now AS timestamp) - b.refilled_at)) * :refillPerSecond) END, " +
+                   "allowed = LEAST(:capacity, b.tokens + EXTRACT(EPOCH FROM (CAST(:now AS timestamp) - b.refilled_at)) * :refillPerSecond) >= 1, " +
+                   "refilled_at = :now " +
+                   "RETURNING allowed", nativeQuery = true)
+    boolean tryConsume(@Param("key") String key,
+                       @Param("capacity") double capacity,
+                       @Param("refillPerSecond") double refillPerSecond,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Supprime les seaux inactifs depuis cutoff (ils seraient de nouveau pleins).
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RateLimitBucket b WHERE b.refilledAt < :cutoff")
+    int deleteIdleSince(@Param("cutoff") LocalDateTime cutoff);
+}
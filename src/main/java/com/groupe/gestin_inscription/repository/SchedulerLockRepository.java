@@ -0,0 +1,61 @@
+package com.groupe.gestin_inscription.repository;
+
+import com.groupe.gestin_inscription.model.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    /**
+     * Prend un verrou existant dont le bail a expiré. Renvoie 0 s'il est encore détenu.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE SchedulerLock l SET l.lockedBy = :owner, l.lockedAt = :now, l.lockUntil = :until " +
+           "WHERE l.name = :name AND l.lockUntil <= :now")
+    int acquire(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now,
+                @Param("until") LocalDateTime until);
+
+    /**
+     * Crée le verrou s'il n'existe pas encore. Échoue sur la clé primaire ({@code DataIntegrityViolationException})
+     * si une autre réplique l'a créé entre-temps. SQL standard, valable sur PostgreSQL comme sur H2 ; transaction
+     * propre, car l'échec d'une instruction annule toute la transaction sur PostgreSQL.
+     */
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "INSERT INTO scheduler_lock (name, locked_by, locked_at, lock_until) " +
+                   "VALUES (:name, :owner, :now, :until)", nativeQuery = true)
+    int insert(@Param("name") String name,
+               @Param("owner") String owner,
+               @Param("now") LocalDateTime now,
+               @Param("until") LocalDateTime until);
+
+    /**
+     * Prolonge le bail ; renvoie 0 si le verrou a expiré et été repris par une autre réplique.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE SchedulerLock l SET l.lockUntil = :until " +
+           "WHERE l.name = :name AND l.lockedBy = :owner AND l.lockUntil > :now")
+    int extend(@Param("name") String name,
+               @Param("owner") String owner,
+               @Param("now") LocalDateTime now,
+               @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SchedulerLock l SET l.lockUntil = :until WHERE l.name = :name AND l.lockedBy = :owner")
+    int release(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("until") LocalDateTime until);
+}
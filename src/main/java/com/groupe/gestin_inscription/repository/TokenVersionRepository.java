@@ -0,0 +1,46 @@
+package com.groupe.gestin_inscription.repository;
+
+import com.groupe.gestin_inscription.model.TokenVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TokenVersionRepository extends JpaRepository<TokenVersion, String> {
+
+    /**
+     * Versions modifiées depuis la dernière synchronisation (autres instances comprises).
+     * {@code since} doit venir de l'horloge de la base, comme updated_at.
+     */
+    List<TokenVersion> findByUpdatedAtAfter(LocalDateTime since);
+
+    /**
+     * Incrément atomique : deux instances qui révoquent en même temps obtiennent deux versions distinctes.
+     * updated_at prend l'heure de la base, seule horloge commune aux instances pour la synchronisation.
+     * @return 0 si le sujet n'a pas encore de ligne
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE token_version SET version = version + 1, updated_at = LOCALTIMESTAMP WHERE subject = :subject",
+           nativeQuery = true)
+    int incrementVersion(@Param("subject") String subject);
+
+    /**
+     * Première révocation du sujet ; échoue sur la clé primaire si une autre instance l'a créée entre-temps.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO token_version (subject, version, updated_at) VALUES (:subject, 1, LOCALTIMESTAMP)",
+           nativeQuery = true)
+    int insertFirstVersion(@Param("subject") String subject);
+
+    @Query("SELECT t.version FROM TokenVersion t WHERE t.subject = :subject")
+    Optional<Integer> findVersion(@Param("subject") String subject);
+}
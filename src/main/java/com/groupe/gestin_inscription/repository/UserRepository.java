@@ -4,8 +4,11 @@ package com.groupe.gestin_inscription.repository;
 
 import com.groupe.gestin_inscription.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,4 +18,19 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Boolean existsByUsername(String username); // Useful for registration
     Boolean existsByEmail(String email);     // Useful for registration
 
+    /**
+     * Identifiant seul, sans charger le compte : le sujet d'un JWT est le nom d'utilisateur ou l'email.
+     * Le nom d'utilisateur (unique) l'emporte ; l'email ne sert que s'il ne correspond à aucun nom d'utilisateur.
+     */
+    default Optional<Long> findIdByLogin(String login) {
+        return findIdByUsername(login)
+                .or(() -> findIdsByEmail(login).stream().findFirst());
+    }
+
+    @Query("SELECT u.id FROM User u WHERE u.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
+    @Query("SELECT u.id FROM User u WHERE u.email = :email ORDER BY u.id")
+    List<Long> findIdsByEmail(@Param("email") String email);
+
 }
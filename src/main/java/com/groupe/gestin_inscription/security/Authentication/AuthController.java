@@ -3,10 +3,13 @@ package com.groupe.gestin_inscription.security.Authentication;
 import com.groupe.gestin_inscription.model.User;
 import com.groupe.gestin_inscription.model.Administrator;
 import com.groupe.gestin_inscription.security.Jwt.JwtUtils;
+import com.groupe.gestin_inscription.security.Jwt.TokenVersionRegistry;
+import com.groupe.gestin_inscription.security.Utils.ClientIpResolver;
 import com.groupe.gestin_inscription.services.LoginAuditService;
 import com.groupe.gestin_inscription.services.RecaptchaService;
 import com.groupe.gestin_inscription.services.serviceImpl.UserServiceImpl;
 import com.groupe.gestin_inscription.repository.AdministratorRepository;
+import com.groupe.gestin_inscription.repository.UserRepository;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,7 +30,11 @@ import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -57,10 +64,19 @@ public class AuthController {
     @Autowired
     private AdministratorRepository administratorRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private ClientIpResolver clientIpResolver;
+
     @Operation(summary = "User login")
     @PostMapping("/login")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
-        String clientIp = getClientIpAddress(request);
+        String clientIp = clientIpResolver.resolve(request);
         
         // Vérifier si reCAPTCHA est requis
         boolean recaptchaRequired = recaptchaService.isRecaptchaRequired(
@@ -85,7 +101,6 @@ public class AuthController {
                             loginRequest.getPassword()));
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
-            String jwt = jwtUtils.generateJwtToken(authentication);
 
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
             List<String> roles = userDetails.getAuthorities().stream()
@@ -97,6 +112,7 @@ public class AuthController {
 
             // Récupérer les vraies informations utilisateur depuis la base de données
             User user = userService.findUserByEmail(userDetails.getUsername());
+            String jwt = jwtUtils.generateJwtToken(authentication, user != null ? user.getId() : null);
             
             Map<String, Object> response = new HashMap<>();
             response.put("token", jwt);
@@ -138,20 +154,6 @@ public class AuthController {
         }
     }
 
-    private String getClientIpAddress(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-        
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
-        }
-        
-        return request.getRemoteAddr();
-    }
-
     @Operation(summary = "User registration for candidates")
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@Valid @RequestBody RegisterRequest registerRequest, HttpServletRequest request) {
@@ -187,7 +189,7 @@ public class AuthController {
                     registerRequest.getMotDePasse()));
             
             SecurityContextHolder.getContext().setAuthentication(authentication);
-            String jwt = jwtUtils.generateJwtToken(authentication);
+            String jwt = jwtUtils.generateJwtToken(authentication, savedUser.getId());
             
             // Enregistrer la connexion automatique
             loginAuditService.logSuccessfulLogin(savedUser.getUsername(), "AUTO_LOGIN_AFTER_REGISTER", request);
@@ -213,6 +215,44 @@ public class AuthController {
         }
     }
 
+    @Operation(summary = "Logout: revokes every token issued to the current account")
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserDetails userDetails)) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Aucune session active.");
+            return ResponseEntity.status(401).body(error);
+        }
+
+        tokenVersionRegistry.revoke(loginSubjects(userDetails.getUsername()));
+        SecurityContextHolder.clearContext();
+
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Déconnexion réussie.");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Tous les identifiants de connexion du compte (email et nom d'utilisateur) : un jeton a pu être émis
+     * sous l'un ou l'autre. Le compte est résolu dans le même ordre que UserDetailsServiceImpl.
+     */
+    private Set<String> loginSubjects(String subject) {
+        Optional<User> user = userRepository.findByEmail(subject).or(() -> userRepository.findByUsername(subject));
+        Stream<String> identifiers;
+        if (user.isPresent()) {
+            identifiers = Stream.of(user.get().getEmail(), user.get().getUsername());
+        } else {
+            identifiers = administratorRepository.findByUserName(subject)
+                    .or(() -> administratorRepository.findByEmail(subject))
+                    .map(admin -> Stream.of(admin.getUserName(), admin.getEmail()))
+                    .orElseGet(Stream::empty);
+        }
+        return Stream.concat(Stream.of(subject), identifiers)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
     // DTO classes
     public static class RegisterRequest {
         @NotBlank(message = "Le nom est obligatoire")
@@ -3,6 +3,8 @@ package com.groupe.gestin_inscription.security.Config;
 import com.groupe.gestin_inscription.security.Jwt.AuthEntryPointJwt;
 import com.groupe.gestin_inscription.security.Jwt.AuthTokenFilter;
 import com.groupe.gestin_inscription.security.Jwt.JwtUtils;
+import com.groupe.gestin_inscription.security.Jwt.TokenVersionRegistry;
+import com.groupe.gestin_inscription.security.SecurityUserService.UserDetailsCache;
 import com.groupe.gestin_inscription.security.SecurityUserService.UserDetailsServiceImpl;
 import com.groupe.gestin_inscription.security.OAuth2.OAuth2AuthenticationSuccessHandler;
 import com.groupe.gestin_inscription.security.OAuth2.OAuth2AuthenticationFailureHandler;
@@ -39,21 +41,27 @@ import java.util.List;
 public class WebSecurityConfig {
 
     private final UserDetailsServiceImpl userDetailsServiceImpl;
+    private final UserDetailsCache userDetailsCache;
     private final AuthEntryPointJwt unauthorizedHandler;
     private final JwtUtils jwtUtils;
+    private final TokenVersionRegistry tokenVersionRegistry;
     private final OAuth2AuthenticationSuccessHandler oAuth2AuthenticationSuccessHandler;
     private final OAuth2AuthenticationFailureHandler oAuth2AuthenticationFailureHandler;
     private final OAuth2ProductionHandler oAuth2ProductionHandler;
 
-    public WebSecurityConfig(UserDetailsServiceImpl userDetailsServiceImpl, 
+    public WebSecurityConfig(UserDetailsServiceImpl userDetailsServiceImpl,
+                           UserDetailsCache userDetailsCache,
                            AuthEntryPointJwt unauthorizedHandler, 
                            JwtUtils jwtUtils,
+                           TokenVersionRegistry tokenVersionRegistry,
                            OAuth2AuthenticationSuccessHandler oAuth2AuthenticationSuccessHandler,
                            OAuth2AuthenticationFailureHandler oAuth2AuthenticationFailureHandler,
                            OAuth2ProductionHandler oAuth2ProductionHandler) {
         this.userDetailsServiceImpl = userDetailsServiceImpl;
+        this.userDetailsCache = userDetailsCache;
         this.unauthorizedHandler = unauthorizedHandler;
         this.jwtUtils = jwtUtils;
+        this.tokenVersionRegistry = tokenVersionRegistry;
         this.oAuth2AuthenticationSuccessHandler = oAuth2AuthenticationSuccessHandler;
         this.oAuth2AuthenticationFailureHandler = oAuth2AuthenticationFailureHandler;
         this.oAuth2ProductionHandler = oAuth2ProductionHandler;
@@ -61,7 +69,7 @@ public class WebSecurityConfig {
 
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
-        return new AuthTokenFilter(jwtUtils, userDetailsServiceImpl);
+        return new AuthTokenFilter(jwtUtils, userDetailsCache, tokenVersionRegistry);
     }
 
     @Bean
@@ -115,6 +123,8 @@ public class WebSecurityConfig {
                         .requestMatchers("/oauth2/**", "/login/oauth2/**", "/api/oauth2/**").permitAll()
                         .requestMatchers("/login/oauth2/code/**").permitAll()
                         .requestMatchers("/favicon.ico").permitAll()
+                        // Poignée de main WebSocket : le JWT est vérifié sur la trame STOMP CONNECT
+                        .requestMatchers("/ws/**").permitAll()
                         // Dev endpoints
                         .requestMatchers("/api/dev/**").permitAll()
                         .requestMatchers("/api/debug/**").permitAll()
@@ -150,6 +160,7 @@ public class WebSecurityConfig {
                         .requestMatchers("/api/applications/*/documents").hasAnyRole("AGENT", "SUPER_ADMIN")
                         .requestMatchers("/api/applications/*/process").hasAnyRole("AGENT", "SUPER_ADMIN")
                         .requestMatchers("/api/notifications/my").hasAnyRole("CANDIDATE", "AGENT", "SUPER_ADMIN")
+                        .requestMatchers("/api/notifications/my/**").hasAnyRole("CANDIDATE", "AGENT", "SUPER_ADMIN")
                         .requestMatchers("/api/notifications/*/read").hasAnyRole("CANDIDATE", "AGENT", "SUPER_ADMIN")
                         .requestMatchers("/api/documents/validate/**").hasRole("AGENT")
                         .requestMatchers("/api/documents/application/**").hasAnyRole("CANDIDATE", "AGENT", "SUPER_ADMIN")
@@ -1,6 +1,7 @@
 package com.groupe.gestin_inscription.security.Jwt;
 
-import com.groupe.gestin_inscription.security.SecurityUserService.UserDetailsServiceImpl;
+import com.groupe.gestin_inscription.security.SecurityUserService.UserDetailsCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,7 +9,9 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
@@ -16,12 +19,21 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Arrays;
-
+import java.util.List;
+
+/**
+ * Authentifie les requêtes porteuses d'un JWT.
+ * Les jetons récents portent leurs rôles : l'authentification est construite à partir des
+ * seuls claims vérifiés, sans accès à la base. Les jetons plus anciens passent par UserDetailsCache.
+ * Dans les deux cas, un jeton dont la version est dépassée (déconnexion, changement de rôle ou
+ * d'identifiants) est refusé, d'après les versions gardées en mémoire par TokenVersionRegistry.
+ */
 public class AuthTokenFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     private final JwtUtils jwtUtils;
-    private final UserDetailsServiceImpl userDetailsService;
+    private final UserDetailsCache userDetailsCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
 
     // publics endpoints
     private static final String[] PUBLIC_URLS = {
@@ -31,9 +43,10 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             "/swagger-ui"
     };
 
-    public AuthTokenFilter(JwtUtils jwtUtils, UserDetailsServiceImpl userDetailsService) {
+    public AuthTokenFilter(JwtUtils jwtUtils, UserDetailsCache userDetailsCache, TokenVersionRegistry tokenVersionRegistry) {
         this.jwtUtils = jwtUtils;
-        this.userDetailsService = userDetailsService;
+        this.userDetailsCache = userDetailsCache;
+        this.tokenVersionRegistry = tokenVersionRegistry;
     }
 
     @Override
@@ -55,31 +68,28 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             String jwt = parseJwt(request);
             if (jwt != null) {
                 try {
-                    boolean isValidToken = jwtUtils.validateJwtToken(jwt);
-                    logger.info("JWT validation result for {}: {}", requestURI, isValidToken);
+                    Claims claims = jwtUtils.parseClaims(jwt);
+                    logger.debug("JWT validation result for {}: {}", requestURI, claims != null);
 
-                    if (isValidToken) {
-                        String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                        logger.info("Authenticating user: {}", username);
+                    if (claims == null) {
+                        logger.warn("❌ Invalid JWT token for request: {}", requestURI);
+                        SecurityContextHolder.clearContext();
+                    } else if (tokenVersionRegistry.isRevoked(claims.getSubject(), jwtUtils.getTokenVersion(claims))) {
+                        logger.warn("❌ Revoked JWT token for {} on request: {}", claims.getSubject(), requestURI);
+                        SecurityContextHolder.clearContext();
+                    } else {
+                        String username = claims.getSubject();
+                        logger.debug("Authenticating user: {}", username);
 
-                        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                        logger.info("User loaded: {} with authorities: {}", userDetails.getUsername(), userDetails.getAuthorities());
-                        
-                        // Log détaillé des autorités
-                        userDetails.getAuthorities().forEach(auth -> 
-                            logger.info("Authority: '{}'", auth.getAuthority())
-                        );
+                        UserDetails userDetails = loadUserDetails(claims);
+                        logger.debug("User loaded: {} with authorities: {}", userDetails.getUsername(), userDetails.getAuthorities());
 
                         UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                                 userDetails, null, userDetails.getAuthorities());
                         authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                         SecurityContextHolder.getContext().setAuthentication(authentication);
-                        logger.info("✅ Authentication successful for: {}", username);
-
-                    } else {
-                        logger.warn("❌ Invalid JWT token for request: {}", requestURI);
-                        SecurityContextHolder.clearContext();
+                        logger.debug("✅ Authentication successful for: {}", username);
                     }
                 } catch (Exception e) {
                     logger.error("❌ JWT processing failed for {}: {}", requestURI, e.getMessage());
@@ -98,7 +108,7 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         // Log final authentication state
         var currentAuth = SecurityContextHolder.getContext().getAuthentication();
         if (currentAuth != null && currentAuth.isAuthenticated()) {
-            logger.info("✅ Final auth state: {} with roles: {}", currentAuth.getName(), currentAuth.getAuthorities());
+            logger.debug("✅ Final auth state: {} with roles: {}", currentAuth.getName(), currentAuth.getAuthorities());
         } else {
             logger.debug("❌ No valid authentication for: {}", requestURI);
         }
@@ -106,6 +116,18 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails loadUserDetails(Claims claims) {
+        List<GrantedAuthority> authorities = jwtUtils.getAuthorities(claims);
+        if (authorities == null) {
+            // Jeton émis avant l'ajout des rôles : le compte est relu via le cache
+            return userDetailsCache.loadUserByUsername(claims.getSubject());
+        }
+        return User.withUsername(claims.getSubject())
+                .password("")
+                .authorities(authorities)
+                .build();
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
         logger.debug("Authorization header: {}", headerAuth != null ? "Bearer ***" : "null");
@@ -2,57 +2,93 @@ package com.groupe.gestin_inscription.security.Jwt;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    /** Autorités du compte au moment de l'émission. */
+    public static final String ROLES_CLAIM = "roles";
+    /** Identifiant du compte, quand il est connu de l'appelant. */
+    public static final String USER_ID_CLAIM = "uid";
+    /** Version des jetons du compte, comparée à TokenVersionRegistry. */
+    public static final String VERSION_CLAIM = "ver";
+
     @Value("${gestin_inscription.app.jwtSecret}") // Secret key from application.properties
     private String jwtSecret;
 
     @Value("${gestin_inscription.app.jwtExpirationMs}") // Expiration time from application.properties
     private long jwtExpirationMs;
 
-    public String generateJwtToken(Authentication authentication) {
-        org.springframework.security.core.userdetails.User userPrincipal =
-                (org.springframework.security.core.userdetails.User) authentication.getPrincipal();
+    private final TokenVersionRegistry tokenVersionRegistry;
 
-        return Jwts.builder()
-                .setSubject((userPrincipal.getUsername()))
-                .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
-                .compact();
+    // Clé HMAC et parser construits une seule fois : ils sont immuables et thread-safe
+    private Key signingKey;
+    private JwtParser parser;
+
+    public JwtUtils(TokenVersionRegistry tokenVersionRegistry) {
+        this.tokenVersionRegistry = tokenVersionRegistry;
     }
 
-    private Key key() {
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Base64.getDecoder().decode(jwtSecret));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .setAllowedClockSkewSeconds(300) // 5 minutes de tolérance
+                .build();
+    }
 
-        byte[] keyBytes = Base64.getDecoder().decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public String generateJwtToken(Authentication authentication) {
+        return generateJwtToken(authentication, null);
     }
 
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().getSubject();
+    /**
+     * Émet un jeton autoportant : rôles, version et identifiant éventuel du compte,
+     * pour que AuthTokenFilter authentifie les requêtes sans interroger la base.
+     */
+    public String generateJwtToken(Authentication authentication, Long userId) {
+        org.springframework.security.core.userdetails.User userPrincipal =
+                (org.springframework.security.core.userdetails.User) authentication.getPrincipal();
+        String subject = userPrincipal.getUsername();
+        List<String> roles = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+
+        JwtBuilder builder = Jwts.builder()
+                .setSubject(subject)
+                .claim(ROLES_CLAIM, roles)
+                .claim(VERSION_CLAIM, tokenVersionRegistry.currentVersion(subject))
+                .setIssuedAt(new Date())
+                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs));
+        if (userId != null) {
+            builder.claim(USER_ID_CLAIM, userId);
+        }
+        return builder.signWith(signingKey, SignatureAlgorithm.HS256).compact();
     }
 
-    public boolean validateJwtToken(String authToken) {
+    /**
+     * Vérifie la signature et l'expiration du jeton en une seule analyse.
+     *
+     * @return les claims vérifiés, ou null si le jeton est invalide
+     */
+    public Claims parseClaims(String token) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(key())
-                .setAllowedClockSkewSeconds(300) // 5 minutes de tolérance
-                .build()
-                .parse(authToken);
-            return true;
+            return parser.parseClaimsJws(token).getBody();
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -61,7 +97,46 @@ public class JwtUtils {
             logger.error("JWT token is unsupported: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
+        } catch (JwtException e) {
+            logger.error("JWT signature is invalid: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Autorités portées par le jeton, ou null pour un jeton émis avant l'ajout du claim.
+     */
+    public List<GrantedAuthority> getAuthorities(Claims claims) {
+        Object roles = claims.get(ROLES_CLAIM);
+        if (!(roles instanceof Collection<?> values)) {
+            return null;
         }
-        return false;
+        return values.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(role)))
+                .toList();
+    }
+
+    /**
+     * Version portée par le jeton ; 0 pour les jetons émis avant l'ajout du claim.
+     */
+    public int getTokenVersion(Claims claims) {
+        Object version = claims.get(VERSION_CLAIM);
+        return version instanceof Number number ? number.intValue() : 0;
+    }
+
+    /**
+     * Identifiant du compte porté par le jeton, ou null s'il n'a pas été fourni à l'émission.
+     */
+    public Long getUserId(Claims claims) {
+        Object userId = claims.get(USER_ID_CLAIM);
+        return userId instanceof Number number ? number.longValue() : null;
+    }
+
+    public String getUserNameFromJwtToken(String token) {
+        return parser.parseClaimsJws(token).getBody().getSubject();
+    }
+
+    public boolean validateJwtToken(String authToken) {
+        return parseClaims(authToken) != null;
     }
 }
@@ -0,0 +1,75 @@
+package com.groupe.gestin_inscription.security.Jwt;
+
+import com.groupe.gestin_inscription.model.User;
+import com.groupe.gestin_inscription.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Authentifie la session STOMP à partir du JWT envoyé dans l'en-tête Authorization de la trame CONNECT
+ * (un navigateur ne peut pas en ajouter à la poignée de main WebSocket).
+ * Le principal de la session porte l'identifiant du compte candidat, ce qui permet d'adresser
+ * /user/{id}/queue/notifications sans que le client choisisse sa destination.
+ */
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    /** Préfixe des principaux sans compte candidat (agents, administrateurs). */
+    public static final String ACCOUNT_PREFIX = "account:";
+
+    private final JwtUtils jwtUtils;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final UserRepository userRepository;
+
+    public StompAuthChannelInterceptor(JwtUtils jwtUtils, TokenVersionRegistry tokenVersionRegistry,
+                                       UserRepository userRepository) {
+        this.jwtUtils = jwtUtils;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.CONNECT) {
+            return message;
+        }
+        String header = accessor.getFirstNativeHeader("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            throw new AccessDeniedException("Jeton manquant");
+        }
+        Claims claims = jwtUtils.parseClaims(header.substring(7));
+        if (claims == null || tokenVersionRegistry.isRevoked(claims.getSubject(), jwtUtils.getTokenVersion(claims))) {
+            throw new AccessDeniedException("Jeton invalide");
+        }
+        List<GrantedAuthority> authorities = jwtUtils.getAuthorities(claims);
+        accessor.setUser(new UsernamePasswordAuthenticationToken(principalName(claims), null,
+                authorities != null ? authorities : List.of()));
+        return message;
+    }
+
+    private String principalName(Claims claims) {
+        Long userId = jwtUtils.getUserId(claims);
+        if (userId != null) {
+            return String.valueOf(userId);
+        }
+        // Jeton émis sans identifiant : une seule recherche, à la connexion
+        String subject = claims.getSubject();
+        return userRepository.findByEmail(subject)
+                .or(() -> userRepository.findByUsername(subject))
+                .map(User::getId)
+                .map(String::valueOf)
+                .orElse(ACCOUNT_PREFIX + subject);
+    }
+}
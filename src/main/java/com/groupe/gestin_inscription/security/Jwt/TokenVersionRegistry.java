@@ -0,0 +1,121 @@
+package com.groupe.gestin_inscription.security.Jwt;
+
+import com.groupe.gestin_inscription.events.UserAccountChangedEvent;
+import com.groupe.gestin_inscription.model.TokenVersion;
+import com.groupe.gestin_inscription.repository.TokenVersionRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Liste de révocation des JWT, sous forme d'une version de jeton par compte.
+ * Les versions sont gardées en mémoire : AuthTokenFilter les consulte sans requête SQL.
+ * La table token_version les rend persistantes et est relue périodiquement pour
+ * propager les révocations faites par les autres instances. updated_at et le curseur de
+ * synchronisation viennent tous deux de l'horloge de la base : un décalage d'horloge entre
+ * instances ne fait manquer aucune révocation.
+ * Chaque révocation est écrite dans sa propre transaction : appelée après la validation
+ * de la transaction de l'événement, elle ne peut pas s'y rattacher.
+ */
+@Component
+public class TokenVersionRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(TokenVersionRegistry.class);
+
+    // Couvre une révocation horodatée juste avant la lecture mais validée juste après
+    private static final Duration SYNC_MARGIN = Duration.ofSeconds(5);
+
+    private final TokenVersionRepository tokenVersionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+    private final Map<String, Integer> versions = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastSync = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    public TokenVersionRegistry(TokenVersionRepository tokenVersionRepository,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager) {
+        this.tokenVersionRepository = tokenVersionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    void load() {
+        refresh();
+        logger.info("Token versions loaded for {} account(s)", versions.size());
+    }
+
+    /**
+     * Relit les versions modifiées depuis la dernière synchronisation.
+     */
+    @Scheduled(fixedDelayString = "${app.security.token-version.refresh-ms:30000}")
+    public void refresh() {
+        LocalDateTime since = lastSync.minus(SYNC_MARGIN);
+        LocalDateTime now = jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", LocalDateTime.class);
+        for (TokenVersion tokenVersion : tokenVersionRepository.findByUpdatedAtAfter(since)) {
+            versions.merge(tokenVersion.getSubject(), tokenVersion.getVersion(), Math::max);
+        }
+        lastSync = now;
+    }
+
+    public int currentVersion(String subject) {
+        return versions.getOrDefault(subject, 0);
+    }
+
+    public boolean isRevoked(String subject, int tokenVersion) {
+        return tokenVersion < currentVersion(subject);
+    }
+
+    /**
+     * Invalide tous les jetons déjà émis pour ces sujets.
+     */
+    public void revoke(Collection<String> subjects) {
+        for (String subject : subjects) {
+            int version = bump(subject);
+            versions.merge(subject, version, Math::max);
+            logger.info("Tokens revoked for {}", subject);
+        }
+    }
+
+    private int bump(String subject) {
+        Integer version = requiresNew.execute(status -> incrementAndRead(subject));
+        if (version != null) {
+            return version;
+        }
+        try {
+            requiresNew.executeWithoutResult(status -> tokenVersionRepository.insertFirstVersion(subject));
+            return 1;
+        } catch (DataIntegrityViolationException e) {
+            // Ligne créée entre-temps par une autre instance
+            return requiresNew.execute(status -> incrementAndRead(subject));
+        }
+    }
+
+    private Integer incrementAndRead(String subject) {
+        if (tokenVersionRepository.incrementVersion(subject) == 0) {
+            return null;
+        }
+        return tokenVersionRepository.findVersion(subject).orElse(null);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        if (event.isRevokeTokens()) {
+            revoke(event.getSubjects());
+        }
+    }
+}
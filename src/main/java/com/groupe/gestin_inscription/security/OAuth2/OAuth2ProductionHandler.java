@@ -1,5 +1,6 @@
 package com.groupe.gestin_inscription.security.OAuth2;
 
+import com.groupe.gestin_inscription.events.UserAccountChangedEvent;
 import com.groupe.gestin_inscription.model.Administrator;
 import com.groupe.gestin_inscription.model.User;
 import com.groupe.gestin_inscription.model.Enums.AdministratorRole;
@@ -13,6 +14,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Profile;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.core.user.OAuth2User;
@@ -39,6 +41,9 @@ public class OAuth2ProductionHandler extends SimpleUrlAuthenticationSuccessHandl
     @Autowired
     private LoginAuditService loginAuditService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Value("${app.frontend.url:http://localhost:4200}")
     private String frontendUrl;
 
@@ -118,6 +123,7 @@ public class OAuth2ProductionHandler extends SimpleUrlAuthenticationSuccessHandl
                 
                 // Mettre à jour le rôle et les noms pour les utilisateurs OAuth2
                 logger.info("🔄 Updating OAuth2 user: {} (current role: {})", email, user.getRole());
+                AdministratorRole previousRole = user.getRole();
                 user.setRole(AdministratorRole.CANDIDATE);
                 
                 // Mettre à jour les noms si disponibles, sinon utiliser l'email
@@ -134,6 +140,8 @@ public class OAuth2ProductionHandler extends SimpleUrlAuthenticationSuccessHandl
                 }
                 
                 user = administratorRepository.save(user);
+                eventPublisher.publishEvent(new UserAccountChangedEvent(
+                        previousRole != AdministratorRole.CANDIDATE, user.getUserName(), user.getEmail()));
                 
                 // S'assurer que l'utilisateur existe aussi dans la table User
                 createUserRecord(user);
@@ -0,0 +1,45 @@
+package com.groupe.gestin_inscription.security.RateLimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Seaux Bucket4j en mémoire, dans un cache borné : au plus {@code max-buckets} clés,
+ * oubliées après une période de recharge sans requête (le seau serait de nouveau plein).
+ * Une rafale d'adresses X-Forwarded-For forgées ne fait donc que renouveler le cache.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimitBucketStore implements RateLimitBucketStore {
+
+    private final Cache<String, Bucket> buckets;
+
+    public LocalRateLimitBucketStore(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfterAccess(properties.longestPeriod())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "rateLimitBuckets");
+    }
+
+    @Override
+    public boolean tryConsume(String key, RateLimitProperties.Policy policy) {
+        return buckets.get(key, k -> newBucket(policy)).tryConsume(1);
+    }
+
+    private static Bucket newBucket(RateLimitProperties.Policy policy) {
+        Bandwidth limit = Bandwidth.classic(policy.getCapacity(),
+                Refill.intervally(policy.getCapacity(), policy.getPeriod()));
+        return Bucket.builder()
+                .addLimit(limit)
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.groupe.gestin_inscription.security.RateLimit;
+
+import com.groupe.gestin_inscription.repository.RateLimitBucketRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Seaux partagés par toutes les réplicas dans la table rate_limit_bucket : la limite tient
+ * quelle que soit la réplique qui reçoit la requête. Un upsert par requête limitée ;
+ * la recharge y est continue (capacity jetons répartis sur period).
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "postgres")
+@RequiredArgsConstructor
+@Slf4j
+public class PostgresRateLimitBucketStore implements RateLimitBucketStore {
+
+    private final RateLimitBucketRepository rateLimitBucketRepository;
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean tryConsume(String key, RateLimitProperties.Policy policy) {
+        double refillPerSecond = policy.getCapacity() / (policy.getPeriod().toMillis() / 1000.0);
+        try {
+            return rateLimitBucketRepository.tryConsume(key, policy.getCapacity(), refillPerSecond, LocalDateTime.now());
+        } catch (DataAccessException e) {
+            // Base indisponible : on laisse passer plutôt que de bloquer toute l'authentification
+            meterRegistry.counter("rate.limit.store.errors").increment();
+            log.warn("Seau de limitation {} illisible, requête autorisée", key, e);
+            return true;
+        }
+    }
+
+    /**
+     * Purge des seaux inactifs. Suppression idempotente : sans verrou, plusieurs réplicas peuvent la lancer.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.cleanup-interval:PT10M}")
+    public void purgeIdleBuckets() {
+        int deleted = rateLimitBucketRepository.deleteIdleSince(LocalDateTime.now().minus(properties.longestPeriod()));
+        if (deleted > 0) {
+            log.debug("{} seaux de limitation inactifs supprimés", deleted);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.groupe.gestin_inscription.security.RateLimit;
+
+/**
+ * Stockage des seaux de jetons du RateLimitingFilter : en mémoire sur chaque réplique (local)
+ * ou partagé entre répliques dans la table rate_limit_bucket (postgres), selon app.rate-limit.store.
+ */
+public interface RateLimitBucketStore {
+
+    /**
+     * Consomme un jeton du seau {@code key} ; false si le seau est vide.
+     */
+    boolean tryConsume(String key, RateLimitProperties.Policy policy);
+}
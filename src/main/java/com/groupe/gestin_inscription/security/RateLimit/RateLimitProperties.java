@@ -0,0 +1,59 @@
+package com.groupe.gestin_inscription.security.RateLimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Politiques de limitation de débit par groupe d'endpoints (app.rate-limit.policies.&lt;nom&gt;.*).
+ * Chaque politique a son propre seau par IP cliente : {@code capacity} requêtes,
+ * rechargées en totalité sur {@code period}.
+ */
+@ConfigurationProperties(prefix = "app.rate-limit")
+@Data
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Nombre maximal de seaux gardés en mémoire (mode local). */
+    private long maxBuckets = 100_000;
+
+    private Map<String, Policy> policies = new LinkedHashMap<>();
+
+    @Data
+    public static class Policy {
+        /** Préfixes d'URI couverts par la politique. */
+        private List<String> paths = new ArrayList<>();
+        private long capacity = 20;
+        private Duration period = Duration.ofMinutes(1);
+    }
+
+    /**
+     * Politique du premier groupe dont un préfixe couvre l'URI, ou null.
+     */
+    public Map.Entry<String, Policy> match(String requestUri) {
+        for (Map.Entry<String, Policy> policy : policies.entrySet()) {
+            for (String path : policy.getValue().getPaths()) {
+                if (requestUri.startsWith(path)) {
+                    return policy;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Période la plus longue : au-delà, un seau inactif est de toute façon plein et peut être oublié.
+     */
+    public Duration longestPeriod() {
+        return policies.values().stream()
+                .map(Policy::getPeriod)
+                .max(Duration::compareTo)
+                .orElse(Duration.ofMinutes(1));
+    }
+}
@@ -0,0 +1,82 @@
+package com.groupe.gestin_inscription.security.SecurityUserService;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.groupe.gestin_inscription.events.UserAccountChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Cache borné des UserDetails utilisés par AuthTokenFilter, indexé par le sujet du JWT.
+ * Évite les (jusqu'à) quatre requêtes de UserDetailsServiceImpl à chaque requête authentifiée.
+ * Les entrées expirent après {@code app.security.user-cache.ttl} et sont évincées
+ * dès qu'un compte est modifié ou supprimé.
+ * Le mot de passe n'est jamais mis en cache, et chaque appel reçoit sa propre copie :
+ * un eraseCredentials() en aval ne peut pas altérer l'entrée partagée.
+ */
+@Component
+@Slf4j
+public class UserDetailsCache {
+
+    private final UserDetailsServiceImpl userDetailsService;
+    private final Cache<String, UserDetails> cache;
+
+    public UserDetailsCache(UserDetailsServiceImpl userDetailsService,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.security.user-cache.max-size:10000}") long maxSize,
+                            @Value("${app.security.user-cache.ttl:PT5M}") Duration ttl) {
+        this.userDetailsService = userDetailsService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDetails");
+    }
+
+    /**
+     * @throws UsernameNotFoundException si aucun compte ne correspond (les absences ne sont pas mises en cache)
+     */
+    public UserDetails loadUserByUsername(String subject) throws UsernameNotFoundException {
+        UserDetails cached = cache.get(subject, key -> withoutPassword(userDetailsService.loadUserByUsername(key)));
+        return User.withUserDetails(cached).build();
+    }
+
+    /**
+     * Évince les entrées d'un compte ; passer tous ses identifiants (email, nom d'utilisateur, anciens et nouveaux).
+     */
+    public void evict(String... subjects) {
+        for (String subject : subjects) {
+            if (subject != null) {
+                cache.invalidate(subject);
+            }
+        }
+    }
+
+    /**
+     * Éviction après validation de la transaction : une lecture concurrente ne peut pas
+     * remettre en cache l'ancien état du compte.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        evict(event.getSubjects().toArray(new String[0]));
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+        log.debug("UserDetails cache cleared");
+    }
+
+    private UserDetails withoutPassword(UserDetails details) {
+        return User.withUserDetails(details).password("").build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.groupe.gestin_inscription.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.groupe.gestin_inscription.repository.LoginAuditRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.stream.Stream;
+
+/**
+ * Compteurs en mémoire des connexions échouées récentes, par nom d'utilisateur et par IP,
+ * sur une fenêtre glissante : remplace les COUNT sur login_audit à chaque tentative de connexion.
+ * Chaque clé garde les horodatages de ses derniers échecs (au plus {@code max-tracked}) ;
+ * les clés inactives depuis {@code retention} sont évincées, et le nombre de clés est borné.
+ * Rechargé depuis login_audit au démarrage pour qu'un redémarrage ne remette pas les compteurs à zéro.
+ */
+@Component
+@Slf4j
+public class FailedLoginTracker {
+
+    private final LoginAuditRepository loginAuditRepository;
+    private final Duration retention;
+    private final int maxTracked;
+    private final Cache<String, FailureWindow> byUsername;
+    private final Cache<String, FailureWindow> byIp;
+
+    public FailedLoginTracker(LoginAuditRepository loginAuditRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.security.login-throttle.retention:PT1H}") Duration retention,
+                              @Value("${app.security.login-throttle.max-keys:100000}") long maxKeys,
+                              @Value("${app.security.login-throttle.max-tracked:32}") int maxTracked) {
+        this.loginAuditRepository = loginAuditRepository;
+        this.retention = retention;
+        this.maxTracked = maxTracked;
+        this.byUsername = newCache(maxKeys);
+        this.byIp = newCache(maxKeys);
+        CaffeineCacheMetrics.monitor(meterRegistry, byUsername, "failedLogins.username");
+        CaffeineCacheMetrics.monitor(meterRegistry, byIp, "failedLogins.ip");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        long start = System.nanoTime();
+        int[] loaded = {0};
+        try (Stream<Object[]> rows = loginAuditRepository.streamFailedLoginsSince(LocalDateTime.now().minus(retention))) {
+            rows.forEach(row -> {
+                long time = ((LocalDateTime) row[2]).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                record((String) row[0], (String) row[1], time);
+                loaded[0]++;
+            });
+        }
+        log.info("Compteurs de connexions échouées chargés: {} tentatives en {} ms",
+                loaded[0], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void recordFailure(String username, String ipAddress) {
+        record(username, ipAddress, System.currentTimeMillis());
+    }
+
+    /**
+     * Vrai si la fenêtre demandée est couverte par les horodatages conservés en mémoire.
+     */
+    public boolean covers(Duration window) {
+        return window.compareTo(retention) <= 0;
+    }
+
+    public int countUserFailures(String username, Duration window) {
+        return count(byUsername, username, window);
+    }
+
+    public int countIpFailures(String ipAddress, Duration window) {
+        return count(byIp, ipAddress, window);
+    }
+
+    private void record(String username, String ipAddress, long time) {
+        if (username != null) {
+            byUsername.get(username, key -> new FailureWindow(maxTracked)).add(time);
+        }
+        if (ipAddress != null) {
+            byIp.get(ipAddress, key -> new FailureWindow(maxTracked)).add(time);
+        }
+    }
+
+    private int count(Cache<String, FailureWindow> cache, String key, Duration window) {
+        if (key == null) {
+            return 0;
+        }
+        FailureWindow failures = cache.getIfPresent(key);
+        return failures == null ? 0 : failures.countSince(System.currentTimeMillis() - window.toMillis());
+    }
+
+    private Cache<String, FailureWindow> newCache(long maxKeys) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(retention)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Derniers horodatages d'échec d'une clé, dans un tampon circulaire : au-delà de sa capacité,
+     * les plus anciens sont écrasés (les seuils de blocage restent bien en dessous).
+     */
+    static final class FailureWindow {
+        private final long[] times;
+        private int next;
+        private int size;
+
+        FailureWindow(int capacity) {
+            this.times = new long[capacity];
+        }
+
+        synchronized void add(long time) {
+            times[next] = time;
+            next = (next + 1) % times.length;
+            size = Math.min(size + 1, times.length);
+        }
+
+        synchronized int countSince(long since) {
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (times[i] > since) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.services.serviceImpl.SchedulerLockService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stockage de login_audit partitionné par mois (PostgreSQL, partitionnement par plage sur login_time).
+ * <ul>
+ *   <li>Au premier passage, la table ordinaire créée par Hibernate est convertie : elle est renommée puis rattachée
+ *   telle quelle comme partition « historique » couvrant tout jusqu'à la fin du mois courant, sans copie.
+ *   Le parcours de la table et la construction de l'index unique se font en amont sans bloquer les écritures ;
+ *   seul le rattachement, instantané, se fait sous verrou exclusif.</li>
+ *   <li>Les partitions mensuelles sont créées {@code premake-months} mois à l'avance.</li>
+ *   <li>Les partitions dont toutes les lignes dépassent la rétention sont détachées puis supprimées :
+ *   la purge ne coûte qu'un DROP TABLE, sans DELETE ni VACUUM.</li>
+ * </ul>
+ * Exécuté au démarrage puis chaque nuit, sur un seul réplica (verrou scheduler_lock).
+ */
+@Component
+@ConditionalOnProperty(name = "app.security.login-audit.partitioning.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class LoginAuditPartitionManager {
+
+    static final String PARTITION_JOB = "login-audit-partitions";
+
+    private static final String TABLE = "login_audit";
+    private static final String ID_SEQUENCE = "login_audit_partitioned_id_seq";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("'y'yyyy'm'MM");
+    private static final Pattern MONTHLY = Pattern.compile("login_audit_y(\\d{4})m(\\d{2})");
+    private static final String BOUND_CHECK = "login_audit_historical_bound";
+    private static final String PARTITION_KEY_INDEX = "login_audit_id_login_time_key";
+    private static final String LOCK_TIMEOUT = "5s";
+    private static final Pattern HISTORICAL = Pattern.compile("login_audit_upto_y(\\d{4})m(\\d{2})");
+
+    // Index de l'entité LoginAudit, recréés sur la table partitionnée
+    private static final Map<String, String> INDEXES = Map.of(
+            "idx_login_audit_username_time", "username, login_time",
+            "idx_login_audit_ip_time", "ip_address, login_time",
+            "idx_login_audit_time", "login_time");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLockService schedulerLockService;
+    private final int retentionMonths;
+    private final int premakeMonths;
+
+    public LoginAuditPartitionManager(JdbcTemplate jdbcTemplate,
+                                      PlatformTransactionManager transactionManager,
+                                      SchedulerLockService schedulerLockService,
+                                      @Value("${app.security.login-audit.retention-months:12}") int retentionMonths,
+                                      @Value("${app.security.login-audit.partitioning.premake-months:3}") int premakeMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.schedulerLockService = schedulerLockService;
+        this.retentionMonths = retentionMonths;
+        this.premakeMonths = premakeMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.security.login-audit.partitioning.cron:0 30 1 * * *}")
+    public void maintain() {
+        schedulerLockService.runExclusively(PARTITION_JOB, this::doMaintain);
+    }
+
+    void doMaintain() {
+        YearMonth current = YearMonth.now();
+        try {
+            String kind = jdbcTemplate.queryForObject(
+                    "SELECT (SELECT relkind::text FROM pg_class WHERE oid = to_regclass(?))", String.class, TABLE);
+            if (kind == null) {
+                log.warn("Table {} absente, partitionnement ignoré", TABLE);
+                return;
+            }
+            if (!"p".equals(kind)) {
+                YearMonth historicalEnd = prepareConversion(current);
+                transactionTemplate.executeWithoutResult(status -> convert(historicalEnd));
+            }
+            createAhead(current);
+            dropExpired();
+        } catch (DataAccessException e) {
+            // Les partitions créées d'avance laissent le temps de corriger avant le prochain passage
+            log.error("Maintenance des partitions de {} échouée", TABLE, e);
+        }
+    }
+
+    /**
+     * Prépare la conversion sans bloquer les écritures, hors transaction : contrainte CHECK sur la borne de la
+     * future partition historique validée en ligne, et index unique (id, login_time) construit en CONCURRENTLY.
+     * ATTACH PARTITION s'appuie ensuite sur l'une et l'autre au lieu de parcourir la table et de construire l'index
+     * sous verrou exclusif. Rejouable si un passage précédent a échoué en cours de route.
+     * @return borne haute (exclue) de la partition historique
+     */
+    private YearMonth prepareConversion(YearMonth current) {
+        LocalDateTime newest = jdbcTemplate.queryForObject("SELECT MAX(login_time) FROM " + TABLE, LocalDateTime.class);
+        YearMonth historicalEnd = (newest != null && YearMonth.from(newest).isAfter(current)
+                ? YearMonth.from(newest) : current).plusMonths(1);
+
+        // NOT VALID : verrou bref, sans parcours ; VALIDATE parcourt la table sans bloquer les écritures
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP CONSTRAINT IF EXISTS " + BOUND_CHECK);
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD CONSTRAINT " + BOUND_CHECK
+                + " CHECK (login_time < '" + historicalEnd.atDay(1) + "') NOT VALID");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " VALIDATE CONSTRAINT " + BOUND_CHECK);
+
+        // Un CREATE INDEX CONCURRENTLY interrompu laisse un index invalide, à reconstruire
+        Boolean valid = jdbcTemplate.queryForObject(
+                "SELECT (SELECT indisvalid FROM pg_index WHERE indexrelid = to_regclass(?))", Boolean.class, PARTITION_KEY_INDEX);
+        if (Boolean.FALSE.equals(valid)) {
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + PARTITION_KEY_INDEX);
+        }
+        jdbcTemplate.execute("CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS " + PARTITION_KEY_INDEX
+                + " ON " + TABLE + " (id, login_time)");
+        return historicalEnd;
+    }
+
+    /**
+     * Convertit login_audit en table partitionnée, dans une seule transaction. Le verrou exclusif ne couvre que
+     * des opérations sur le catalogue : renommages, création de la table mère et rattachement, validé par la
+     * contrainte CHECK et l'index unique préparés par {@link #prepareConversion}.
+     */
+    private void convert(YearMonth historicalEnd) {
+        String historical = "login_audit_upto_" + historicalEnd.format(SUFFIX);
+
+        // Échoue plutôt que de bloquer les connexions derrière une longue requête ; retenté au prochain passage
+        jdbcTemplate.execute("SET LOCAL lock_timeout = '" + LOCK_TIMEOUT + "'");
+        jdbcTemplate.execute("LOCK TABLE " + TABLE + " IN ACCESS EXCLUSIVE MODE");
+        long nextId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM " + TABLE, Long.class);
+
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + historical);
+        // La clé primaire (id) laisse place à (id, login_time), adossée à l'index déjà construit
+        jdbcTemplate.execute("ALTER TABLE " + historical + " DROP CONSTRAINT IF EXISTS " + TABLE + "_pkey");
+        jdbcTemplate.execute("ALTER TABLE " + historical + " ADD CONSTRAINT " + historical + "_pkey "
+                + "PRIMARY KEY USING INDEX " + PARTITION_KEY_INDEX);
+        for (String index : INDEXES.keySet()) {
+            jdbcTemplate.execute("ALTER INDEX IF EXISTS " + index + " RENAME TO "
+                    + index.replace("idx_login_audit", "idx_" + historical));
+        }
+        // Identifiants fournis par la séquence de la table partitionnée
+        jdbcTemplate.execute("ALTER TABLE " + historical + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+        jdbcTemplate.execute("ALTER TABLE " + historical + " ALTER COLUMN id DROP DEFAULT");
+
+        jdbcTemplate.execute("CREATE TABLE " + TABLE + " (LIKE " + historical + " INCLUDING DEFAULTS) "
+                + "PARTITION BY RANGE (login_time)");
+        jdbcTemplate.execute("CREATE SEQUENCE " + ID_SEQUENCE + " START WITH " + nextId);
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ALTER COLUMN id SET DEFAULT nextval('" + ID_SEQUENCE + "')");
+        jdbcTemplate.execute("ALTER SEQUENCE " + ID_SEQUENCE + " OWNED BY " + TABLE + ".id");
+        // La clé de partitionnement doit faire partie de la clé primaire ; table mère vide, index créés sans coût
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD CONSTRAINT " + TABLE + "_pkey PRIMARY KEY (id, login_time)");
+        INDEXES.forEach((index, columns) ->
+                jdbcTemplate.execute("CREATE INDEX " + index + " ON " + TABLE + " (" + columns + ")"));
+
+        // Sans parcours ni construction d'index : la contrainte CHECK couvre la borne, les index existants sont rattachés
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + historical
+                + " FOR VALUES FROM (MINVALUE) TO ('" + historicalEnd.atDay(1) + "')");
+        jdbcTemplate.execute("ALTER TABLE " + historical + " DROP CONSTRAINT " + BOUND_CHECK);
+        log.info("Table {} convertie en table partitionnée par mois, lignes existantes dans {}", TABLE, historical);
+    }
+
+    private void createAhead(YearMonth current) {
+        List<Partition> partitions = partitions();
+        for (YearMonth month = current; !month.isAfter(current.plusMonths(premakeMonths)); month = month.plusMonths(1)) {
+            YearMonth target = month;
+            if (partitions.stream().anyMatch(partition -> partition.covers(target))) {
+                continue;
+            }
+            String name = "login_audit_" + month.format(SUFFIX);
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + TABLE
+                    + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+            log.info("Partition {} créée", name);
+        }
+    }
+
+    /**
+     * Supprime les partitions dont la borne haute est antérieure à la rétention.
+     */
+    private void dropExpired() {
+        LocalDate cutoff = LocalDate.now().minusMonths(retentionMonths);
+        for (Partition partition : partitions()) {
+            if (partition.to().atDay(1).isAfter(cutoff)) {
+                continue;
+            }
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition.name());
+            jdbcTemplate.execute("DROP TABLE " + partition.name());
+            log.info("Partition {} supprimée (rétention de {} mois)", partition.name(), retentionMonths);
+        }
+    }
+
+    private List<Partition> partitions() {
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = to_regclass(?)", String.class, TABLE);
+        List<Partition> partitions = new ArrayList<>();
+        for (String name : names) {
+            Partition partition = Partition.parse(name);
+            if (partition != null) {
+                partitions.add(partition);
+            } else {
+                log.warn("Partition {} ignorée : nom non reconnu", name);
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * Partition [from, to) ; from null pour la partition historique (MINVALUE).
+     */
+    record Partition(String name, YearMonth from, YearMonth to) {
+
+        static Partition parse(String name) {
+            Matcher monthly = MONTHLY.matcher(name);
+            if (monthly.matches()) {
+                YearMonth month = YearMonth.of(Integer.parseInt(monthly.group(1)), Integer.parseInt(monthly.group(2)));
+                return new Partition(name, month, month.plusMonths(1));
+            }
+            Matcher historical = HISTORICAL.matcher(name);
+            if (historical.matches()) {
+                return new Partition(name, null,
+                        YearMonth.of(Integer.parseInt(historical.group(1)), Integer.parseInt(historical.group(2))));
+            }
+            return null;
+        }
+
+        boolean covers(YearMonth month) {
+            return (from == null || !month.isBefore(from)) && month.isBefore(to);
+        }
+    }
+}
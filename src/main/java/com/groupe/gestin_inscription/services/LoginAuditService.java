@@ -1,13 +1,22 @@
 package com.groupe.gestin_inscription.services;
 
+import com.groupe.gestin_inscription.dto.response.LoginAuditPageDto;
 import com.groupe.gestin_inscription.model.LoginAudit;
 import com.groupe.gestin_inscription.repository.LoginAuditRepository;
+import com.groupe.gestin_inscription.security.Utils.ClientIpResolver;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,21 +26,30 @@ import java.util.UUID;
 public class LoginAuditService {
     
     private final LoginAuditRepository loginAuditRepository;
+    private final FailedLoginTracker failedLoginTracker;
+    private final LoginAuditWriter loginAuditWriter;
+    private final ClientIpResolver clientIpResolver;
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Value("${app.security.login-audit.history-default-window:P30D}")
+    private Duration historyDefaultWindow = Duration.ofDays(30);
     
     /**
-     * Enregistre une tentative de connexion réussie
+     * Enregistre une tentative de connexion réussie (écriture différée, voir LoginAuditWriter)
      */
     public void logSuccessfulLogin(String username, String loginMethod, HttpServletRequest request) {
         LoginAudit audit = LoginAudit.builder()
                 .username(username)
-                .ipAddress(getClientIpAddress(request))
+                .ipAddress(clientIpResolver.resolve(request))
                 .userAgent(request.getHeader("User-Agent"))
                 .loginMethod(loginMethod)
+                .loginTime(LocalDateTime.now())
                 .success(true)
                 .sessionId(UUID.randomUUID().toString())
                 .build();
         
-        loginAuditRepository.save(audit);
+        loginAuditWriter.append(audit);
         log.info("Successful login recorded for user: {} from IP: {} using method: {}", 
                 username, audit.getIpAddress(), loginMethod);
     }
@@ -42,22 +60,29 @@ public class LoginAuditService {
     public void logFailedLogin(String username, String loginMethod, String failureReason, HttpServletRequest request) {
         LoginAudit audit = LoginAudit.builder()
                 .username(username)
-                .ipAddress(getClientIpAddress(request))
+                .ipAddress(clientIpResolver.resolve(request))
                 .userAgent(request.getHeader("User-Agent"))
                 .loginMethod(loginMethod)
+                .loginTime(LocalDateTime.now())
                 .success(false)
                 .failureReason(failureReason)
                 .build();
         
-        loginAuditRepository.save(audit);
+        loginAuditWriter.append(audit);
+        failedLoginTracker.recordFailure(username, audit.getIpAddress());
         log.warn("Failed login attempt recorded for user: {} from IP: {} using method: {} - Reason: {}", 
                 username, audit.getIpAddress(), loginMethod, failureReason);
     }
     
     /**
-     * Vérifie si un utilisateur a trop de tentatives échouées récentes
+     * Vérifie si un utilisateur a trop de tentatives échouées récentes.
+     * Lu en mémoire tant que la fenêtre tient dans la rétention du FailedLoginTracker, en base sinon.
      */
     public boolean isUserBlocked(String username, int maxAttempts, int timeWindowMinutes) {
+        Duration window = Duration.ofMinutes(timeWindowMinutes);
+        if (failedLoginTracker.covers(window)) {
+            return failedLoginTracker.countUserFailures(username, window) >= maxAttempts;
+        }
         LocalDateTime since = LocalDateTime.now().minusMinutes(timeWindowMinutes);
         Long failedAttempts = loginAuditRepository.countFailedLoginAttempts(username, since);
         return failedAttempts >= maxAttempts;
@@ -67,46 +92,73 @@ public class LoginAuditService {
      * Vérifie si une IP a trop de tentatives échouées récentes
      */
     public boolean isIpBlocked(String ipAddress, int maxAttempts, int timeWindowMinutes) {
+        Duration window = Duration.ofMinutes(timeWindowMinutes);
+        if (failedLoginTracker.covers(window)) {
+            return failedLoginTracker.countIpFailures(ipAddress, window) >= maxAttempts;
+        }
         LocalDateTime since = LocalDateTime.now().minusMinutes(timeWindowMinutes);
         Long failedAttempts = loginAuditRepository.countFailedLoginAttemptsByIp(ipAddress, since);
         return failedAttempts >= maxAttempts;
     }
     
     /**
-     * Récupère l'historique des connexions d'un utilisateur
-     */
-    public List<LoginAudit> getUserLoginHistory(String username) {
-        return loginAuditRepository.findByUsernameOrderByLoginTimeDesc(username);
-    }
-    
-    /**
-     * Récupère toutes les tentatives échouées
+     * Page de l'historique des connexions sur [from, to], la plus récente d'abord, filtrée sur un utilisateur
+     * ou sur les échecs. Pagination par clé (loginTime, id) : aucun COUNT sur l'ensemble des partitions.
+     *
+     * @param from Début de la période (défaut : to moins app.security.login-audit.history-default-window)
+     * @param to Fin de la période (défaut : maintenant)
+     * @param cursor Curseur renvoyé par la page précédente, null pour la première page
      */
-    public List<LoginAudit> getFailedLoginAttempts() {
-        return loginAuditRepository.findBySuccessOrderByLoginTimeDesc(false);
+    public LoginAuditPageDto getHistory(String username, boolean failedOnly, LocalDateTime from, LocalDateTime to,
+                                        String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minus(historyDefaultWindow);
+        HistoryCursor before = decodeCursor(cursor);
+        LocalDateTime beforeTime = before != null ? before.loginTime() : end;
+        long beforeId = before != null ? before.id() : Long.MAX_VALUE;
+
+        // Une ligne de plus pour savoir s'il reste une page
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<LoginAudit> rows;
+        boolean byUser = username != null && !username.isBlank();
+        if (byUser && failedOnly) {
+            rows = loginAuditRepository.findFailedPageForUsername(username, start, beforeTime, beforeId, page);
+        } else if (byUser) {
+            rows = loginAuditRepository.findPageForUsername(username, start, beforeTime, beforeId, page);
+        } else if (failedOnly) {
+            rows = loginAuditRepository.findFailedPage(start, beforeTime, beforeId, page);
+        } else {
+            rows = loginAuditRepository.findPage(start, beforeTime, beforeId, page);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = encodeCursor(rows.get(pageSize - 1));
+        }
+        return new LoginAuditPageDto(new ArrayList<>(rows), rows.size(), nextCursor);
     }
-    
-    /**
-     * Récupère les connexions dans une période donnée
-     */
-    public List<LoginAudit> getLoginsBetween(LocalDateTime startDate, LocalDateTime endDate) {
-        return loginAuditRepository.findByLoginTimeBetween(startDate, endDate);
+
+    static String encodeCursor(LoginAudit last) {
+        String value = last.getLoginTime() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
     }
-    
-    /**
-     * Extrait l'adresse IP réelle du client
-     */
-    private String getClientIpAddress(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
+
+    static HistoryCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
         }
-        
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            return new HistoryCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide", e);
         }
-        
-        return request.getRemoteAddr();
+    }
+
+    record HistoryCursor(LocalDateTime loginTime, long id) {
     }
 }
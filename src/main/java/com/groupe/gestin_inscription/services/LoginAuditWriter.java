@@ -0,0 +1,185 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.model.LoginAudit;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Écriture différée des traces de connexion : les requêtes de login déposent leur LoginAudit
+ * dans un tampon borné, vidé par insertions JDBC groupées toutes les {@code batch-size} traces
+ * ou toutes les {@code flush-interval-ms} millisecondes. Tampon plein : voir {@link OverflowPolicy}.
+ * Le tampon est vidé à l'arrêt de l'application.
+ */
+@Component
+@Slf4j
+public class LoginAuditWriter {
+
+    static final String INSERT_SQL = "INSERT INTO login_audit "
+            + "(username, ip_address, user_agent, login_method, login_time, success, failure_reason, session_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    public enum OverflowPolicy {
+        /** La nouvelle trace est abandonnée. */
+        DROP_NEWEST,
+        /** La plus ancienne trace en attente est abandonnée au profit de la nouvelle. */
+        DROP_OLDEST,
+        /** La requête de login vide elle-même le tampon avant de déposer sa trace. */
+        CALLER_RUNS
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final BlockingQueue<LoginAudit> buffer;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final OverflowPolicy overflowPolicy;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private ScheduledExecutorService flusher;
+    private Timer flushTimer;
+
+    public LoginAuditWriter(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.security.login-audit.buffer-size:10000}") int bufferSize,
+                            @Value("${app.security.login-audit.batch-size:100}") int batchSize,
+                            @Value("${app.security.login-audit.flush-interval-ms:1000}") long flushIntervalMs,
+                            @Value("${app.security.login-audit.overflow-policy:DROP_OLDEST}") OverflowPolicy overflowPolicy) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    @PostConstruct
+    void init() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "login-audit-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        Gauge.builder("login.audit.buffer.size", buffer, BlockingQueue::size)
+                .description("Traces de connexion en attente d'écriture")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("login.audit.flush")
+                .description("Durée d'écriture d'un lot de traces de connexion")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        log.info("Tampon des traces de connexion vidé à l'arrêt");
+    }
+
+    /**
+     * Dépose une trace dans le tampon, sans accès à la base sur le chemin de la requête
+     * (sauf politique CALLER_RUNS avec un tampon plein).
+     */
+    public void append(LoginAudit audit) {
+        if (!buffer.offer(audit)) {
+            overflow(audit);
+        }
+        if (buffer.size() >= batchSize && !flusher.isShutdown() && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flush);
+        }
+    }
+
+    private void overflow(LoginAudit audit) {
+        switch (overflowPolicy) {
+            case DROP_NEWEST -> dropped("overflow", 1);
+            case DROP_OLDEST -> {
+                while (!buffer.offer(audit)) {
+                    if (buffer.poll() != null) {
+                        dropped("overflow", 1);
+                    }
+                }
+            }
+            case CALLER_RUNS -> {
+                flush();
+                if (!buffer.offer(audit)) {
+                    write(List.of(audit));
+                }
+            }
+        }
+    }
+
+    /**
+     * Écrit tout le contenu du tampon, par lots de {@code batch-size}.
+     */
+    synchronized void flush() {
+        flushRequested.set(false);
+        List<LoginAudit> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<LoginAudit> batch) {
+        long start = System.nanoTime();
+        try {
+            // Lot tout ou rien : la reprise ligne à ligne ne crée pas de doublons
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch.stream().map(LoginAuditWriter::toRow).toList()));
+            meterRegistry.counter("login.audit.flushed").increment(batch.size());
+        } catch (DataAccessException e) {
+            log.warn("Écriture groupée de {} traces de connexion échouée, reprise ligne à ligne", batch.size(), e);
+            writeOneByOne(batch);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Isole la trace fautive (champ trop long, etc.) pour ne pas perdre le reste du lot
+    private void writeOneByOne(List<LoginAudit> batch) {
+        for (LoginAudit audit : batch) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, toRow(audit));
+                meterRegistry.counter("login.audit.flushed").increment();
+            } catch (DataAccessException e) {
+                log.error("Trace de connexion de {} perdue", audit.getUsername(), e);
+                dropped("error", 1);
+            }
+        }
+    }
+
+    private void dropped(String reason, int count) {
+        meterRegistry.counter("login.audit.dropped", "reason", reason).increment(count);
+    }
+
+    private static Object[] toRow(LoginAudit audit) {
+        return new Object[]{audit.getUsername(), audit.getIpAddress(), audit.getUserAgent(), audit.getLoginMethod(),
+                audit.getLoginTime(), audit.getSuccess(), audit.getFailureReason(), audit.getSessionId()};
+    }
+}
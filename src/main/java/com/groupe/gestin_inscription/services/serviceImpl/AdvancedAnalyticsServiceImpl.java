@@ -1,17 +1,23 @@
 package com.groupe.gestin_inscription.services.serviceImpl;
 
-import com.groupe.gestin_inscription.model.Application;
+import com.groupe.gestin_inscription.dto.response.CompletionRateSummaryDto;
+import com.groupe.gestin_inscription.dto.response.MonthlyCountDto;
+import com.groupe.gestin_inscription.dto.response.RecentApplicationDto;
+import com.groupe.gestin_inscription.dto.response.StatusCountDto;
 import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
 import com.groupe.gestin_inscription.model.Enums.AdministratorRole;
 import com.groupe.gestin_inscription.repository.ApplicationRepository;
+import com.groupe.gestin_inscription.repository.ApplicationStatusEventRepository;
 import com.groupe.gestin_inscription.repository.UserRepository;
 import com.groupe.gestin_inscription.repository.AdministratorRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.time.DayOfWeek;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -20,25 +26,33 @@ import java.util.stream.Collectors;
 @Slf4j
 public class AdvancedAnalyticsServiceImpl {
 
+    private static final int BLOCKED_APPLICATIONS_LIMIT = 50;
+    private static final int DEFAULT_WINDOW_DAYS = 90;
+
+    // Transitions comptées comme décisions d'un agent ou d'un administrateur
+    private static final Set<ApplicationStatus> DECISION_STATUSES = EnumSet.of(ApplicationStatus.AGENT_VALIDATED,
+            ApplicationStatus.CHANGES_REQUESTED, ApplicationStatus.APPROVED, ApplicationStatus.REJECTED);
+
     private final ApplicationRepository applicationRepository;
     private final UserRepository userRepository;
     private final AdministratorRepository administratorRepository;
+    private final ApplicationStatusCounterStore statusCounterStore;
+    private final ApplicationStatusEventRepository statusEventRepository;
+
+    // Durées calculées en SQL PostgreSQL (PERCENTILE_CONT, EXTRACT(EPOCH ...)) : désactivées sur H2
+    @Value("${app.analytics.status-durations.enabled:true}")
+    private boolean statusDurationsEnabled;
 
     public Map<String, Object> getDashboardStatistics() {
         Map<String, Object> stats = new HashMap<>();
         
         // Statistiques générales
-        stats.put("totalApplications", applicationRepository.count());
+        stats.put("totalApplications", statusCounterStore.total());
         stats.put("totalUsers", userRepository.count());
         stats.put("totalAgents", administratorRepository.countByRole(AdministratorRole.AGENT));
         
-        // Statistiques par statut
-        Map<String, Long> statusStats = Arrays.stream(ApplicationStatus.values())
-                .collect(Collectors.toMap(
-                    Enum::name,
-                    status -> applicationRepository.countByStatus(status)
-                ));
-        stats.put("applicationsByStatus", statusStats);
+        // Statistiques par statut, servies par les compteurs en mémoire
+        stats.put("applicationsByStatus", statusCounterStore.snapshot());
         
         // Taux de complétion
         stats.put("completionRates", getCompletionRateStatistics());
@@ -55,28 +69,37 @@ public class AdvancedAnalyticsServiceImpl {
         // Performance des agents
         stats.put("agentPerformance", getAgentPerformanceStats());
         
+        // Temps passé par statut et entonnoir, depuis l'historique des transitions
+        stats.put("timeInStatus", getTimeInStatusStatistics(DEFAULT_WINDOW_DAYS));
+        stats.put("funnel", getStatusFunnel(DEFAULT_WINDOW_DAYS));
+        
         return stats;
     }
 
+    /**
+     * Recharge les compteurs de statut depuis la base.
+     */
+    public Map<String, Long> rebuildStatusCounters() {
+        return statusCounterStore.rebuild();
+    }
+
     public Map<String, Object> getCompletionRateStatistics() {
-        List<Application> applications = applicationRepository.findAll();
+        CompletionRateSummaryDto summary = applicationRepository.summarizeCompletionRates();
         
         Map<String, Object> completionStats = new HashMap<>();
         
-        // Distribution des taux de complétion
-        Map<String, Long> completionDistribution = applications.stream()
-                .collect(Collectors.groupingBy(
-                    app -> getCompletionRangeLabel(app.getCompletionRate()),
-                    Collectors.counting()
-                ));
+        // Distribution des taux de complétion (seules les tranches non vides, comme auparavant)
+        Map<String, Long> completionDistribution = new LinkedHashMap<>();
+        putIfPositive(completionDistribution, "0-25%", summary.getBelow25());
+        putIfPositive(completionDistribution, "25-50%", summary.getBelow50());
+        putIfPositive(completionDistribution, "50-75%", summary.getBelow75());
+        putIfPositive(completionDistribution, "75-99%", summary.getBelow100());
+        putIfPositive(completionDistribution, "100%", summary.getComplete());
         
         completionStats.put("distribution", completionDistribution);
         
         // Taux moyen de complétion
-        double averageCompletion = applications.stream()
-                .mapToDouble(Application::getCompletionRate)
-                .average()
-                .orElse(0.0);
+        double averageCompletion = summary.getAverage() != null ? summary.getAverage() : 0.0;
         completionStats.put("average", Math.round(averageCompletion * 100.0) / 100.0);
         
         // Taux de complétion par étape
@@ -86,46 +109,34 @@ public class AdvancedAnalyticsServiceImpl {
     }
 
     public List<Map<String, Object>> getMonthlyTrends() {
-        List<Application> applications = applicationRepository.findAll();
+        List<MonthlyCountDto> monthlySubmissions = applicationRepository.countGroupedBySubmissionMonth();
         
-        Map<String, Long> monthlySubmissions = applications.stream()
-                .filter(app -> app.getSubmissionDate() != null)
-                .collect(Collectors.groupingBy(
-                    app -> app.getSubmissionDate().format(DateTimeFormatter.ofPattern("yyyy-MM")),
-                    Collectors.counting()
-                ));
-        
-        return monthlySubmissions.entrySet().stream()
-                .map(entry -> {
+        return monthlySubmissions.stream()
+                .map(row -> {
                     Map<String, Object> monthData = new HashMap<>();
-                    monthData.put("month", entry.getKey());
-                    monthData.put("submissions", entry.getValue());
+                    monthData.put("month", row.getMonthKey());
+                    monthData.put("submissions", row.getCount());
                     return monthData;
                 })
-                .sorted((a, b) -> ((String) a.get("month")).compareTo((String) b.get("month")))
                 .collect(Collectors.toList());
     }
 
     public Map<String, Object> getValidationHeatmap() {
-        List<Application> applications = applicationRepository.findAll();
-        
         Map<String, Object> heatmapData = new HashMap<>();
+        LocalDateTime since = LocalDateTime.now().minusDays(DEFAULT_WINDOW_DAYS);
+        
+        // Décisions par jour de la semaine (1 = dimanche en HQL), datées par l'historique des statuts
+        Map<String, Long> dayOfWeekValidations = new HashMap<>();
+        for (Object[] row : statusEventRepository.countTransitionsByDayOfWeek(DECISION_STATUSES, since)) {
+            int dayOfWeek = ((Number) row[0]).intValue();
+            dayOfWeekValidations.put(DayOfWeek.SUNDAY.plus(dayOfWeek - 1L).toString(), ((Number) row[1]).longValue());
+        }
         
-        // Validations par jour de la semaine
-        Map<String, Long> dayOfWeekValidations = applications.stream()
-                .filter(app -> app.getLastUpdated() != null)
-                .collect(Collectors.groupingBy(
-                    app -> app.getLastUpdated().getDayOfWeek().toString(),
-                    Collectors.counting()
-                ));
-        
-        // Validations par heure
-        Map<String, Long> hourlyValidations = applications.stream()
-                .filter(app -> app.getLastUpdated() != null)
-                .collect(Collectors.groupingBy(
-                    app -> String.valueOf(app.getLastUpdated().getHour()),
-                    Collectors.counting()
-                ));
+        // Décisions par heure
+        Map<String, Long> hourlyValidations = new HashMap<>();
+        for (Object[] row : statusEventRepository.countTransitionsByHour(DECISION_STATUSES, since)) {
+            hourlyValidations.put(String.valueOf(((Number) row[0]).intValue()), ((Number) row[1]).longValue());
+        }
         
         heatmapData.put("byDayOfWeek", dayOfWeekValidations);
         heatmapData.put("byHour", hourlyValidations);
@@ -136,20 +147,21 @@ public class AdvancedAnalyticsServiceImpl {
     public Map<String, Object> getBlockedApplicationsCount() {
         LocalDateTime cutoffTime = LocalDateTime.now().minusHours(48);
         
-        List<Application> blockedApplications = applicationRepository.findAll().stream()
-                .filter(app -> app.getStatus() == ApplicationStatus.MANUAL_REVIEW)
-                .filter(app -> app.getLastUpdated() != null && app.getLastUpdated().isBefore(cutoffTime))
-                .collect(Collectors.toList());
+        long blockedCount = applicationRepository.countByStatusAndLastUpdatedBefore(ApplicationStatus.MANUAL_REVIEW, cutoffTime);
+        List<RecentApplicationDto> blockedApplications = blockedCount == 0 ? List.of()
+                : applicationRepository.findStaleApplications(ApplicationStatus.MANUAL_REVIEW, cutoffTime,
+                        PageRequest.of(0, BLOCKED_APPLICATIONS_LIMIT));
         
         Map<String, Object> blockedStats = new HashMap<>();
-        blockedStats.put("count", blockedApplications.size());
+        blockedStats.put("count", blockedCount);
         blockedStats.put("applications", blockedApplications.stream()
                 .map(app -> {
                     Map<String, Object> appData = new HashMap<>();
                     appData.put("id", app.getId());
-                    appData.put("applicantName", app.getApplicantName().getFirstName() + " " + app.getApplicantName().getLastName());
+                    appData.put("applicantName", app.getFirstName() + " " + app.getLastName());
                     appData.put("submissionDate", app.getSubmissionDate());
-                    appData.put("daysSinceSubmission", java.time.Duration.between(app.getSubmissionDate(), LocalDateTime.now()).toDays());
+                    appData.put("daysSinceSubmission", app.getSubmissionDate() != null
+                            ? java.time.Duration.between(app.getSubmissionDate(), LocalDateTime.now()).toDays() : null);
                     return appData;
                 })
                 .collect(Collectors.toList()));
@@ -158,63 +170,91 @@ public class AdvancedAnalyticsServiceImpl {
     }
 
     public Map<String, Object> getAgentPerformanceStats() {
-        List<Application> processedApplications = applicationRepository.findAll().stream()
-                .filter(app -> app.getAssignedAdmin() != null)
-                .filter(app -> app.getStatus() == ApplicationStatus.APPROVED || app.getStatus() == ApplicationStatus.REJECTED)
-                .collect(Collectors.toList());
+        return getAgentPerformanceStats(DEFAULT_WINDOW_DAYS);
+    }
+
+    public Map<String, Object> getAgentPerformanceStats(int days) {
+        List<Object[]> rows = !statusDurationsEnabled ? List.of() : statusEventRepository.summarizeDecisionsByActor(
+                DECISION_STATUSES.stream().map(Enum::name).toList(), LocalDateTime.now().minusDays(days));
         
         Map<String, Object> performanceStats = new HashMap<>();
         
-        // Applications traitées par agent
-        Map<String, Long> applicationsByAgent = processedApplications.stream()
-                .collect(Collectors.groupingBy(
-                    app -> app.getAssignedAdmin().getUserName(),
-                    Collectors.counting()
-                ));
-        
-        // Temps moyen de traitement par agent
-        Map<String, Double> avgProcessingTimeByAgent = processedApplications.stream()
-                .filter(app -> app.getSubmissionDate() != null && app.getLastUpdated() != null)
-                .collect(Collectors.groupingBy(
-                    app -> app.getAssignedAdmin().getUserName(),
-                    Collectors.averagingLong(app -> 
-                        java.time.Duration.between(app.getSubmissionDate(), app.getLastUpdated()).toHours())
-                ));
+        // Décisions prises et temps moyen (heures) passé par le dossier dans son statut précédent, par agent
+        Map<String, Long> applicationsByAgent = new HashMap<>();
+        Map<String, Double> avgProcessingTimeByAgent = new HashMap<>();
+        for (Object[] row : rows) {
+            String agent = (String) row[0];
+            applicationsByAgent.put(agent, ((Number) row[1]).longValue());
+            if (row[2] != null) {
+                avgProcessingTimeByAgent.put(agent, toHours((Number) row[2]));
+            }
+        }
         
         performanceStats.put("applicationsByAgent", applicationsByAgent);
         performanceStats.put("avgProcessingTimeByAgent", avgProcessingTimeByAgent);
+        performanceStats.put("periodDays", days);
         
         return performanceStats;
     }
 
+    /**
+     * Temps passé dans chaque statut (heures), mesuré entre deux transitions successives d'un dossier.
+     * Vide si les durées sont désactivées (base H2).
+     */
+    public Map<String, Object> getTimeInStatusStatistics(int days) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Object> timeInStatus = new LinkedHashMap<>();
+        if (!statusDurationsEnabled) {
+            return timeInStatus;
+        }
+        for (Object[] row : statusEventRepository.summarizeTimeInStatus(now.minusDays(days), now)) {
+            Map<String, Object> statusData = new HashMap<>();
+            statusData.put("stays", ((Number) row[1]).longValue());
+            statusData.put("averageHours", toHours((Number) row[2]));
+            statusData.put("medianHours", toHours((Number) row[3]));
+            statusData.put("p90Hours", toHours((Number) row[4]));
+            timeInStatus.put((String) row[0], statusData);
+        }
+        return timeInStatus;
+    }
+
+    /**
+     * Entonnoir : nombre de dossiers distincts ayant atteint chaque statut sur la période, dans l'ordre du workflow.
+     */
+    public Map<String, Long> getStatusFunnel(int days) {
+        Map<ApplicationStatus, Long> reached = new EnumMap<>(ApplicationStatus.class);
+        for (StatusCountDto row : statusEventRepository.countApplicationsReachingStatus(LocalDateTime.now().minusDays(days))) {
+            reached.put(row.getStatus(), row.getCount());
+        }
+        Map<String, Long> funnel = new LinkedHashMap<>();
+        for (ApplicationStatus status : ApplicationStatus.values()) {
+            funnel.put(status.name(), reached.getOrDefault(status, 0L));
+        }
+        return funnel;
+    }
+
     public List<Map<String, Object>> getTopCountriesStatistics() {
-        List<Application> applications = applicationRepository.findAll();
-        
-        Map<String, Long> countryCounts = applications.stream()
-                .filter(app -> app.getApplicantName() != null && app.getApplicantName().getNationality() != null)
-                .collect(Collectors.groupingBy(
-                    app -> app.getApplicantName().getNationality(),
-                    Collectors.counting()
-                ));
-        
-        return countryCounts.entrySet().stream()
-                .map(entry -> {
+        return applicationRepository.countGroupedByNationality(PageRequest.of(0, 10)).stream()
+                .map(row -> {
                     Map<String, Object> countryData = new HashMap<>();
-                    countryData.put("country", entry.getKey());
-                    countryData.put("count", entry.getValue());
+                    countryData.put("country", row[0]);
+                    countryData.put("count", ((Number) row[1]).longValue());
                     return countryData;
                 })
-                .sorted((a, b) -> Long.compare((Long) b.get("count"), (Long) a.get("count")))
-                .limit(10)
                 .collect(Collectors.toList());
     }
 
-    private String getCompletionRangeLabel(double completionRate) {
-        if (completionRate < 25) return "0-25%";
-        if (completionRate < 50) return "25-50%";
-        if (completionRate < 75) return "50-75%";
-        if (completionRate < 100) return "75-99%";
-        return "100%";
+    private static Double toHours(Number seconds) {
+        if (seconds == null) {
+            return null;
+        }
+        return Math.round(seconds.doubleValue() / 3600.0 * 100.0) / 100.0;
+    }
+
+    private void putIfPositive(Map<String, Long> distribution, String label, Long count) {
+        if (count != null && count > 0) {
+            distribution.put(label, count);
+        }
     }
 
     private Map<String, Double> getCompletionByStep() {
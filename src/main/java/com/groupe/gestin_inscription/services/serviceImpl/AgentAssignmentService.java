@@ -0,0 +1,313 @@
+package com.groupe.gestin_inscription.services.serviceImpl;
+
+import com.groupe.gestin_inscription.events.ApplicationStatusChangedEvent;
+import com.groupe.gestin_inscription.model.Administrator;
+import com.groupe.gestin_inscription.model.Enums.AdministratorRole;
+import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import com.groupe.gestin_inscription.repository.AdministratorRepository;
+import com.groupe.gestin_inscription.repository.ApplicationRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Répartition des dossiers en revue manuelle entre les agents.
+ * Chaque agent a une charge (dossiers ouverts qui lui sont assignés) tenue en mémoire :
+ * reconstruite depuis la base au démarrage puis périodiquement, incrémentée à l'assignation
+ * et décrémentée quand un dossier quitte la revue ({@link ApplicationStatusChangedEvent}).
+ * Le dossier va à l'agent le moins chargé relativement à son poids, en privilégiant les agents
+ * de la spécialité demandée tant que leur surcharge reste dans {@code app.assignment.affinity-slack} ;
+ * les égalités sont départagées à tour de rôle.
+ * Chaque réplica tient sa propre vue : la resynchronisation périodique borne l'écart entre nœuds.
+ */
+@Service
+@Slf4j
+public class AgentAssignmentService {
+
+    static final String REBALANCE_JOB = "agent-assignment-rebalance";
+
+    /** Statuts pour lesquels un dossier compte dans la charge de son agent. */
+    static final Set<ApplicationStatus> OPEN_STATUSES =
+            EnumSet.of(ApplicationStatus.MANUAL_REVIEW, ApplicationStatus.UNDER_REVIEW);
+
+    private final ApplicationRepository applicationRepository;
+    private final AdministratorRepository administratorRepository;
+    private final SchedulerLockService schedulerLockService;
+    private final MeterRegistry meterRegistry;
+    private final double affinitySlack;
+    private final Duration rebalanceAfter;
+    private final int rebalanceBatchSize;
+    private final Duration rebalanceHold;
+
+    // Agents actifs ; la charge des agents disparus est oubliée à la resynchronisation suivante
+    private final Map<Long, AgentLoad> agents = new ConcurrentHashMap<>();
+    private long rotation;
+
+    public AgentAssignmentService(ApplicationRepository applicationRepository,
+                                  AdministratorRepository administratorRepository,
+                                  SchedulerLockService schedulerLockService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.assignment.affinity-slack:3}") double affinitySlack,
+                                  @Value("${app.assignment.rebalance-after:PT24H}") Duration rebalanceAfter,
+                                  @Value("${app.assignment.rebalance-batch-size:100}") int rebalanceBatchSize,
+                                  @Value("${app.assignment.rebalance-interval:PT30M}") Duration rebalanceInterval) {
+        this.applicationRepository = applicationRepository;
+        this.administratorRepository = administratorRepository;
+        this.schedulerLockService = schedulerLockService;
+        this.meterRegistry = meterRegistry;
+        this.affinitySlack = affinitySlack;
+        this.rebalanceAfter = rebalanceAfter;
+        this.rebalanceBatchSize = rebalanceBatchSize;
+        // Un peu moins que la période, pour que la réplique qui détient le verrou le reprenne au tour suivant
+        this.rebalanceHold = rebalanceInterval.minus(rebalanceInterval.dividedBy(10));
+    }
+
+    /**
+     * Recharge la liste des agents et leur charge avec un seul GROUP BY.
+     * Une assignation non encore validée pendant la reconstruction peut être oubliée ;
+     * la resynchronisation suivante la rattrape.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.assignment.resync-interval:PT5M}",
+            initialDelayString = "${app.assignment.resync-interval:PT5M}")
+    public void resync() {
+        List<Administrator> current = administratorRepository.findByRole(AdministratorRole.AGENT);
+        Map<Long, Long> openCounts = new HashMap<>();
+        for (Object[] row : applicationRepository.countOpenByAgent(OPEN_STATUSES)) {
+            openCounts.put((Long) row[0], (Long) row[1]);
+        }
+
+        synchronized (this) {
+            Set<Long> currentIds = current.stream().map(Administrator::getId).collect(Collectors.toSet());
+            agents.values().removeIf(load -> {
+                if (!currentIds.contains(load.id)) {
+                    meterRegistry.remove(load.gauge);
+                    return true;
+                }
+                return false;
+            });
+            for (Administrator agent : current) {
+                AgentLoad load = agents.computeIfAbsent(agent.getId(), id -> register(agent));
+                load.update(agent);
+                load.open.set(openCounts.getOrDefault(agent.getId(), 0L).intValue());
+            }
+        }
+        log.debug("Charge des agents resynchronisée: {}", workload());
+    }
+
+    /**
+     * Choisit l'agent d'un nouveau dossier et lui réserve la place immédiatement,
+     * pour que des assignations simultanées ne visent pas toutes le même agent.
+     *
+     * @param specialization Spécialité demandée par le candidat
+     * @return L'agent retenu, vide s'il n'y a aucun agent
+     */
+    public Optional<Long> assign(String specialization) {
+        if (agents.isEmpty()) {
+            resync();
+        }
+        synchronized (this) {
+            AgentLoad chosen = choose(specialization, null);
+            if (chosen == null) {
+                return Optional.empty();
+            }
+            chosen.open.incrementAndGet();
+            meterRegistry.counter("applications.assigned", "reason", "submission").increment();
+            return Optional.of(chosen.id);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(ApplicationStatusChangedEvent event) {
+        boolean wasOpen = OPEN_STATUSES.contains(event.getPreviousStatus());
+        boolean isOpen = OPEN_STATUSES.contains(event.getNewStatus());
+        if (wasOpen == isOpen) {
+            return;
+        }
+        // Un dossier supprimé n'est plus en base : la resynchronisation corrigera la charge
+        applicationRepository.findAssignedAdminId(event.getApplicationId())
+                .map(agents::get)
+                .ifPresent(load -> {
+                    if (isOpen) {
+                        load.open.incrementAndGet();
+                    } else {
+                        load.open.updateAndGet(open -> Math.max(0, open - 1));
+                    }
+                });
+    }
+
+    /**
+     * Redistribue les dossiers en revue manuelle sans activité depuis {@code app.assignment.rebalance-after},
+     * avant l'alerte des 48h : un dossier quitte son agent seulement si un autre agent est nettement moins chargé,
+     * et les dossiers restés sans agent en reçoivent un.
+     * Le fixedDelay est propre à chaque réplique : le verrou est conservé presque toute la période
+     * pour que les autres réplicas passent leur tour.
+     */
+    @Scheduled(fixedDelayString = "${app.assignment.rebalance-interval:PT30M}",
+            initialDelayString = "${app.assignment.rebalance-interval:PT30M}")
+    public void rebalanceStaleAssignments() {
+        schedulerLockService.runExclusively(REBALANCE_JOB, rebalanceHold, this::doRebalance);
+    }
+
+    void doRebalance() {
+        resync();
+        List<Object[]> stale = applicationRepository.findAssignmentsToRebalance(ApplicationStatus.MANUAL_REVIEW,
+                LocalDateTime.now().minus(rebalanceAfter), PageRequest.of(0, rebalanceBatchSize));
+
+        int moved = 0;
+        for (Object[] row : stale) {
+            Long applicationId = (Long) row[0];
+            Long currentId = (Long) row[1];
+            String specialization = (String) row[2];
+            if (move(applicationId, currentId, specialization)) {
+                moved++;
+            }
+        }
+        if (moved > 0) {
+            log.info("{} dossier(s) en revue manuelle réassigné(s) sur {} en attente depuis plus de {}",
+                    moved, stale.size(), rebalanceAfter);
+        }
+    }
+
+    private boolean move(Long applicationId, Long currentId, String specialization) {
+        AgentLoad target;
+        synchronized (this) {
+            AgentLoad current = currentId != null ? agents.get(currentId) : null;
+            target = choose(specialization, currentId);
+            if (target == null) {
+                return false;
+            }
+            // Agent toujours actif et pas plus chargé que la cible au-delà de la marge : on le garde
+            if (current != null && current.score() - target.score() <= affinitySlack / current.weight) {
+                return false;
+            }
+            target.open.incrementAndGet();
+        }
+
+        Administrator agent = administratorRepository.getReferenceById(target.id);
+        int updated = currentId == null
+                ? applicationRepository.assignIfUnassigned(applicationId, ApplicationStatus.MANUAL_REVIEW, agent)
+                : applicationRepository.reassign(applicationId, ApplicationStatus.MANUAL_REVIEW,
+                        administratorRepository.getReferenceById(currentId), agent);
+        if (updated == 0) {
+            // Le dossier a changé entre-temps : on rend la place réservée
+            target.open.updateAndGet(open -> Math.max(0, open - 1));
+            return false;
+        }
+        if (currentId != null && agents.containsKey(currentId)) {
+            agents.get(currentId).open.updateAndGet(open -> Math.max(0, open - 1));
+        }
+        meterRegistry.counter("applications.assigned", "reason", "rebalance").increment();
+        log.info("Dossier {} réassigné de l'agent {} à l'agent {}", applicationId, currentId, target.id);
+        return true;
+    }
+
+    /**
+     * Agent le moins chargé (charge / poids), en préférant ceux de la spécialité
+     * tant que l'écart avec le moins chargé de tous reste dans la marge d'affinité.
+     * Appelé sous le verrou de l'instance.
+     */
+    private AgentLoad choose(String specialization, Long excludedId) {
+        List<AgentLoad> candidates = new ArrayList<>(agents.values());
+        candidates.removeIf(load -> load.id.equals(excludedId));
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        candidates.sort((a, b) -> Long.compare(a.id, b.id));
+        int offset = (int) (rotation++ % candidates.size());
+
+        AgentLoad best = null;
+        AgentLoad bestAffine = null;
+        String wanted = normalize(specialization);
+        for (int i = 0; i < candidates.size(); i++) {
+            AgentLoad load = candidates.get((offset + i) % candidates.size());
+            if (best == null || load.score() < best.score()) {
+                best = load;
+            }
+            if (wanted != null && load.specializations.contains(wanted)
+                    && (bestAffine == null || load.score() < bestAffine.score())) {
+                bestAffine = load;
+            }
+        }
+        if (bestAffine != null && bestAffine.score() - best.score() <= affinitySlack / bestAffine.weight) {
+            return bestAffine;
+        }
+        return best;
+    }
+
+    /**
+     * Charge courante par agent, pour le suivi.
+     */
+    public Map<Long, Integer> workload() {
+        Map<Long, Integer> snapshot = new LinkedHashMap<>();
+        agents.values().stream()
+                .sorted((a, b) -> Long.compare(a.id, b.id))
+                .forEach(load -> snapshot.put(load.id, load.open.get()));
+        return snapshot;
+    }
+
+    private AgentLoad register(Administrator agent) {
+        AgentLoad load = new AgentLoad(agent.getId());
+        load.gauge = Gauge.builder("agents.queue.depth", load.open, AtomicInteger::get)
+                .description("Dossiers ouverts assignés à l'agent")
+                .tag("agent", agent.getUserName() != null ? agent.getUserName() : String.valueOf(agent.getId()))
+                .register(meterRegistry);
+        return load;
+    }
+
+    private static String normalize(String specialization) {
+        if (specialization == null || specialization.isBlank()) {
+            return null;
+        }
+        return specialization.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class AgentLoad {
+        private final Long id;
+        private final AtomicInteger open = new AtomicInteger();
+        private volatile int weight = 1;
+        private volatile Set<String> specializations = Set.of();
+        private Gauge gauge;
+
+        private AgentLoad(Long id) {
+            this.id = id;
+        }
+
+        private void update(Administrator agent) {
+            weight = agent.getReviewWeight() != null && agent.getReviewWeight() > 0 ? agent.getReviewWeight() : 1;
+            specializations = agent.getSpecializations() == null ? Set.of()
+                    : Arrays.stream(agent.getSpecializations().split(","))
+                            .map(AgentAssignmentService::normalize)
+                            .filter(Objects::nonNull)
+                            .collect(Collectors.toUnmodifiableSet());
+        }
+
+        private double score() {
+            return (double) open.get() / weight;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.groupe.gestin_inscription.services.serviceImpl;
+
+import com.groupe.gestin_inscription.dto.request.ApplicationSearchCriteria;
+import com.groupe.gestin_inscription.dto.response.ApplicationKeysetPageDto;
+import com.groupe.gestin_inscription.dto.response.ApplicationSummaryDto;
+import com.groupe.gestin_inscription.dto.response.ReviewQueueItemDto;
+import com.groupe.gestin_inscription.model.Administrator;
+import com.groupe.gestin_inscription.model.Application;
+import com.groupe.gestin_inscription.model.User;
+import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import com.groupe.gestin_inscription.model.Enums.ValidationStatus;
+import com.groupe.gestin_inscription.repository.ApplicationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Liste filtrée des candidatures, lue directement sous forme de DTO (aucune entité chargée).
+ * Deux modes : pagination classique (page + total) et parcours par curseur, dont le coût
+ * ne dépend pas de la profondeur de page. Le tri est toujours (lastUpdated DESC NULLS FIRST, id DESC),
+ * servi par l'index (status, last_updated). La place des NULL est explicite : le curseur en dépend,
+ * et les bases ne s'accordent pas sur leur position par défaut.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ApplicationListingService {
+
+    static final int MAX_PAGE_SIZE = 100;
+    private static final String NULL_MARKER = "-";
+
+    static final List<ApplicationStatus> REVIEW_STATUSES = List.of(ApplicationStatus.UNDER_REVIEW, ApplicationStatus.MANUAL_REVIEW);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    /**
+     * Page numérotée, avec le nombre total de résultats.
+     */
+    public Page<ApplicationSummaryDto> search(ApplicationSearchCriteria criteria, int page, int size) {
+        int pageSize = clamp(size);
+        List<ApplicationSummaryDto> items = entityManager.createQuery(selectQuery(criteria, null))
+                .setFirstResult(Math.max(page, 0) * pageSize)
+                .setMaxResults(pageSize)
+                .getResultList();
+
+        long total;
+        if (page <= 0 && items.size() < pageSize) {
+            // Première page incomplète : le total est connu sans requête COUNT
+            total = items.size();
+        } else {
+            total = count(criteria);
+        }
+        return new PageImpl<>(items, PageRequest.of(Math.max(page, 0), pageSize), total);
+    }
+
+    /**
+     * Page suivant le curseur donné (null pour la première page).
+     *
+     * @throws IllegalArgumentException si le curseur est invalide
+     */
+    public ApplicationKeysetPageDto searchAfter(ApplicationSearchCriteria criteria, String cursor, int size) {
+        int pageSize = clamp(size);
+        List<ApplicationSummaryDto> rows = entityManager.createQuery(selectQuery(criteria, decodeCursor(cursor)))
+                .setMaxResults(pageSize + 1)
+                .getResultList();
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = encodeCursor(rows.get(pageSize - 1));
+        }
+        return new ApplicationKeysetPageDto(new ArrayList<>(rows), rows.size(), nextCursor);
+    }
+
+    /**
+     * File de revue des agents (UNDER_REVIEW et MANUAL_REVIEW), dossiers les plus anciens d'abord :
+     * une requête pour la page et une pour le total, quel que soit le nombre de dossiers.
+     */
+    public Page<ReviewQueueItemDto> reviewQueue(int page, int size) {
+        return applicationRepository.findReviewQueue(REVIEW_STATUSES,
+                ValidationStatus.VALIDATED, ValidationStatus.REJECTED, ValidationStatus.PENDING,
+                PageRequest.of(Math.max(page, 0), clamp(size)));
+    }
+
+    private CriteriaQuery<ApplicationSummaryDto> selectQuery(ApplicationSearchCriteria criteria, Cursor after) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ApplicationSummaryDto> query = cb.createQuery(ApplicationSummaryDto.class);
+        Root<Application> application = query.from(Application.class);
+        Join<Application, User> applicant = application.join("applicantName", JoinType.LEFT);
+        Join<Application, Administrator> agent = application.join("assignedAdmin", JoinType.LEFT);
+
+        query.select(cb.construct(ApplicationSummaryDto.class,
+                application.get("id"),
+                application.get("status"),
+                application.get("completionRate"),
+                application.get("submissionDate"),
+                application.get("lastUpdated"),
+                application.get("targetInstitution"),
+                application.get("specialization"),
+                applicant.get("id"),
+                applicant.get("firstName"),
+                applicant.get("lastName"),
+                applicant.get("email"),
+                agent.get("id"),
+                agent.get("userName")));
+
+        List<Predicate> predicates = filters(cb, application, criteria);
+        if (after != null) {
+            predicates.add(after(cb, application, after));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        HibernateCriteriaBuilder hcb = (HibernateCriteriaBuilder) cb;
+        query.orderBy(hcb.desc(application.get("lastUpdated"), true), cb.desc(application.get("id")));
+        return query;
+    }
+
+    private long count(ApplicationSearchCriteria criteria) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Application> application = query.from(Application.class);
+        query.select(cb.count(application));
+        query.where(filters(cb, application, criteria).toArray(new Predicate[0]));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    // Les filtres sur le candidat et l'agent portent sur les clés étrangères : pas de jointure pour le COUNT
+    private List<Predicate> filters(CriteriaBuilder cb, Root<Application> application, ApplicationSearchCriteria criteria) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria == null) {
+            return predicates;
+        }
+        if (criteria.getStatus() != null && !criteria.getStatus().isEmpty()) {
+            predicates.add(application.get("status").in(criteria.getStatus()));
+        }
+        if (criteria.getAssignedAgentId() != null) {
+            predicates.add(cb.equal(application.get("assignedAdmin").get("id"), criteria.getAssignedAgentId()));
+        }
+        if (criteria.getApplicantId() != null) {
+            predicates.add(cb.equal(application.get("applicantName").get("id"), criteria.getApplicantId()));
+        }
+        if (hasText(criteria.getInstitution())) {
+            predicates.add(cb.equal(cb.lower(application.get("targetInstitution")), criteria.getInstitution().trim().toLowerCase()));
+        }
+        if (hasText(criteria.getSpecialization())) {
+            predicates.add(cb.equal(cb.lower(application.get("specialization")), criteria.getSpecialization().trim().toLowerCase()));
+        }
+        Path<LocalDateTime> submissionDate = application.get("submissionDate");
+        if (criteria.getSubmittedFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(submissionDate, criteria.getSubmittedFrom().atStartOfDay()));
+        }
+        if (criteria.getSubmittedTo() != null) {
+            predicates.add(cb.lessThan(submissionDate, criteria.getSubmittedTo().plusDays(1).atStartOfDay()));
+        }
+        return predicates;
+    }
+
+    /**
+     * Lignes strictement après le curseur dans l'ordre (lastUpdated DESC NULLS FIRST, id DESC) :
+     * les NULL sont parcourus avant les dates.
+     */
+    private Predicate after(CriteriaBuilder cb, Root<Application> application, Cursor cursor) {
+        Path<LocalDateTime> lastUpdated = application.get("lastUpdated");
+        Path<Long> id = application.get("id");
+        if (cursor.lastUpdated() == null) {
+            return cb.or(
+                    cb.and(cb.isNull(lastUpdated), cb.lessThan(id, cursor.id())),
+                    cb.isNotNull(lastUpdated));
+        }
+        return cb.or(
+                cb.lessThan(lastUpdated, cursor.lastUpdated()),
+                cb.and(cb.equal(lastUpdated, cursor.lastUpdated()), cb.lessThan(id, cursor.id())));
+    }
+
+    static String encodeCursor(ApplicationSummaryDto last) {
+        String value = (last.getLastUpdated() != null ? last.getLastUpdated().toString() : NULL_MARKER) + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Cursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            String date = value.substring(0, separator);
+            long id = Long.parseLong(value.substring(separator + 1));
+            return new Cursor(NULL_MARKER.equals(date) ? null : LocalDateTime.parse(date), id);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide", e);
+        }
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private int clamp(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    record Cursor(LocalDateTime lastUpdated, long id) {
+    }
+}
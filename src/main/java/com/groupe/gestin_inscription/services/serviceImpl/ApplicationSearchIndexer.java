@@ -0,0 +1,147 @@
+package com.groupe.gestin_inscription.services.serviceImpl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Index de recherche des candidats (PostgreSQL) : une ligne application_search par candidature, avec le texte
+ * cherchable du candidat, de son parcours et de la candidature, en minuscules et sans accents (unaccent).
+ * <ul>
+ *   <li>search_vector (tsvector, colonne générée) sert la recherche par mots et par préfixe, index GIN ;</li>
+ *   <li>search_text est indexé en trigrammes (pg_trgm) pour tolérer les fautes de frappe.</li>
+ * </ul>
+ * L'index est tenu à jour par des triggers sur application, users et academic_history, dans la transaction
+ * qui modifie la donnée : toute écriture, y compris par requête native, est prise en compte.
+ * Au démarrage (un seul réplica), le schéma est installé puis les candidatures absentes de l'index y sont ajoutées.
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class ApplicationSearchIndexer {
+
+    static final String INDEX_JOB = "application-search-index";
+
+    // Texte indexé : la colonne email est aussi découpée pour que « dupont » retrouve « j.dupont@mail.com »
+    private static final String SEARCH_TEXT = "lower(unaccent(concat_ws(' ', u.first_name, u.last_name, u.username, "
+            + "u.email, regexp_replace(u.email, '[@._+-]+', ' ', 'g'), u.user_id_num, u.phone_number, "
+            + "a.target_institution, a.specialization, h.last_institution, h.specialization, h.sub_specialization)))";
+
+    private static final List<String> SCHEMA = List.of(
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+            "CREATE EXTENSION IF NOT EXISTS unaccent",
+            "CREATE TABLE IF NOT EXISTS application_search ("
+                    + "application_id bigint PRIMARY KEY REFERENCES application (id) ON DELETE CASCADE, "
+                    + "search_text text NOT NULL, "
+                    + "search_vector tsvector GENERATED ALWAYS AS (to_tsvector('simple', search_text)) STORED, "
+                    + "updated_at timestamp NOT NULL DEFAULT now())",
+            "CREATE INDEX IF NOT EXISTS idx_application_search_vector ON application_search USING gin (search_vector)",
+            "CREATE INDEX IF NOT EXISTS idx_application_search_trgm ON application_search USING gin (search_text gin_trgm_ops)",
+
+            // Recalcule les lignes des candidatures données ; sans écriture si le texte n'a pas changé
+            "CREATE OR REPLACE FUNCTION application_search_refresh(app_ids bigint[]) RETURNS void LANGUAGE sql AS $$ "
+                    + "INSERT INTO application_search (application_id, search_text) "
+                    + "SELECT a.id, " + SEARCH_TEXT + " FROM application a "
+                    + "LEFT JOIN users u ON u.id = a.user_id "
+                    + "LEFT JOIN academic_history h ON h.id = u.academic_history_id "
+                    + "WHERE a.id = ANY (app_ids) "
+                    + "ON CONFLICT (application_id) DO UPDATE SET search_text = EXCLUDED.search_text, updated_at = now() "
+                    + "WHERE application_search.search_text IS DISTINCT FROM EXCLUDED.search_text $$",
+
+            "CREATE OR REPLACE FUNCTION application_search_on_application() RETURNS trigger LANGUAGE plpgsql AS $$ "
+                    + "BEGIN PERFORM application_search_refresh(ARRAY[NEW.id]); RETURN NULL; END $$",
+            "CREATE OR REPLACE FUNCTION application_search_on_user() RETURNS trigger LANGUAGE plpgsql AS $$ "
+                    + "BEGIN PERFORM application_search_refresh(ARRAY(SELECT id FROM application WHERE user_id = NEW.id)); "
+                    + "RETURN NULL; END $$",
+            "CREATE OR REPLACE FUNCTION application_search_on_academic_history() RETURNS trigger LANGUAGE plpgsql AS $$ "
+                    + "BEGIN PERFORM application_search_refresh(ARRAY(SELECT a.id FROM application a "
+                    + "JOIN users u ON u.id = a.user_id WHERE u.academic_history_id = NEW.id)); RETURN NULL; END $$",
+
+            // Les triggers ne se déclenchent que si une colonne indexée change (pas à chaque changement de statut)
+            "DROP TRIGGER IF EXISTS application_search_insert ON application",
+            "CREATE TRIGGER application_search_insert AFTER INSERT ON application "
+                    + "FOR EACH ROW EXECUTE FUNCTION application_search_on_application()",
+            "DROP TRIGGER IF EXISTS application_search_update ON application",
+            "CREATE TRIGGER application_search_update AFTER UPDATE ON application FOR EACH ROW "
+                    + "WHEN ((OLD.user_id, OLD.target_institution, OLD.specialization) "
+                    + "IS DISTINCT FROM (NEW.user_id, NEW.target_institution, NEW.specialization)) "
+                    + "EXECUTE FUNCTION application_search_on_application()",
+            "DROP TRIGGER IF EXISTS application_search_update ON users",
+            "CREATE TRIGGER application_search_update AFTER UPDATE ON users FOR EACH ROW "
+                    + "WHEN ((OLD.first_name, OLD.last_name, OLD.username, OLD.email, OLD.user_id_num, OLD.phone_number, "
+                    + "OLD.academic_history_id) IS DISTINCT FROM (NEW.first_name, NEW.last_name, NEW.username, NEW.email, "
+                    + "NEW.user_id_num, NEW.phone_number, NEW.academic_history_id)) "
+                    + "EXECUTE FUNCTION application_search_on_user()",
+            "DROP TRIGGER IF EXISTS application_search_update ON academic_history",
+            "CREATE TRIGGER application_search_update AFTER UPDATE ON academic_history FOR EACH ROW "
+                    + "WHEN ((OLD.last_institution, OLD.specialization, OLD.sub_specialization) "
+                    + "IS DISTINCT FROM (NEW.last_institution, NEW.specialization, NEW.sub_specialization)) "
+                    + "EXECUTE FUNCTION application_search_on_academic_history()");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLockService schedulerLockService;
+    private final int batchSize;
+
+    public ApplicationSearchIndexer(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    SchedulerLockService schedulerLockService,
+                                    @Value("${app.search.backfill-batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.schedulerLockService = schedulerLockService;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        schedulerLockService.runExclusively(INDEX_JOB, this::doInitialize);
+    }
+
+    void doInitialize() {
+        try {
+            installSchema();
+            int indexed = backfill();
+            if (indexed > 0) {
+                log.info("Index de recherche : {} candidatures indexées", indexed);
+            }
+        } catch (DataAccessException e) {
+            log.error("Installation de l'index de recherche des candidats échouée", e);
+        }
+    }
+
+    void installSchema() {
+        transactionTemplate.executeWithoutResult(status -> SCHEMA.forEach(jdbcTemplate::execute));
+    }
+
+    /**
+     * Indexe par lots les candidatures sans ligne application_search (première installation).
+     * Chaque lot est validé séparément pour ne pas tenir de longue transaction.
+     * @return nombre de candidatures indexées
+     */
+    int backfill() {
+        int total = 0;
+        int indexed;
+        do {
+            indexed = transactionTemplate.execute(status -> jdbcTemplate.update(
+                    "WITH batch AS (SELECT a.id FROM application a WHERE NOT EXISTS "
+                            + "(SELECT 1 FROM application_search s WHERE s.application_id = a.id) ORDER BY a.id LIMIT ?) "
+                            + "INSERT INTO application_search (application_id, search_text) "
+                            + "SELECT a.id, " + SEARCH_TEXT + " FROM batch b JOIN application a ON a.id = b.id "
+                            + "LEFT JOIN users u ON u.id = a.user_id "
+                            + "LEFT JOIN academic_history h ON h.id = u.academic_history_id "
+                            + "ON CONFLICT (application_id) DO NOTHING", batchSize));
+            total += indexed;
+        } while (indexed >= batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,209 @@
+package com.groupe.gestin_inscription.services.serviceImpl;
+
+import com.groupe.gestin_inscription.dto.request.ApplicationSearchCriteria;
+import com.groupe.gestin_inscription.dto.response.ApplicationKeysetPageDto;
+import com.groupe.gestin_inscription.dto.response.ApplicationSummaryDto;
+import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Recherche plein texte des candidatures par nom, e-mail, numéro d'identification, téléphone, établissement
+ * ou spécialité (index application_search, voir {@link ApplicationSearchIndexer}).
+ * Insensible à la casse et aux accents ; chaque mot du terme est cherché comme préfixe, et les termes mal
+ * orthographiés sont rattrapés par similarité de trigrammes. Les filtres de {@link ApplicationSearchCriteria}
+ * s'appliquent en plus du terme.
+ * Tri par pertinence : correspondances exactes ou par préfixe d'abord, puis par similarité décroissante.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ApplicationSearchService {
+
+    static final int MAX_PAGE_SIZE = 100;
+    static final int MIN_TERM_LENGTH = 2;
+    // Au-delà, l'agent doit affiner sa recherche : les pages profondes d'un tri par pertinence coûtent cher
+    static final int MAX_OFFSET = 1000;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final String CURSOR_PREFIX = "q|";
+
+    private static final RowMapper<ApplicationSummaryDto> ROW_MAPPER = (rs, rowNum) -> new ApplicationSummaryDto(
+            rs.getLong("id"),
+            rs.getString("status") != null ? ApplicationStatus.valueOf(rs.getString("status")) : null,
+            rs.getObject("completion_rate", Double.class),
+            toLocalDateTime(rs.getTimestamp("submission_date")),
+            toLocalDateTime(rs.getTimestamp("last_updated")),
+            rs.getString("target_institution"),
+            rs.getString("specialization"),
+            rs.getObject("applicant_id", Long.class),
+            rs.getString("first_name"),
+            rs.getString("last_name"),
+            rs.getString("email"),
+            rs.getObject("agent_id", Long.class),
+            rs.getString("agent_user_name"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final double similarityThreshold;
+
+    public ApplicationSearchService(NamedParameterJdbcTemplate jdbcTemplate,
+                                    @Value("${app.search.enabled:true}") boolean enabled,
+                                    @Value("${app.search.similarity-threshold:0.4}") double similarityThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.similarityThreshold = similarityThreshold;
+    }
+
+    /**
+     * Page de résultats pour le terme donné ; nextCursor est à renvoyer tel quel pour la page suivante.
+     *
+     * @throws IllegalArgumentException si le terme est trop court ou le curseur invalide
+     * @throws IllegalStateException    si la recherche plein texte est désactivée (base H2)
+     */
+    public ApplicationKeysetPageDto search(String term, ApplicationSearchCriteria criteria, String cursor, int size) {
+        if (!enabled) {
+            throw new IllegalStateException("Recherche plein texte indisponible sur cette base");
+        }
+        List<String> tokens = tokenize(term);
+        String normalized = String.join(" ", tokens);
+        if (normalized.length() < MIN_TERM_LENGTH) {
+            throw new IllegalArgumentException("Le terme de recherche doit contenir au moins " + MIN_TERM_LENGTH + " caractères");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int offset = decodeCursor(cursor);
+
+        // Seuil de l'opérateur <% pour cette transaction seulement
+        jdbcTemplate.getJdbcTemplate().queryForObject(
+                "SELECT set_config('pg_trgm.word_similarity_threshold', ?, true)", String.class,
+                String.valueOf(similarityThreshold));
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("term", normalized)
+                .addValue("tsquery", tokens.stream().map(token -> token + ":*").collect(Collectors.joining(" & ")))
+                .addValue("limit", pageSize + 1)
+                .addValue("offset", offset);
+        String sql = "SELECT a.id, a.status, a.completion_rate, a.submission_date, a.last_updated, "
+                + "a.target_institution, a.specialization, u.id AS applicant_id, u.first_name, u.last_name, u.email, "
+                + "ag.id AS agent_id, ag.user_name AS agent_user_name "
+                + "FROM application_search s "
+                + "JOIN application a ON a.id = s.application_id "
+                + "LEFT JOIN users u ON u.id = a.user_id "
+                + "LEFT JOIN administrator ag ON ag.id = a.assigned_admin_id "
+                + "WHERE (s.search_vector @@ to_tsquery('simple', :tsquery) OR :term <% s.search_text)"
+                + filters(criteria, params)
+                + " ORDER BY s.search_vector @@ to_tsquery('simple', :tsquery) DESC, "
+                + "word_similarity(:term, s.search_text) DESC, a.id DESC "
+                + "LIMIT :limit OFFSET :offset";
+
+        List<ApplicationSummaryDto> rows = jdbcTemplate.query(sql, params, ROW_MAPPER);
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            if (offset + pageSize < MAX_OFFSET) {
+                nextCursor = encodeCursor(offset + pageSize);
+            }
+        }
+        return new ApplicationKeysetPageDto(new ArrayList<>(rows), rows.size(), nextCursor);
+    }
+
+    // Mêmes filtres que ApplicationListingService, en SQL
+    private static String filters(ApplicationSearchCriteria criteria, MapSqlParameterSource params) {
+        if (criteria == null) {
+            return "";
+        }
+        StringBuilder sql = new StringBuilder();
+        if (criteria.getStatus() != null && !criteria.getStatus().isEmpty()) {
+            sql.append(" AND a.status IN (:statuses)");
+            params.addValue("statuses", criteria.getStatus().stream().map(Enum::name).toList());
+        }
+        if (criteria.getAssignedAgentId() != null) {
+            sql.append(" AND a.assigned_admin_id = :agentId");
+            params.addValue("agentId", criteria.getAssignedAgentId());
+        }
+        if (criteria.getApplicantId() != null) {
+            sql.append(" AND a.user_id = :applicantId");
+            params.addValue("applicantId", criteria.getApplicantId());
+        }
+        if (hasText(criteria.getInstitution())) {
+            sql.append(" AND lower(a.target_institution) = :institution");
+            params.addValue("institution", criteria.getInstitution().trim().toLowerCase());
+        }
+        if (hasText(criteria.getSpecialization())) {
+            sql.append(" AND lower(a.specialization) = :specialization");
+            params.addValue("specialization", criteria.getSpecialization().trim().toLowerCase());
+        }
+        if (criteria.getSubmittedFrom() != null) {
+            sql.append(" AND a.submission_date >= :submittedFrom");
+            params.addValue("submittedFrom", criteria.getSubmittedFrom().atStartOfDay());
+        }
+        if (criteria.getSubmittedTo() != null) {
+            sql.append(" AND a.submission_date < :submittedTo");
+            params.addValue("submittedTo", criteria.getSubmittedTo().plusDays(1).atStartOfDay());
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Découpe le terme en mots minuscules sans accents, comme unaccent à l'indexation (« Éloïse » → « eloise »).
+     * Seuls lettres et chiffres sont conservés : le tsquery construit ne peut pas contenir d'opérateur.
+     */
+    static List<String> tokenize(String term) {
+        if (term == null) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(term, Normalizer.Form.NFD)).replaceAll("")
+                .replace("œ", "oe").replace("Œ", "OE")
+                .replace("æ", "ae").replace("Æ", "AE")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARATORS.split(folded))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    static String encodeCursor(int offset) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static int decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        int offset;
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            offset = value.startsWith(CURSOR_PREFIX) ? Integer.parseInt(value.substring(CURSOR_PREFIX.length())) : -1;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide", e);
+        }
+        if (offset < 0 || offset >= MAX_OFFSET) {
+            throw new IllegalArgumentException("Curseur de pagination invalide");
+        }
+        return offset;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -3,31 +3,37 @@ package com.groupe.gestin_inscription.services.serviceImpl;
 import com.groupe.gestin_inscription.dto.request.DocumentUploadRequestDTO;
 import com.groupe.gestin_inscription.dto.request.RegistrationFormRequestDTO;
 import com.groupe.gestin_inscription.dto.request.UserRequestDTO;
+import com.groupe.gestin_inscription.events.ApplicationStatusChangedEvent;
 import com.groupe.gestin_inscription.model.Administrator;
 import com.groupe.gestin_inscription.model.Application;
-import com.groupe.gestin_inscription.model.Enums.AdministratorRole;
 import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import com.groupe.gestin_inscription.model.Enums.NotificationType;
+import com.groupe.gestin_inscription.model.Enums.PreValidationJobStatus;
+import com.groupe.gestin_inscription.model.PreValidationJob;
 import com.groupe.gestin_inscription.model.User;
 import com.groupe.gestin_inscription.repository.AdministratorRepository;
 import com.groupe.gestin_inscription.repository.ApplicationRepository;
+import com.groupe.gestin_inscription.repository.PreValidationJobRepository;
 import com.groupe.gestin_inscription.repository.UserRepository;
 import com.groupe.gestin_inscription.services.serviceInterfaces.ApplicationService;
 import jakarta.mail.MessagingException;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Random;
 
 @Service
 public class ApplicationServiceImpl implements ApplicationService {
@@ -43,7 +49,16 @@ public class ApplicationServiceImpl implements ApplicationService {
     @Autowired
     private NotificationServiceImpl notificationService;
     @Autowired
-    private DocumentManagerService documentManagerService;
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private PreValidationJobRepository preValidationJobRepository;
+    @Autowired
+    private EmailTemplateEngine emailTemplateEngine;
+    @Autowired
+    private AgentAssignmentService agentAssignmentService;
+
+    private static final List<PreValidationJobStatus> ACTIVE_PRE_VALIDATION_JOBS =
+            List.of(PreValidationJobStatus.PENDING, PreValidationJobStatus.RUNNING);
 
     // Méthode pour mettre à jour le statut avec notification automatique
     @Transactional
@@ -55,6 +70,7 @@ public class ApplicationServiceImpl implements ApplicationService {
         application.setStatus(newStatus);
         application.setLastUpdated(LocalDateTime.now());
         applicationRepository.save(application);
+        eventPublisher.publishEvent(new ApplicationStatusChangedEvent(applicationId, oldStatus, newStatus));
         
         // Notifier le candidat du changement de statut
         if (application.getApplicantName() != null && !oldStatus.equals(newStatus)) {
@@ -65,75 +81,48 @@ public class ApplicationServiceImpl implements ApplicationService {
     // Envoie une notification lors du changement de statut
     private void sendStatusChangeNotification(Application application, ApplicationStatus status, String comment) {
         User candidate = application.getApplicantName();
-        String title, message, emailSubject, emailContent;
-        com.groupe.gestin_inscription.model.Enums.NotificationType notificationType;
-        
-        switch (status) {
-            case PRE_VALIDATION:
-                title = "Candidature reçue";
-                message = "Votre candidature est en cours de pré-validation.";
-                emailSubject = "Candidature reçue - Gestion Inscription";
-                emailContent = "<h2>Candidature reçue</h2><p>Votre candidature est en cours de pré-validation.</p>";
-                notificationType = com.groupe.gestin_inscription.model.Enums.NotificationType.INFO;
-                break;
-            case MANUAL_REVIEW:
-                title = "Candidature en révision";
-                message = "Votre candidature est maintenant en révision manuelle.";
-                emailSubject = "Candidature en révision - Gestion Inscription";
-                emailContent = "<h2>Candidature en révision</h2><p>Votre candidature est maintenant en révision manuelle par nos agents.</p>";
-                notificationType = com.groupe.gestin_inscription.model.Enums.NotificationType.INFO;
-                break;
-            case UNDER_REVIEW:
-                title = "Candidature en cours d'examen";
-                message = "Votre candidature est en cours d'examen approfondi.";
-                emailSubject = "Candidature en examen - Gestion Inscription";
-                emailContent = "<h2>Candidature en examen</h2><p>Votre candidature est en cours d'examen approfondi.</p>";
-                notificationType = com.groupe.gestin_inscription.model.Enums.NotificationType.INFO;
-                break;
-            case APPROVED:
-                title = "Candidature approuvée";
-                message = "Félicitations ! Votre candidature a été approuvée.";
-                emailSubject = "Candidature approuvée - Gestion Inscription";
-                emailContent = "<h2>Félicitations !</h2><p>Votre candidature a été approuvée.</p>";
-                notificationType = com.groupe.gestin_inscription.model.Enums.NotificationType.SUCCESS;
-                break;
-            case REJECTED:
-                title = "Candidature rejetée";
-                message = "Votre candidature a été rejetée.";
-                emailSubject = "Candidature rejetée - Gestion Inscription";
-                emailContent = "<h2>Candidature rejetée</h2><p>Nous regrettons de vous informer que votre candidature a été rejetée.</p>";
-                notificationType = com.groupe.gestin_inscription.model.Enums.NotificationType.WARNING;
-                break;
-            case PENDING:
-                title = "Candidature en attente";
-                message = "Votre candidature est en attente de traitement.";
-                emailSubject = "Candidature en attente - Gestion Inscription";
-                emailContent = "<h2>Candidature en attente</h2><p>Votre candidature est en attente de traitement.</p>";
-                notificationType = com.groupe.gestin_inscription.model.Enums.NotificationType.INFO;
-                break;
-            default:
-                return; // Pas de notification pour les statuts non définis
+        EmailTemplateEngine.StatusTexts texts = emailTemplateEngine.statusTexts(status, emailTemplateEngine.defaultLocale());
+        if (texts == null) {
+            return; // Pas de notification pour les statuts non définis
         }
-        
+
+        String message = texts.message();
+        boolean hasComment = comment != null && !comment.trim().isEmpty();
         // Ajouter le commentaire si présent
-        if (comment != null && !comment.trim().isEmpty()) {
+        if (hasComment) {
             message += " Commentaire: " + comment;
-            emailContent += "<p><strong>Commentaire:</strong> " + comment + "</p>";
         }
-        
+
         try {
             // Créer notification in-app
-            notificationService.createNotification(candidate.getId(), title, message, notificationType);
-            
+            notificationService.createNotification(candidate.getId(), texts.title(), message, notificationTypeFor(status));
+
             // Envoyer email
-            notificationService.sendEmailNotification(candidate.getEmail(), emailSubject, emailContent);
-            
+            Map<String, Object> model = new HashMap<>();
+            model.put("applicantName", (Objects.toString(candidate.getFirstName(), "") + " "
+                    + Objects.toString(candidate.getLastName(), "")).trim());
+            model.put("statusLabel", texts.label());
+            model.put("statusColor", texts.color());
+            model.put("statusIcon", texts.icon());
+            model.put("message", texts.body());
+            model.put("comment", hasComment ? comment : null);
+            String emailContent = emailTemplateEngine.render("status-update", emailTemplateEngine.defaultLocale(), model);
+            notificationService.sendEmailNotification(candidate.getEmail(), texts.subject(), emailContent);
+
             System.out.println("Status change notification sent to: " + candidate.getEmail() + " for status: " + status);
         } catch (Exception e) {
             System.err.println("Failed to send status change notification: " + e.getMessage());
         }
     }
 
+    private NotificationType notificationTypeFor(ApplicationStatus status) {
+        return switch (status) {
+            case APPROVED -> NotificationType.SUCCESS;
+            case REJECTED -> NotificationType.WARNING;
+            default -> NotificationType.INFO;
+        };
+    }
+
     // Creates application from existing user profile (simplified approach)
     public Application createFromExistingUser(String username, List<DocumentUploadRequestDTO> documents) throws MessagingException {
         System.out.println("=== DEBUG - createFromExistingUser called with username: " + username + " ===");
@@ -216,6 +205,7 @@ public class ApplicationServiceImpl implements ApplicationService {
             System.out.println("DEBUG - Application details: Institution=" + application.getTargetInstitution() + ", Specialization=" + application.getSpecialization());
             
             Application savedApplication = applicationRepository.save(application);
+            eventPublisher.publishEvent(ApplicationStatusChangedEvent.created(savedApplication.getId(), savedApplication.getStatus()));
             System.out.println("DEBUG - Application saved with ID: " + savedApplication.getId());
             
             // Traiter les documents
@@ -280,6 +270,7 @@ public class ApplicationServiceImpl implements ApplicationService {
         application.setSubmissionDate(LocalDateTime.now());
         application.setStatus(ApplicationStatus.PRE_VALIDATION);
         application = applicationRepository.save(application);
+        eventPublisher.publishEvent(ApplicationStatusChangedEvent.created(application.getId(), application.getStatus()));
 
         // Step 3: Upload and associate documents.
         for (DocumentUploadRequestDTO docDTO : documents) {
@@ -321,46 +312,34 @@ public class ApplicationServiceImpl implements ApplicationService {
         return applicationRepository.findByCompletionRateGreaterThanEqual(rate);
     }
 
-    // Performs automated pre-validation checks (2 min)
+    // Queues the automated pre-validation checks; they run asynchronously in PreValidationEngine
     @Override
     public void performPreValidation(Application application) {
-        // Verification of document formats
-        boolean docsValid = application.getDocuments() == null || application.getDocuments().stream()
-                .allMatch(doc -> documentManagerService.verifyFormat(doc.getFilePath(), (MultipartFile) doc));
-
-        // Elementary fraud detection
-        boolean noFraud = application.getDocuments() == null || application.getDocuments().stream()
-                .noneMatch(doc -> documentManagerService.performOcrCheck(doc.getFilePath()));
-
-        try {
-            if (docsValid && noFraud) {
-                updateApplicationStatus(application.getId(), ApplicationStatus.MANUAL_REVIEW, "Pré-validation réussie");
-                assignForManualReview(application);
-            } else {
-                updateApplicationStatus(application.getId(), ApplicationStatus.REJECTED, "Pré-validation échouée");
-            }
-        } catch (MessagingException e) {
-            throw new RuntimeException(e);
+        if (preValidationJobRepository.existsByApplicationIdAndStatusIn(application.getId(), ACTIVE_PRE_VALIDATION_JOBS)) {
+            return;
         }
+        preValidationJobRepository.save(PreValidationJob.builder()
+                .applicationId(application.getId())
+                .status(PreValidationJobStatus.PENDING)
+                .build());
     }
 
-    // Assigns an application to an agent for manual review (24-48h)
+    // Assigns an application to an agent for manual review (24-48h), see AgentAssignmentService
     @Override
     public void assignForManualReview(Application application) {
 
-        // Get all agents
-        List<Administrator> agents = administratorRepository.findByRole(AdministratorRole.AGENT);
-        if (agents.isEmpty()) {
-            // Handle case with no agents
+        // A resubmitted dossier stays with the agent who already knows it
+        if (application.getAssignedAdmin() != null) {
             return;
         }
 
-        // Simple logic for random assignment
-        Random random = new Random();
-        Administrator agent = agents.get(random.nextInt(agents.size()));
+        Optional<Long> agentId = agentAssignmentService.assign(application.getSpecialization());
+        if (agentId.isEmpty()) {
+            // No agent yet: the rebalancing job will assign the dossier
+            return;
+        }
 
-        // You would typically link the application to the agent here
-        application.setAssignedAdmin(agent);
+        application.setAssignedAdmin(administratorRepository.getReferenceById(agentId.get()));
         applicationRepository.save(application);
 
     }
@@ -0,0 +1,104 @@
+package com.groupe.gestin_inscription.services.serviceImpl;
+
+import com.groupe.gestin_inscription.dto.response.StatusCountDto;
+import com.groupe.gestin_inscription.events.ApplicationStatusChangedEvent;
+import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import com.groupe.gestin_inscription.repository.ApplicationRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs de candidatures par statut maintenus en mémoire.
+ * Reconstruits depuis la base au démarrage (ou à la demande), puis mis à jour
+ * à chaque transition publiée via {@link ApplicationStatusChangedEvent}, une fois la transaction validée.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ApplicationStatusCounterStore {
+
+    private final ApplicationRepository applicationRepository;
+    private final MeterRegistry meterRegistry;
+
+    // Toutes les clés sont créées ici : la map n'est plus jamais modifiée structurellement
+    private final Map<ApplicationStatus, LongAdder> counters = new EnumMap<>(ApplicationStatus.class);
+
+    {
+        for (ApplicationStatus status : ApplicationStatus.values()) {
+            counters.put(status, new LongAdder());
+        }
+    }
+
+    @PostConstruct
+    void registerGauges() {
+        counters.forEach((status, counter) -> Gauge.builder("applications.status.count", counter, LongAdder::sum)
+                .description("Nombre de candidatures par statut")
+                .tag("status", status.name())
+                .register(meterRegistry));
+    }
+
+    // Un écouteur qui renvoie une valeur la republie comme événement : il reste void
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Recharge tous les compteurs avec un seul GROUP BY.
+     * Les transitions validées pendant la reconstruction peuvent être comptées deux fois ;
+     * un nouvel appel suffit à réaligner les compteurs.
+     */
+    public Map<String, Long> rebuild() {
+        Map<ApplicationStatus, Long> fresh = new EnumMap<>(ApplicationStatus.class);
+        for (StatusCountDto row : applicationRepository.countGroupedByStatus()) {
+            if (row.getStatus() != null) {
+                fresh.put(row.getStatus(), row.getCount());
+            }
+        }
+        counters.forEach((status, counter) -> {
+            counter.reset();
+            counter.add(fresh.getOrDefault(status, 0L));
+        });
+        log.info("Compteurs de statut reconstruits: {}", fresh);
+        return snapshot();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(ApplicationStatusChangedEvent event) {
+        if (event.getPreviousStatus() == event.getNewStatus()) {
+            return;
+        }
+        if (event.getPreviousStatus() != null) {
+            counters.get(event.getPreviousStatus()).decrement();
+        }
+        if (event.getNewStatus() != null) {
+            counters.get(event.getNewStatus()).increment();
+        }
+    }
+
+    public long count(ApplicationStatus status) {
+        return counters.get(status).sum();
+    }
+
+    public long total() {
+        return counters.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        counters.forEach((status, counter) -> snapshot.put(status.name(), counter.sum()));
+        return snapshot;
+    }
+}
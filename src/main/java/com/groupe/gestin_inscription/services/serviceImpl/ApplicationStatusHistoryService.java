@@ -0,0 +1,79 @@
+package com.groupe.gestin_inscription.services.serviceImpl;
+
+import com.groupe.gestin_inscription.events.ApplicationStatusChangedEvent;
+import com.groupe.gestin_inscription.model.ApplicationStatusEvent;
+import com.groupe.gestin_inscription.repository.ApplicationStatusEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Historise chaque transition publiée via {@link ApplicationStatusChangedEvent} dans application_status_event.
+ * L'écriture se fait dans la transaction qui change le statut, juste avant sa validation :
+ * statut et historique sont validés ou annulés ensemble.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ApplicationStatusHistoryService {
+
+    static final String SYSTEM_ACTOR = "system";
+    static final String SEED_JOB = "application-status-history-seed";
+
+    private final ApplicationStatusEventRepository statusEventRepository;
+    private final SchedulerLockService schedulerLockService;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void record(ApplicationStatusChangedEvent event) {
+        if (event.getPreviousStatus() == event.getNewStatus()) {
+            return;
+        }
+        statusEventRepository.save(ApplicationStatusEvent.builder()
+                .applicationId(event.getApplicationId())
+                .fromStatus(event.getPreviousStatus())
+                .toStatus(event.getNewStatus())
+                .actor(currentActor())
+                .occurredAt(event.getOccurredAt())
+                .build());
+    }
+
+    /**
+     * Historique complet d'une candidature, plus ancienne transition en premier.
+     */
+    public List<ApplicationStatusEvent> history(Long applicationId) {
+        return statusEventRepository.findByApplicationIdOrderByOccurredAtAscIdAsc(applicationId);
+    }
+
+    /**
+     * Au premier démarrage avec l'historique, chaque candidature existante reçoit son statut courant
+     * comme point de départ ; sans effet ensuite.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedHistory() {
+        schedulerLockService.runExclusively(SEED_JOB, () -> {
+            int seeded = statusEventRepository.seedFromCurrentStatuses(LocalDateTime.now());
+            if (seeded > 0) {
+                log.info("Historique des statuts initialisé pour {} candidatures existantes", seeded);
+            }
+        });
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return SYSTEM_ACTOR;
+        }
+        return authentication.getName();
+    }
+}
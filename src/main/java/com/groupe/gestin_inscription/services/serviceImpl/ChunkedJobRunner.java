@@ -0,0 +1,187 @@
+package com.groupe.gestin_inscription.services.serviceImpl;
+
+import com.groupe.gestin_inscription.model.BatchJobCheckpoint;
+import com.groupe.gestin_inscription.model.Enums.BatchJobStatus;
+import com.groupe.gestin_inscription.repository.BatchJobCheckpointRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Exécute un traitement planifié par lots lus en pagination par clé (id > dernier id traité).
+ * Chaque lot est lu, traité et enregistré dans le point de reprise au sein d'une même transaction :
+ * après un arrêt en cours d'exécution, le traitement reprend au lot suivant le dernier validé,
+ * avec la même date de référence, sans renvoyer les notifications déjà mises en file.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChunkedJobRunner {
+
+    private static final int ERROR_MAX_LENGTH = 1000;
+
+    private final BatchJobCheckpointRepository checkpointRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.batch.chunk-size:200}")
+    private int chunkSize;
+
+    // Pause entre deux lots : étale les lectures et la mise en file des e-mails en période de pointe
+    @Value("${app.batch.chunk-pause-ms:500}")
+    private long chunkPauseMs;
+
+    // Au-delà, une exécution interrompue est abandonnée et la suivante repart de zéro
+    @Value("${app.batch.resume-window:PT6H}")
+    private Duration resumeWindow;
+
+    private final Map<String, AtomicLong> progress = new ConcurrentHashMap<>();
+
+    /**
+     * Lit le lot suivant.
+     */
+    @FunctionalInterface
+    public interface ChunkReader<T> {
+        /**
+         * @param runStartedAt date de début de l'exécution, à utiliser pour les critères relatifs (« depuis 48h »)
+         * @param afterId dernier identifiant traité, 0 au premier lot
+         * @param size taille maximale du lot
+         * @return les éléments suivants, triés par identifiant croissant
+         */
+        List<T> read(LocalDateTime runStartedAt, long afterId, int size);
+    }
+
+    /**
+     * Exécute (ou reprend) le traitement {@code jobName}.
+     *
+     * @return le nombre d'éléments traités par cet appel
+     */
+    public <T> long run(String jobName, ChunkReader<T> reader, ToLongFunction<T> idOf, Consumer<T> processor) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        BatchJobCheckpoint checkpoint = transaction.execute(status -> start(jobName));
+        AtomicLong processedGauge = progress.computeIfAbsent(jobName, name -> {
+            AtomicLong value = new AtomicLong();
+            Gauge.builder("batch.job.processed", value, AtomicLong::get)
+                    .description("Éléments traités par l'exécution en cours ou la dernière exécution")
+                    .tag("job", name)
+                    .register(meterRegistry);
+            return value;
+        });
+        processedGauge.set(checkpoint.getProcessed());
+
+        LocalDateTime runStartedAt = checkpoint.getRunStartedAt();
+        long[] lastId = {checkpoint.getLastId()};
+        long processed = 0;
+        long start = System.nanoTime();
+        String outcome = "completed";
+        try {
+            while (true) {
+                Integer count = transaction.execute(status -> {
+                    List<T> chunk = reader.read(runStartedAt, lastId[0], chunkSize);
+                    if (chunk.isEmpty()) {
+                        return 0;
+                    }
+                    chunk.forEach(processor);
+                    long chunkLastId = idOf.applyAsLong(chunk.get(chunk.size() - 1));
+                    checkpointRepository.advance(jobName, chunkLastId, chunk.size(), LocalDateTime.now());
+                    lastId[0] = chunkLastId;
+                    return chunk.size();
+                });
+                if (count == null || count == 0) {
+                    break;
+                }
+                processed += count;
+                processedGauge.addAndGet(count);
+                meterRegistry.counter("batch.job.items", "job", jobName).increment(count);
+                log.debug("Traitement {} : lot de {} élément(s) validé jusqu'à l'id {}", jobName, count, lastId[0]);
+                if (count < chunkSize) {
+                    break;
+                }
+                pause();
+            }
+            checkpointRepository.finish(jobName, BatchJobStatus.COMPLETED, LocalDateTime.now(), LocalDateTime.now(), null);
+            log.info("Traitement {} terminé : {} élément(s) traité(s) en {} ms",
+                    jobName, processed, (System.nanoTime() - start) / 1_000_000);
+            return processed;
+        } catch (RuntimeException e) {
+            outcome = "failed";
+            log.error("Traitement {} interrompu après l'id {} ; il reprendra à la prochaine exécution", jobName, lastId[0], e);
+            checkpointRepository.finish(jobName, BatchJobStatus.FAILED, LocalDateTime.now(), null,
+                    truncate(String.valueOf(e.getMessage())));
+            throw e;
+        } finally {
+            Timer.builder("batch.job.duration")
+                    .description("Durée d'une exécution de traitement planifié")
+                    .tags("job", jobName, "outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Vrai si la dernière exécution de ce traitement s'est arrêtée avant la fin et peut encore être reprise.
+     */
+    public boolean isInterrupted(String jobName) {
+        return checkpointRepository.findById(jobName)
+                .filter(this::resumable)
+                .isPresent();
+    }
+
+    private BatchJobCheckpoint start(String jobName) {
+        LocalDateTime now = LocalDateTime.now();
+        BatchJobCheckpoint checkpoint = checkpointRepository.findById(jobName).orElse(null);
+        if (checkpoint != null && resumable(checkpoint)) {
+            log.info("Reprise du traitement {} après l'id {} ({} élément(s) déjà traité(s))",
+                    jobName, checkpoint.getLastId(), checkpoint.getProcessed());
+            checkpoint.setStatus(BatchJobStatus.RUNNING);
+            checkpoint.setLastError(null);
+            checkpoint.setUpdatedAt(now);
+            return checkpointRepository.save(checkpoint);
+        }
+        return checkpointRepository.save(BatchJobCheckpoint.builder()
+                .jobName(jobName)
+                .status(BatchJobStatus.RUNNING)
+                .runStartedAt(now)
+                .lastId(0L)
+                .processed(0L)
+                .updatedAt(now)
+                .build());
+    }
+
+    private boolean resumable(BatchJobCheckpoint checkpoint) {
+        return checkpoint.getStatus() != BatchJobStatus.COMPLETED
+                && checkpoint.getRunStartedAt().isAfter(LocalDateTime.now().minus(resumeWindow));
+    }
+
+    private void pause() {
+        if (chunkPauseMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(chunkPauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Traitement par lots interrompu", e);
+        }
+    }
+
+    private String truncate(String value) {
+        return value.length() <= ERROR_MAX_LENGTH ? value : value.substring(0, ERROR_MAX_LENGTH);
+    }
+}
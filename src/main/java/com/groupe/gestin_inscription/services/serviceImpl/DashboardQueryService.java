@@ -0,0 +1,102 @@
+package com.groupe.gestin_inscription.services.serviceImpl;
+
+import com.groupe.gestin_inscription.dto.response.InstitutionCountDto;
+import com.groupe.gestin_inscription.dto.response.MonthlyCountDto;
+import com.groupe.gestin_inscription.dto.response.RecentApplicationDto;
+import com.groupe.gestin_inscription.dto.response.StatusCountDto;
+import com.groupe.gestin_inscription.model.Enums.AdministratorRole;
+import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import com.groupe.gestin_inscription.repository.AdministratorRepository;
+import com.groupe.gestin_inscription.repository.ApplicationRepository;
+import com.groupe.gestin_inscription.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Couche de requêtes du tableau de bord : toutes les statistiques sont calculées
+ * par la base (GROUP BY, ORDER BY ... LIMIT) et seules des agrégats ou de petits
+ * DTO remontent en mémoire, quel que soit le nombre de candidatures.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class DashboardQueryService {
+
+    static final int MAX_RECENT_LIMIT = 100;
+    static final int MAX_INSTITUTION_LIMIT = 50;
+
+    private final ApplicationRepository applicationRepository;
+    private final UserRepository userRepository;
+    private final AdministratorRepository administratorRepository;
+
+    /**
+     * Nombre de candidatures par statut, tous les statuts étant présents (0 par défaut).
+     */
+    public Map<ApplicationStatus, Long> getStatusCounts() {
+        return toStatusMap(applicationRepository.countGroupedByStatus());
+    }
+
+    /**
+     * Nombre de candidatures par statut pour un candidat donné.
+     */
+    public Map<ApplicationStatus, Long> getStatusCountsForApplicant(Long userId) {
+        return toStatusMap(applicationRepository.countGroupedByStatusForApplicant(userId));
+    }
+
+    public long getTotalUsers() {
+        return userRepository.count();
+    }
+
+    public long getTotalAgents() {
+        return administratorRepository.countByRole(AdministratorRole.AGENT);
+    }
+
+    /**
+     * Évolution mensuelle des soumissions, du mois le plus ancien au plus récent.
+     */
+    public List<MonthlyCountDto> getMonthlySubmissions() {
+        return applicationRepository.countGroupedBySubmissionMonth();
+    }
+
+    /**
+     * Répartition des candidatures par établissement visé, les plus demandés en premier.
+     */
+    public List<InstitutionCountDto> getInstitutionDistribution(int limit) {
+        return applicationRepository.countGroupedByInstitution(PageRequest.of(0, clamp(limit, MAX_INSTITUTION_LIMIT)));
+    }
+
+    /**
+     * Les N dernières candidatures soumises ; N est borné pour protéger la base.
+     */
+    public List<RecentApplicationDto> getRecentApplications(int limit) {
+        return applicationRepository.findRecentApplications(PageRequest.of(0, clamp(limit, MAX_RECENT_LIMIT)));
+    }
+
+    public List<RecentApplicationDto> getRecentApplicationsForApplicant(Long userId, int limit) {
+        return applicationRepository.findRecentApplicationsForApplicant(userId,
+                PageRequest.of(0, clamp(limit, MAX_RECENT_LIMIT)));
+    }
+
+    private Map<ApplicationStatus, Long> toStatusMap(List<StatusCountDto> rows) {
+        Map<ApplicationStatus, Long> counts = new EnumMap<>(ApplicationStatus.class);
+        for (ApplicationStatus status : ApplicationStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (StatusCountDto row : rows) {
+            if (row.getStatus() != null) {
+                counts.put(row.getStatus(), row.getCount());
+            }
+        }
+        return counts;
+    }
+
+    private int clamp(int limit, int max) {
+        return Math.max(1, Math.min(limit, max));
+    }
+}
@@ -1,22 +1,36 @@
 package com.groupe.gestin_inscription.services.serviceImpl;
 
 import com.groupe.gestin_inscription.config.ProductionReadyConfig;
+import com.groupe.gestin_inscription.exceptions.FileValidationException;
+import com.groupe.gestin_inscription.exceptions.OcrUnavailableException;
+import com.groupe.gestin_inscription.model.Document;
 import com.groupe.gestin_inscription.repository.DocumentRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.math.BigInteger;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.UUID;
 import org.springframework.stereotype.Service;
 import java.io.File;
@@ -28,7 +42,21 @@ import java.io.File;
 @Slf4j
 public class DocumentManagerService {
 
+    private static final int PERCEPTUAL_HASH_DPI = 36;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final int MAGIC_HEADER_LENGTH = 8;
+    private static final byte[] PDF_MAGIC = {'%', 'P', 'D', 'F', '-'};
+    private static final byte[] JPEG_MAGIC = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] PNG_MAGIC = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] GIF87_MAGIC = {'G', 'I', 'F', '8', '7', 'a'};
+    private static final byte[] GIF89_MAGIC = {'G', 'I', 'F', '8', '9', 'a'};
+
     private final DocumentRepository documentRepository;
+    private final OcrEngine ocrEngine;
+    private final DocumentSimilarityIndex similarityIndex;
+
+    @Value("${app.ocr.min-characters:20}")
+    private int ocrMinCharacters;
     
     @Autowired
     private Path secureStoragePath;
@@ -71,6 +99,45 @@ public class DocumentManagerService {
         return isValidFormat;
     }
     
+    /**
+     * Verifies the format and size of a file already stored on disk.
+     * Used by the asynchronous pre-validation, which no longer has the uploaded MultipartFile.
+     *
+     * @param filePath The path of the stored file.
+     * @return True if the file exists, is not empty, and has an accepted format and size.
+     */
+    public boolean verifyStoredFormat(String filePath) {
+        if (filePath == null || filePath.isBlank()) {
+            return false;
+        }
+        Path path = Path.of(filePath);
+        try {
+            if (!Files.isRegularFile(path)) {
+                log.warn("Stored file not found: {}", filePath);
+                return false;
+            }
+            long fileSize = Files.size(path);
+            if (fileSize == 0 || fileSize > validationConfig.getMaxFileSize()) {
+                log.warn("Stored file size {} is out of bounds for: {}", fileSize, filePath);
+                return false;
+            }
+            String fileExtension = getFileExtension(path.getFileName().toString()).toLowerCase();
+            return isValidFileFormat(fileExtension, Files.probeContentType(path));
+        } catch (IOException e) {
+            log.error("Error checking stored file {}: {}", filePath, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @return True if the stored file is a raster image (JPG, PNG, GIF...), false for PDF and others.
+     */
+    public boolean isImageFile(String filePath) {
+        String extension = getFileExtension(filePath).toLowerCase();
+        return "jpg".equals(extension) || "jpeg".equals(extension) || "jfif".equals(extension)
+                || "png".equals(extension) || "gif".equals(extension);
+    }
+
     private boolean isValidFileFormat(String fileExtension, String contentType) {
         // Accepted image formats (including JFIF which is JPEG)
         if ("jpg".equals(fileExtension) || "jpeg".equals(fileExtension) || "jfif".equals(fileExtension) ||
@@ -102,86 +169,185 @@ public class DocumentManagerService {
      * @throws IOException if there's an error saving the file.
      */
     public String saveSecurely(MultipartFile file) throws IOException {
+        return ingest(file).getPath();
+    }
+
+    /**
+     * Stores an upload in a single pass over its stream: the SHA-256 is computed and the magic bytes
+     * are checked while the bytes are written to a temporary file next to their destination,
+     * which is then atomically renamed into the year/month directory. The file is never re-read for hashing.
+     *
+     * @param file The MultipartFile to store.
+     * @return The stored file with its path, hash, size and extension.
+     * @throws FileValidationException if the content is not a PDF, JPEG, PNG or GIF, or is too large.
+     * @throws IOException if there's an error writing the file.
+     */
+    public StoredFile ingest(MultipartFile file) throws IOException {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("File cannot be null or empty");
         }
-        
-        // Generate secure filename
-        String fileExtension = getFileExtension(file.getOriginalFilename());
-        String uniqueFileName = UUID.randomUUID().toString() + "." + fileExtension;
-        
+
         // Create year/month directory structure
         java.time.LocalDate now = java.time.LocalDate.now();
         Path yearMonthPath = secureStoragePath.resolve(String.valueOf(now.getYear()))
                                              .resolve(String.format("%02d", now.getMonthValue()));
-        
-        Path destinationFile = yearMonthPath.resolve(uniqueFileName);
+        Files.createDirectories(yearMonthPath);
 
-        // Ensure the directory exists
-        Files.createDirectories(destinationFile.getParent());
+        // Same directory as the destination, so that the final move is a rename
+        String uniqueName = UUID.randomUUID().toString();
+        Path tempFile = yearMonthPath.resolve("." + uniqueName + ".part");
+        MessageDigest digest = newSha256();
+        byte[] header = new byte[MAGIC_HEADER_LENGTH];
+        int headerLength = 0;
+        long size = 0;
+        try {
+            try (InputStream in = file.getInputStream();
+                 OutputStream out = Files.newOutputStream(tempFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    if (headerLength < header.length) {
+                        int copied = Math.min(read, header.length - headerLength);
+                        System.arraycopy(buffer, 0, header, headerLength, copied);
+                        headerLength += copied;
+                    }
+                    size += read;
+                    if (size > validationConfig.getMaxFileSize()) {
+                        throw new FileValidationException("Document exceeds the maximum size of "
+                                + validationConfig.getMaxFileSize() / (1024 * 1024) + "MB.");
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
 
-        // Save file with proper permissions
-        Files.copy(file.getInputStream(), destinationFile);
-        
+            String detectedExtension = detectExtension(header, headerLength);
+            if (detectedExtension == null) {
+                throw new FileValidationException("File content is not a PDF, JPG, PNG or GIF document.");
+            }
+            String extension = storedExtension(getFileExtension(file.getOriginalFilename()).toLowerCase(), detectedExtension);
+            Path destinationFile = yearMonthPath.resolve(uniqueName + "." + extension);
+            restrictPermissions(tempFile);
+            Files.move(tempFile, destinationFile, StandardCopyOption.ATOMIC_MOVE);
+
+            log.info("File saved securely: {} ({} bytes)", destinationFile, size);
+            return new StoredFile(destinationFile.toString(), HexFormat.of().formatHex(digest.digest()), size, extension,
+                    contentTypeOf(detectedExtension));
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Identifies the file type from its first bytes, regardless of the name and Content-Type sent by the client.
+     *
+     * @return The canonical extension (pdf, jpg, png, gif), or null for any other content.
+     */
+    static String detectExtension(byte[] header, int length) {
+        if (startsWith(header, length, PDF_MAGIC)) {
+            return "pdf";
+        }
+        if (startsWith(header, length, JPEG_MAGIC)) {
+            return "jpg";
+        }
+        if (startsWith(header, length, PNG_MAGIC)) {
+            return "png";
+        }
+        if (startsWith(header, length, GIF87_MAGIC) || startsWith(header, length, GIF89_MAGIC)) {
+            return "gif";
+        }
+        return null;
+    }
+
+    // Keeps the client's extension when it names the same format (jpeg, jfif...), the detected one otherwise
+    private static String storedExtension(String clientExtension, String detectedExtension) {
+        boolean sameFormat = switch (detectedExtension) {
+            case "jpg" -> "jpg".equals(clientExtension) || "jpeg".equals(clientExtension) || "jfif".equals(clientExtension);
+            default -> detectedExtension.equals(clientExtension);
+        };
+        return sameFormat ? clientExtension : detectedExtension;
+    }
+
+    private static String contentTypeOf(String detectedExtension) {
+        return switch (detectedExtension) {
+            case "pdf" -> "application/pdf";
+            case "jpg" -> "image/jpeg";
+            default -> "image/" + detectedExtension;
+        };
+    }
+
+    private static boolean startsWith(byte[] header, int length, byte[] magic) {
+        if (length < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if (header[i] != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void restrictPermissions(Path file) throws IOException {
         // Set file permissions (readable only by owner)
         try {
-            Files.setPosixFilePermissions(destinationFile, 
+            Files.setPosixFilePermissions(file,
                 java.nio.file.attribute.PosixFilePermissions.fromString("rw-------"));
         } catch (UnsupportedOperationException e) {
             // Windows doesn't support POSIX permissions
             log.debug("POSIX permissions not supported on this system");
         }
-        
-        log.info("File saved securely: {}", destinationFile);
-        return destinationFile.toString();
     }
 
     /**
      * Performs partial OCR on specific documents like academic transcripts ("relevés de notes").
      * @param filePath The path to the document file.
      * @return True if the OCR check is successful, false otherwise.
+     * @throws OcrUnavailableException if the OCR engine could not run.
      */
     public boolean performOcrCheck(String filePath) {
         if (!validationConfig.isOcrEnabled()) {
             log.info("OCR is disabled, skipping OCR check for file: {}", filePath);
             return true; // Pass validation when OCR is disabled
         }
-        
-        File documentFile = new File(filePath);
-        if (!documentFile.exists()) {
+        return isReadableText(extractText(filePath));
+    }
+
+    /**
+     * Extracts the text of an image or PDF document with the local OCR engine.
+     * @param filePath The path to the document file.
+     * @return The recognized text, or null when OCR is disabled.
+     * @throws OcrUnavailableException if the OCR engine could not run (no free instance, Tesseract
+     *         initialisation, PDF rendering): the caller retries instead of rejecting the document.
+     */
+    public String extractText(String filePath) {
+        if (!validationConfig.isOcrEnabled()) {
+            return null;
+        }
+        Path path = Path.of(filePath);
+        if (!Files.isRegularFile(path)) {
             log.error("File not found at: {}", filePath);
-            return false;
+            return "";
         }
-
         try {
-            // Production-ready OCR would integrate with cloud services like:
-            // - Google Cloud Vision API
-            // - AWS Textract
-            // - Azure Computer Vision
-            
-            // For now, perform basic file validation
-            String fileName = documentFile.getName().toLowerCase();
-            long fileSize = documentFile.length();
-            
-            // Basic heuristics for document validation
-            boolean isValidSize = fileSize > 1024 && fileSize < validationConfig.getMaxFileSize();
-            boolean hasValidExtension = fileName.endsWith(".pdf") || 
-                                      fileName.endsWith(".jpg") || 
-                                      fileName.endsWith(".png");
-            
-            if (isValidSize && hasValidExtension) {
-                log.info("Basic document validation passed for: {}", filePath);
-                return true;
-            } else {
-                log.warn("Basic document validation failed for: {} (size: {}, extension valid: {})", 
-                        filePath, fileSize, hasValidExtension);
-                return false;
-            }
-            
-        } catch (Exception e) {
-            log.error("Error during document validation: {}", e.getMessage());
+            OcrEngine.OcrResult result = ocrEngine.recognize(path);
+            log.debug("OCR of {} page(s) in {} ms for: {}", result.getPages(),
+                    result.getElapsedNanos() / 1_000_000, filePath);
+            return result.getText();
+        } catch (IOException | RuntimeException e) {
+            throw new OcrUnavailableException("OCR impossible pour " + filePath + " : " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return True if the OCR output contains enough letters or digits to be a real document.
+     */
+    public boolean isReadableText(String text) {
+        if (text == null) {
             return false;
         }
+        long significant = text.chars().filter(Character::isLetterOrDigit).count();
+        return significant >= ocrMinCharacters;
     }
 
     /**
@@ -292,53 +458,127 @@ public class DocumentManagerService {
     }
 
     /**
-     * Checks for the similarity of a new document by comparing its hash
-     * with the hashes of existing documents in the database.
+     * Checks for the similarity of a new document, first by comparing its SHA-256 hash
+     * with the hashes of existing documents, then by looking for near-duplicates
+     * (rescanned or re-compressed copies) in the perceptual hash index.
      * This method is a form of elementary fraud detection.
      *
      * @param filePath The path to the new document file.
      * @return true if a similar document is found, false otherwise.
      */
     public boolean checkForSimilarity(String filePath) {
-        // Step 1: Generate the hash for the new document
+        // Step 1: Exact copy, same bytes
         String newDocumentHash = generateFileHash(filePath);
-        if (newDocumentHash == null) {
-            // Handle error (e.g., file not found or hashing failed)
-            return false;
+        if (newDocumentHash != null && documentRepository.existsByHash(newDocumentHash)) {
+            log.warn("ALERT: Identical document detected for file at: {}", filePath);
+            return true;
         }
 
-        // Step 2: Query the database for a document with the same hash
-        boolean isDuplicate = documentRepository.findByHash(newDocumentHash).isPresent();
-
+        // Step 2: Visually identical copy
+        Long perceptualHash = computePerceptualHash(filePath);
+        boolean isDuplicate = perceptualHash != null && !similarityIndex.findSimilar(perceptualHash).isEmpty();
         if (isDuplicate) {
-            System.out.println("ALERT: Similar document detected for file at: " + filePath);
+            log.warn("ALERT: Similar document detected for file at: {}", filePath);
         }
-
         return isDuplicate;
     }
 
+    /**
+     * Finds the documents of other applications that look like the given stored document.
+     *
+     * @param document The stored document.
+     * @return The near-duplicates, closest first; empty if the file cannot be hashed.
+     */
+    public List<HammingBkTree.Match> findNearDuplicates(Document document) {
+        Long perceptualHash = document.getPerceptualHash() != null
+                ? document.getPerceptualHash() : computePerceptualHash(document.getFilePath());
+        if (perceptualHash == null) {
+            return List.of();
+        }
+        long documentId = document.getId() != null ? document.getId() : -1L;
+        long applicationId = document.getApplication() != null && document.getApplication().getId() != null
+                ? document.getApplication().getId() : -1L;
+        return similarityIndex.findSimilar(perceptualHash).stream()
+                .filter(match -> match.getDocumentId() != documentId && match.getApplicationId() != applicationId)
+                .sorted(Comparator.comparingInt(HammingBkTree.Match::getDistance))
+                .toList();
+    }
+
+    /**
+     * Computes the 64-bit difference hash (dHash) of an image, or of the first page of a PDF.
+     *
+     * @param filePath The path to the document file.
+     * @return The perceptual hash, or null if the file is not a readable image or PDF.
+     */
+    public Long computePerceptualHash(String filePath) {
+        if (filePath == null) {
+            return null;
+        }
+        File file = new File(filePath);
+        try {
+            BufferedImage image;
+            if ("pdf".equalsIgnoreCase(getFileExtension(file.getName()))) {
+                try (PDDocument pdf = PDDocument.load(file)) {
+                    if (pdf.getNumberOfPages() == 0) {
+                        return null;
+                    }
+                    // Une basse résolution suffit : l'image est réduite à 9x8 pixels
+                    image = new PDFRenderer(pdf).renderImageWithDPI(0, PERCEPTUAL_HASH_DPI, ImageType.GRAY);
+                }
+            } else {
+                image = ImageIO.read(file);
+            }
+            return image != null ? DocumentSimilarityIndex.differenceHash(image) : null;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not compute perceptual hash for {}: {}", filePath, e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Helper method to generate a SHA-256 hash of a file.
+     * Only used for files that were not stored through {@link #ingest(MultipartFile)}.
      *
      * @param filePath The path to the file.
      * @return The hexadecimal string representation of the hash, or null on failure.
      */
     private String generateFileHash(String filePath) {
-        try (FileInputStream fis = new FileInputStream(filePath)) {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] buffer = new byte[8192];
+        try (InputStream in = Files.newInputStream(Path.of(filePath))) {
+            MessageDigest digest = newSha256();
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
             int bytesRead;
-            while ((bytesRead = fis.read(buffer)) != -1) {
+            while ((bytesRead = in.read(buffer)) != -1) {
                 digest.update(buffer, 0, bytesRead);
             }
-            byte[] hashedBytes = digest.digest();
-            return new BigInteger(1, hashedBytes).toString(16);
-        } catch (IOException | NoSuchAlgorithmException e) {
-            System.err.println("Error generating file hash: " + e.getMessage());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            log.error("Error generating file hash for {}: {}", filePath, e.getMessage());
             return null;
         }
     }
 
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Result of {@link #ingest(MultipartFile)}.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class StoredFile {
+        private final String path;
+        private final String sha256;
+        private final long size;
+        private final String extension;
+        /** MIME type matching the detected content. */
+        private final String contentType;
+    }
+
     String getFileExtension(String fileName) {
         if (fileName == null || fileName.isEmpty()) {
             return "";
@@ -1,7 +1,9 @@
 package com.groupe.gestin_inscription.services.serviceImpl;
 
 import com.groupe.gestin_inscription.dto.request.DocumentUploadRequestDTO;
+import com.groupe.gestin_inscription.events.ApplicationStatusChangedEvent;
 import com.groupe.gestin_inscription.exceptions.FileValidationException;
+import com.groupe.gestin_inscription.exceptions.OcrUnavailableException;
 import com.groupe.gestin_inscription.model.Application;
 import com.groupe.gestin_inscription.model.Document;
 import com.groupe.gestin_inscription.model.Enums.ValidationStatus;
@@ -10,14 +12,20 @@ import com.groupe.gestin_inscription.repository.DocumentRepository;
 import com.groupe.gestin_inscription.services.serviceInterfaces.DocumentService;
 import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
 import com.groupe.gestin_inscription.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
+@Slf4j
 public class DocumentServiceImpl implements DocumentService {
     @Autowired
     private DocumentRepository documentRepository;
@@ -29,6 +37,12 @@ public class DocumentServiceImpl implements DocumentService {
     @Autowired
     private EmailNotificationService emailNotificationService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private DocumentSimilarityIndex similarityIndex;
+
     /**
      * Handles the secure upload of a document to the system.
      * Performs initial format and size validation.
@@ -54,27 +68,32 @@ public class DocumentServiceImpl implements DocumentService {
             throw new FileValidationException("Document exceeds the maximum size of 5MB.");
         }
 
-        // Step 2: Save the document securely (e.g., to a cloud storage or local file system)
-        String securePath = null;
+        // Step 2: Save the document securely, hashing and checking its magic bytes in the same pass
+        DocumentManagerService.StoredFile storedFile;
         try {
-            securePath = documentManagerService.saveSecurely(docDTO.getFileContent());
+            storedFile = documentManagerService.ingest(fileContent);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
+        String securePath = storedFile.getPath();
 
         // Step 3: Create and save the Document entity in the database
         Document document = new Document();
         document.setName(docDTO.getDocumentType());
-        document.setFileType(documentManagerService.getFileExtension(fileContent.getName()));
-        document.setFileSizeMB((double) fileContent.getSize() / (1024 * 1024));
+        document.setFileType(storedFile.getContentType());
+        document.setFileSizeMB((double) storedFile.getSize() / (1024 * 1024));
         document.setFilePath(securePath);
+        document.setHash(storedFile.getSha256());
+        document.setPerceptualHash(documentManagerService.computePerceptualHash(securePath));
         document.setValidationStatus(ValidationStatus.PENDING);
 
         // Associate with the application
         Application application = applicationRepository.findById(applicationId).orElseThrow();
         document.setApplication(application);
 
-        return documentRepository.save(document);
+        Document saved = documentRepository.save(document);
+        similarityIndex.add(saved.getId(), applicationId, saved.getPerceptualHash());
+        return saved;
     }
 
     /**
@@ -85,29 +104,51 @@ public class DocumentServiceImpl implements DocumentService {
      */
     @Override
     public boolean performAutomaticValidation(Document document) {
+        return runAutomaticChecks(document).passed();
+    }
+
+    /**
+     * Runs the automatic checks on a stored document and lists the ones that failed.
+     * Image-based checks (watermark, photo ratio) only apply to image files.
+     * @param document The Document entity to validate.
+     * @return The failed checks (empty if the document passes) and the OCR text, if any.
+     * @throws OcrUnavailableException if OCR could not run; the document is neither passed nor rejected.
+     */
+    public AutomaticCheckResult runAutomaticChecks(Document document) {
+        List<String> failures = new ArrayList<>();
+        List<String> warnings = new ArrayList<>();
+        String ocrText = null;
+
         // Verify format and size (already done in upload, but good to double-check)
-        if (!documentManagerService.verifyFormat(document.getFileType(), null) || document.getFileSizeMB() > 5.0) {
-            return false;
+        if (!documentManagerService.verifyStoredFormat(document.getFilePath()) || document.getFileSizeMB() > 5.0) {
+            failures.add("format ou taille invalide");
+            return new AutomaticCheckResult(failures, warnings, null);
         }
 
+        boolean isImage = documentManagerService.isImageFile(document.getFilePath());
+        String documentName = document.getName() != null ? document.getName() : "";
+
         // Specific validations as per project document [cite: 55]
-        switch (document.getName()) {
+        switch (documentName) {
             case "CNI recto/verso":
-                // Use OCR to verify information on ID cards
-                if (!documentManagerService.performOcrCheck(document.getFilePath())) {
-                    return false;
+            case "Relevé de notes":
+            case "Relevés de notes":
+                // Use OCR to verify information on ID cards and transcripts; null when OCR is disabled
+                ocrText = documentManagerService.extractText(document.getFilePath());
+                if (ocrText != null && !documentManagerService.isReadableText(ocrText)) {
+                    failures.add("contrôle OCR échoué");
                 }
                 break;
             case "Acte de naissance":
                 // Detect watermarks
-                if (!documentManagerService.detectWatermark(document.getFilePath())) {
-                    return false;
+                if (isImage && !documentManagerService.detectWatermark(document.getFilePath())) {
+                    failures.add("filigrane non détecté");
                 }
                 break;
             case "Photo d'identité":
                 // Verify photo ratio and face detection
-                if (!documentManagerService.verifyPhotoRatio(document.getFilePath())) {
-                    return false;
+                if (!isImage || !documentManagerService.verifyPhotoRatio(document.getFilePath())) {
+                    failures.add("format de photo non conforme");
                 }
                 break;
             default:
@@ -115,7 +156,12 @@ public class DocumentServiceImpl implements DocumentService {
                 break;
         }
 
-        return true;
+        // Possible fraud: reported to the agent, not rejected, since official templates look alike
+        if (detectDocumentCopy(document)) {
+            warnings.add("document très proche d'un document d'un autre dossier");
+        }
+
+        return new AutomaticCheckResult(failures, warnings, ocrText);
     }
 
     /**
@@ -126,11 +172,14 @@ public class DocumentServiceImpl implements DocumentService {
     @Override
     public boolean detectDocumentCopy(Document document) {
         // Call the backend's data protection service to check for similarity [cite: 81]
-        boolean isCopy = documentManagerService.checkForSimilarity(document.getFilePath());
+        List<HammingBkTree.Match> copies = documentManagerService.findNearDuplicates(document);
+        boolean isCopy = !copies.isEmpty();
 
         if (isCopy) {
             // Log the alert for suspicious upload [cite: 82]
-            // ...
+            HammingBkTree.Match closest = copies.get(0);
+            log.warn("Document {} looks like document {} of application {} (distance {})",
+                    document.getId(), closest.getDocumentId(), closest.getApplicationId(), closest.getDistance());
         }
 
         return isCopy;
@@ -182,8 +231,7 @@ public class DocumentServiceImpl implements DocumentService {
         );
         
         // Update application status
-        application.setStatus(ApplicationStatus.PENDING);
-        applicationRepository.save(application);
+        changeApplicationStatus(application, ApplicationStatus.PENDING);
     }
     
     /**
@@ -203,8 +251,7 @@ public class DocumentServiceImpl implements DocumentService {
             .anyMatch(doc -> doc.getValidationStatus() == ValidationStatus.REJECTED);
         
         if (allValidated) {
-            application.setStatus(ApplicationStatus.APPROVED);
-            applicationRepository.save(application);
+            changeApplicationStatus(application, ApplicationStatus.APPROVED);
             
             // Send approval email
             User candidate = application.getApplicantName();
@@ -213,15 +260,23 @@ public class DocumentServiceImpl implements DocumentService {
                 candidate.getFirstName() + " " + candidate.getLastName()
             );
         } else if (anyRejected) {
-            application.setStatus(ApplicationStatus.PENDING);
-            applicationRepository.save(application);
+            changeApplicationStatus(application, ApplicationStatus.PENDING);
         } else {
             // Some documents still pending
-            application.setStatus(ApplicationStatus.UNDER_REVIEW);
-            applicationRepository.save(application);
+            changeApplicationStatus(application, ApplicationStatus.UNDER_REVIEW);
         }
     }
 
+    /**
+     * Saves the new application status and publishes the transition.
+     */
+    private void changeApplicationStatus(Application application, ApplicationStatus newStatus) {
+        ApplicationStatus previousStatus = application.getStatus();
+        application.setStatus(newStatus);
+        applicationRepository.save(application);
+        eventPublisher.publishEvent(new ApplicationStatusChangedEvent(application.getId(), previousStatus, newStatus));
+    }
+
 
     @Override
     public List<Document> getAllDocuments() {
@@ -230,6 +285,23 @@ public class DocumentServiceImpl implements DocumentService {
 
     @Override
     public void deleteDocument(Long documentId) {
+        documentRepository.findById(documentId)
+                .ifPresent(document -> similarityIndex.remove(document.getId(), document.getPerceptualHash()));
         documentRepository.deleteById(documentId);
     }
+
+    /**
+     * Outcome of the automatic checks of one document.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class AutomaticCheckResult {
+        private final List<String> failures;
+        private final List<String> warnings;
+        private final String ocrText;
+
+        public boolean passed() {
+            return failures.isEmpty();
+        }
+    }
 }
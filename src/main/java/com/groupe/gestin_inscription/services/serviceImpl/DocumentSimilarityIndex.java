@@ -0,0 +1,227 @@
+package com.groupe.gestin_inscription.services.serviceImpl;
+
+import com.groupe.gestin_inscription.repository.DocumentRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Index en mémoire des empreintes perceptuelles de tous les documents.
+ * Chargé depuis la base au démarrage, puis tenu à jour à chaque dépôt ou suppression,
+ * il retrouve en quelques millisecondes les documents visuellement proches
+ * (re-scan, recompression) d'un nouveau dépôt.
+ * Dans une transaction, ajouts et retraits ne sont appliqués qu'après sa validation :
+ * un dépôt annulé ne laisse pas d'empreinte fantôme.
+ * Ajouts et retraits ne concernent que la réplique qui les fait : les dépôts des autres réplicas
+ * sont relus par id croissant toutes les {@code app.similarity.refresh-interval}, et l'index est
+ * reconstruit en entier selon {@code app.similarity.rebuild-cron} pour reprendre les retraits,
+ * les empreintes calculées après coup (PerceptualHashBackfill) et les ids validés dans le désordre.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentSimilarityIndex {
+
+    private static final int HASH_WIDTH = 8;
+    private static final int HASH_HEIGHT = 8;
+    private static final int REFRESH_PAGE_SIZE = 1000;
+
+    private final DocumentRepository documentRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.similarity.max-distance:6}")
+    private int maxDistance;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private HammingBkTree tree = new HammingBkTree();
+    // Plus grand id relu en base ; les dépôts locaux ne l'avancent pas, pour ne pas sauter ceux des autres réplicas
+    private long highestId;
+
+    @PostConstruct
+    void registerGauge() {
+        Gauge.builder("documents.similarity.index.size", this, DocumentSimilarityIndex::size)
+                .description("Nombre de documents dans l'index de similarité")
+                .register(meterRegistry);
+    }
+
+    // Un écouteur qui renvoie une valeur la republie comme événement : il reste void
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(cron = "${app.similarity.rebuild-cron:0 15 * * * *}")
+    @Transactional(readOnly = true)
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Reconstruit l'index à partir des empreintes en base, lues en flux.
+     */
+    @Transactional(readOnly = true)
+    public int rebuild() {
+        long start = System.nanoTime();
+        HammingBkTree fresh = new HammingBkTree();
+        long[] maxId = {0L};
+        try (Stream<Object[]> rows = documentRepository.streamPerceptualHashes()) {
+            rows.forEach(row -> {
+                fresh.add((Long) row[2], (Long) row[0], row[1] != null ? (Long) row[1] : -1L);
+                maxId[0] = Math.max(maxId[0], (Long) row[0]);
+            });
+        }
+        lock.writeLock().lock();
+        try {
+            tree = fresh;
+            highestId = maxId[0];
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Index de similarité chargé: {} documents en {} ms", fresh.size(), (System.nanoTime() - start) / 1_000_000);
+        return fresh.size();
+    }
+
+    /**
+     * Ajoute les empreintes déposées depuis la dernière lecture, y compris sur les autres réplicas.
+     */
+    @Scheduled(fixedDelayString = "${app.similarity.refresh-interval:PT1M}",
+            initialDelayString = "${app.similarity.refresh-interval:PT1M}")
+    public void refresh() {
+        int added = 0;
+        List<Object[]> rows;
+        do {
+            long afterId;
+            lock.readLock().lock();
+            try {
+                afterId = highestId;
+            } finally {
+                lock.readLock().unlock();
+            }
+            rows = documentRepository.findPerceptualHashesAfter(afterId, PageRequest.of(0, REFRESH_PAGE_SIZE));
+            lock.writeLock().lock();
+            try {
+                for (Object[] row : rows) {
+                    if (tree.add((Long) row[2], (Long) row[0], row[1] != null ? (Long) row[1] : -1L)) {
+                        added++;
+                    }
+                    highestId = Math.max(highestId, (Long) row[0]);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } while (rows.size() == REFRESH_PAGE_SIZE);
+        if (added > 0) {
+            log.debug("Index de similarité : {} document(s) déposé(s) ailleurs ajouté(s)", added);
+        }
+    }
+
+    public void add(Long documentId, Long applicationId, Long perceptualHash) {
+        if (documentId == null || perceptualHash == null) {
+            return;
+        }
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                tree.add(perceptualHash, documentId, applicationId != null ? applicationId : -1L);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(Long documentId, Long perceptualHash) {
+        if (documentId == null || perceptualHash == null) {
+            return;
+        }
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                tree.remove(perceptualHash, documentId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    /**
+     * Documents dont l'empreinte est à au plus {@code app.similarity.max-distance} bits de celle donnée.
+     */
+    public List<HammingBkTree.Match> findSimilar(long perceptualHash) {
+        lock.readLock().lock();
+        try {
+            return tree.search(perceptualHash, maxDistance);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * dHash : l'image est réduite à 9x8 niveaux de gris et chaque bit indique si un pixel
+     * est plus sombre que son voisin de droite. Insensible à l'échelle, à la compression
+     * et aux légères variations de luminosité d'un nouveau scan.
+     */
+    public static long differenceHash(BufferedImage image) {
+        BufferedImage small = new BufferedImage(HASH_WIDTH + 1, HASH_HEIGHT, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = small.createGraphics();
+        try {
+            // Moyenne par zone : un simple échantillonnage bilinéaire ignorerait presque toute l'image
+            graphics.drawImage(image.getScaledInstance(HASH_WIDTH + 1, HASH_HEIGHT, Image.SCALE_AREA_AVERAGING), 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        Raster raster = small.getRaster();
+        long hash = 0L;
+        for (int y = 0; y < HASH_HEIGHT; y++) {
+            for (int x = 0; x < HASH_WIDTH; x++) {
+                hash <<= 1;
+                if (raster.getSample(x, y, 0) < raster.getSample(x + 1, y, 0)) {
+                    hash |= 1L;
+                }
+            }
+        }
+        return hash;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return tree.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
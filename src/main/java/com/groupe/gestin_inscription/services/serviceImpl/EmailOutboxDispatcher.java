@@ -0,0 +1,220 @@
+package com.groupe.gestin_inscription.services.serviceImpl;
+
+import com.groupe.gestin_inscription.model.EmailOutbox;
+import com.groupe.gestin_inscription.model.Enums.EmailOutboxStatus;
+import com.groupe.gestin_inscription.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Vide la table email_outbox par lots. Chaque lot est envoyé en un seul appel à
+ * JavaMailSender.send(MimeMessage...), qui ouvre une connexion SMTP et la réutilise
+ * pour tous les messages du lot au lieu d'une poignée de main TLS par e-mail.
+ * Les échecs sont retentés avec un délai exponentiel, jusqu'à {@code app.mail.outbox.max-attempts}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private static final int ERROR_MAX_LENGTH = 1000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.mail.enabled:true}")
+    private boolean emailEnabled;
+
+    @Value("${app.mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.mail.outbox.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.mail.outbox.backoff-initial:PT30S}")
+    private Duration backoffInitial;
+
+    @Value("${app.mail.outbox.backoff-max:PT1H}")
+    private Duration backoffMax;
+
+    @Value("${app.mail.outbox.lease:PT5M}")
+    private Duration lease;
+
+    private final AtomicLong queueDepth = new AtomicLong();
+    private Counter sentCounter;
+    private Counter retriedCounter;
+    private Counter failedCounter;
+    private Timer batchDuration;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("mail.outbox.queue.depth", queueDepth, AtomicLong::get)
+                .description("E-mails en attente d'envoi")
+                .register(meterRegistry);
+        sentCounter = Counter.builder("mail.outbox.sent")
+                .description("E-mails envoyés")
+                .register(meterRegistry);
+        retriedCounter = Counter.builder("mail.outbox.retried")
+                .description("Envois en échec reprogrammés")
+                .register(meterRegistry);
+        failedCounter = Counter.builder("mail.outbox.failed")
+                .description("E-mails abandonnés après le nombre maximal de tentatives")
+                .register(meterRegistry);
+        batchDuration = Timer.builder("mail.outbox.batch.duration")
+                .description("Durée d'envoi d'un lot")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:5000}")
+    public void dispatch() {
+        LocalDateTime now = LocalDateTime.now();
+        int requeued = emailOutboxRepository.requeueExpired(now, EmailOutboxStatus.SENDING, EmailOutboxStatus.PENDING);
+        if (requeued > 0) {
+            log.warn("{} e-mail(s) dont le bail a expiré remis en file", requeued);
+        }
+        queueDepth.set(emailOutboxRepository.countByStatus(EmailOutboxStatus.PENDING));
+        if (!emailEnabled || queueDepth.get() == 0) {
+            return;
+        }
+
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            List<EmailOutbox> batch = claimBatch();
+            if (batch.isEmpty()) {
+                break;
+            }
+            batchDuration.record(() -> send(batch));
+            queueDepth.addAndGet(-batch.size());
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+    }
+
+    private List<EmailOutbox> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = emailOutboxRepository.findDueIds(EmailOutboxStatus.PENDING, now, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String token = UUID.randomUUID().toString();
+        if (emailOutboxRepository.claim(ids, token, now.plus(lease), EmailOutboxStatus.PENDING, EmailOutboxStatus.SENDING) == 0) {
+            return List.of();
+        }
+        return emailOutboxRepository.findByClaimToken(token);
+    }
+
+    private void send(List<EmailOutbox> batch) {
+        Map<MimeMessage, EmailOutbox> byMessage = new IdentityHashMap<>();
+        List<Long> sent = new ArrayList<>();
+        for (EmailOutbox email : batch) {
+            try {
+                byMessage.put(toMimeMessage(email), email);
+            } catch (MessagingException | RuntimeException e) {
+                // Message impossible à construire (adresse invalide...) : inutile de retenter
+                fail(email, e, true);
+            }
+        }
+        if (byMessage.isEmpty()) {
+            return;
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        try {
+            mailSender.send(byMessage.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                // Échec global (connexion, authentification) : tout le lot est reprogrammé
+                byMessage.values().forEach(email -> fail(email, e, false));
+                return;
+            }
+        } catch (MailException e) {
+            byMessage.values().forEach(email -> fail(email, e, false));
+            return;
+        }
+
+        for (Map.Entry<MimeMessage, EmailOutbox> entry : byMessage.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null) {
+                sent.add(entry.getValue().getId());
+            } else {
+                fail(entry.getValue(), failure, false);
+            }
+        }
+        if (!sent.isEmpty()) {
+            emailOutboxRepository.markSent(sent, LocalDateTime.now(), EmailOutboxStatus.SENT);
+            sentCounter.increment(sent.size());
+            log.info("{} e-mail(s) envoyé(s)", sent.size());
+        }
+    }
+
+    private MimeMessage toMimeMessage(EmailOutbox email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+        helper.setFrom(email.getSender());
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody(), email.isHtml());
+        return message;
+    }
+
+    private void fail(EmailOutbox email, Exception error, boolean permanent) {
+        // attempts a été incrémenté en base lors de la réservation
+        int attempts = email.getAttempts();
+        boolean exhausted = permanent || attempts >= maxAttempts;
+        String message = truncate(String.valueOf(error.getMessage()));
+        if (exhausted) {
+            emailOutboxRepository.reschedule(email.getId(), EmailOutboxStatus.FAILED, LocalDateTime.now(), message);
+            failedCounter.increment();
+            log.error("Envoi de l'e-mail {} à {} abandonné après {} tentative(s): {}",
+                    email.getId(), email.getRecipient(), attempts, message);
+        } else {
+            emailOutboxRepository.reschedule(email.getId(), EmailOutboxStatus.PENDING,
+                    LocalDateTime.now().plus(backoff(attempts)), message);
+            retriedCounter.increment();
+            log.warn("Envoi de l'e-mail {} à {} échoué (tentative {}/{}): {}",
+                    email.getId(), email.getRecipient(), attempts, maxAttempts, message);
+        }
+    }
+
+    /**
+     * Délai avant la tentative suivante : initial, x2, x4... plafonné à {@code app.mail.outbox.backoff-max}.
+     */
+    Duration backoff(int attempts) {
+        int exponent = Math.max(0, Math.min(attempts - 1, 20));
+        Duration delay = backoffInitial.multipliedBy(1L << exponent);
+        return delay.compareTo(backoffMax) > 0 ? backoffMax : delay;
+    }
+
+    private String truncate(String value) {
+        return value.length() <= ERROR_MAX_LENGTH ? value : value.substring(0, ERROR_MAX_LENGTH);
+    }
+}
@@ -0,0 +1,56 @@
+package com.groupe.gestin_inscription.services.serviceImpl;
+
+import com.groupe.gestin_inscription.model.EmailOutbox;
+import com.groupe.gestin_inscription.repository.EmailOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Point d'entrée unique pour l'envoi d'e-mails : le message est enregistré dans la table
+ * email_outbox, dans la transaction de l'appelant s'il y en a une, et sera envoyé par
+ * EmailOutboxDispatcher. Si la transaction est annulée, l'e-mail ne part pas.
+ * Un destinataire absent n'est pas une erreur : l'e-mail est ignoré sans lever d'exception,
+ * qui marquerait la transaction de l'appelant à annuler (changement de statut, lot de relances...).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxService {
+
+    private static final int SUBJECT_MAX_LENGTH = 500;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+
+    @Value("${app.mail.from:noreply@sigec.com}")
+    private String defaultSender;
+
+    public Optional<EmailOutbox> enqueue(String recipient, String subject, String body, boolean html) {
+        return enqueue(defaultSender, recipient, subject, body, html);
+    }
+
+    /**
+     * @return l'e-mail mis en file, vide si le destinataire est absent
+     */
+    public Optional<EmailOutbox> enqueue(String sender, String recipient, String subject, String body, boolean html) {
+        if (recipient == null || recipient.isBlank()) {
+            log.warn("E-mail « {} » ignoré : destinataire absent", subject);
+            return Optional.empty();
+        }
+        String safeSubject = subject == null ? "" : subject;
+        EmailOutbox email = EmailOutbox.builder()
+                .sender(sender != null ? sender : defaultSender)
+                .recipient(recipient.trim())
+                .subject(safeSubject.length() <= SUBJECT_MAX_LENGTH ? safeSubject : safeSubject.substring(0, SUBJECT_MAX_LENGTH))
+                .body(body == null ? "" : body)
+                .html(html)
+                .build();
+        // save rejoint la transaction de l'appelant, ou ouvre la sienne
+        EmailOutbox saved = emailOutboxRepository.save(email);
+        log.debug("E-mail {} mis en file pour {}", saved.getId(), saved.getRecipient());
+        return Optional.of(saved);
+    }
+}
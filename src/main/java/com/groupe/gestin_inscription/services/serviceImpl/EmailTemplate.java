@@ -0,0 +1,158 @@
+package com.groupe.gestin_inscription.services.serviceImpl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Modèle d'e-mail compilé une fois en une liste de segments (texte fixe, variable, section).
+ * Syntaxe : {@code {{nom}}} insère une valeur (échappée en HTML pour les modèles HTML),
+ * {@code {{{nom}}}} l'insère telle quelle, {@code {{#nom}}...{{/nom}}} n'est rendu que si la valeur
+ * est présente et non vide. Une variable absente du modèle produit une chaîne vide.
+ * Immuable et thread-safe.
+ */
+public final class EmailTemplate {
+
+    private final Segment[] segments;
+    private final int estimatedLength;
+
+    private EmailTemplate(List<Segment> segments, int estimatedLength) {
+        this.segments = segments.toArray(new Segment[0]);
+        this.estimatedLength = estimatedLength;
+    }
+
+    /**
+     * @throws IllegalArgumentException si une balise n'est pas fermée
+     */
+    public static EmailTemplate compile(String source, boolean escapeHtml) {
+        Parser parser = new Parser(source, escapeHtml);
+        List<Segment> segments = parser.parse(null);
+        return new EmailTemplate(segments, source.length());
+    }
+
+    public void render(Map<String, ?> model, StringBuilder out) {
+        for (Segment segment : segments) {
+            segment.render(model, out);
+        }
+    }
+
+    /**
+     * Taille du texte source, utile pour dimensionner le tampon de rendu.
+     */
+    public int estimatedLength() {
+        return estimatedLength;
+    }
+
+    public static void escapeHtml(CharSequence value, StringBuilder out) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private static boolean isPresent(Object value) {
+        if (value == null || Boolean.FALSE.equals(value)) {
+            return false;
+        }
+        if (value instanceof CharSequence text) {
+            return !text.toString().isBlank();
+        }
+        if (value instanceof Collection<?> collection) {
+            return !collection.isEmpty();
+        }
+        return true;
+    }
+
+    private interface Segment {
+        void render(Map<String, ?> model, StringBuilder out);
+    }
+
+    private record Literal(String text) implements Segment {
+        public void render(Map<String, ?> model, StringBuilder out) {
+            out.append(text);
+        }
+    }
+
+    private record Variable(String name, boolean escape) implements Segment {
+        public void render(Map<String, ?> model, StringBuilder out) {
+            Object value = model.get(name);
+            if (value == null) {
+                return;
+            }
+            if (escape) {
+                escapeHtml(value instanceof CharSequence text ? text : value.toString(), out);
+            } else {
+                out.append(value);
+            }
+        }
+    }
+
+    private record Section(String name, Segment[] body) implements Segment {
+        public void render(Map<String, ?> model, StringBuilder out) {
+            if (isPresent(model.get(name))) {
+                for (Segment segment : body) {
+                    segment.render(model, out);
+                }
+            }
+        }
+    }
+
+    private static final class Parser {
+        private final String source;
+        private final boolean escapeHtml;
+        private int position;
+
+        Parser(String source, boolean escapeHtml) {
+            this.source = source;
+            this.escapeHtml = escapeHtml;
+        }
+
+        List<Segment> parse(String openSection) {
+            List<Segment> segments = new ArrayList<>();
+            while (position < source.length()) {
+                int open = source.indexOf("{{", position);
+                if (open < 0) {
+                    segments.add(new Literal(source.substring(position)));
+                    position = source.length();
+                    break;
+                }
+                if (open > position) {
+                    segments.add(new Literal(source.substring(position, open)));
+                }
+                boolean raw = source.startsWith("{{{", open);
+                String closing = raw ? "}}}" : "}}";
+                int close = source.indexOf(closing, open);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Balise non fermée à la position " + open);
+                }
+                String tag = source.substring(open + (raw ? 3 : 2), close).trim();
+                position = close + closing.length();
+
+                if (tag.startsWith("#")) {
+                    String name = tag.substring(1).trim();
+                    segments.add(new Section(name, parse(name).toArray(new Segment[0])));
+                } else if (tag.startsWith("/")) {
+                    String name = tag.substring(1).trim();
+                    if (!name.equals(openSection)) {
+                        throw new IllegalArgumentException("Section fermante inattendue : " + name);
+                    }
+                    return segments;
+                } else {
+                    segments.add(new Variable(tag, escapeHtml && !raw));
+                }
+            }
+            if (openSection != null) {
+                throw new IllegalArgumentException("Section non fermée : " + openSection);
+            }
+            return segments;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.groupe.gestin_inscription.services.serviceImpl;
+
+import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Modèles d'e-mails de classpath:templates/email, compilés une seule fois au démarrage.
+ * Fichiers : {@code <nom>.<langue>.html} (valeurs échappées) ou {@code <nom>.<langue>.txt} (texte brut),
+ * et {@code status.<langue>.properties} pour les textes propres à chaque ApplicationStatus.
+ * Le rendu se fait dans un tampon réutilisé par thread : un envoi de masse ne recrée
+ * ni le modèle ni le tampon à chaque e-mail.
+ */
+@Component
+@Slf4j
+public class EmailTemplateEngine {
+
+    static final String LOCATION = "classpath*:templates/email/";
+    private static final int MAX_POOLED_BUFFER = 256 * 1024;
+
+    private final Map<String, EmailTemplate> templates = new HashMap<>();
+    private final Map<String, Map<ApplicationStatus, StatusTexts>> statusTexts = new HashMap<>();
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(8 * 1024));
+
+    @Value("${app.mail.default-language:fr}")
+    private String defaultLanguage = "fr";
+
+    @PostConstruct
+    public void load() throws IOException {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        for (Resource resource : resolver.getResources(LOCATION + "*.*")) {
+            String filename = resource.getFilename();
+            if (filename == null) {
+                continue;
+            }
+            if (filename.endsWith(".properties")) {
+                loadStatusTexts(filename, resource);
+            } else if (filename.endsWith(".html") || filename.endsWith(".txt")) {
+                try (InputStream in = resource.getInputStream()) {
+                    String source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                    String key = filename.substring(0, filename.lastIndexOf('.'));
+                    templates.put(key, EmailTemplate.compile(source, filename.endsWith(".html")));
+                }
+            }
+        }
+        log.info("{} modèle(s) d'e-mail compilé(s), langues de statut : {}", templates.size(), statusTexts.keySet());
+    }
+
+    /**
+     * Rend le modèle dans la langue demandée, ou dans la langue par défaut s'il n'y est pas traduit.
+     *
+     * @throws IllegalArgumentException si le modèle n'existe dans aucune des deux langues
+     */
+    public String render(String name, Locale locale, Map<String, ?> model) {
+        EmailTemplate template = templates.get(name + "." + language(locale));
+        if (template == null) {
+            template = templates.get(name + "." + defaultLanguage);
+        }
+        if (template == null) {
+            throw new IllegalArgumentException("Modèle d'e-mail inconnu : " + name);
+        }
+
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        buffer.ensureCapacity(template.estimatedLength() + 512);
+        template.render(model, buffer);
+        String result = buffer.toString();
+        if (buffer.capacity() > MAX_POOLED_BUFFER) {
+            // Un e-mail exceptionnellement long ne doit pas rester en mémoire pour ce thread
+            buffers.remove();
+        }
+        return result;
+    }
+
+    /**
+     * Textes d'un statut (titre, message, objet...) dans la langue demandée, ou null si ce statut
+     * ne donne pas lieu à notification.
+     */
+    public StatusTexts statusTexts(ApplicationStatus status, Locale locale) {
+        Map<ApplicationStatus, StatusTexts> texts = statusTexts.get(language(locale));
+        if (texts == null || !texts.containsKey(status)) {
+            texts = statusTexts.getOrDefault(defaultLanguage, Map.of());
+        }
+        return texts.get(status);
+    }
+
+    public Locale defaultLocale() {
+        return Locale.forLanguageTag(defaultLanguage);
+    }
+
+    private String language(Locale locale) {
+        return locale != null && !locale.getLanguage().isEmpty() ? locale.getLanguage() : defaultLanguage;
+    }
+
+    // status.fr.properties -> fr
+    private void loadStatusTexts(String filename, Resource resource) throws IOException {
+        String[] parts = filename.split("\\.");
+        if (parts.length != 3 || !"status".equals(parts[0])) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        Map<ApplicationStatus, StatusTexts> texts = new EnumMap<>(ApplicationStatus.class);
+        for (ApplicationStatus status : ApplicationStatus.values()) {
+            String prefix = status.name() + ".";
+            if (properties.containsKey(prefix + "subject")) {
+                texts.put(status, new StatusTexts(
+                        properties.getProperty(prefix + "label", status.name()),
+                        properties.getProperty(prefix + "title"),
+                        properties.getProperty(prefix + "message"),
+                        properties.getProperty(prefix + "subject"),
+                        properties.getProperty(prefix + "body"),
+                        properties.getProperty(prefix + "color", "#2196f3"),
+                        properties.getProperty(prefix + "icon", "📋")));
+            }
+        }
+        statusTexts.put(parts[1], texts);
+    }
+
+    /**
+     * Textes associés à un statut : notification in-app (title, message) et e-mail (subject, body).
+     */
+    public record StatusTexts(String label, String title, String message, String subject, String body,
+                              String color, String icon) {
+    }
+}
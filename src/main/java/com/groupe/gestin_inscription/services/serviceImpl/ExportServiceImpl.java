@@ -1,33 +1,81 @@
 package com.groupe.gestin_inscription.services.serviceImpl;
 
-import com.groupe.gestin_inscription.model.Application;
+import com.groupe.gestin_inscription.dto.response.ExportRowDto;
 import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
 import com.groupe.gestin_inscription.repository.ApplicationRepository;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.Arrays;
-import java.util.List;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * Exports des candidatures en flux : les lignes sont lues via un curseur JDBC
+ * et écrites au fil de l'eau dans le flux de sortie, sans jamais charger tout le jeu en mémoire.
+ */
 @Service
 public class ExportServiceImpl {
 
+    private static final String[] HEADERS = {
+        "ID", "Nom", "Prénom", "Email", "Téléphone",
+        "Nationalité", "Statut", "Date de soumission", "Dernière modification"
+    };
+    private static final int[] COLUMN_WIDTHS = {10, 25, 25, 35, 18, 18, 20, 20, 22};
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    // Nombre de lignes gardées en mémoire par SXSSF, les autres sont vidées sur disque
+    private static final int XLSX_ROW_WINDOW = 200;
+
     @Autowired
     private ApplicationRepository applicationRepository;
 
-    public byte[] exportToExcel(String dateFrom, String dateTo, String[] statuses) throws IOException {
-        List<Application> applications = getFilteredApplications(dateFrom, dateTo, statuses);
-        
-        try (Workbook workbook = new XSSFWorkbook()) {
+    /**
+     * Valide et convertit les paramètres de la requête avant toute écriture dans la réponse.
+     * @throws IllegalArgumentException si un statut ou une date est invalide
+     */
+    public ExportCriteria parseCriteria(String dateFrom, String dateTo, String[] statuses) {
+        Collection<ApplicationStatus> statusList = EnumSet.allOf(ApplicationStatus.class);
+        boolean allStatuses = statuses == null || statuses.length == 0;
+        if (!allStatuses) {
+            statusList = Arrays.stream(statuses)
+                .map(status -> ApplicationStatus.valueOf(status.trim().toUpperCase()))
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(ApplicationStatus.class)));
+        }
+
+        LocalDateTime from = parseDate(dateFrom, false);
+        LocalDateTime to = parseDate(dateTo, true);
+        boolean dateFiltered = from != null || to != null;
+
+        return new ExportCriteria(allStatuses, statusList, dateFiltered,
+            from != null ? from : MIN_DATE, to != null ? to : MAX_DATE);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportToExcel(ExportCriteria criteria, OutputStream outputStream) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try (Stream<ExportRowDto> rows = streamRows(criteria)) {
             Sheet sheet = workbook.createSheet("Candidatures");
-            
+
             // Style pour l'en-tête
             CellStyle headerStyle = workbook.createCellStyle();
             Font headerFont = workbook.createFont();
@@ -35,94 +83,106 @@ public class ExportServiceImpl {
             headerStyle.setFont(headerFont);
             headerStyle.setFillForegroundColor(IndexedColors.LIGHT_BLUE.getIndex());
             headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            
-            // Créer l'en-tête
+
+            // Créer l'en-tête ; largeurs fixes, autoSizeColumn obligerait à garder toutes les lignes
             Row headerRow = sheet.createRow(0);
-            String[] headers = {
-                "ID", "Nom", "Prénom", "Email", "Téléphone", 
-                "Nationalité", "Statut", "Date de soumission", "Dernière modification"
-            };
-            
-            for (int i = 0; i < headers.length; i++) {
+            for (int i = 0; i < HEADERS.length; i++) {
                 Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
+                cell.setCellValue(HEADERS[i]);
                 cell.setCellStyle(headerStyle);
+                sheet.setColumnWidth(i, COLUMN_WIDTHS[i] * 256);
             }
-            
+
             // Remplir les données
             int rowNum = 1;
-            for (Application app : applications) {
+            Iterator<ExportRowDto> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                ExportRowDto app = iterator.next();
                 Row row = sheet.createRow(rowNum++);
-                
+
                 row.createCell(0).setCellValue(app.getId());
-                row.createCell(1).setCellValue(app.getApplicantName() != null ? app.getApplicantName().getLastName() : "");
-                row.createCell(2).setCellValue(app.getApplicantName() != null ? app.getApplicantName().getFirstName() : "");
-                row.createCell(3).setCellValue(app.getApplicantName() != null ? app.getApplicantName().getEmail() : "");
-                row.createCell(4).setCellValue(app.getApplicantName() != null ? app.getApplicantName().getPhoneNumber() : "");
-                row.createCell(5).setCellValue(app.getApplicantName() != null ? app.getApplicantName().getNationality() : "");
-                row.createCell(6).setCellValue(app.getStatus().toString());
-                row.createCell(7).setCellValue(app.getSubmissionDate() != null ? 
-                    app.getSubmissionDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")) : "");
-                row.createCell(8).setCellValue(app.getLastUpdated() != null ? 
-                    app.getLastUpdated().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")) : "");
+                row.createCell(1).setCellValue(nullToEmpty(app.getLastName()));
+                row.createCell(2).setCellValue(nullToEmpty(app.getFirstName()));
+                row.createCell(3).setCellValue(nullToEmpty(app.getEmail()));
+                row.createCell(4).setCellValue(nullToEmpty(app.getPhoneNumber()));
+                row.createCell(5).setCellValue(nullToEmpty(app.getNationality()));
+                row.createCell(6).setCellValue(app.getStatus() != null ? app.getStatus().toString() : "");
+                row.createCell(7).setCellValue(formatDate(app.getSubmissionDate()));
+                row.createCell(8).setCellValue(formatDate(app.getLastUpdated()));
             }
-            
-            // Auto-ajuster les colonnes
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-            
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
             workbook.write(outputStream);
-            return outputStream.toByteArray();
+            outputStream.flush();
+        } finally {
+            workbook.dispose();
+            workbook.close();
         }
     }
 
-    public byte[] exportToCsv(String dateFrom, String dateTo, String[] statuses) {
-        List<Application> applications = getFilteredApplications(dateFrom, dateTo, statuses);
-        
-        StringBuilder csv = new StringBuilder();
-        
+    @Transactional(readOnly = true)
+    public void exportToCsv(ExportCriteria criteria, OutputStream outputStream) throws IOException {
+        Writer csv = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+
         // En-tête CSV
-        csv.append("ID,Nom,Prénom,Email,Téléphone,Nationalité,Statut,Date de soumission,Dernière modification\n");
-        
-        // Données
-        for (Application app : applications) {
-            csv.append(app.getId()).append(",");
-            csv.append(escapeCsv(app.getApplicantName() != null ? app.getApplicantName().getLastName() : "")).append(",");
-            csv.append(escapeCsv(app.getApplicantName() != null ? app.getApplicantName().getFirstName() : "")).append(",");
-            csv.append(escapeCsv(app.getApplicantName() != null ? app.getApplicantName().getEmail() : "")).append(",");
-            csv.append(escapeCsv(app.getApplicantName() != null ? app.getApplicantName().getPhoneNumber() : "")).append(",");
-            csv.append(escapeCsv(app.getApplicantName() != null ? app.getApplicantName().getNationality() : "")).append(",");
-            csv.append(app.getStatus().toString()).append(",");
-            csv.append(app.getSubmissionDate() != null ? 
-                app.getSubmissionDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")) : "").append(",");
-            csv.append(app.getLastUpdated() != null ? 
-                app.getLastUpdated().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")) : "");
-            csv.append("\n");
+        csv.write(String.join(",", HEADERS));
+        csv.write("\n");
+
+        // Données, ligne par ligne depuis le curseur
+        try (Stream<ExportRowDto> rows = streamRows(criteria)) {
+            Iterator<ExportRowDto> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                ExportRowDto app = iterator.next();
+                csv.write(String.valueOf(app.getId()));
+                csv.write(",");
+                csv.write(escapeCsv(app.getLastName()));
+                csv.write(",");
+                csv.write(escapeCsv(app.getFirstName()));
+                csv.write(",");
+                csv.write(escapeCsv(app.getEmail()));
+                csv.write(",");
+                csv.write(escapeCsv(app.getPhoneNumber()));
+                csv.write(",");
+                csv.write(escapeCsv(app.getNationality()));
+                csv.write(",");
+                csv.write(app.getStatus() != null ? app.getStatus().toString() : "");
+                csv.write(",");
+                csv.write(formatDate(app.getSubmissionDate()));
+                csv.write(",");
+                csv.write(formatDate(app.getLastUpdated()));
+                csv.write("\n");
+            }
         }
-        
-        return csv.toString().getBytes();
+        csv.flush();
+    }
+
+    private Stream<ExportRowDto> streamRows(ExportCriteria criteria) {
+        return applicationRepository.streamForExport(criteria.allStatuses, criteria.statuses,
+            criteria.dateFiltered, criteria.dateFrom, criteria.dateTo);
     }
 
-    private List<Application> getFilteredApplications(String dateFrom, String dateTo, String[] statuses) {
-        List<Application> applications = applicationRepository.findAll();
-        
-        // Filtrer par statuts si spécifiés
-        if (statuses != null && statuses.length > 0) {
-            List<ApplicationStatus> statusList = Arrays.stream(statuses)
-                .map(ApplicationStatus::valueOf)
-                .collect(Collectors.toList());
-            
-            applications = applications.stream()
-                .filter(app -> statusList.contains(app.getStatus()))
-                .collect(Collectors.toList());
+    // Accepte yyyy-MM-dd (borne de fin incluse sur toute la journée) ou une date-heure ISO
+    private LocalDateTime parseDate(String value, boolean endOfRange) {
+        if (value == null || value.isBlank()) {
+            return null;
         }
-        
-        // TODO: Filtrer par dates si nécessaire
-        // if (dateFrom != null && dateTo != null) { ... }
-        
-        return applications;
+        try {
+            LocalDate date = LocalDate.parse(value.trim());
+            return endOfRange ? date.plusDays(1).atStartOfDay() : date.atStartOfDay();
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDateTime.parse(value.trim());
+            } catch (DateTimeParseException ex) {
+                throw new IllegalArgumentException("Date invalide: " + value);
+            }
+        }
+    }
+
+    private String formatDate(LocalDateTime date) {
+        return date != null ? date.format(DATE_FORMAT) : "";
+    }
+
+    private String nullToEmpty(String value) {
+        return value != null ? value : "";
     }
 
     private String escapeCsv(String value) {
@@ -132,4 +192,24 @@ public class ExportServiceImpl {
         }
         return value;
     }
-}
\ No newline at end of file
+
+    /**
+     * Filtres d'export déjà validés, prêts à être passés à la requête.
+     */
+    public static class ExportCriteria {
+        private final boolean allStatuses;
+        private final Collection<ApplicationStatus> statuses;
+        private final boolean dateFiltered;
+        private final LocalDateTime dateFrom;
+        private final LocalDateTime dateTo;
+
+        ExportCriteria(boolean allStatuses, Collection<ApplicationStatus> statuses, boolean dateFiltered,
+                       LocalDateTime dateFrom, LocalDateTime dateTo) {
+            this.allStatuses = allStatuses;
+            this.statuses = statuses;
+            this.dateFiltered = dateFiltered;
+            this.dateFrom = dateFrom;
+            this.dateTo = dateTo;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.groupe.gestin_inscription.services.serviceImpl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * BK-tree sur des empreintes 64 bits, avec la distance de Hamming comme métrique.
+ * Une recherche à distance d ne visite que les sous-arbres dont l'arête est comprise
+ * entre (distance - d) et (distance + d), ce qui évite de comparer chaque empreinte.
+ * Plusieurs documents peuvent partager une même empreinte : ils sont portés par le même nœud.
+ * Non thread-safe : la synchronisation est à la charge de l'appelant.
+ */
+public final class HammingBkTree {
+
+    private Node root;
+    private int size;
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    /**
+     * Ajoute un document ; sans effet s'il est déjà présent avec cette empreinte.
+     *
+     * @return false si le document était déjà dans l'arbre
+     */
+    public boolean add(long hash, long documentId, long applicationId) {
+        if (root == null) {
+            root = new Node(hash);
+            root.addEntry(documentId, applicationId);
+            size++;
+            return true;
+        }
+        Node node = root;
+        while (true) {
+            int d = distance(node.hash, hash);
+            if (d == 0) {
+                if (!node.addEntry(documentId, applicationId)) {
+                    return false;
+                }
+                size++;
+                return true;
+            }
+            Node child = node.child(d);
+            if (child == null) {
+                Node created = new Node(hash);
+                created.addEntry(documentId, applicationId);
+                node.addChild(d, created);
+                size++;
+                return true;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Retire un document ; le nœud reste en place pour ne pas casser le routage de ses enfants.
+     */
+    public boolean remove(long hash, long documentId) {
+        Node node = root;
+        while (node != null) {
+            int d = distance(node.hash, hash);
+            if (d == 0) {
+                if (node.removeEntry(documentId)) {
+                    size--;
+                    return true;
+                }
+                return false;
+            }
+            node = node.child(d);
+        }
+        return false;
+    }
+
+    /**
+     * Tous les documents dont l'empreinte est à une distance de Hamming inférieure ou égale à maxDistance.
+     */
+    public List<Match> search(long hash, int maxDistance) {
+        List<Match> matches = new ArrayList<>();
+        if (root == null) {
+            return matches;
+        }
+        Deque<Node> toVisit = new ArrayDeque<>();
+        toVisit.push(root);
+        while (!toVisit.isEmpty()) {
+            Node node = toVisit.pop();
+            int d = distance(node.hash, hash);
+            if (d <= maxDistance) {
+                for (int i = 0; i < node.entryCount; i++) {
+                    matches.add(new Match(node.documentIds[i], node.applicationIds[i], d));
+                }
+            }
+            for (int i = 0; i < node.childCount; i++) {
+                int edge = node.childDistances[i];
+                if (edge >= d - maxDistance && edge <= d + maxDistance) {
+                    toVisit.push(node.children[i]);
+                }
+            }
+        }
+        return matches;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Document trouvé par une recherche, avec sa distance à l'empreinte recherchée.
+     */
+    public static final class Match {
+        private final long documentId;
+        private final long applicationId;
+        private final int distance;
+
+        Match(long documentId, long applicationId, int distance) {
+            this.documentId = documentId;
+            this.applicationId = applicationId;
+            this.distance = distance;
+        }
+
+        public long getDocumentId() {
+            return documentId;
+        }
+
+        public long getApplicationId() {
+            return applicationId;
+        }
+
+        public int getDistance() {
+            return distance;
+        }
+    }
+
+    // Tableaux compacts plutôt que des maps : l'index doit tenir des centaines de milliers de nœuds
+    private static final class Node {
+        private final long hash;
+        private long[] documentIds = new long[1];
+        private long[] applicationIds = new long[1];
+        private int entryCount;
+        private byte[] childDistances = new byte[0];
+        private Node[] children = new Node[0];
+        private int childCount;
+
+        Node(long hash) {
+            this.hash = hash;
+        }
+
+        boolean addEntry(long documentId, long applicationId) {
+            for (int i = 0; i < entryCount; i++) {
+                if (documentIds[i] == documentId) {
+                    return false;
+                }
+            }
+            if (entryCount == documentIds.length) {
+                documentIds = Arrays.copyOf(documentIds, entryCount * 2);
+                applicationIds = Arrays.copyOf(applicationIds, entryCount * 2);
+            }
+            documentIds[entryCount] = documentId;
+            applicationIds[entryCount] = applicationId;
+            entryCount++;
+            return true;
+        }
+
+        boolean removeEntry(long documentId) {
+            for (int i = 0; i < entryCount; i++) {
+                if (documentIds[i] == documentId) {
+                    entryCount--;
+                    documentIds[i] = documentIds[entryCount];
+                    applicationIds[i] = applicationIds[entryCount];
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Node child(int distance) {
+            for (int i = 0; i < childCount; i++) {
+                if (childDistances[i] == distance) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        void addChild(int distance, Node child) {
+            if (childCount == children.length) {
+                int capacity = Math.max(2, childCount * 2);
+                childDistances = Arrays.copyOf(childDistances, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            childDistances[childCount] = (byte) distance;
+            children[childCount] = child;
+            childCount++;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.groupe.gestin_inscription.services.serviceImpl;
+
+import com.groupe.gestin_inscription.dto.response.RealtimeNotificationDto;
+import com.groupe.gestin_inscription.services.serviceInterfaces.NotificationRelay;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Relais mono-nœud : remise directe aux sessions de cette JVM (développement, base H2).
+ */
+@Component
+@ConditionalOnProperty(name = "app.realtime.relay", havingValue = "local")
+@RequiredArgsConstructor
+public class LocalNotificationRelay implements NotificationRelay {
+
+    private final RealtimeNotificationDispatcher dispatcher;
+
+    @Override
+    public void publish(RealtimeNotificationDto notification) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatcher.deliver(notification);
+                }
+            });
+        } else {
+            dispatcher.deliver(notification);
+        }
+    }
+}
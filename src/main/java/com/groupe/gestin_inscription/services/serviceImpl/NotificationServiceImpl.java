@@ -1,49 +1,63 @@
 package com.groupe.gestin_inscription.services.serviceImpl;
 
+import com.groupe.gestin_inscription.dto.response.NotificationItemDto;
+import com.groupe.gestin_inscription.dto.response.NotificationPageDto;
+import com.groupe.gestin_inscription.dto.response.RealtimeNotificationDto;
 import com.groupe.gestin_inscription.model.Notification;
+import com.groupe.gestin_inscription.model.NotificationUnreadCounter;
 import com.groupe.gestin_inscription.model.User;
 import com.groupe.gestin_inscription.model.Enums.NotificationType;
 import com.groupe.gestin_inscription.model.Enums.NotificationStatus;
 import com.groupe.gestin_inscription.repository.NotificationRepository;
+import com.groupe.gestin_inscription.repository.NotificationUnreadCounterRepository;
 import com.groupe.gestin_inscription.repository.UserRepository;
+import com.groupe.gestin_inscription.services.serviceInterfaces.NotificationRelay;
 import com.groupe.gestin_inscription.services.serviceInterfaces.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.twilio.Twilio;
 import com.twilio.rest.api.v2010.account.Message;
 import com.twilio.type.PhoneNumber;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 
 import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 
 @Service
 public class NotificationServiceImpl implements NotificationService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
-    private JavaMailSender emailSender;
+    private EmailOutboxService emailOutboxService;
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private NotificationRelay notificationRelay;
     @Autowired
     private NotificationRepository notificationRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private NotificationUnreadCounterRepository unreadCounterRepository;
 
-    // Uses the Email Service backend module
+    @Value("${app.notifications.retention.read-days:90}")
+    private int readRetentionDays;
+    @Value("${app.notifications.retention.unread-days:365}")
+    private int unreadRetentionDays;
+    @Value("${app.notifications.retention.batch-size:1000}")
+    private int archiveBatchSize;
+
+    // Mise en file dans email_outbox, dans la transaction de l'appelant ; l'envoi SMTP est fait par EmailOutboxDispatcher
     @Override
     public void sendEmailNotification(String recipient, String subject, String content) throws MessagingException {
-        MimeMessage message = emailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-        helper.setFrom("noreply@sigec.cm"); // Adresse expéditrice configurée
-        helper.setTo(recipient);
-        helper.setSubject(subject);
-        helper.setText(content, true); // `true` indicates HTML content
-
-        emailSender.send(message);
+        emailOutboxService.enqueue("noreply@sigec.cm", recipient, subject, content, true); // `true` indicates HTML content
     }
 
     // Logic for sending SMS
@@ -72,14 +86,14 @@ public class NotificationServiceImpl implements NotificationService {
      */
     @Override
     public void sendInAppNotification(Long userId, String message) {
-        // The destination is a user-specific topic, for example, /topic/notifications/{userId}
-        // This pattern allows a client to subscribe to their own notifications.
-        String destination = "/topic/notifications/" + userId;
-        messagingTemplate.convertAndSend(destination, message);
+        // Delivered to the user's own sessions on /user/queue/notifications, whichever node they are connected to.
+        notificationRelay.publish(new RealtimeNotificationDto(null, userId, NotificationType.INFO, null, message,
+                System.currentTimeMillis()));
     }
 
     // Nouvelles méthodes pour la gestion des notifications persistantes
     @Override
+    @Transactional
     public Notification createNotification(Long userId, String titre, String message, NotificationType type) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
@@ -92,28 +106,129 @@ public class NotificationServiceImpl implements NotificationService {
         notification.setStatus(NotificationStatus.SENT);
         notification.setRead(false);
         
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        incrementUnread(userId);
+        notificationRelay.publish(new RealtimeNotificationDto(saved.getId(), userId, type, titre, message,
+                System.currentTimeMillis()));
+        return saved;
     }
     
+    private void incrementUnread(Long userId) {
+        if (unreadCounterRepository.increment(userId) > 0) {
+            return;
+        }
+        try {
+            unreadCounterRepository.initialize(userId);
+        } catch (DataIntegrityViolationException e) {
+            // Compteur créé au même moment par une autre transaction
+        }
+        unreadCounterRepository.increment(userId);
+    }
+
     @Override
     public List<Notification> getNotificationsByUserId(Long userId) {
         return notificationRepository.findByUserId(userId);
     }
     
     @Override
+    @Transactional
     public Notification markAsRead(Long notificationId) {
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new RuntimeException("Notification not found with id: " + notificationId));
         
-        notification.setRead(true);
-        return notificationRepository.save(notification);
+        if (!notification.isRead()) {
+            markAsRead(notification.getUser().getId(), notificationId);
+            notification.setRead(true);
+        }
+        return notification;
+    }
+
+    @Override
+    @Transactional
+    public boolean markAsRead(Long userId, Long notificationId) {
+        if (notificationRepository.markRead(notificationId, userId) == 0) {
+            return false;
+        }
+        unreadCounterRepository.decrement(userId, 1);
+        return true;
     }
     
     @Override
+    @Transactional
     public void markAllAsRead(Long userId) {
-        List<Notification> notifications = notificationRepository.findByUserId(userId);
-        notifications.forEach(notification -> notification.setRead(true));
-        notificationRepository.saveAll(notifications);
+        // Une seule requête UPDATE, quel que soit le nombre de notifications
+        if (notificationRepository.markAllRead(userId) > 0) {
+            unreadCounterRepository.reset(userId);
+        }
+    }
+
+    @Override
+    public long countUnread(Long userId) {
+        // Compteur absent : utilisateur sans notification depuis sa mise en place
+        return unreadCounterRepository.findById(userId)
+                .map(NotificationUnreadCounter::getUnreadCount)
+                .orElseGet(() -> notificationRepository.countUnread(userId));
+    }
+
+    @Override
+    public NotificationPageDto getInbox(Long userId, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Une ligne de plus pour savoir s'il reste une page
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        InboxCursor after = decodeCursor(cursor);
+        List<NotificationItemDto> rows = after == null
+                ? notificationRepository.findInbox(userId, page)
+                : notificationRepository.findInboxAfter(userId, after.dateCreation(), after.id(), page);
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = encodeCursor(rows.get(pageSize - 1));
+        }
+        return new NotificationPageDto(new ArrayList<>(rows), rows.size(), nextCursor, countUnread(userId));
+    }
+
+    /**
+     * Archive par lots les notifications lues depuis plus de {@code app.notifications.retention.read-days}
+     * et toutes celles de plus de {@code app.notifications.retention.unread-days}, puis recale les compteurs.
+     * @return le nombre de notifications archivées
+     */
+    public long archiveOldNotifications() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime readCutoff = now.minusDays(readRetentionDays);
+        LocalDateTime unreadCutoff = now.minusDays(unreadRetentionDays);
+        long archived = 0;
+        int moved;
+        do {
+            moved = notificationRepository.archiveBatch(readCutoff, unreadCutoff, archiveBatchSize, now);
+            archived += moved;
+        } while (moved == archiveBatchSize);
+        if (archived > 0) {
+            unreadCounterRepository.recountAll();
+        }
+        return archived;
+    }
+
+    static String encodeCursor(NotificationItemDto last) {
+        String value = last.getCreatedAt() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static InboxCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            return new InboxCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide", e);
+        }
+    }
+
+    record InboxCursor(LocalDateTime dateCreation, long id) {
     }
     
     @Override
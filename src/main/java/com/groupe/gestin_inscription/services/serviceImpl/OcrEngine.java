@@ -0,0 +1,254 @@
+package com.groupe.gestin_inscription.services.serviceImpl;
+
+import com.recognition.software.jdeskew.ImageDeskew;
+import com.sun.jna.Pointer;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.sourceforge.tess4j.ITessAPI;
+import net.sourceforge.tess4j.TessAPI1;
+import net.sourceforge.tess4j.util.ImageHelper;
+import net.sourceforge.tess4j.util.ImageIOHelper;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moteur OCR local basé sur Tesseract (tess4j).
+ * Une instance native Tesseract n'est pas thread-safe et son initialisation (chargement
+ * des modèles de langue) est coûteuse : un pool d'instances initialisées une seule fois
+ * est partagé, chaque reconnaissance en emprunte une pour la durée d'une page.
+ * Le pré-traitement (niveaux de gris, redressement, mise à l'échelle) et le rendu PDF
+ * se font hors du pool pour ne pas bloquer les instances.
+ */
+@Component
+@Slf4j
+public class OcrEngine {
+
+    // Au-delà, l'angle est considéré comme une inclinaison à corriger
+    private static final double DESKEW_THRESHOLD_DEGREES = 0.5;
+
+    private final String tessdataPath;
+    private final String language;
+    private final int poolSize;
+    private final int dpi;
+    private final int maxPages;
+    private final int maxImageDimension;
+    private final long borrowTimeoutMs;
+
+    private final BlockingQueue<OcrWorker> pool;
+    private final List<OcrWorker> workers = new ArrayList<>();
+
+    public OcrEngine(@Value("${app.ocr.tessdata-path:/usr/share/tesseract-ocr/5/tessdata}") String tessdataPath,
+                     @Value("${app.ocr.language:fra+eng}") String language,
+                     @Value("${app.ocr.pool-size:0}") int poolSize,
+                     @Value("${app.ocr.dpi:300}") int dpi,
+                     @Value("${app.ocr.max-pages:5}") int maxPages,
+                     @Value("${app.ocr.max-image-dimension:3500}") int maxImageDimension,
+                     @Value("${app.ocr.borrow-timeout-ms:30000}") long borrowTimeoutMs) {
+        this.tessdataPath = tessdataPath;
+        this.language = language;
+        this.poolSize = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.dpi = dpi;
+        this.maxPages = maxPages;
+        this.maxImageDimension = maxImageDimension;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.pool = new ArrayBlockingQueue<>(this.poolSize);
+    }
+
+    /**
+     * Extrait le texte d'une image ou d'un PDF (les {@code max-pages} premières pages).
+     *
+     * @param file Le fichier à analyser.
+     * @return Le texte reconnu et le nombre de pages traitées.
+     * @throws IOException si le fichier ne peut pas être lu ou si aucune instance OCR n'est disponible.
+     */
+    public OcrResult recognize(Path file) throws IOException {
+        long start = System.nanoTime();
+        List<BufferedImage> pages = loadPages(file);
+        StringBuilder text = new StringBuilder();
+        for (BufferedImage page : pages) {
+            if (text.length() > 0) {
+                text.append('\n');
+            }
+            text.append(recognize(preprocess(page)));
+        }
+        return new OcrResult(text.toString().trim(), pages.size(), System.nanoTime() - start);
+    }
+
+    /**
+     * Reconnaît une seule image déjà pré-traitée (niveaux de gris 8 bits).
+     */
+    String recognize(BufferedImage grayImage) throws IOException {
+        OcrWorker worker = borrow();
+        try {
+            return worker.recognize(grayImage, dpi);
+        } finally {
+            pool.offer(worker);
+        }
+    }
+
+    /**
+     * Niveaux de gris, redressement puis réduction à la résolution utile pour l'OCR.
+     */
+    BufferedImage preprocess(BufferedImage image) {
+        BufferedImage gray = toGrayscale(image);
+
+        double skewAngle = new ImageDeskew(gray).getSkewAngle();
+        if (Math.abs(skewAngle) > DESKEW_THRESHOLD_DEGREES) {
+            gray = toGrayscale(ImageHelper.rotateImage(gray, -skewAngle));
+        }
+
+        int longestSide = Math.max(gray.getWidth(), gray.getHeight());
+        if (longestSide > maxImageDimension) {
+            double scale = (double) maxImageDimension / longestSide;
+            gray = scale(gray, (int) Math.round(gray.getWidth() * scale), (int) Math.round(gray.getHeight() * scale));
+        }
+        return gray;
+    }
+
+    private List<BufferedImage> loadPages(Path file) throws IOException {
+        List<BufferedImage> pages = new ArrayList<>();
+        if (file.getFileName().toString().toLowerCase().endsWith(".pdf")) {
+            try (PDDocument document = PDDocument.load(file.toFile())) {
+                PDFRenderer renderer = new PDFRenderer(document);
+                int pageCount = Math.min(document.getNumberOfPages(), maxPages);
+                for (int i = 0; i < pageCount; i++) {
+                    // Rendu directement en niveaux de gris à la résolution OCR
+                    pages.add(renderer.renderImageWithDPI(i, dpi, ImageType.GRAY));
+                }
+            }
+        } else {
+            BufferedImage image = ImageIO.read(file.toFile());
+            if (image == null) {
+                throw new IOException("Format d'image non reconnu: " + file.getFileName());
+            }
+            pages.add(image);
+        }
+        return pages;
+    }
+
+    private BufferedImage toGrayscale(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+            return image;
+        }
+        return ImageHelper.convertImageToGrayscale(image);
+    }
+
+    private BufferedImage scale(BufferedImage image, int width, int height) {
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    // Les instances natives sont créées à la demande, jusqu'à la taille du pool
+    private OcrWorker borrow() throws IOException {
+        OcrWorker worker = pool.poll();
+        if (worker != null) {
+            return worker;
+        }
+        synchronized (workers) {
+            if (workers.size() < poolSize) {
+                OcrWorker created = new OcrWorker(tessdataPath, language);
+                workers.add(created);
+                return created;
+            }
+        }
+        try {
+            worker = pool.poll(borrowTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Attente d'une instance OCR interrompue", e);
+        }
+        if (worker == null) {
+            throw new IOException("Aucune instance OCR disponible après " + borrowTimeoutMs + " ms");
+        }
+        return worker;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        synchronized (workers) {
+            workers.forEach(OcrWorker::close);
+            workers.clear();
+        }
+        pool.clear();
+    }
+
+    /**
+     * Résultat d'une reconnaissance : texte extrait, pages traitées et durée totale.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class OcrResult {
+        private final String text;
+        private final int pages;
+        private final long elapsedNanos;
+    }
+
+    /**
+     * Une instance native Tesseract, initialisée une fois avec les modèles de langue.
+     */
+    private static final class OcrWorker {
+        private final ITessAPI.TessBaseAPI handle;
+
+        OcrWorker(String tessdataPath, String language) throws IOException {
+            handle = TessAPI1.TessBaseAPICreate();
+            if (TessAPI1.TessBaseAPIInit3(handle, tessdataPath, language) != 0) {
+                TessAPI1.TessBaseAPIDelete(handle);
+                throw new IOException("Initialisation de Tesseract impossible (tessdata: " + tessdataPath
+                        + ", langue: " + language + ")");
+            }
+            TessAPI1.TessBaseAPISetPageSegMode(handle, ITessAPI.TessPageSegMode.PSM_AUTO);
+        }
+
+        String recognize(BufferedImage image, int dpi) {
+            ByteBuffer buffer = ImageIOHelper.convertImageData(image);
+            int bitsPerPixel = image.getColorModel().getPixelSize();
+            int bytesPerLine = (int) Math.ceil(image.getWidth() * bitsPerPixel / 8.0);
+            TessAPI1.TessBaseAPISetImage(handle, buffer, image.getWidth(), image.getHeight(),
+                    bitsPerPixel / 8, bytesPerLine);
+            TessAPI1.TessBaseAPISetSourceResolution(handle, dpi);
+            Pointer text = TessAPI1.TessBaseAPIGetUTF8Text(handle);
+            try {
+                return text != null ? text.getString(0, "UTF-8") : "";
+            } finally {
+                if (text != null) {
+                    TessAPI1.TessDeleteText(text);
+                }
+                TessAPI1.TessBaseAPIClear(handle);
+            }
+        }
+
+        void close() {
+            TessAPI1.TessBaseAPIEnd(handle);
+            TessAPI1.TessBaseAPIDelete(handle);
+        }
+    }
+}
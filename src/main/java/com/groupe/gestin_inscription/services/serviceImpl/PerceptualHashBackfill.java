@@ -0,0 +1,55 @@
+package com.groupe.gestin_inscription.services.serviceImpl;
+
+import com.groupe.gestin_inscription.repository.DocumentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Calcule l'empreinte perceptuelle des documents qui n'en ont pas (déposés avant son introduction),
+ * pour que les nouveaux dépôts soient comparés à tout le corpus.
+ * Traitement par lots repris après un arrêt (ChunkedJobRunner), exécuté par une seule réplique.
+ * Un fichier illisible garde une empreinte nulle et sera retenté à l'exécution suivante.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PerceptualHashBackfill {
+
+    static final String BACKFILL_JOB = "perceptual-hash-backfill";
+
+    private final DocumentRepository documentRepository;
+    private final DocumentManagerService documentManagerService;
+    private final DocumentSimilarityIndex similarityIndex;
+    private final ChunkedJobRunner chunkedJobRunner;
+    private final SchedulerLockService schedulerLockService;
+
+    @Scheduled(cron = "${app.similarity.backfill-cron:0 30 3 * * *}")
+    public void backfill() {
+        schedulerLockService.runExclusively(BACKFILL_JOB, this::doBackfill);
+    }
+
+    void doBackfill() {
+        long scanned = chunkedJobRunner.run(BACKFILL_JOB,
+                (runStartedAt, afterId, size) -> documentRepository.findMissingPerceptualHashChunk(afterId, PageRequest.of(0, size)),
+                row -> (Long) row[0],
+                this::hash);
+        if (scanned > 0) {
+            log.info("Empreintes perceptuelles : {} document(s) sans empreinte traité(s)", scanned);
+        }
+    }
+
+    private void hash(Object[] row) {
+        Long documentId = (Long) row[0];
+        Long applicationId = (Long) row[1];
+        Long perceptualHash = documentManagerService.computePerceptualHash((String) row[2]);
+        if (perceptualHash == null) {
+            return;
+        }
+        documentRepository.updatePerceptualHash(documentId, perceptualHash);
+        // Appliqué à l'index local après la validation du lot ; les autres réplicas le reprennent à la reconstruction
+        similarityIndex.add(documentId, applicationId, perceptualHash);
+    }
+}
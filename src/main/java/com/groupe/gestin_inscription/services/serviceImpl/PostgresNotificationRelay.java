@@ -0,0 +1,169 @@
+package com.groupe.gestin_inscription.services.serviceImpl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.groupe.gestin_inscription.dto.response.RealtimeNotificationDto;
+import com.groupe.gestin_inscription.services.serviceInterfaces.NotificationRelay;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Relais entre nœuds par LISTEN/NOTIFY PostgreSQL, sans broker externe.
+ * La publication fait un pg_notify après le commit, sur une connexion distincte de celle de la
+ * transaction : une erreur de NOTIFY n'annule donc jamais la transaction appelante. Chaque nœud
+ * écoute le canal sur une connexion dédiée et remet les messages reçus, y compris les siens,
+ * à RealtimeNotificationDispatcher.
+ */
+@Component
+@ConditionalOnProperty(name = "app.realtime.relay", havingValue = "postgres", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class PostgresNotificationRelay implements NotificationRelay {
+
+    // Limite de PostgreSQL : 8000 octets par message NOTIFY
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final int TRUNCATED_MESSAGE_LENGTH = 1000;
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final RealtimeNotificationDispatcher dispatcher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.realtime.channel:sigec_notifications}")
+    private String channel;
+
+    @Value("${app.realtime.listen-timeout-ms:5000}")
+    private int listenTimeoutMs;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    @Override
+    public void publish(RealtimeNotificationDto notification) {
+        String payload;
+        try {
+            payload = serialize(notification);
+        } catch (JsonProcessingException e) {
+            log.warn("Notification temps réel {} non sérialisable", notification.getId(), e);
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sendNotify(notification, payload);
+                }
+            });
+        } else {
+            sendNotify(notification, payload);
+        }
+    }
+
+    private void sendNotify(RealtimeNotificationDto notification, String payload) {
+        // Connexion du pool hors transaction (auto-commit) : le NOTIFY part immédiatement
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            statement.setString(1, channel);
+            statement.setString(2, payload);
+            statement.execute();
+            meterRegistry.counter("notifications.realtime.relayed").increment();
+        } catch (SQLException | RuntimeException e) {
+            // La notification reste consultable en base ; seul l'envoi temps réel est perdu
+            log.warn("Publication temps réel de la notification {} échouée", notification.getId(), e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalStateException("Nom de canal NOTIFY invalide : " + channel);
+        }
+        running = true;
+        listener = new Thread(this::listen, "pg-notification-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void listen() {
+        long backoffMs = 1000;
+        while (running) {
+            // Connexion du pool gardée pendant toute l'écoute
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Écoute du canal {} pour les notifications temps réel", channel);
+                backoffMs = 1000;
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(listenTimeoutMs);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        receive(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Écoute du canal {} interrompue, nouvelle tentative dans {} ms", channel, backoffMs, e);
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, 30_000);
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        try {
+            dispatcher.deliver(objectMapper.readValue(payload, RealtimeNotificationDto.class));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Notification temps réel illisible ignorée", e);
+        }
+    }
+
+    private String serialize(RealtimeNotificationDto notification) throws JsonProcessingException {
+        String payload = objectMapper.writeValueAsString(notification);
+        if (payload.getBytes(StandardCharsets.UTF_8).length <= MAX_PAYLOAD_BYTES) {
+            return payload;
+        }
+        String message = notification.getMessage() != null ? notification.getMessage() : "";
+        RealtimeNotificationDto truncated = new RealtimeNotificationDto(notification.getId(), notification.getUserId(),
+                notification.getType(), notification.getTitle(),
+                message.substring(0, Math.min(message.length(), TRUNCATED_MESSAGE_LENGTH)) + "…",
+                notification.getSentAt());
+        return objectMapper.writeValueAsString(truncated);
+    }
+}
@@ -0,0 +1,299 @@
+package com.groupe.gestin_inscription.services.serviceImpl;
+
+import com.groupe.gestin_inscription.model.Application;
+import com.groupe.gestin_inscription.model.Document;
+import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import com.groupe.gestin_inscription.model.Enums.PreValidationJobStatus;
+import com.groupe.gestin_inscription.model.Enums.ValidationStatus;
+import com.groupe.gestin_inscription.model.PreValidationJob;
+import com.groupe.gestin_inscription.repository.DocumentRepository;
+import com.groupe.gestin_inscription.repository.PreValidationJobRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exécute la pré-validation des candidatures en arrière-plan.
+ * Les tâches sont lues dans la table pre_validation_job, les documents de chaque candidature
+ * sont contrôlés en parallèle sur un pool borné, puis la candidature passe en MANUAL_REVIEW
+ * ou REJECTED une fois tous les contrôles terminés.
+ * Une tâche réservée porte un bail prolongé tant que la réplique qui la traite tourne :
+ * seules les tâches dont le bail a expiré sont remises en file, jamais celles d'une réplique vivante.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PreValidationEngine {
+
+    private static final int NOTES_MAX_LENGTH = 20_000;
+    private static final int ERROR_MAX_LENGTH = 1000;
+
+    private final PreValidationJobRepository jobRepository;
+    private final DocumentRepository documentRepository;
+    private final DocumentServiceImpl documentService;
+    private final ApplicationServiceImpl applicationService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.prevalidation.pool-size:4}")
+    private int poolSize;
+
+    @Value("${app.prevalidation.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${app.prevalidation.max-in-flight:8}")
+    private int maxInFlight;
+
+    @Value("${app.prevalidation.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.prevalidation.lease:PT5M}")
+    private Duration lease;
+
+    private final AtomicLong pendingJobs = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Tâches réservées par cette instance, dont le bail est prolongé
+    private final Set<Long> runningJobs = ConcurrentHashMap.newKeySet();
+
+    private ThreadPoolTaskExecutor executor;
+    private Timer jobLatency;
+    private Timer documentDuration;
+
+    // Aucune tâche n'est prise avant la remise en file des tâches interrompues
+    private volatile boolean started;
+
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("prevalidation-");
+        // File pleine : refus plutôt qu'exécution sur le thread partagé des tâches @Scheduled
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+
+        Gauge.builder("prevalidation.queue.depth", pendingJobs, AtomicLong::get)
+                .description("Tâches de pré-validation en attente")
+                .register(meterRegistry);
+        Gauge.builder("prevalidation.jobs.in_flight", inFlight, AtomicInteger::get)
+                .description("Candidatures en cours de pré-validation")
+                .register(meterRegistry);
+        Gauge.builder("prevalidation.executor.queue.size", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Contrôles de documents en attente d'un thread")
+                .register(meterRegistry);
+        jobLatency = Timer.builder("prevalidation.job.latency")
+                .description("Délai entre la soumission et la décision de pré-validation")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        documentDuration = Timer.builder("prevalidation.document.duration")
+                .description("Durée des contrôles automatiques d'un document")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        started = false;
+        executor.shutdown();
+    }
+
+    /**
+     * Les tâches RUNNING dont le bail a expiré viennent d'un arrêt en cours de traitement : elles sont rejouées.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverInterruptedJobs() {
+        requeueExpired();
+        started = true;
+    }
+
+    /**
+     * Prolonge le bail des tâches en cours sur cette instance.
+     */
+    @Scheduled(fixedDelayString = "${app.prevalidation.heartbeat-interval-ms:60000}")
+    public void heartbeat() {
+        if (runningJobs.isEmpty()) {
+            return;
+        }
+        try {
+            jobRepository.extendLease(Set.copyOf(runningJobs), LocalDateTime.now().plus(lease), PreValidationJobStatus.RUNNING);
+        } catch (RuntimeException e) {
+            log.warn("Prolongation du bail de {} tâche(s) de pré-validation échouée", runningJobs.size(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.prevalidation.poll-interval-ms:2000}")
+    public void poll() {
+        if (!started) {
+            return;
+        }
+        requeueExpired();
+        pendingJobs.set(jobRepository.countByStatus(PreValidationJobStatus.PENDING));
+        int capacity = maxInFlight - inFlight.get();
+        if (capacity <= 0 || pendingJobs.get() == 0 || executorSaturated()) {
+            return;
+        }
+
+        List<PreValidationJob> jobs = jobRepository.findByStatusOrderByCreatedAtAsc(
+                PreValidationJobStatus.PENDING, PageRequest.of(0, capacity));
+        for (PreValidationJob job : jobs) {
+            if (executorSaturated()) {
+                // Les tâches restantes seront prises au prochain passage
+                break;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            if (jobRepository.claim(job.getId(), now, now.plus(lease),
+                    PreValidationJobStatus.PENDING, PreValidationJobStatus.RUNNING) == 1) {
+                inFlight.incrementAndGet();
+                runningJobs.add(job.getId());
+                pendingJobs.decrementAndGet();
+                process(job);
+            }
+        }
+    }
+
+    private void requeueExpired() {
+        int requeued = jobRepository.requeueExpired(LocalDateTime.now(),
+                PreValidationJobStatus.RUNNING, PreValidationJobStatus.PENDING);
+        if (requeued > 0) {
+            log.warn("{} tâche(s) de pré-validation dont le bail a expiré remise(s) en file", requeued);
+        }
+    }
+
+    private boolean executorSaturated() {
+        return executor.getThreadPoolExecutor().getQueue().remainingCapacity() == 0;
+    }
+
+    private void process(PreValidationJob job) {
+        List<Document> documents;
+        try {
+            documents = documentRepository.findByApplicationId(job.getApplicationId());
+        } catch (RuntimeException e) {
+            complete(job, false, e);
+            return;
+        }
+
+        List<CompletableFuture<Boolean>> checks;
+        try {
+            checks = documents.stream()
+                    .map(document -> CompletableFuture.supplyAsync(() -> checkDocument(document), executor))
+                    .toList();
+        } catch (RejectedExecutionException e) {
+            // File du pool pleine entre la vérification et la soumission : la tâche est rejouée
+            complete(job, false, e);
+            return;
+        }
+
+        CompletableFuture.allOf(checks.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> checks.stream().allMatch(CompletableFuture::join))
+                .whenComplete((passed, error) -> complete(job, Boolean.TRUE.equals(passed), error));
+    }
+
+    /**
+     * Contrôle un document et enregistre le résultat, avec le texte OCR éventuel.
+     * Un document conforme reste en attente de la validation manuelle de l'agent ;
+     * un document non conforme est rejeté. Si l'OCR n'a pas pu s'exécuter (OcrUnavailableException),
+     * le document n'est pas modifié et l'exception fait rejouer la tâche.
+     */
+    private boolean checkDocument(Document document) {
+        long start = System.nanoTime();
+        try {
+            DocumentServiceImpl.AutomaticCheckResult result = documentService.runAutomaticChecks(document);
+            StringBuilder notes = new StringBuilder("Pré-validation automatique : ")
+                    .append(result.passed() ? "conforme" : String.join("; ", result.getFailures()));
+            if (!result.getWarnings().isEmpty()) {
+                notes.append("\nAlertes : ").append(String.join("; ", result.getWarnings()));
+            }
+            if (result.getOcrText() != null && !result.getOcrText().isBlank()) {
+                notes.append("\n--- Texte OCR ---\n").append(result.getOcrText());
+            }
+
+            ValidationStatus status = ValidationStatus.REJECTED;
+            if (result.passed()) {
+                status = document.getValidationStatus() != null ? document.getValidationStatus() : ValidationStatus.PENDING;
+            }
+            documentRepository.updateValidationResult(document.getId(), status, truncate(notes.toString(), NOTES_MAX_LENGTH));
+            return result.passed();
+        } finally {
+            documentDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void complete(PreValidationJob job, boolean passed, Throwable error) {
+        try {
+            if (error != null) {
+                retryOrFail(job, error);
+                return;
+            }
+
+            Long applicationId = job.getApplicationId();
+            Application application = applicationService.getApplicationById(applicationId);
+            // Un agent a pu traiter le dossier entre-temps : sa décision prime
+            if (application.getStatus() == ApplicationStatus.PRE_VALIDATION) {
+                if (passed) {
+                    applicationService.updateApplicationStatus(applicationId, ApplicationStatus.MANUAL_REVIEW, "Pré-validation réussie");
+                    applicationService.assignForManualReview(applicationService.getApplicationById(applicationId));
+                } else {
+                    applicationService.updateApplicationStatus(applicationId, ApplicationStatus.REJECTED, "Pré-validation échouée");
+                }
+            } else {
+                log.info("Candidature {} déjà au statut {}, décision de pré-validation ignorée",
+                        applicationId, application.getStatus());
+            }
+
+            jobRepository.finish(job.getId(), PreValidationJobStatus.DONE, LocalDateTime.now(), null);
+            jobLatency.record(Duration.between(job.getCreatedAt(), LocalDateTime.now()));
+            meterRegistry.counter("prevalidation.jobs.completed", "outcome", passed ? "passed" : "rejected").increment();
+        } catch (Exception e) {
+            retryOrFail(job, e);
+        } finally {
+            runningJobs.remove(job.getId());
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void retryOrFail(PreValidationJob job, Throwable error) {
+        // attempts a été incrémenté en base lors de la réservation
+        boolean exhausted = job.getAttempts() + 1 >= maxAttempts;
+        PreValidationJobStatus status = exhausted ? PreValidationJobStatus.FAILED : PreValidationJobStatus.PENDING;
+        log.error("Pré-validation de la candidature {} échouée (tentative {}/{})",
+                job.getApplicationId(), job.getAttempts() + 1, maxAttempts, error);
+        try {
+            jobRepository.finish(job.getId(), status, exhausted ? LocalDateTime.now() : null,
+                    truncate(String.valueOf(error.getMessage()), ERROR_MAX_LENGTH));
+            if (exhausted) {
+                meterRegistry.counter("prevalidation.jobs.completed", "outcome", "failed").increment();
+            }
+        } catch (RuntimeException e) {
+            // La tâche reste RUNNING et sera remise en file à l'expiration de son bail
+            log.error("Impossible d'enregistrer l'échec de la tâche {}", job.getId(), e);
+        }
+    }
+
+    private String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
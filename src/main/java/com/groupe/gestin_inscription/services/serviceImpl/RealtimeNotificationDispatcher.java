@@ -0,0 +1,125 @@
+package com.groupe.gestin_inscription.services.serviceImpl;
+
+import com.groupe.gestin_inscription.dto.response.RealtimeNotificationDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remet les notifications temps réel aux sessions WebSocket ouvertes sur ce nœud.
+ * Les notifications d'un même utilisateur reçues pendant {@code app.realtime.coalesce-window-ms}
+ * sont regroupées en un seul message : une rafale (changements de statut en masse)
+ * ne produit qu'une trame par session.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RealtimeNotificationDispatcher {
+
+    public static final String USER_DESTINATION = "/queue/notifications";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry userRegistry;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.realtime.coalesce-window-ms:200}")
+    private long coalesceWindowMs;
+
+    @Value("${app.realtime.max-batch:50}")
+    private int maxBatch;
+
+    private final Map<String, List<RealtimeNotificationDto>> pending = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService flusher;
+    private Timer deliveryLatency;
+
+    @PostConstruct
+    void init() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "realtime-notifications");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("websocket.sessions.connected", userRegistry, RealtimeNotificationDispatcher::sessionCount)
+                .description("Sessions WebSocket ouvertes sur ce nœud")
+                .register(meterRegistry);
+        deliveryLatency = Timer.builder("notifications.realtime.delivery.latency")
+                .description("Délai entre la publication d'une notification et sa remise à la session")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdown();
+    }
+
+    /**
+     * Met la notification en attente de remise si son destinataire est connecté à ce nœud.
+     */
+    public void deliver(RealtimeNotificationDto notification) {
+        if (notification.getUserId() == null) {
+            return;
+        }
+        String user = String.valueOf(notification.getUserId());
+        if (userRegistry.getUser(user) == null) {
+            // Le destinataire est connecté à un autre nœud, ou pas du tout
+            return;
+        }
+        boolean[] first = {false};
+        int[] size = {0};
+        pending.compute(user, (key, batch) -> {
+            if (batch == null) {
+                batch = new ArrayList<>();
+                first[0] = true;
+            }
+            batch.add(notification);
+            size[0] = batch.size();
+            return batch;
+        });
+        if (first[0]) {
+            flusher.schedule(() -> flush(user), coalesceWindowMs, TimeUnit.MILLISECONDS);
+        } else if (size[0] == maxBatch) {
+            flusher.execute(() -> flush(user));
+        }
+    }
+
+    void flush(String user) {
+        List<RealtimeNotificationDto> batch = pending.remove(user);
+        if (batch == null || batch.isEmpty()) {
+            return;
+        }
+        try {
+            messagingTemplate.convertAndSendToUser(user, USER_DESTINATION, batch);
+            long now = System.currentTimeMillis();
+            for (RealtimeNotificationDto notification : batch) {
+                deliveryLatency.record(Math.max(0, now - notification.getSentAt()), TimeUnit.MILLISECONDS);
+            }
+            meterRegistry.counter("notifications.realtime.delivered").increment(batch.size());
+            meterRegistry.counter("notifications.realtime.coalesced").increment(batch.size() - 1);
+        } catch (RuntimeException e) {
+            // Le client retrouvera ses notifications via /api/notifications/my
+            log.warn("Remise de {} notification(s) temps réel à l'utilisateur {} échouée", batch.size(), user, e);
+        }
+    }
+
+    private static double sessionCount(SimpUserRegistry registry) {
+        return registry.getUsers().stream().mapToInt(user -> user.getSessions().size()).sum();
+    }
+}
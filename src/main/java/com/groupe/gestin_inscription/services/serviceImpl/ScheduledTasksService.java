@@ -1,61 +1,60 @@
 package com.groupe.gestin_inscription.services.serviceImpl;
 
-import com.groupe.gestin_inscription.model.Application;
+import com.groupe.gestin_inscription.dto.response.ApplicationNotificationRowDto;
 import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
 import com.groupe.gestin_inscription.repository.ApplicationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ScheduledTasksService {
 
+    static final String BLOCKED_APPLICATIONS_JOB = "blocked-applications-alert";
+    static final String DAILY_REMINDERS_JOB = "daily-completion-reminders";
+    static final String CLEANUP_JOB = "weekly-old-data-cleanup";
+    static final String WEEKLY_REPORT_JOB = "weekly-report";
+    static final String NOTIFICATION_RETENTION_JOB = "notification-retention";
+
     private final ApplicationRepository applicationRepository;
     private final EmailServiceImpl emailService;
+    private final EmailTemplateEngine emailTemplateEngine;
     private final NotificationServiceImpl notificationService;
+    private final ChunkedJobRunner chunkedJobRunner;
+    private final SchedulerLockService schedulerLockService;
 
     /**
      * Vérifie les dossiers bloqués toutes les heures
      * Envoie des alertes pour les dossiers en attente depuis plus de 48h
+     * Cron plutôt que fixedRate : toutes les réplicas se déclenchent à la même heure pile et une seule obtient le verrou
      */
-    @Scheduled(fixedRate = 3600000) // Toutes les heures
+    @Scheduled(cron = "0 0 * * * *") // Toutes les heures
     public void checkBlockedApplications() {
+        schedulerLockService.runExclusively(BLOCKED_APPLICATIONS_JOB, this::doCheckBlockedApplications);
+    }
+
+    private void doCheckBlockedApplications() {
         log.info("Checking for blocked applications...");
-        
-        LocalDateTime cutoffTime = LocalDateTime.now().minusHours(48);
-        
-        List<Application> blockedApplications = applicationRepository.findAll().stream()
-                .filter(app -> app.getStatus() == ApplicationStatus.MANUAL_REVIEW)
-                .filter(app -> app.getLastUpdated() != null && app.getLastUpdated().isBefore(cutoffTime))
-                .toList();
-        
-        if (!blockedApplications.isEmpty()) {
-            log.warn("Found {} blocked applications (>48h in manual review)", blockedApplications.size());
-            
-            // Envoyer des notifications aux agents
-            for (Application app : blockedApplications) {
-                if (app.getAssignedAdmin() != null) {
-                    String subject = "Dossier bloqué - Action requise";
-                    String message = String.format(
-                        "Le dossier #%d de %s %s est en attente de validation depuis plus de 48h.",
-                        app.getId(),
-                        app.getApplicantName().getFirstName(),
-                        app.getApplicantName().getLastName()
-                    );
-                    
-                    emailService.sendSimpleNotification(
-                        app.getAssignedAdmin().getEmail(),
-                        subject,
-                        message
-                    );
-                }
-            }
+
+        long alerted = chunkedJobRunner.run(BLOCKED_APPLICATIONS_JOB,
+                (runStartedAt, afterId, size) -> applicationRepository.findStaleChunk(
+                        ApplicationStatus.MANUAL_REVIEW, runStartedAt.minusHours(48), afterId, PageRequest.of(0, size)),
+                ApplicationNotificationRowDto::getId,
+                this::alertAssignedAgent);
+
+        if (alerted > 0) {
+            log.warn("Found {} blocked applications (>48h in manual review)", alerted);
         }
     }
 
@@ -65,33 +64,34 @@ public class ScheduledTasksService {
      */
     @Scheduled(cron = "0 0 9 * * *") // Tous les jours à 9h00
     public void sendDailyReminders() {
+        schedulerLockService.runExclusively(DAILY_REMINDERS_JOB, this::doSendDailyReminders);
+    }
+
+    private void doSendDailyReminders() {
         log.info("Sending daily reminders to candidates...");
-        
+
         // Rappels pour les dossiers incomplets
-        List<Application> incompleteApplications = applicationRepository.findAll().stream()
-                .filter(app -> app.getCompletionRate() < 100.0)
-                .filter(app -> app.getStatus() == ApplicationStatus.PRE_VALIDATION)
-                .toList();
-        
-        for (Application app : incompleteApplications) {
-            String subject = "Complétez votre dossier d'inscription - SIGEC";
-            String message = String.format(
-                "Bonjour %s,\n\n" +
-                "Votre dossier d'inscription est à %.1f%% de complétion.\n" +
-                "Connectez-vous à votre espace personnel pour le finaliser.\n\n" +
-                "Cordialement,\nL'équipe SIGEC",
-                app.getApplicantName().getFirstName(),
-                app.getCompletionRate()
-            );
-            
-            emailService.sendSimpleNotification(
-                app.getApplicantName().getEmail(),
-                subject,
-                message
-            );
+        long sent = chunkedJobRunner.run(DAILY_REMINDERS_JOB,
+                (runStartedAt, afterId, size) -> applicationRepository.findIncompleteChunk(
+                        ApplicationStatus.PRE_VALIDATION, 100.0, afterId, PageRequest.of(0, size)),
+                ApplicationNotificationRowDto::getId,
+                this::sendCompletionReminder);
+
+        log.info("Sent {} daily reminders", sent);
+    }
+
+    /**
+     * Reprend au démarrage les traitements par lots interrompus par un arrêt de l'application,
+     * sans attendre leur prochaine planification.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        if (chunkedJobRunner.isInterrupted(BLOCKED_APPLICATIONS_JOB)) {
+            checkBlockedApplications();
+        }
+        if (chunkedJobRunner.isInterrupted(DAILY_REMINDERS_JOB)) {
+            sendDailyReminders();
         }
-        
-        log.info("Sent {} daily reminders", incompleteApplications.size());
     }
 
     /**
@@ -100,44 +100,60 @@ public class ScheduledTasksService {
      */
     @Scheduled(cron = "0 0 2 * * SUN") // Tous les dimanches à 2h00
     public void cleanupOldData() {
+        schedulerLockService.runExclusively(CLEANUP_JOB, this::doCleanupOldData);
+    }
+
+    private void doCleanupOldData() {
         log.info("Starting weekly cleanup of old data...");
         
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(90);
         
         // Nettoyer les applications rejetées anciennes
-        List<Application> oldRejectedApplications = applicationRepository.findAll().stream()
-                .filter(app -> app.getStatus() == ApplicationStatus.REJECTED)
-                .filter(app -> app.getLastUpdated() != null && app.getLastUpdated().isBefore(cutoffDate))
-                .toList();
+        long oldRejectedApplications = applicationRepository.countByStatusAndLastUpdatedBefore(
+                ApplicationStatus.REJECTED, cutoffDate);
         
-        log.info("Found {} old rejected applications to archive", oldRejectedApplications.size());
+        log.info("Found {} old rejected applications to archive", oldRejectedApplications);
         
-        // En production, ces données seraient archivées plutôt que supprimées
-        // applicationRepository.deleteAll(oldRejectedApplications);
+        // En production, ces données seraient archivées plutôt que supprimées,
+        // lot par lot via chunkedJobRunner
         
         log.info("Weekly cleanup completed");
     }
 
+    /**
+     * Archive les anciennes notifications (notification_archive)
+     * Exécuté tous les dimanches à 3h00
+     */
+    @Scheduled(cron = "0 0 3 * * SUN") // Tous les dimanches à 3h00
+    public void archiveOldNotifications() {
+        schedulerLockService.runExclusively(NOTIFICATION_RETENTION_JOB, this::doArchiveOldNotifications);
+    }
+
+    private void doArchiveOldNotifications() {
+        log.info("Archiving old notifications...");
+        long archived = notificationService.archiveOldNotifications();
+        log.info("Archived {} notifications", archived);
+    }
+
     /**
      * Génère des rapports hebdomadaires
      * Exécuté tous les lundis à 8h00
      */
     @Scheduled(cron = "0 0 8 * * MON") // Tous les lundis à 8h00
     public void generateWeeklyReports() {
+        schedulerLockService.runExclusively(WEEKLY_REPORT_JOB, this::doGenerateWeeklyReports);
+    }
+
+    private void doGenerateWeeklyReports() {
         log.info("Generating weekly reports...");
         
         // Statistiques de la semaine passée
         LocalDateTime weekStart = LocalDateTime.now().minusDays(7);
         
-        long newApplications = applicationRepository.findAll().stream()
-                .filter(app -> app.getSubmissionDate() != null && app.getSubmissionDate().isAfter(weekStart))
-                .count();
+        long newApplications = applicationRepository.countBySubmissionDateAfter(weekStart);
         
-        long processedApplications = applicationRepository.findAll().stream()
-                .filter(app -> app.getLastUpdated() != null && app.getLastUpdated().isAfter(weekStart))
-                .filter(app -> app.getStatus() == ApplicationStatus.APPROVED || 
-                              app.getStatus() == ApplicationStatus.REJECTED)
-                .count();
+        long processedApplications = applicationRepository.countByStatusInAndLastUpdatedAfter(
+                List.of(ApplicationStatus.APPROVED, ApplicationStatus.REJECTED), weekStart);
         
         String reportSubject = "Rapport hebdomadaire SIGEC";
         String reportMessage = String.format(
@@ -160,6 +176,7 @@ public class ScheduledTasksService {
 
     /**
      * Vérifie l'état du système toutes les 30 minutes
+     * Non verrouillé : chaque réplique contrôle sa propre connexion à la base
      */
     @Scheduled(fixedRate = 1800000) // Toutes les 30 minutes
     public void systemHealthCheck() {
@@ -182,4 +199,32 @@ public class ScheduledTasksService {
             // emailService.sendSimpleNotification("admin@sigec.com", alertSubject, alertMessage);
         }
     }
+
+    private void alertAssignedAgent(ApplicationNotificationRowDto app) {
+        if (app.getAgentEmail() == null) {
+            return;
+        }
+        String subject = "Dossier bloqué - Action requise";
+        String message = String.format(
+            "Le dossier #%d de %s %s est en attente de validation depuis plus de 48h.",
+            app.getId(),
+            app.getFirstName(),
+            app.getLastName()
+        );
+
+        emailService.sendSimpleNotification(app.getAgentEmail(), subject, message);
+    }
+
+    private void sendCompletionReminder(ApplicationNotificationRowDto app) {
+        if (app.getEmail() == null) {
+            return;
+        }
+        String subject = "Complétez votre dossier d'inscription - SIGEC";
+        Map<String, Object> model = new HashMap<>();
+        model.put("firstName", app.getFirstName());
+        model.put("completionRate", String.format("%.1f", app.getCompletionRate() != null ? app.getCompletionRate() : 0.0));
+        String message = emailTemplateEngine.render("completion-reminder", emailTemplateEngine.defaultLocale(), model);
+
+        emailService.sendSimpleNotification(app.getEmail(), subject, message);
+    }
 }
\ No newline at end of file
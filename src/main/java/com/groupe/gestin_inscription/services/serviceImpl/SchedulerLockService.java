@@ -0,0 +1,164 @@
+package com.groupe.gestin_inscription.services.serviceImpl;
+
+import com.groupe.gestin_inscription.repository.SchedulerLockRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verrous de tâches planifiées partagés entre réplicas via la table scheduler_lock.
+ * Une tâche n'est exécutée que par la réplique qui obtient le bail ; les autres passent leur tour.
+ * Le bail est prolongé tant que la tâche tourne, et conservé au moins {@code app.scheduler.lock.min-hold}
+ * après la fin pour qu'une réplique dont le déclenchement arrive un peu plus tard ne la relance pas.
+ * Ce délai ne couvre que des déclenchements quasi simultanés (cron) : une tâche fixedRate/fixedDelay,
+ * calée sur le démarrage de chaque réplique, passe une durée de détention proche de sa période.
+ */
+@Component
+@Slf4j
+public class SchedulerLockService {
+
+    private final SchedulerLockRepository lockRepository;
+    private final MeterRegistry meterRegistry;
+    private final String owner;
+
+    @Value("${app.scheduler.lock.lease:PT5M}")
+    private Duration lease;
+
+    @Value("${app.scheduler.lock.min-hold:PT1M}")
+    private Duration minHold;
+
+    private ScheduledExecutorService renewer;
+
+    public SchedulerLockService(SchedulerLockRepository lockRepository, MeterRegistry meterRegistry) {
+        this.lockRepository = lockRepository;
+        this.meterRegistry = meterRegistry;
+        this.owner = hostName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @PostConstruct
+    void init() {
+        renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "scheduler-lock-renewer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renewer.shutdownNow();
+    }
+
+    /**
+     * Exécute la tâche si cette réplique obtient le verrou {@code name}.
+     *
+     * @return false si une autre réplique détient le verrou (ou si la base est injoignable)
+     */
+    public boolean runExclusively(String name, Runnable task) {
+        return runExclusively(name, minHold, task);
+    }
+
+    /**
+     * Exécute la tâche si cette réplique obtient le verrou {@code name}, puis conserve le verrou
+     * au moins {@code hold} après son acquisition.
+     *
+     * @return false si une autre réplique détient le verrou (ou si la base est injoignable)
+     */
+    public boolean runExclusively(String name, Duration hold, Runnable task) {
+        LocalDateTime lockedAt = LocalDateTime.now();
+        if (!tryAcquire(name, lockedAt)) {
+            meterRegistry.counter("scheduler.lock.acquisitions", "name", name, "outcome", "skipped").increment();
+            log.debug("Tâche {} ignorée : verrou détenu par une autre réplique", name);
+            return false;
+        }
+        meterRegistry.counter("scheduler.lock.acquisitions", "name", name, "outcome", "acquired").increment();
+
+        long renewEveryMs = Math.max(1, lease.toMillis() / 3);
+        ScheduledFuture<?> renewal = renewer.scheduleAtFixedRate(() -> renew(name), renewEveryMs, renewEveryMs, TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+        try {
+            task.run();
+        } finally {
+            renewal.cancel(false);
+            Timer.builder("scheduler.lock.held")
+                    .description("Durée de détention du verrou d'une tâche planifiée")
+                    .tag("name", name)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            release(name, lockedAt, hold);
+        }
+        return true;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    private boolean tryAcquire(String name, LocalDateTime now) {
+        LocalDateTime until = now.plus(lease);
+        try {
+            if (lockRepository.acquire(name, owner, now, until) == 1) {
+                return true;
+            }
+            return lockRepository.insert(name, owner, now, until) == 1;
+        } catch (DataIntegrityViolationException e) {
+            // Verrou existant et encore détenu, ou créé au même instant par une autre réplique
+            return false;
+        } catch (DataAccessException e) {
+            log.error("Impossible d'obtenir le verrou de la tâche {}", name, e);
+            meterRegistry.counter("scheduler.lock.acquisitions", "name", name, "outcome", "error").increment();
+            return false;
+        }
+    }
+
+    private void renew(String name) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            if (lockRepository.extend(name, owner, now, now.plus(lease)) == 1) {
+                meterRegistry.counter("scheduler.lock.renewals", "name", name, "outcome", "renewed").increment();
+            } else {
+                // La tâche continue, mais une autre réplique a pu la démarrer en parallèle
+                meterRegistry.counter("scheduler.lock.renewals", "name", name, "outcome", "lost").increment();
+                log.error("Bail de la tâche {} perdu par {}", name, owner);
+            }
+        } catch (RuntimeException e) {
+            meterRegistry.counter("scheduler.lock.renewals", "name", name, "outcome", "error").increment();
+            log.warn("Prolongation du bail de la tâche {} échouée", name, e);
+        }
+    }
+
+    private void release(String name, LocalDateTime lockedAt, Duration hold) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime earliest = lockedAt.plus(hold);
+        try {
+            lockRepository.release(name, owner, now.isAfter(earliest) ? now : earliest);
+        } catch (DataAccessException e) {
+            // Le bail expirera de lui-même
+            log.warn("Libération du verrou de la tâche {} échouée", name, e);
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown-host";
+        }
+    }
+}
@@ -10,8 +10,10 @@ import com.groupe.gestin_inscription.model.*;
 import com.groupe.gestin_inscription.model.Enums.Gender;
 import com.groupe.gestin_inscription.repository.*;
 import com.groupe.gestin_inscription.services.serviceInterfaces.*;
+import com.groupe.gestin_inscription.events.UserAccountChangedEvent;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,6 +30,7 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final AcademicHistoryRepository academicHistoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -99,6 +102,8 @@ public class UserServiceImpl implements UserService {
     public UserResponseDTO updateUser(Long id, UserRequestDTO request) {
         User concernedUser = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        String previousUsername = concernedUser.getUsername();
+        String previousEmail = concernedUser.getEmail();
 
         // Update fields only if provided in the request
         if (request.getUsername() != null && !request.getUsername().equals(concernedUser.getUsername())) {
@@ -113,7 +118,8 @@ public class UserServiceImpl implements UserService {
             }
             concernedUser.setEmail(request.getEmail());
         }
-        if (request.getPassword() != null && !request.getPassword().isEmpty()) {
+        boolean passwordChanged = request.getPassword() != null && !request.getPassword().isEmpty();
+        if (passwordChanged) {
             concernedUser.setPassword(passwordEncoder.encode(request.getPassword()));
         }
         if (request.getFirstName() != null) {
@@ -124,16 +130,21 @@ public class UserServiceImpl implements UserService {
         }
 
         User updatedUser = userRepository.save(concernedUser);
+        boolean credentialsChanged = passwordChanged
+                || !Objects.equals(previousUsername, updatedUser.getUsername())
+                || !Objects.equals(previousEmail, updatedUser.getEmail());
+        eventPublisher.publishEvent(new UserAccountChangedEvent(credentialsChanged, previousUsername, previousEmail,
+                updatedUser.getUsername(), updatedUser.getEmail()));
         return mapToResponse(updatedUser);
     }
 
     @Transactional
     @Override
     public void deleteUserById(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new RuntimeException("User not found with id: " + id);
-        }
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(true, user.getUsername(), user.getEmail()));
     }
 
     @Override
@@ -0,0 +1,16 @@
+package com.groupe.gestin_inscription.services.serviceInterfaces;
+
+import com.groupe.gestin_inscription.dto.response.RealtimeNotificationDto;
+
+/**
+ * Diffuse une notification temps réel à tous les nœuds de l'application ;
+ * chaque nœud la remet ensuite aux sessions WebSocket de l'utilisateur qu'il héberge.
+ * Implémentation choisie par {@code app.realtime.relay} (postgres, local).
+ */
+public interface NotificationRelay {
+
+    /**
+     * Publie la notification ; dans une transaction, elle n'est diffusée qu'après validation.
+     */
+    void publish(RealtimeNotificationDto notification);
+}
@@ -1,5 +1,6 @@
 package com.groupe.gestin_inscription.services.serviceInterfaces;
 
+import com.groupe.gestin_inscription.dto.response.NotificationPageDto;
 import com.groupe.gestin_inscription.model.Notification;
 import com.groupe.gestin_inscription.model.Enums.NotificationType;
 import jakarta.mail.MessagingException;
@@ -21,7 +22,13 @@ public interface NotificationService {
     
     public Notification markAsRead(Long notificationId);
     
+    public boolean markAsRead(Long userId, Long notificationId);
+
     public void markAllAsRead(Long userId);
+
+    public long countUnread(Long userId);
+
+    public NotificationPageDto getInbox(Long userId, String cursor, int size);
     
     public Notification getNotificationById(Long notificationId);
 }
@@ -0,0 +1,177 @@
+package com.groupe.gestin_inscription.security;
+
+import com.groupe.gestin_inscription.events.UserAccountChangedEvent;
+import com.groupe.gestin_inscription.repository.TokenVersionRepository;
+import com.groupe.gestin_inscription.security.Jwt.AuthTokenFilter;
+import com.groupe.gestin_inscription.security.Jwt.JwtUtils;
+import com.groupe.gestin_inscription.security.Jwt.TokenVersionRegistry;
+import com.groupe.gestin_inscription.security.SecurityUserService.UserDetailsCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthTokenFilterTest {
+
+    private static final String SUBJECT = "agent@example.com";
+    private static final String SECRET = Base64.getEncoder()
+            .encodeToString("secret-de-test-suffisamment-long-pour-hs256".getBytes());
+
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
+    @Mock
+    private TokenVersionRepository tokenVersionRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TokenVersionRegistry tokenVersionRegistry;
+    private JwtUtils jwtUtils;
+    private AuthTokenFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        tokenVersionRegistry = new TokenVersionRegistry(tokenVersionRepository, jdbcTemplate, transactionManager);
+        jwtUtils = new JwtUtils(tokenVersionRegistry);
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+        filter = new AuthTokenFilter(jwtUtils, userDetailsCache, tokenVersionRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldAuthenticateFromClaimsWithoutLoadingAccount() throws Exception {
+        // Given
+        String token = jwtUtils.generateJwtToken(login(), 42L);
+
+        // When
+        Authentication authentication = runFilter(token);
+
+        // Then
+        assertNotNull(authentication);
+        assertEquals(SUBJECT, authentication.getName());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_AGENT")), List.copyOf(authentication.getAuthorities()));
+        assertEquals(42L, jwtUtils.parseClaims(token).get(JwtUtils.USER_ID_CLAIM, Long.class));
+        verifyNoInteractions(userDetailsCache);
+    }
+
+    @Test
+    void shouldRejectTokenIssuedBeforeRevocation() throws Exception {
+        // Given
+        String token = jwtUtils.generateJwtToken(login());
+        when(tokenVersionRepository.incrementVersion(SUBJECT)).thenReturn(0);
+
+        // When
+        tokenVersionRegistry.onUserAccountChanged(new UserAccountChangedEvent(true, SUBJECT));
+        Authentication revoked = runFilter(token);
+        Authentication renewed = runFilter(jwtUtils.generateJwtToken(login()));
+
+        // Then
+        assertNull(revoked);
+        assertNotNull(renewed);
+        verify(tokenVersionRepository).insertFirstVersion(SUBJECT);
+    }
+
+    @Test
+    void shouldKeepTokensWhenProfileChangeDoesNotRevoke() throws Exception {
+        // Given
+        String token = jwtUtils.generateJwtToken(login());
+
+        // When
+        tokenVersionRegistry.onUserAccountChanged(new UserAccountChangedEvent(SUBJECT));
+
+        // Then
+        assertNotNull(runFilter(token));
+        verifyNoInteractions(tokenVersionRepository);
+    }
+
+    @Test
+    void shouldFallBackToAccountCacheForLegacyTokens() throws Exception {
+        // Given
+        String legacyToken = Jwts.builder()
+                .setSubject(SUBJECT)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+        when(userDetailsCache.loadUserByUsername(SUBJECT)).thenReturn(agent());
+
+        // When
+        Authentication authentication = runFilter(legacyToken);
+
+        // Then
+        assertNotNull(authentication);
+        verify(userDetailsCache).loadUserByUsername(SUBJECT);
+    }
+
+    @Test
+    void shouldRejectTamperedToken() throws Exception {
+        // Given
+        String token = jwtUtils.generateJwtToken(login());
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        // When
+        Claims claims = jwtUtils.parseClaims(tampered);
+
+        // Then
+        assertNull(claims);
+        assertNull(runFilter(tampered));
+        verify(userDetailsCache, never()).loadUserByUsername(anyString());
+    }
+
+    private Authentication runFilter(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/applications");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static Authentication login() {
+        User principal = agent();
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    private static User agent() {
+        return (User) User.builder()
+                .username(SUBJECT)
+                .password("")
+                .authorities(List.of(new SimpleGrantedAuthority("ROLE_AGENT")))
+                .build();
+    }
+}
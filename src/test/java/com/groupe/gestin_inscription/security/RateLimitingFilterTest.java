@@ -0,0 +1,109 @@
+package com.groupe.gestin_inscription.security;
+
+import com.groupe.gestin_inscription.config.RateLimitingConfig.RateLimitingFilter;
+import com.groupe.gestin_inscription.security.RateLimit.LocalRateLimitBucketStore;
+import com.groupe.gestin_inscription.security.RateLimit.RateLimitProperties;
+import com.groupe.gestin_inscription.security.Utils.ClientIpResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitingFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ClientIpResolver clientIpResolver;
+    private RateLimitingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxBuckets(2);
+        properties.getPolicies().put("login", policy(List.of("/api/auth/login"), 2));
+        properties.getPolicies().put("register", policy(List.of("/api/auth/register"), 1));
+        meterRegistry = new SimpleMeterRegistry();
+        clientIpResolver = new ClientIpResolver(List.of("10.0.0.0/8"));
+        filter = new RateLimitingFilter(properties, new LocalRateLimitBucketStore(properties, meterRegistry),
+                clientIpResolver, meterRegistry);
+    }
+
+    @Test
+    void shouldRejectOnceLoginPolicyIsExhausted() throws Exception {
+        // When
+        int first = call("/api/auth/login", "203.0.113.5", null);
+        int second = call("/api/auth/login", "203.0.113.5", null);
+        int third = call("/api/auth/login", "203.0.113.5", null);
+
+        // Then
+        assertEquals(200, first);
+        assertEquals(200, second);
+        assertEquals(429, third);
+        assertEquals(1.0, meterRegistry.counter("rate.limit.rejected", "policy", "login").count());
+    }
+
+    @Test
+    void shouldKeepSeparateBucketsPerPolicy() throws Exception {
+        // When
+        call("/api/auth/register", "203.0.113.5", null);
+
+        // Then
+        assertEquals(429, call("/api/auth/register", "203.0.113.5", null));
+        assertEquals(200, call("/api/auth/login", "203.0.113.5", null));
+    }
+
+    @Test
+    void shouldIgnoreForwardedHeaderFromUntrustedClient() throws Exception {
+        // When
+        call("/api/auth/register", "203.0.113.5", "198.51.100.1");
+
+        // Then
+        assertEquals(429, call("/api/auth/register", "203.0.113.5", "198.51.100.2"));
+    }
+
+    @Test
+    void shouldUseRightmostUntrustedHopBehindTrustedProxy() {
+        // Given
+        MockHttpServletRequest request = request("/api/auth/login", "10.0.0.7", "1.2.3.4, 198.51.100.9, 10.0.0.3");
+
+        // Then
+        assertEquals("198.51.100.9", clientIpResolver.resolve(request));
+    }
+
+    @Test
+    void shouldNotLimitOtherEndpoints() throws Exception {
+        // When
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, call("/api/applications/my", "203.0.113.5", null));
+        }
+    }
+
+    private int call(String uri, String remoteAddr, String forwardedFor) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(uri, remoteAddr, forwardedFor), response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    private static MockHttpServletRequest request(String uri, String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+
+    private static RateLimitProperties.Policy policy(List<String> paths, long capacity) {
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setPaths(paths);
+        policy.setCapacity(capacity);
+        policy.setPeriod(Duration.ofMinutes(1));
+        return policy;
+    }
+}
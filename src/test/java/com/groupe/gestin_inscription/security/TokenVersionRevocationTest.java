@@ -0,0 +1,101 @@
+package com.groupe.gestin_inscription.security;
+
+import com.groupe.gestin_inscription.events.UserAccountChangedEvent;
+import com.groupe.gestin_inscription.model.TokenVersion;
+import com.groupe.gestin_inscription.repository.TokenVersionRepository;
+import com.groupe.gestin_inscription.security.Jwt.TokenVersionRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Révocation déclenchée par un événement publié dans une vraie transaction validée :
+ * la ligne token_version doit être écrite, pas seulement la version en mémoire.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import(TokenVersionRegistry.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TokenVersionRevocationTest {
+
+    private static final String SUBJECT = "agent@example.com";
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TokenVersionRepository tokenVersionRepository;
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        tokenVersionRepository.deleteAll();
+    }
+
+    @Test
+    void shouldPersistRevocationPublishedInCommittedTransaction() {
+        // When
+        publishInTransaction(new UserAccountChangedEvent(true, SUBJECT));
+        publishInTransaction(new UserAccountChangedEvent(true, SUBJECT));
+
+        // Then
+        TokenVersion persisted = tokenVersionRepository.findById(SUBJECT).orElseThrow();
+        assertEquals(2, persisted.getVersion());
+        assertEquals(2, tokenVersionRegistry.currentVersion(SUBJECT));
+    }
+
+    @Test
+    void shouldNotRevokeWhenPublishingTransactionRollsBack() {
+        // When
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new UserAccountChangedEvent(true, SUBJECT));
+            status.setRollbackOnly();
+        });
+
+        // Then
+        assertTrue(tokenVersionRepository.findById(SUBJECT).isEmpty());
+        assertEquals(0, tokenVersionRegistry.currentVersion(SUBJECT));
+    }
+
+    @Test
+    void shouldPropagateRevocationToAnotherInstanceOnRefresh() {
+        // Given
+        TokenVersionRegistry otherInstance = new TokenVersionRegistry(tokenVersionRepository, jdbcTemplate, transactionManager);
+        otherInstance.refresh();
+
+        // When
+        tokenVersionRegistry.revoke(List.of(SUBJECT));
+        otherInstance.refresh();
+
+        // Then
+        assertEquals(1, otherInstance.currentVersion(SUBJECT));
+        assertTrue(otherInstance.isRevoked(SUBJECT, 0));
+    }
+
+    private void publishInTransaction(Object event) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> eventPublisher.publishEvent(event));
+    }
+}
@@ -0,0 +1,168 @@
+package com.groupe.gestin_inscription.security;
+
+import com.groupe.gestin_inscription.events.UserAccountChangedEvent;
+import com.groupe.gestin_inscription.security.Jwt.AuthTokenFilter;
+import com.groupe.gestin_inscription.security.Jwt.JwtUtils;
+import com.groupe.gestin_inscription.security.Jwt.TokenVersionRegistry;
+import com.groupe.gestin_inscription.security.SecurityUserService.UserDetailsCache;
+import com.groupe.gestin_inscription.security.SecurityUserService.UserDetailsServiceImpl;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserDetailsCacheTest {
+
+    private static final String SUBJECT = "candidat@example.com";
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Mock
+    private JwtUtils jwtUtils;
+
+    @Mock
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    private UserDetailsCache userDetailsCache;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsCache = new UserDetailsCache(userDetailsService, new SimpleMeterRegistry(), 1_000, Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldHitDatabaseOnceForRepeatedRequests() {
+        // Given
+        when(userDetailsService.loadUserByUsername(SUBJECT)).thenReturn(candidate());
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            userDetailsCache.loadUserByUsername(SUBJECT);
+        }
+
+        // Then
+        verify(userDetailsService, times(1)).loadUserByUsername(SUBJECT);
+    }
+
+    @Test
+    void shouldReturnCopiesWithoutPassword() {
+        // Given
+        when(userDetailsService.loadUserByUsername(SUBJECT)).thenReturn(candidate());
+
+        // When
+        UserDetails first = userDetailsCache.loadUserByUsername(SUBJECT);
+        ((User) first).eraseCredentials();
+        UserDetails second = userDetailsCache.loadUserByUsername(SUBJECT);
+
+        // Then
+        assertNotSame(first, second);
+        assertEquals("", second.getPassword());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_CANDIDATE")), List.copyOf(second.getAuthorities()));
+    }
+
+    @Test
+    void shouldReloadAfterAccountChange() {
+        // Given
+        when(userDetailsService.loadUserByUsername(SUBJECT)).thenReturn(candidate());
+        userDetailsCache.loadUserByUsername(SUBJECT);
+
+        // When
+        userDetailsCache.onUserAccountChanged(new UserAccountChangedEvent("candidat", SUBJECT));
+        userDetailsCache.loadUserByUsername(SUBJECT);
+
+        // Then
+        verify(userDetailsService, times(2)).loadUserByUsername(SUBJECT);
+    }
+
+    /**
+     * Latence du filtre JWT sans cache (chaque requête interroge la base) puis avec cache.
+     * Les allers-retours base sont simulés (4 requêtes de 250 µs). Désactivé par défaut :
+     * mvn test -Dtest=UserDetailsCacheTest -Dbenchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkFilterLatency() throws Exception {
+        // Given
+        // Jeton sans claim de rôles : le filtre passe par le cache de comptes
+        when(jwtUtils.parseClaims(anyString())).thenReturn(Jwts.claims().setSubject(SUBJECT));
+        when(jwtUtils.getAuthorities(any())).thenReturn(null);
+        when(userDetailsService.loadUserByUsername(SUBJECT)).thenAnswer(invocation -> {
+            for (int i = 0; i < 4; i++) {
+                busyWait(TimeUnit.MICROSECONDS.toNanos(250));
+            }
+            return candidate();
+        });
+        UserDetailsCache uncached = new UserDetailsCache(userDetailsService, new SimpleMeterRegistry(), 0, Duration.ZERO);
+
+        // When
+        double before = measure(new AuthTokenFilter(jwtUtils, uncached, tokenVersionRegistry));
+        double after = measure(new AuthTokenFilter(jwtUtils, userDetailsCache, tokenVersionRegistry));
+
+        // Then
+        System.out.printf("AuthTokenFilter: sans cache %.1f µs/requête, avec cache %.1f µs/requête%n", before, after);
+        assertTrue(after < before);
+    }
+
+    private double measure(AuthTokenFilter filter) throws Exception {
+        int warmup = 2_000;
+        int iterations = 10_000;
+        for (int i = 0; i < warmup; i++) {
+            runFilter(filter);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            runFilter(filter);
+        }
+        return (System.nanoTime() - start) / 1_000.0 / iterations;
+    }
+
+    private void runFilter(AuthTokenFilter filter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/applications/my-applications");
+        request.addHeader("Authorization", "Bearer token");
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        SecurityContextHolder.clearContext();
+    }
+
+    private static void busyWait(long nanos) {
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static UserDetails candidate() {
+        return User.builder()
+                .username(SUBJECT)
+                .password("$2a$10$hash")
+                .authorities(List.of(new SimpleGrantedAuthority("ROLE_CANDIDATE")))
+                .build();
+    }
+}
@@ -0,0 +1,169 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.events.ApplicationStatusChangedEvent;
+import com.groupe.gestin_inscription.model.Administrator;
+import com.groupe.gestin_inscription.model.Enums.AdministratorRole;
+import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import com.groupe.gestin_inscription.repository.AdministratorRepository;
+import com.groupe.gestin_inscription.repository.ApplicationRepository;
+import com.groupe.gestin_inscription.services.serviceImpl.AgentAssignmentService;
+import com.groupe.gestin_inscription.services.serviceImpl.SchedulerLockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AgentAssignmentServiceTest {
+
+    @Mock
+    private ApplicationRepository applicationRepository;
+
+    @Mock
+    private AdministratorRepository administratorRepository;
+
+    @Mock
+    private SchedulerLockService schedulerLockService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AgentAssignmentService assignmentService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        assignmentService = new AgentAssignmentService(applicationRepository, administratorRepository,
+                schedulerLockService, meterRegistry, 3, Duration.ofHours(24), 100, Duration.ofMinutes(30));
+    }
+
+    @Test
+    void shouldAssignToLeastLoadedAgent() {
+        // Given
+        agents(agent(1L, null, null), agent(2L, null, null));
+        openCounts(new Object[]{1L, 5L}, new Object[]{2L, 1L});
+        assignmentService.resync();
+
+        // When
+        Optional<Long> chosen = assignmentService.assign("Informatique");
+
+        // Then
+        assertEquals(Optional.of(2L), chosen);
+        assertEquals(2, assignmentService.workload().get(2L));
+        assertEquals(2.0, meterRegistry.get("agents.queue.depth").tag("agent", "agent2").gauge().value());
+    }
+
+    @Test
+    void shouldHoldRebalanceLockForMostOfItsPeriod() {
+        // When
+        assignmentService.rebalanceStaleAssignments();
+
+        // Then
+        verify(schedulerLockService).runExclusively(eq("agent-assignment-rebalance"), eq(Duration.ofMinutes(27)), any());
+    }
+
+    @Test
+    void shouldSpreadEqualLoadsInTurn() {
+        // Given
+        agents(agent(1L, null, null), agent(2L, null, null), agent(3L, null, null));
+        openCounts();
+        assignmentService.resync();
+
+        // When
+        Set<Long> chosen = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            chosen.add(assignmentService.assign(null).orElseThrow());
+        }
+
+        // Then
+        assertEquals(Set.of(1L, 2L, 3L), chosen);
+    }
+
+    @Test
+    void shouldPreferSpecialistWithinAffinitySlack() {
+        // Given
+        agents(agent(1L, null, null), agent(2L, "Médecine, Informatique", null));
+        openCounts(new Object[]{1L, 0L}, new Object[]{2L, 3L});
+        assignmentService.resync();
+
+        // When
+        Optional<Long> first = assignmentService.assign("informatique");
+        Optional<Long> second = assignmentService.assign("Informatique");
+
+        // Then
+        assertEquals(Optional.of(2L), first);
+        assertEquals(Optional.of(1L), second, "le spécialiste dépasse la marge d'affinité");
+    }
+
+    @Test
+    void shouldWeightLoadByAgentCapacity() {
+        // Given
+        agents(agent(1L, null, null), agent(2L, null, 3));
+        openCounts(new Object[]{1L, 2L}, new Object[]{2L, 5L});
+        assignmentService.resync();
+
+        // When
+        Optional<Long> chosen = assignmentService.assign(null);
+
+        // Then
+        assertEquals(Optional.of(2L), chosen);
+    }
+
+    @Test
+    void shouldReleaseLoadWhenApplicationLeavesReview() {
+        // Given
+        agents(agent(1L, null, null));
+        openCounts(new Object[]{1L, 2L});
+        assignmentService.resync();
+        when(applicationRepository.findAssignedAdminId(10L)).thenReturn(Optional.of(1L));
+
+        // When
+        assignmentService.onStatusChanged(ApplicationStatusChangedEvent.created(11L, ApplicationStatus.PRE_VALIDATION));
+        assignmentService.onStatusChanged(new ApplicationStatusChangedEvent(10L,
+                ApplicationStatus.MANUAL_REVIEW, ApplicationStatus.APPROVED));
+
+        // Then
+        assertEquals(1, assignmentService.workload().get(1L));
+    }
+
+    @Test
+    void shouldReturnEmptyWithoutAgents() {
+        // Given
+        when(administratorRepository.findByRole(AdministratorRole.AGENT)).thenReturn(List.of());
+        when(applicationRepository.countOpenByAgent(anyCollection())).thenReturn(List.of());
+
+        // Then
+        assertTrue(assignmentService.assign("Informatique").isEmpty());
+    }
+
+    private void agents(Administrator... agents) {
+        when(administratorRepository.findByRole(AdministratorRole.AGENT)).thenReturn(List.of(agents));
+    }
+
+    private void openCounts(Object[]... rows) {
+        when(applicationRepository.countOpenByAgent(any())).thenReturn(List.of(rows));
+    }
+
+    private static Administrator agent(Long id, String specializations, Integer weight) {
+        return Administrator.builder()
+                .id(id)
+                .userName("agent" + id)
+                .role(AdministratorRole.AGENT)
+                .specializations(specializations)
+                .reviewWeight(weight)
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.dto.request.ApplicationSearchCriteria;
+import com.groupe.gestin_inscription.dto.response.ApplicationKeysetPageDto;
+import com.groupe.gestin_inscription.dto.response.ApplicationSummaryDto;
+import com.groupe.gestin_inscription.model.Application;
+import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import com.groupe.gestin_inscription.model.User;
+import com.groupe.gestin_inscription.services.serviceImpl.ApplicationListingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import(ApplicationListingService.class)
+class ApplicationKeysetPagingTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 2, 10, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ApplicationListingService applicationListingService;
+
+    @Test
+    void shouldVisitEveryRowOnceAcrossEqualTimestampsAndNulls() {
+        // Given
+        User applicant = user();
+        List<Long> expected = new ArrayList<>();
+        // NULLS FIRST, id DESC
+        Long nullA = application(applicant, null).getId();
+        Long nullB = application(applicant, null).getId();
+        expected.add(nullB);
+        expected.add(nullA);
+        List<Long> sameTime = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            sameTime.add(0, application(applicant, NOW).getId());
+        }
+        Long older = application(applicant, NOW.minusHours(1)).getId();
+        expected.addAll(sameTime);
+        expected.add(older);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<Long> visited = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ApplicationKeysetPageDto page = applicationListingService.searchAfter(new ApplicationSearchCriteria(), cursor, 2);
+            page.getItems().stream().map(ApplicationSummaryDto::getId).forEach(visited::add);
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null && pages < 10);
+
+        // Then
+        assertEquals(expected, visited);
+        assertEquals(4, pages);
+    }
+
+    @Test
+    void shouldRejectInvalidCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> applicationListingService.searchAfter(new ApplicationSearchCriteria(), "pas-un-curseur!", 10));
+    }
+
+    private User user() {
+        User user = new User();
+        user.setFirstName("Paul");
+        user.setLastName("Kamga");
+        user.setUsername("paul@example.com");
+        user.setEmail("paul@example.com");
+        user.setPassword("secret");
+        return entityManager.persist(user);
+    }
+
+    private Application application(User applicant, LocalDateTime lastUpdated) {
+        Application application = new Application();
+        application.setApplicantName(applicant);
+        application.setStatus(ApplicationStatus.MANUAL_REVIEW);
+        application.setSubmissionDate(NOW.minusDays(1));
+        application.setLastUpdated(lastUpdated);
+        return entityManager.persist(application);
+    }
+}
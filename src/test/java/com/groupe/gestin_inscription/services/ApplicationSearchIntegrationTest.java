@@ -0,0 +1,205 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.dto.request.ApplicationSearchCriteria;
+import com.groupe.gestin_inscription.dto.response.ApplicationKeysetPageDto;
+import com.groupe.gestin_inscription.dto.response.ApplicationSummaryDto;
+import com.groupe.gestin_inscription.model.AcademicHistory;
+import com.groupe.gestin_inscription.model.Application;
+import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import com.groupe.gestin_inscription.model.User;
+import com.groupe.gestin_inscription.services.serviceImpl.ApplicationSearchIndexer;
+import com.groupe.gestin_inscription.services.serviceImpl.ApplicationSearchService;
+import com.groupe.gestin_inscription.services.serviceImpl.SchedulerLockService;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Recherche plein texte sur un vrai PostgreSQL embarqué : extensions, triggers et index ne peuvent pas être
+ * vérifiés sur H2. Chaque test s'exécute dans une transaction annulée, schéma de recherche compris.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureEmbeddedDatabase(type = AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES,
+        provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+@Import(ApplicationSearchService.class)
+class ApplicationSearchIntegrationTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 2, 10, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationSearchService searchService;
+
+    private ApplicationSearchIndexer indexer;
+
+    @BeforeEach
+    void setUp() {
+        SchedulerLockService lockService = mock(SchedulerLockService.class);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        }).when(lockService).runExclusively(anyString(), any());
+        indexer = new ApplicationSearchIndexer(jdbcTemplate, transactionManager, lockService, 2);
+        indexer.initialize();
+    }
+
+    @Test
+    void shouldMatchFrenchNamesWithoutAccents() {
+        // Given
+        Application application = application(user("Éloïse", "Lefèvre", "eloise.lefevre@mail.com", null));
+        application(user("Jean", "Dupont", "jean.dupont@mail.com", null));
+        entityManager.flush();
+
+        // Then
+        assertEquals(List.of(application.getId()), ids(search("eloise lefevre")));
+        assertEquals(List.of(application.getId()), ids(search("ÉLOÏSE")));
+        assertEquals(List.of(application.getId()), ids(search("Lefèvre")));
+    }
+
+    @Test
+    void shouldMatchPrefixesAndEmailParts() {
+        // Given
+        Application application = application(user("Éloïse", "Lefèvre", "e.lefevre@mail.com", null));
+        entityManager.flush();
+
+        // Then
+        assertEquals(List.of(application.getId()), ids(search("elo lef")));
+        assertEquals(List.of(application.getId()), ids(search("lefevre@mail")));
+        assertTrue(search("elo dupont").getItems().isEmpty());
+    }
+
+    @Test
+    void shouldTolerateTyposAndRankExactMatchesFirst() {
+        // Given
+        Application typo = application(user("Paul", "Lefevre", "paul@mail.com", null));
+        Application exact = application(user("Anne", "Lefebre", "anne@mail.com", null));
+        entityManager.flush();
+
+        // When
+        List<Long> results = ids(search("lefebre"));
+
+        // Then
+        assertEquals(List.of(exact.getId(), typo.getId()), results);
+    }
+
+    @Test
+    void shouldReindexWhenApplicantOrAcademicHistoryChanges() {
+        // Given
+        AcademicHistory history = new AcademicHistory();
+        history.setLastInstitution("Lycée Leclerc");
+        history.setSpecialization("Mathématiques");
+        User applicant = user("Marie", "Ngono", "marie@mail.com", history);
+        Application application = application(applicant);
+        entityManager.flush();
+
+        // When
+        applicant.setLastName("Mbarga");
+        history.setSpecialization("Génie civil");
+        entityManager.flush();
+
+        // Then
+        assertEquals(List.of(application.getId()), ids(search("mbarga")));
+        assertTrue(search("ngono").getItems().isEmpty());
+        assertEquals(List.of(application.getId()), ids(search("genie civ")));
+        assertEquals(List.of(application.getId()), ids(search("leclerc")));
+    }
+
+    @Test
+    void shouldBackfillApplicationsMissingFromIndex() {
+        // Given
+        Application application = application(user("Paul", "Kamga", "paul.kamga@mail.com", null));
+        entityManager.flush();
+        jdbcTemplate.update("DELETE FROM application_search");
+        assertTrue(search("kamga").getItems().isEmpty());
+
+        // When
+        indexer.initialize();
+
+        // Then
+        assertEquals(List.of(application.getId()), ids(search("kamga")));
+    }
+
+    @Test
+    void shouldPaginateAndApplyCriteria() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            application(user("Candidat" + i, "Kamga", "kamga" + i + "@mail.com", null));
+        }
+        User other = user("Luc", "Kamga", "luc.kamga@mail.com", null);
+        Application own = application(other);
+        entityManager.flush();
+
+        // When
+        ApplicationKeysetPageDto first = searchService.search("kamga", null, null, 3);
+        ApplicationKeysetPageDto second = searchService.search("kamga", null, first.getNextCursor(), 3);
+        ApplicationSearchCriteria criteria = new ApplicationSearchCriteria();
+        criteria.setApplicantId(other.getId());
+        ApplicationKeysetPageDto restricted = searchService.search("kamga", criteria, null, 10);
+
+        // Then
+        assertEquals(3, first.getSize());
+        assertNotNull(first.getNextCursor());
+        assertEquals(1, second.getSize());
+        assertNull(second.getNextCursor());
+        assertTrue(ids(first).stream().noneMatch(ids(second)::contains));
+        assertEquals(List.of(own.getId()), ids(restricted));
+        assertEquals("luc.kamga@mail.com", restricted.getItems().get(0).getApplicantEmail());
+    }
+
+    @Test
+    void shouldRejectTooShortTerms() {
+        assertThrows(IllegalArgumentException.class, () -> search("é"));
+        assertThrows(IllegalArgumentException.class, () -> search(" - "));
+    }
+
+    private ApplicationKeysetPageDto search(String term) {
+        return searchService.search(term, null, null, 20);
+    }
+
+    private static List<Long> ids(ApplicationKeysetPageDto page) {
+        return page.getItems().stream().map(ApplicationSummaryDto::getId).toList();
+    }
+
+    private User user(String firstName, String lastName, String email, AcademicHistory history) {
+        User user = new User();
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setUsername(email);
+        user.setEmail(email);
+        user.setPassword("secret");
+        user.setAcademicHistory(history);
+        return entityManager.persist(user);
+    }
+
+    private Application application(User applicant) {
+        Application application = new Application();
+        application.setApplicantName(applicant);
+        application.setStatus(ApplicationStatus.MANUAL_REVIEW);
+        application.setSubmissionDate(NOW);
+        application.setLastUpdated(NOW);
+        return entityManager.persist(application);
+    }
+}
@@ -0,0 +1,90 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.events.ApplicationStatusChangedEvent;
+import com.groupe.gestin_inscription.model.ApplicationStatusEvent;
+import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import com.groupe.gestin_inscription.repository.ApplicationStatusEventRepository;
+import com.groupe.gestin_inscription.services.serviceImpl.ApplicationStatusHistoryService;
+import com.groupe.gestin_inscription.services.serviceImpl.SchedulerLockService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ApplicationStatusHistoryServiceTest {
+
+    @Mock
+    private ApplicationStatusEventRepository statusEventRepository;
+
+    @Mock
+    private SchedulerLockService schedulerLockService;
+
+    @InjectMocks
+    private ApplicationStatusHistoryService statusHistoryService;
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldRecordTransitionWithAuthenticatedActor() {
+        // Given
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "agent1", null, List.of(new SimpleGrantedAuthority("ROLE_AGENT"))));
+        ApplicationStatusChangedEvent event =
+                new ApplicationStatusChangedEvent(42L, ApplicationStatus.MANUAL_REVIEW, ApplicationStatus.AGENT_VALIDATED);
+
+        // When
+        statusHistoryService.record(event);
+
+        // Then
+        ApplicationStatusEvent recorded = captureSaved();
+        assertEquals(42L, recorded.getApplicationId());
+        assertEquals(ApplicationStatus.MANUAL_REVIEW, recorded.getFromStatus());
+        assertEquals(ApplicationStatus.AGENT_VALIDATED, recorded.getToStatus());
+        assertEquals("agent1", recorded.getActor());
+        assertEquals(event.getOccurredAt(), recorded.getOccurredAt());
+    }
+
+    @Test
+    void shouldAttributeUnauthenticatedTransitionsToSystem() {
+        // When
+        statusHistoryService.record(ApplicationStatusChangedEvent.created(7L, ApplicationStatus.PRE_VALIDATION));
+
+        // Then
+        ApplicationStatusEvent recorded = captureSaved();
+        assertNull(recorded.getFromStatus());
+        assertEquals("system", recorded.getActor());
+    }
+
+    @Test
+    void shouldIgnoreUnchangedStatus() {
+        // When
+        statusHistoryService.record(new ApplicationStatusChangedEvent(7L,
+                ApplicationStatus.MANUAL_REVIEW, ApplicationStatus.MANUAL_REVIEW));
+
+        // Then
+        verify(statusEventRepository, never()).save(any());
+    }
+
+    private ApplicationStatusEvent captureSaved() {
+        ArgumentCaptor<ApplicationStatusEvent> captor = ArgumentCaptor.forClass(ApplicationStatusEvent.class);
+        verify(statusEventRepository).save(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,137 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.model.BatchJobCheckpoint;
+import com.groupe.gestin_inscription.model.Enums.BatchJobStatus;
+import com.groupe.gestin_inscription.repository.BatchJobCheckpointRepository;
+import com.groupe.gestin_inscription.services.serviceImpl.ChunkedJobRunner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChunkedJobRunnerTest {
+
+    private static final String JOB = "test-job";
+
+    @Mock
+    private BatchJobCheckpointRepository checkpointRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ChunkedJobRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        runner = new ChunkedJobRunner(checkpointRepository, transactionManager, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(runner, "chunkSize", 2);
+        ReflectionTestUtils.setField(runner, "chunkPauseMs", 0L);
+        ReflectionTestUtils.setField(runner, "resumeWindow", Duration.ofHours(6));
+        lenient().when(checkpointRepository.save(any(BatchJobCheckpoint.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void shouldProcessAllChunksFromTheStart() {
+        // Given
+        when(checkpointRepository.findById(JOB)).thenReturn(Optional.empty());
+        List<Long> ids = List.of(3L, 5L, 8L, 13L, 21L);
+        List<Long> processed = new ArrayList<>();
+
+        // When
+        long count = runner.run(JOB, (runStartedAt, afterId, size) -> after(ids, afterId, size), id -> id, processed::add);
+
+        // Then
+        assertEquals(5, count);
+        assertEquals(ids, processed);
+        verify(checkpointRepository).advance(eq(JOB), eq(5L), eq(2L), any());
+        verify(checkpointRepository).advance(eq(JOB), eq(13L), eq(2L), any());
+        verify(checkpointRepository).advance(eq(JOB), eq(21L), eq(1L), any());
+        verify(checkpointRepository).finish(eq(JOB), eq(BatchJobStatus.COMPLETED), any(), any(), isNull());
+    }
+
+    @Test
+    void shouldResumeInterruptedRunAfterLastCommittedId() {
+        // Given
+        LocalDateTime runStartedAt = LocalDateTime.now().minusHours(1);
+        when(checkpointRepository.findById(JOB)).thenReturn(Optional.of(checkpoint(BatchJobStatus.FAILED, runStartedAt, 5L)));
+        List<Long> ids = LongStream.rangeClosed(1, 8).boxed().toList();
+        List<Long> processed = new ArrayList<>();
+        List<LocalDateTime> references = new ArrayList<>();
+
+        // When
+        runner.run(JOB, (reference, afterId, size) -> {
+            references.add(reference);
+            return after(ids, afterId, size);
+        }, id -> id, processed::add);
+
+        // Then
+        assertEquals(List.of(6L, 7L, 8L), processed);
+        assertTrue(references.stream().allMatch(runStartedAt::equals));
+    }
+
+    @Test
+    void shouldStartOverWhenInterruptedRunIsTooOld() {
+        // Given
+        when(checkpointRepository.findById(JOB))
+                .thenReturn(Optional.of(checkpoint(BatchJobStatus.RUNNING, LocalDateTime.now().minusDays(1), 5L)));
+        List<Long> processed = new ArrayList<>();
+
+        // When
+        runner.run(JOB, (runStartedAt, afterId, size) -> after(List.of(1L, 2L, 6L), afterId, size), id -> id, processed::add);
+
+        // Then
+        assertEquals(List.of(1L, 2L, 6L), processed);
+        assertFalse(runner.isInterrupted(JOB));
+    }
+
+    @Test
+    void shouldRecordFailureAndKeepCheckpoint() {
+        // Given
+        when(checkpointRepository.findById(JOB)).thenReturn(Optional.empty());
+
+        // When
+        assertThrows(IllegalStateException.class, () -> runner.run(JOB,
+                (runStartedAt, afterId, size) -> after(List.of(1L, 2L, 3L), afterId, size),
+                id -> id,
+                id -> {
+                    if (id == 3L) {
+                        throw new IllegalStateException("SMTP indisponible");
+                    }
+                }));
+
+        // Then
+        verify(checkpointRepository).advance(eq(JOB), eq(2L), eq(2L), any());
+        verify(checkpointRepository, never()).advance(eq(JOB), eq(3L), anyLong(), any());
+        verify(checkpointRepository).finish(eq(JOB), eq(BatchJobStatus.FAILED), any(), isNull(), eq("SMTP indisponible"));
+    }
+
+    private static List<Long> after(List<Long> ids, long afterId, int size) {
+        return ids.stream().filter(id -> id > afterId).limit(size).toList();
+    }
+
+    private static BatchJobCheckpoint checkpoint(BatchJobStatus status, LocalDateTime runStartedAt, long lastId) {
+        return BatchJobCheckpoint.builder()
+                .jobName(JOB)
+                .status(status)
+                .runStartedAt(runStartedAt)
+                .lastId(lastId)
+                .processed(lastId)
+                .build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.dto.response.RecentApplicationDto;
+import com.groupe.gestin_inscription.dto.response.StatusCountDto;
+import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import com.groupe.gestin_inscription.repository.AdministratorRepository;
+import com.groupe.gestin_inscription.repository.ApplicationRepository;
+import com.groupe.gestin_inscription.repository.UserRepository;
+import com.groupe.gestin_inscription.services.serviceImpl.DashboardQueryService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardQueryServiceTest {
+
+    @Mock
+    private ApplicationRepository applicationRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private AdministratorRepository administratorRepository;
+
+    @InjectMocks
+    private DashboardQueryService dashboardQueryService;
+
+    @Test
+    void recentApplicationsShouldBeBoundedInSql() {
+        // Given
+        when(applicationRepository.findRecentApplications(any(Pageable.class)))
+                .thenReturn(List.of(new RecentApplicationDto()));
+
+        // When
+        List<RecentApplicationDto> result = dashboardQueryService.getRecentApplications(1_000_000);
+
+        // Then
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(applicationRepository).findRecentApplications(pageable.capture());
+        assertEquals(100, pageable.getValue().getPageSize());
+        assertEquals(0, pageable.getValue().getPageNumber());
+        assertEquals(1, result.size());
+        verify(applicationRepository, never()).findAll();
+    }
+
+    @Test
+    void applicantStatisticsShouldBeFilteredInSql() {
+        // Given
+        when(applicationRepository.countGroupedByStatusForApplicant(42L)).thenReturn(List.of(
+                new StatusCountDto(ApplicationStatus.UNDER_REVIEW, 1L)));
+
+        // When
+        Map<ApplicationStatus, Long> counts = dashboardQueryService.getStatusCountsForApplicant(42L);
+
+        // Then
+        assertEquals(1L, counts.get(ApplicationStatus.UNDER_REVIEW));
+        verify(applicationRepository, never()).findAll();
+        verifyNoInteractions(userRepository, administratorRepository);
+    }
+}
@@ -0,0 +1,116 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.dto.response.RecentApplicationDto;
+import com.groupe.gestin_inscription.model.Application;
+import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import com.groupe.gestin_inscription.model.User;
+import com.groupe.gestin_inscription.services.serviceImpl.DashboardQueryService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(DashboardQueryService.class)
+class DashboardQueryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 2, 10, 0);
+    private static final int SMALL = 6;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DashboardQueryService dashboardQueryService;
+
+    @Test
+    void statusCountsShouldIssueSameNumberOfQueriesWhateverTheRowCount() {
+        // Given
+        createApplications(SMALL);
+        long smallCount = statementsFor(() -> assertStatusCounts(SMALL));
+
+        createApplications(10 * SMALL - SMALL);
+        long largeCount = statementsFor(() -> assertStatusCounts(10 * SMALL));
+
+        // Then
+        assertEquals(smallCount, largeCount);
+        assertEquals(1, largeCount, "un seul GROUP BY, sans charger les candidatures");
+    }
+
+    @Test
+    void recentApplicationsShouldIssueSameNumberOfQueriesWhateverTheRowCount() {
+        // Given
+        createApplications(SMALL);
+        long smallCount = statementsFor(() -> assertEquals(SMALL, dashboardQueryService.getRecentApplications(1_000).size()));
+
+        createApplications(10 * SMALL - SMALL);
+        long largeCount = statementsFor(() -> {
+            List<RecentApplicationDto> recent = dashboardQueryService.getRecentApplications(5);
+            assertEquals(5, recent.size());
+            assertEquals(NOW, recent.get(0).getSubmissionDate());
+        });
+
+        // Then
+        assertEquals(smallCount, largeCount);
+    }
+
+    /**
+     * Répartition attendue pour {@link #createApplications} : un tiers en attente, un tiers approuvé, un tiers rejeté.
+     */
+    private void assertStatusCounts(int total) {
+        long third = total / 3;
+        Map<ApplicationStatus, Long> counts = dashboardQueryService.getStatusCounts();
+        assertEquals(ApplicationStatus.values().length, counts.size());
+        assertEquals(third, counts.get(ApplicationStatus.PENDING));
+        assertEquals(third, counts.get(ApplicationStatus.APPROVED));
+        assertEquals(third, counts.get(ApplicationStatus.REJECTED));
+        assertEquals(0L, counts.get(ApplicationStatus.UNDER_REVIEW));
+    }
+
+    private long statementsFor(Runnable query) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        query.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void createApplications(int count) {
+        ApplicationStatus[] statuses = {ApplicationStatus.PENDING, ApplicationStatus.APPROVED, ApplicationStatus.REJECTED};
+        for (int i = 0; i < count; i++) {
+            User applicant = new User();
+            applicant.setFirstName("candidat" + System.nanoTime());
+            applicant.setLastName("Test");
+            applicant.setUsername(applicant.getFirstName() + "@example.com");
+            applicant.setEmail(applicant.getFirstName() + "@example.com");
+            applicant.setPassword("secret");
+            entityManager.persist(applicant);
+
+            Application application = new Application();
+            application.setApplicantName(applicant);
+            application.setStatus(statuses[i % statuses.length]);
+            application.setSubmissionDate(NOW.minusHours(i));
+            application.setLastUpdated(NOW.minusHours(i));
+            entityManager.persist(application);
+        }
+    }
+}
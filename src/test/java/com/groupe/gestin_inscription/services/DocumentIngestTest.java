@@ -0,0 +1,115 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.config.ProductionReadyConfig;
+import com.groupe.gestin_inscription.exceptions.FileValidationException;
+import com.groupe.gestin_inscription.repository.DocumentRepository;
+import com.groupe.gestin_inscription.services.serviceImpl.DocumentManagerService;
+import com.groupe.gestin_inscription.services.serviceImpl.DocumentSimilarityIndex;
+import com.groupe.gestin_inscription.services.serviceImpl.OcrEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentIngestTest {
+
+    private static final byte[] PDF = "%PDF-1.7\n1 0 obj\n<<>>\nendobj\n%%EOF\n".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path storage;
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private OcrEngine ocrEngine;
+
+    @Mock
+    private DocumentSimilarityIndex similarityIndex;
+
+    @InjectMocks
+    private DocumentManagerService documentManagerService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(documentManagerService, "secureStoragePath", storage);
+        ReflectionTestUtils.setField(documentManagerService, "validationConfig",
+                ProductionReadyConfig.DocumentValidationConfig.builder().maxFileSize(1024).build());
+    }
+
+    @Test
+    void shouldStoreAndHashInOnePass() throws Exception {
+        // Given
+        MockMultipartFile file = new MockMultipartFile("files", "releve.PDF", "application/pdf", PDF);
+
+        // When
+        DocumentManagerService.StoredFile stored = documentManagerService.ingest(file);
+
+        // Then
+        Path path = Path.of(stored.getPath());
+        assertArrayEquals(PDF, Files.readAllBytes(path));
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(PDF)), stored.getSha256());
+        assertEquals(PDF.length, stored.getSize());
+        assertEquals("application/pdf", stored.getContentType());
+        assertTrue(path.getFileName().toString().endsWith(".pdf"));
+        assertNoPartialFile();
+    }
+
+    @Test
+    void shouldUseDetectedExtensionWhenNameLies() throws Exception {
+        // Given
+        byte[] png = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13};
+        MockMultipartFile file = new MockMultipartFile("files", "photo.jpg", "image/jpeg", png);
+
+        // When
+        DocumentManagerService.StoredFile stored = documentManagerService.ingest(file);
+
+        // Then
+        assertEquals("png", stored.getExtension());
+        assertEquals("image/png", stored.getContentType());
+    }
+
+    @Test
+    void shouldRejectContentThatIsNotADocument() {
+        // Given
+        MockMultipartFile file = new MockMultipartFile("files", "cv.pdf", "application/pdf",
+                "MZ\u0090\u0000 pas un PDF".getBytes(StandardCharsets.ISO_8859_1));
+
+        // Then
+        assertThrows(FileValidationException.class, () -> documentManagerService.ingest(file));
+        assertNoPartialFile();
+    }
+
+    @Test
+    void shouldStopWritingOnceMaxSizeIsExceeded() {
+        // Given
+        byte[] large = new byte[4096];
+        System.arraycopy(PDF, 0, large, 0, PDF.length);
+        MockMultipartFile file = new MockMultipartFile("files", "gros.pdf", "application/pdf", large);
+
+        // Then
+        assertThrows(FileValidationException.class, () -> documentManagerService.ingest(file));
+        assertNoPartialFile();
+    }
+
+    private void assertNoPartialFile() throws Exception {
+        try (Stream<Path> files = Files.walk(storage)) {
+            assertTrue(files.noneMatch(path -> path.getFileName().toString().endsWith(".part")));
+        }
+    }
+}
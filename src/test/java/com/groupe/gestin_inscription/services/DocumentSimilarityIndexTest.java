@@ -0,0 +1,107 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.repository.DocumentRepository;
+import com.groupe.gestin_inscription.services.serviceImpl.DocumentSimilarityIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentSimilarityIndexTest {
+
+    private static final long HASH = 0xF0F0F0F0L;
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    private DocumentSimilarityIndex similarityIndex;
+
+    @BeforeEach
+    void setUp() {
+        similarityIndex = new DocumentSimilarityIndex(documentRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(similarityIndex, "maxDistance", 6);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldIndexUploadOnlyOnceCommitted() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        similarityIndex.add(1L, 10L, HASH);
+
+        // Then
+        assertTrue(similarityIndex.findSimilar(HASH).isEmpty());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, similarityIndex.findSimilar(HASH).size());
+    }
+
+    @Test
+    void shouldNotIndexRolledBackUpload() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        similarityIndex.add(1L, 10L, HASH);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Then
+        assertTrue(similarityIndex.findSimilar(HASH).isEmpty());
+    }
+
+    @Test
+    void shouldPickUpUploadsFromOtherReplicasOnce() {
+        // Given
+        when(documentRepository.streamPerceptualHashes()).thenReturn(Stream.<Object[]>of(new Object[]{3L, 30L, HASH}));
+        similarityIndex.rebuild();
+        // Dépôt local déjà dans l'index, et dépôt d'une autre réplique
+        similarityIndex.add(4L, 40L, HASH);
+        when(documentRepository.findPerceptualHashesAfter(eq(3L), any()))
+                .thenReturn(List.of(new Object[]{4L, 40L, HASH}, new Object[]{5L, 50L, HASH}));
+        when(documentRepository.findPerceptualHashesAfter(eq(5L), any())).thenReturn(List.of());
+
+        // When
+        similarityIndex.refresh();
+        similarityIndex.refresh();
+
+        // Then
+        assertEquals(3, similarityIndex.size());
+        assertEquals(3, similarityIndex.findSimilar(HASH).size());
+        verify(documentRepository).findPerceptualHashesAfter(eq(5L), any());
+    }
+
+    @Test
+    void shouldApplyImmediatelyOutsideTransaction() {
+        // When
+        similarityIndex.add(1L, 10L, HASH);
+
+        // Then
+        assertEquals(1, similarityIndex.findSimilar(HASH).size());
+        similarityIndex.remove(1L, HASH);
+        assertTrue(similarityIndex.findSimilar(HASH).isEmpty());
+    }
+}
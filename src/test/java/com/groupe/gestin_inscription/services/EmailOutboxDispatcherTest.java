@@ -0,0 +1,134 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.model.EmailOutbox;
+import com.groupe.gestin_inscription.model.Enums.EmailOutboxStatus;
+import com.groupe.gestin_inscription.repository.EmailOutboxRepository;
+import com.groupe.gestin_inscription.services.serviceImpl.EmailOutboxDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxDispatcherTest {
+
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new EmailOutboxDispatcher(emailOutboxRepository, mailSender, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(dispatcher, "emailEnabled", true);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 50);
+        ReflectionTestUtils.setField(dispatcher, "maxBatchesPerRun", 20);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "backoffInitial", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(dispatcher, "backoffMax", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(dispatcher, "lease", Duration.ofMinutes(5));
+        ReflectionTestUtils.invokeMethod(dispatcher, "init");
+        lenient().when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage(Session.getInstance(new Properties())));
+    }
+
+    @Test
+    void shouldSendWholeBatchInOneCall() {
+        // Given
+        givenClaimedBatch(email(1L, "a@example.com", 1), email(2L, "b@example.com", 1));
+
+        // When
+        dispatcher.dispatch();
+
+        // Then
+        verify(mailSender, times(1)).send(any(MimeMessage[].class));
+        ArgumentCaptor<Collection<Long>> sent = ArgumentCaptor.forClass(Collection.class);
+        verify(emailOutboxRepository).markSent(sent.capture(), any(LocalDateTime.class), eq(EmailOutboxStatus.SENT));
+        assertEquals(List.of(1L, 2L), sent.getValue().stream().sorted().toList());
+    }
+
+    @Test
+    void shouldRescheduleOnlyFailedMessages() {
+        // Given
+        givenClaimedBatch(email(1L, "a@example.com", 1), email(2L, "b@example.com", 1));
+        doAnswer(invocation -> {
+            MimeMessage[] messages = invocation.getArgument(0);
+            MimeMessage failed = messages[0].getAllRecipients()[0].toString().equals("b@example.com") ? messages[0] : messages[1];
+            throw new MailSendException(Map.<Object, Exception>of(failed, new RuntimeException("550 mailbox unavailable")));
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        // When
+        dispatcher.dispatch();
+
+        // Then
+        verify(emailOutboxRepository).markSent(eq(List.of(1L)), any(LocalDateTime.class), eq(EmailOutboxStatus.SENT));
+        verify(emailOutboxRepository).reschedule(eq(2L), eq(EmailOutboxStatus.PENDING), any(LocalDateTime.class), contains("550"));
+    }
+
+    @Test
+    void shouldGiveUpAfterMaxAttempts() {
+        // Given
+        givenClaimedBatch(email(1L, "a@example.com", 3));
+        doThrow(new MailSendException("Connection refused")).when(mailSender).send(any(MimeMessage[].class));
+
+        // When
+        dispatcher.dispatch();
+
+        // Then
+        verify(emailOutboxRepository).reschedule(eq(1L), eq(EmailOutboxStatus.FAILED), any(LocalDateTime.class), anyString());
+        verify(emailOutboxRepository, never()).markSent(any(), any(), any());
+    }
+
+    @Test
+    void shouldDoubleBackoffUpToMaximum() {
+        // Then
+        assertEquals(Duration.ofSeconds(30), ReflectionTestUtils.invokeMethod(dispatcher, "backoff", 1));
+        assertEquals(Duration.ofSeconds(120), ReflectionTestUtils.invokeMethod(dispatcher, "backoff", 3));
+        assertEquals(Duration.ofMinutes(10), ReflectionTestUtils.invokeMethod(dispatcher, "backoff", 8));
+    }
+
+    private void givenClaimedBatch(EmailOutbox... emails) {
+        List<Long> ids = Arrays.stream(emails).map(EmailOutbox::getId).toList();
+        when(emailOutboxRepository.countByStatus(EmailOutboxStatus.PENDING)).thenReturn((long) emails.length);
+        when(emailOutboxRepository.findDueIds(eq(EmailOutboxStatus.PENDING), any(LocalDateTime.class), any()))
+                .thenReturn(ids);
+        when(emailOutboxRepository.claim(eq(ids), anyString(), any(LocalDateTime.class),
+                eq(EmailOutboxStatus.PENDING), eq(EmailOutboxStatus.SENDING))).thenReturn(emails.length);
+        when(emailOutboxRepository.findByClaimToken(anyString())).thenReturn(List.of(emails));
+    }
+
+    private static EmailOutbox email(Long id, String recipient, int attempts) {
+        return EmailOutbox.builder()
+                .id(id)
+                .sender("noreply@sigec.cm")
+                .recipient(recipient)
+                .subject("Candidature reçue")
+                .body("<p>Votre candidature a été reçue.</p>")
+                .html(true)
+                .status(EmailOutboxStatus.SENDING)
+                .attempts(attempts)
+                .build();
+    }
+}
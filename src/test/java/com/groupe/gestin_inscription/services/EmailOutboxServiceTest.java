@@ -0,0 +1,72 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.model.EmailOutbox;
+import com.groupe.gestin_inscription.repository.EmailOutboxRepository;
+import com.groupe.gestin_inscription.services.serviceImpl.EmailOutboxService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import(EmailOutboxService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmailOutboxServiceTest {
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        emailOutboxRepository.deleteAll();
+    }
+
+    @Test
+    void shouldCommitCallerTransactionDespiteBlankRecipient() {
+        // When
+        Optional<EmailOutbox> skipped = new TransactionTemplate(transactionManager).execute(status -> {
+            Optional<EmailOutbox> blank = emailOutboxService.enqueue(" ", "Mise à jour", "Corps", false);
+            emailOutboxService.enqueue(null, "Mise à jour", "Corps", false);
+            emailOutboxService.enqueue("candidat@example.com", "Mise à jour", "Corps", false);
+            return blank;
+        });
+
+        // Then
+        assertTrue(skipped.isEmpty());
+        List<EmailOutbox> queued = emailOutboxRepository.findAll();
+        assertEquals(1, queued.size());
+        assertEquals("candidat@example.com", queued.get(0).getRecipient());
+    }
+
+    @Test
+    void shouldDiscardQueuedEmailWhenCallerRollsBack() {
+        // When
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            emailOutboxService.enqueue("candidat@example.com", "Mise à jour", "Corps", false);
+            status.setRollbackOnly();
+        });
+
+        // Then
+        assertEquals(0, emailOutboxRepository.count());
+    }
+}
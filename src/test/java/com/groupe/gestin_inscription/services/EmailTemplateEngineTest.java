@@ -0,0 +1,191 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import com.groupe.gestin_inscription.services.serviceImpl.EmailTemplate;
+import com.groupe.gestin_inscription.services.serviceImpl.EmailTemplateEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailTemplateEngineTest {
+
+    private EmailTemplateEngine engine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new EmailTemplateEngine();
+        engine.load();
+    }
+
+    @Test
+    void shouldEscapeValuesInHtmlTemplates() {
+        // Given
+        Map<String, Object> model = statusModel("<script>alert('x')</script>", "");
+
+        // When
+        String html = engine.render("status-update", Locale.FRENCH, model);
+
+        // Then
+        assertTrue(html.contains("&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt;"));
+        assertFalse(html.contains("<script>"));
+        assertFalse(html.contains("Commentaire"));
+        assertFalse(html.contains("{{"));
+    }
+
+    @Test
+    void shouldRenderSectionOnlyWhenValuePresent() {
+        // Given
+        Map<String, Object> model = statusModel("Awa Ndiaye", "Pièce d'identité illisible");
+
+        // When
+        String html = engine.render("status-update", Locale.FRENCH, model);
+
+        // Then
+        assertTrue(html.contains("<strong>Commentaire :</strong> Pièce d&#39;identité illisible"));
+    }
+
+    @Test
+    void shouldKeepTextTemplatesUnescaped() {
+        // Given
+        Map<String, Object> model = new HashMap<>();
+        model.put("candidateName", "Jean & Marie");
+        model.put("documentName", "Relevé <2023>");
+        model.put("rejectionReason", "Document flou");
+
+        // When
+        String text = engine.render("document-rejected", Locale.FRENCH, model);
+
+        // Then
+        assertTrue(text.startsWith("Bonjour Jean & Marie,"));
+        assertTrue(text.contains("'Relevé <2023>'"));
+    }
+
+    @Test
+    void shouldProvideStatusTextsPerLanguageWithFallback() {
+        // When
+        EmailTemplateEngine.StatusTexts french = engine.statusTexts(ApplicationStatus.APPROVED, Locale.FRENCH);
+        EmailTemplateEngine.StatusTexts english = engine.statusTexts(ApplicationStatus.APPROVED, Locale.ENGLISH);
+        EmailTemplateEngine.StatusTexts german = engine.statusTexts(ApplicationStatus.APPROVED, Locale.GERMAN);
+
+        // Then
+        assertEquals("Candidature approuvée - Gestion Inscription", french.subject());
+        assertEquals("Application approved - Registration Management", english.subject());
+        assertEquals(french, german);
+        assertNull(engine.statusTexts(ApplicationStatus.AGENT_VALIDATED, Locale.FRENCH));
+        assertTrue(engine.render("completion-reminder", Locale.ENGLISH, Map.of("firstName", "Ada", "completionRate", "50.0"))
+                .contains("50.0% complete"));
+    }
+
+    @Test
+    void shouldRejectUnclosedSection() {
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("{{#comment}}<p>{{comment}}</p>", true));
+        assertThrows(IllegalArgumentException.class, () -> engine.render("unknown", Locale.FRENCH, Map.of()));
+    }
+
+    /**
+     * Rendu du modèle de mise à jour de statut : ancienne méthode (text block + String.formatted,
+     * les % du CSS doublés pour qu'elle s'exécute) contre le modèle compilé. Désactivé par défaut :
+     * mvn test -Dtest=EmailTemplateEngineTest -Dbenchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkAgainstStringFormatted() {
+        // Given
+        Map<String, Object> model = statusModel("Awa Ndiaye", null);
+        int warmup = 20_000;
+        int iterations = 200_000;
+        long sink = 0;
+
+        // When
+        for (int i = 0; i < warmup; i++) {
+            sink += legacyStatusUpdate("Awa Ndiaye", "APPROVED", "Votre candidature a été approuvée.").length();
+            sink += engine.render("status-update", Locale.FRENCH, model).length();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += legacyStatusUpdate("Awa Ndiaye", "APPROVED", "Votre candidature a été approuvée.").length();
+        }
+        double legacy = (System.nanoTime() - start) / 1_000.0 / iterations;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += engine.render("status-update", Locale.FRENCH, model).length();
+        }
+        double compiled = (System.nanoTime() - start) / 1_000.0 / iterations;
+
+        // Then
+        System.out.printf("Modèle de statut : String.formatted %.2f µs/e-mail, compilé %.2f µs/e-mail (%d)%n",
+                legacy, compiled, sink);
+        assertTrue(compiled < legacy);
+    }
+
+    private static Map<String, Object> statusModel(String applicantName, String comment) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("applicantName", applicantName);
+        model.put("statusLabel", "Approuvée");
+        model.put("statusColor", "#4caf50");
+        model.put("statusIcon", "✅");
+        model.put("message", "Votre candidature a été approuvée.");
+        model.put("comment", comment);
+        return model;
+    }
+
+    // Copie de l'ancien EmailServiceImpl.buildStatusUpdateTemplate
+    private static String legacyStatusUpdate(String applicantName, String status, String message) {
+        String statusColor = switch (status.toUpperCase()) {
+            case "APPROVED" -> "#4caf50";
+            case "REJECTED" -> "#f44336";
+            case "PENDING" -> "#ff9800";
+            default -> "#2196f3";
+        };
+        String statusIcon = switch (status.toUpperCase()) {
+            case "APPROVED" -> "✅";
+            case "REJECTED" -> "❌";
+            case "PENDING" -> "⏳";
+            default -> "📋";
+        };
+        return """
+            <!DOCTYPE html>
+            <html>
+            <head>
+                <meta charset="UTF-8">
+                <title>Mise à jour de votre dossier</title>
+                <style>
+                    body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }
+                    .container { max-width: 600px; margin: 0 auto; padding: 20px; }
+                    .header { background: linear-gradient(135deg, #667eea 0%%, #764ba2 100%%); color: white; padding: 30px; text-align: center; border-radius: 10px 10px 0 0; }
+                    .content { background: #f9f9f9; padding: 30px; border-radius: 0 0 10px 10px; }
+                    .status-box { background: white; padding: 20px; border-left: 4px solid %s; margin: 20px 0; border-radius: 5px; }
+                    .footer { text-align: center; margin-top: 30px; color: #666; font-size: 12px; }
+                </style>
+            </head>
+            <body>
+                <div class="container">
+                    <div class="header">
+                        <h1>🎓 SIGEC</h1>
+                        <h2>Mise à jour de votre dossier</h2>
+                    </div>
+                    <div class="content">
+                        <p>Bonjour <strong>%s</strong>,</p>
+                        <div class="status-box">
+                            <h3>%s Nouveau statut : <span style="color: %s;">%s</span></h3>
+                            <p>%s</p>
+                        </div>
+                        <p>Vous pouvez consulter les détails complets dans votre espace personnel.</p>
+                        <p>Cordialement,<br><strong>L'équipe SIGEC</strong></p>
+                    </div>
+                    <div class="footer">
+                        <p>Cet email a été envoyé automatiquement, merci de ne pas y répondre.</p>
+                    </div>
+                </div>
+            </body>
+            </html>
+            """.formatted(statusColor, applicantName, statusIcon, statusColor, status, message);
+    }
+}
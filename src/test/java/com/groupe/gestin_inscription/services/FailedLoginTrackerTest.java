@@ -0,0 +1,83 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.repository.LoginAuditRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FailedLoginTrackerTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(15);
+
+    @Mock
+    private LoginAuditRepository loginAuditRepository;
+
+    private FailedLoginTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new FailedLoginTracker(loginAuditRepository, new SimpleMeterRegistry(), Duration.ofHours(1), 1000, 4);
+    }
+
+    @Test
+    void shouldCountFailuresPerUsernameAndPerIp() {
+        // When
+        tracker.recordFailure("alice", "10.0.0.1");
+        tracker.recordFailure("alice", "10.0.0.2");
+        tracker.recordFailure("bob", "10.0.0.1");
+
+        // Then
+        assertEquals(2, tracker.countUserFailures("alice", WINDOW));
+        assertEquals(2, tracker.countIpFailures("10.0.0.1", WINDOW));
+        assertEquals(0, tracker.countUserFailures("carol", WINDOW));
+        verifyNoInteractions(loginAuditRepository);
+    }
+
+    @Test
+    void shouldIgnoreFailuresOutsideWindowAfterWarmUp() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        when(loginAuditRepository.streamFailedLoginsSince(any())).thenReturn(Stream.of(
+                new Object[]{"alice", "10.0.0.1", now.minusMinutes(40)},
+                new Object[]{"alice", "10.0.0.1", now.minusMinutes(5)},
+                new Object[]{"alice", null, now.minusMinutes(1)}));
+
+        // When
+        tracker.warmUp();
+
+        // Then
+        assertEquals(2, tracker.countUserFailures("alice", WINDOW));
+        assertEquals(3, tracker.countUserFailures("alice", Duration.ofHours(1)));
+        assertEquals(1, tracker.countIpFailures("10.0.0.1", WINDOW));
+    }
+
+    @Test
+    void shouldKeepOnlyMostRecentFailuresPerKey() {
+        // When
+        for (int i = 0; i < 10; i++) {
+            tracker.recordFailure("alice", null);
+        }
+
+        // Then
+        assertEquals(4, tracker.countUserFailures("alice", WINDOW));
+    }
+
+    @Test
+    void shouldOnlyCoverWindowsWithinRetention() {
+        // Then
+        assertTrue(tracker.covers(WINDOW));
+        assertFalse(tracker.covers(Duration.ofHours(2)));
+    }
+}
@@ -0,0 +1,123 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.services.serviceImpl.DocumentSimilarityIndex;
+import com.groupe.gestin_inscription.services.serviceImpl.HammingBkTree;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HammingBkTreeTest {
+
+    @Test
+    void searchShouldMatchBruteForce() {
+        // Given
+        Random random = new Random(42);
+        long[] hashes = new long[20_000];
+        HammingBkTree tree = new HammingBkTree();
+        for (int i = 0; i < hashes.length; i++) {
+            // Quelques empreintes proches les unes des autres, comme des re-scans
+            hashes[i] = i % 10 == 0 && i > 0 ? flipBits(hashes[i - 1], random, 3) : random.nextLong();
+            tree.add(hashes[i], i, i / 5);
+        }
+
+        for (int q = 0; q < 200; q++) {
+            long query = flipBits(hashes[random.nextInt(hashes.length)], random, random.nextInt(8));
+
+            // When
+            Set<Long> found = tree.search(query, 6).stream()
+                    .map(HammingBkTree.Match::getDocumentId)
+                    .collect(Collectors.toCollection(TreeSet::new));
+
+            // Then
+            Set<Long> expected = new TreeSet<>();
+            for (int i = 0; i < hashes.length; i++) {
+                if (HammingBkTree.distance(hashes[i], query) <= 6) {
+                    expected.add((long) i);
+                }
+            }
+            assertEquals(expected, found);
+        }
+    }
+
+    @Test
+    void identicalHashesShouldShareANodeAndBeRemovable() {
+        // Given
+        HammingBkTree tree = new HammingBkTree();
+        tree.add(0xF0F0L, 1L, 10L);
+        tree.add(0xF0F0L, 2L, 20L);
+        tree.add(0xF0F1L, 3L, 30L);
+
+        // When
+        boolean removed = tree.remove(0xF0F0L, 1L);
+
+        // Then
+        assertTrue(removed);
+        assertEquals(2, tree.size());
+        Set<Long> found = tree.search(0xF0F0L, 1).stream()
+                .map(HammingBkTree.Match::getDocumentId)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of(2L, 3L), found);
+        assertFalse(tree.remove(0xF0F0L, 1L));
+    }
+
+    @Test
+    void addingSameDocumentTwiceShouldKeepOneEntry() {
+        // Given
+        HammingBkTree tree = new HammingBkTree();
+        tree.add(0xF0F0L, 1L, 10L);
+
+        // When
+        boolean added = tree.add(0xF0F0L, 1L, 10L);
+
+        // Then
+        assertFalse(added);
+        assertEquals(1, tree.size());
+        assertEquals(1, tree.search(0xF0F0L, 0).size());
+    }
+
+    @Test
+    void differenceHashShouldSurviveRescaling() {
+        // Given : un même document à deux résolutions
+        BufferedImage original = drawDocument(1200, 1600);
+        BufferedImage rescaled = new BufferedImage(600, 800, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rescaled.createGraphics();
+        graphics.drawImage(original, 0, 0, 600, 800, null);
+        graphics.dispose();
+
+        // When
+        long a = DocumentSimilarityIndex.differenceHash(original);
+        long b = DocumentSimilarityIndex.differenceHash(rescaled);
+
+        // Then
+        assertTrue(HammingBkTree.distance(a, b) <= 6);
+    }
+
+    private static long flipBits(long hash, Random random, int count) {
+        for (int i = 0; i < count; i++) {
+            hash ^= 1L << random.nextInt(64);
+        }
+        return hash;
+    }
+
+    private static BufferedImage drawDocument(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, width, height);
+        graphics.setColor(Color.DARK_GRAY);
+        for (int i = 0; i < 12; i++) {
+            graphics.fillRect(width / 10 + (i % 3) * width / 5, height / 12 * i, width / (3 + i % 4), height / 30);
+        }
+        graphics.fillOval(width / 2, height / 2, width / 3, height / 4);
+        graphics.dispose();
+        return image;
+    }
+}
@@ -0,0 +1,128 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.services.serviceImpl.SchedulerLockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LoginAuditPartitionManagerTest {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("'y'yyyy'm'MM");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private SchedulerLockService schedulerLockService;
+
+    private LoginAuditPartitionManager partitionManager;
+
+    @BeforeEach
+    void setUp() {
+        partitionManager = new LoginAuditPartitionManager(jdbcTemplate, transactionManager, schedulerLockService, 12, 3);
+    }
+
+    @Test
+    void shouldCreateMissingMonthsAndDropExpiredPartitions() {
+        // Given
+        YearMonth current = YearMonth.now();
+        String historical = "login_audit_upto_" + current.plusMonths(1).format(SUFFIX);
+        String expired = "login_audit_" + current.minusMonths(24).format(SUFFIX);
+        String kept = "login_audit_" + current.minusMonths(6).format(SUFFIX);
+        when(jdbcTemplate.queryForObject(anyString(), eq(String.class), any())).thenReturn("p");
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any())).thenReturn(List.of(historical, expired, kept));
+
+        // When
+        partitionManager.doMaintain();
+
+        // Then
+        verify(jdbcTemplate, times(3)).execute(startsWith("CREATE TABLE IF NOT EXISTS login_audit_y"));
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS login_audit_" + current.plusMonths(3).format(SUFFIX)
+                + " PARTITION OF login_audit FOR VALUES FROM ('" + current.plusMonths(3).atDay(1)
+                + "') TO ('" + current.plusMonths(4).atDay(1) + "')");
+        verify(jdbcTemplate).execute("ALTER TABLE login_audit DETACH PARTITION " + expired);
+        verify(jdbcTemplate).execute("DROP TABLE " + expired);
+        verify(jdbcTemplate, never()).execute("DROP TABLE " + kept);
+        verify(jdbcTemplate, never()).execute("DROP TABLE " + historical);
+    }
+
+    @Test
+    void shouldValidateBoundAndBuildIndexBeforeTakingTheLock() {
+        // Given
+        YearMonth current = YearMonth.now();
+        String bound = current.plusMonths(1).atDay(1).toString();
+        String historical = "login_audit_upto_" + current.plusMonths(1).format(SUFFIX);
+        when(jdbcTemplate.queryForObject(anyString(), eq(String.class), any())).thenReturn("r");
+        when(jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM login_audit", Long.class)).thenReturn(42L);
+
+        // When
+        partitionManager.doMaintain();
+
+        // Then
+        InOrder inOrder = inOrder(jdbcTemplate, transactionManager);
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE login_audit ADD CONSTRAINT login_audit_historical_bound "
+                + "CHECK (login_time < '" + bound + "') NOT VALID");
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE login_audit VALIDATE CONSTRAINT login_audit_historical_bound");
+        inOrder.verify(jdbcTemplate).execute("CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS login_audit_id_login_time_key "
+                + "ON login_audit (id, login_time)");
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(jdbcTemplate).execute("LOCK TABLE login_audit IN ACCESS EXCLUSIVE MODE");
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE " + historical + " ADD CONSTRAINT " + historical + "_pkey "
+                + "PRIMARY KEY USING INDEX login_audit_id_login_time_key");
+        inOrder.verify(jdbcTemplate).execute("CREATE SEQUENCE login_audit_partitioned_id_seq START WITH 42");
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE login_audit ATTACH PARTITION " + historical
+                + " FOR VALUES FROM (MINVALUE) TO ('" + bound + "')");
+        inOrder.verify(transactionManager).commit(any());
+        verify(jdbcTemplate, never()).execute(startsWith("DROP INDEX"));
+    }
+
+    @Test
+    void shouldLeaveMissingTableAlone() {
+        // Given
+        when(jdbcTemplate.queryForObject(anyString(), eq(String.class), any())).thenReturn(null);
+
+        // When
+        partitionManager.doMaintain();
+
+        // Then
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void shouldParsePartitionBounds() {
+        // When
+        LoginAuditPartitionManager.Partition monthly = LoginAuditPartitionManager.Partition.parse("login_audit_y2026m03");
+        LoginAuditPartitionManager.Partition historical = LoginAuditPartitionManager.Partition.parse("login_audit_upto_y2026m11");
+
+        // Then
+        assertTrue(monthly.covers(YearMonth.of(2026, 3)));
+        assertFalse(monthly.covers(YearMonth.of(2026, 4)));
+        assertTrue(historical.covers(YearMonth.of(2019, 1)));
+        assertFalse(historical.covers(YearMonth.of(2026, 11)));
+        assertNull(LoginAuditPartitionManager.Partition.parse("login_audit_default"));
+    }
+}
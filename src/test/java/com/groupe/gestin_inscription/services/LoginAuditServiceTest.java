@@ -0,0 +1,192 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.dto.response.LoginAuditPageDto;
+import com.groupe.gestin_inscription.model.LoginAudit;
+import com.groupe.gestin_inscription.repository.LoginAuditRepository;
+import com.groupe.gestin_inscription.security.Utils.ClientIpResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoginAuditServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 3, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2026, 3, 31, 0, 0);
+
+    @Mock
+    private LoginAuditRepository loginAuditRepository;
+
+    @Mock
+    private FailedLoginTracker failedLoginTracker;
+
+    @Mock
+    private LoginAuditWriter loginAuditWriter;
+
+    @Mock
+    private ClientIpResolver clientIpResolver;
+
+    private LoginAuditService loginAuditService;
+
+    @BeforeEach
+    void setUp() {
+        loginAuditService = new LoginAuditService(loginAuditRepository, failedLoginTracker, loginAuditWriter, clientIpResolver);
+    }
+
+    @Test
+    void shouldRoundTripCursor() {
+        // Given
+        LoginAudit last = audit(42L, LocalDateTime.of(2026, 3, 12, 8, 30, 15, 123_000_000));
+
+        // When
+        LoginAuditService.HistoryCursor cursor = LoginAuditService.decodeCursor(LoginAuditService.encodeCursor(last));
+
+        // Then
+        assertEquals(last.getLoginTime(), cursor.loginTime());
+        assertEquals(42L, cursor.id());
+    }
+
+    @Test
+    void shouldTreatMissingCursorAsFirstPage() {
+        assertNull(LoginAuditService.decodeCursor(null));
+        assertNull(LoginAuditService.decodeCursor(" "));
+    }
+
+    @Test
+    void shouldRejectMalformedCursors() {
+        for (String cursor : List.of("pas-un-curseur!", encode("sans-separateur"), encode("2026-03-12T08:30|abc"),
+                encode("hier|42"), encode("|42"))) {
+            assertThrows(IllegalArgumentException.class, () -> LoginAuditService.decodeCursor(cursor), cursor);
+        }
+    }
+
+    @Test
+    void shouldFetchOneExtraRowAndReturnNextCursor() {
+        // Given
+        List<LoginAudit> rows = audits(4);
+        when(loginAuditRepository.findPage(eq(FROM), eq(TO), eq(Long.MAX_VALUE), any())).thenReturn(rows);
+
+        // When
+        LoginAuditPageDto page = loginAuditService.getHistory(null, false, FROM, TO, null, 3);
+
+        // Then
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(loginAuditRepository).findPage(eq(FROM), eq(TO), eq(Long.MAX_VALUE), pageable.capture());
+        assertEquals(4, pageable.getValue().getPageSize());
+        assertEquals(3, page.getSize());
+        assertEquals(rows.subList(0, 3), page.getItems());
+        assertEquals(LoginAuditService.encodeCursor(rows.get(2)), page.getNextCursor());
+    }
+
+    @Test
+    void shouldEndOnShortPage() {
+        // Given
+        when(loginAuditRepository.findPage(any(), any(), anyLong(), any())).thenReturn(audits(3));
+
+        // When
+        LoginAuditPageDto page = loginAuditService.getHistory(null, false, FROM, TO, null, 3);
+
+        // Then
+        assertEquals(3, page.getSize());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void shouldResumeAfterCursor() {
+        // Given
+        LoginAudit last = audit(17L, TO.minusDays(2));
+        when(loginAuditRepository.findPage(any(), any(), anyLong(), any())).thenReturn(List.of());
+
+        // When
+        loginAuditService.getHistory(null, false, FROM, TO, LoginAuditService.encodeCursor(last), 10);
+
+        // Then
+        verify(loginAuditRepository).findPage(eq(FROM), eq(last.getLoginTime()), eq(17L), any());
+    }
+
+    @Test
+    void shouldQueryAllAttemptsWithoutFilter() {
+        // Given
+        when(loginAuditRepository.findPage(any(), any(), anyLong(), any())).thenReturn(List.of());
+
+        // When
+        loginAuditService.getHistory(" ", false, FROM, TO, null, 10);
+
+        // Then
+        verify(loginAuditRepository).findPage(eq(FROM), eq(TO), eq(Long.MAX_VALUE), any());
+        verifyNoMoreInteractions(loginAuditRepository);
+    }
+
+    @Test
+    void shouldQueryUserAttempts() {
+        // Given
+        when(loginAuditRepository.findPageForUsername(any(), any(), any(), anyLong(), any())).thenReturn(List.of());
+
+        // When
+        loginAuditService.getHistory("paul", false, FROM, TO, null, 10);
+
+        // Then
+        verify(loginAuditRepository).findPageForUsername(eq("paul"), eq(FROM), eq(TO), eq(Long.MAX_VALUE), any());
+        verifyNoMoreInteractions(loginAuditRepository);
+    }
+
+    @Test
+    void shouldQueryFailedAttempts() {
+        // Given
+        when(loginAuditRepository.findFailedPage(any(), any(), anyLong(), any())).thenReturn(List.of());
+
+        // When
+        loginAuditService.getHistory(null, true, FROM, TO, null, 10);
+
+        // Then
+        verify(loginAuditRepository).findFailedPage(eq(FROM), eq(TO), eq(Long.MAX_VALUE), any());
+        verifyNoMoreInteractions(loginAuditRepository);
+    }
+
+    @Test
+    void shouldQueryUserFailedAttempts() {
+        // Given
+        when(loginAuditRepository.findFailedPageForUsername(any(), any(), any(), anyLong(), any())).thenReturn(List.of());
+
+        // When
+        loginAuditService.getHistory("paul", true, FROM, TO, null, 10);
+
+        // Then
+        verify(loginAuditRepository).findFailedPageForUsername(eq("paul"), eq(FROM), eq(TO), eq(Long.MAX_VALUE), any());
+        verifyNoMoreInteractions(loginAuditRepository);
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<LoginAudit> audits(int count) {
+        // Ordre de la requête : la plus récente d'abord
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(i -> audit(100 - i, TO.minusMinutes(i)))
+                .toList();
+    }
+
+    private static LoginAudit audit(long id, LocalDateTime loginTime) {
+        return LoginAudit.builder()
+                .id(id)
+                .username("paul")
+                .loginTime(loginTime)
+                .success(true)
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.model.LoginAudit;
+import com.groupe.gestin_inscription.services.LoginAuditWriter.OverflowPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoginAuditWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginAuditWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            ReflectionTestUtils.invokeMethod(writer, "shutdown");
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldFlushOneBatchWhenBatchSizeReached() {
+        // Given
+        start(100, 3, OverflowPolicy.DROP_OLDEST);
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            writer.append(audit("user" + i));
+        }
+
+        // Then
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, timeout(1000)).batchUpdate(eq(LoginAuditWriter.INSERT_SQL), rows.capture());
+        assertEquals(List.of("user0", "user1", "user2"), rows.getValue().stream().map(row -> row[0]).toList());
+        assertEquals(3.0, meterRegistry.counter("login.audit.flushed").count());
+    }
+
+    @Test
+    void shouldDropOldestWhenBufferIsFull() {
+        // Given
+        start(2, 10, OverflowPolicy.DROP_OLDEST);
+
+        // When
+        writer.append(audit("a"));
+        writer.append(audit("b"));
+        writer.append(audit("c"));
+        ReflectionTestUtils.invokeMethod(writer, "flush");
+
+        // Then
+        verify(jdbcTemplate).batchUpdate(eq(LoginAuditWriter.INSERT_SQL),
+                argThat((List<Object[]> rows) -> rows.size() == 2 && "b".equals(rows.get(0)[0])));
+        assertEquals(1.0, meterRegistry.counter("login.audit.dropped", "reason", "overflow").count());
+    }
+
+    @Test
+    void shouldWriteFromCallerWhenBufferIsFullWithCallerRuns() {
+        // Given
+        start(2, 10, OverflowPolicy.CALLER_RUNS);
+
+        // When
+        writer.append(audit("a"));
+        writer.append(audit("b"));
+        writer.append(audit("c"));
+
+        // Then
+        verify(jdbcTemplate).batchUpdate(eq(LoginAuditWriter.INSERT_SQL), anyList());
+        assertEquals(0.0, meterRegistry.counter("login.audit.dropped", "reason", "overflow").count());
+    }
+
+    @Test
+    void shouldIsolateFailingRowWhenBatchFails() {
+        // Given
+        start(100, 10, OverflowPolicy.DROP_OLDEST);
+        when(jdbcTemplate.batchUpdate(eq(LoginAuditWriter.INSERT_SQL), anyList()))
+                .thenThrow(new DataIntegrityViolationException("valeur trop longue"));
+        when(jdbcTemplate.update(eq(LoginAuditWriter.INSERT_SQL), any(Object[].class)))
+                .thenReturn(1)
+                .thenThrow(new DataIntegrityViolationException("valeur trop longue"));
+
+        // When
+        writer.append(audit("ok"));
+        writer.append(audit("ko"));
+        ReflectionTestUtils.invokeMethod(writer, "flush");
+
+        // Then
+        assertEquals(1.0, meterRegistry.counter("login.audit.flushed").count());
+        assertEquals(1.0, meterRegistry.counter("login.audit.dropped", "reason", "error").count());
+    }
+
+    @Test
+    void shouldFlushPendingRecordsOnShutdown() {
+        // Given
+        start(100, 10, OverflowPolicy.DROP_OLDEST);
+        writer.append(audit("a"));
+
+        // When
+        ReflectionTestUtils.invokeMethod(writer, "shutdown");
+        writer = null;
+
+        // Then
+        verify(jdbcTemplate).batchUpdate(eq(LoginAuditWriter.INSERT_SQL), anyList());
+    }
+
+    private void start(int bufferSize, int batchSize, OverflowPolicy policy) {
+        meterRegistry = new SimpleMeterRegistry();
+        writer = new LoginAuditWriter(jdbcTemplate, transactionManager, meterRegistry, bufferSize, batchSize,
+                60_000L, policy);
+        ReflectionTestUtils.invokeMethod(writer, "init");
+    }
+
+    private static LoginAudit audit(String username) {
+        return LoginAudit.builder()
+                .username(username)
+                .ipAddress("10.0.0.1")
+                .loginMethod("LOCAL")
+                .loginTime(LocalDateTime.now())
+                .success(false)
+                .build();
+    }
+}
@@ -0,0 +1,195 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.dto.response.NotificationItemDto;
+import com.groupe.gestin_inscription.dto.response.NotificationPageDto;
+import com.groupe.gestin_inscription.model.Enums.NotificationType;
+import com.groupe.gestin_inscription.model.Notification;
+import com.groupe.gestin_inscription.model.NotificationUnreadCounter;
+import com.groupe.gestin_inscription.model.User;
+import com.groupe.gestin_inscription.repository.NotificationRepository;
+import com.groupe.gestin_inscription.repository.NotificationUnreadCounterRepository;
+import com.groupe.gestin_inscription.repository.UserRepository;
+import com.groupe.gestin_inscription.services.serviceImpl.NotificationServiceImpl;
+import com.groupe.gestin_inscription.services.serviceInterfaces.NotificationRelay;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationInboxTest {
+
+    private static final Long USER_ID = 12L;
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 2, 10, 0);
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationUnreadCounterRepository unreadCounterRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private NotificationRelay notificationRelay;
+
+    @InjectMocks
+    private NotificationServiceImpl notificationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(notificationService, "readRetentionDays", 90);
+        ReflectionTestUtils.setField(notificationService, "unreadRetentionDays", 365);
+        ReflectionTestUtils.setField(notificationService, "archiveBatchSize", 2);
+    }
+
+    @Test
+    void shouldReturnNextCursorAndResumeAfterLastRow() {
+        // Given
+        when(notificationRepository.findInbox(eq(USER_ID), any(Pageable.class))).thenReturn(items(10, 7));
+        when(unreadCounterRepository.findById(USER_ID)).thenReturn(Optional.of(new NotificationUnreadCounter(USER_ID, 4)));
+
+        // When
+        NotificationPageDto first = notificationService.getInbox(USER_ID, null, 3);
+        notificationService.getInbox(USER_ID, first.getNextCursor(), 3);
+
+        // Then
+        assertEquals(List.of(10L, 9L, 8L), first.getItems().stream().map(NotificationItemDto::getId).toList());
+        assertEquals(4, first.getUnreadCount());
+        assertNotNull(first.getNextCursor());
+        verify(notificationRepository).findInboxAfter(eq(USER_ID), eq(NOW.minusMinutes(2)), eq(8L), any(Pageable.class));
+    }
+
+    @Test
+    void shouldNotReturnCursorOnLastPage() {
+        // Given
+        when(notificationRepository.findInbox(eq(USER_ID), any(Pageable.class))).thenReturn(items(2, 1));
+
+        // When
+        NotificationPageDto page = notificationService.getInbox(USER_ID, null, 3);
+
+        // Then
+        assertEquals(2, page.getSize());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void shouldRejectInvalidCursor() {
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> notificationService.getInbox(USER_ID, "pas-un-curseur", 3));
+    }
+
+    @Test
+    void shouldMarkAllAsReadWithSingleUpdate() {
+        // Given
+        when(notificationRepository.markAllRead(USER_ID)).thenReturn(25);
+
+        // When
+        notificationService.markAllAsRead(USER_ID);
+
+        // Then
+        verify(notificationRepository, never()).findByUserId(any());
+        verify(notificationRepository, never()).saveAll(any());
+        verify(unreadCounterRepository).reset(USER_ID);
+    }
+
+    @Test
+    void shouldNotDecrementWhenNotificationNotOwnedOrAlreadyRead() {
+        // Given
+        when(notificationRepository.markRead(5L, USER_ID)).thenReturn(0);
+
+        // When
+        boolean updated = notificationService.markAsRead(USER_ID, 5L);
+
+        // Then
+        assertFalse(updated);
+        verifyNoInteractions(unreadCounterRepository);
+    }
+
+    @Test
+    void shouldFallBackToCountWhenCounterMissing() {
+        // Given
+        when(unreadCounterRepository.findById(USER_ID)).thenReturn(Optional.empty());
+        when(notificationRepository.countUnread(USER_ID)).thenReturn(3L);
+
+        // Then
+        assertEquals(3, notificationService.countUnread(USER_ID));
+    }
+
+    @Test
+    void shouldArchiveInBatchesThenRecountCounters() {
+        // Given
+        when(notificationRepository.archiveBatch(any(), any(), eq(2), any())).thenReturn(2, 2, 1);
+
+        // When
+        long archived = notificationService.archiveOldNotifications();
+
+        // Then
+        assertEquals(5, archived);
+        verify(notificationRepository, times(3)).archiveBatch(any(), any(), eq(2), any());
+        verify(unreadCounterRepository).recountAll();
+    }
+
+    @Test
+    void shouldInitializeMissingCounterThenCountNewNotification() {
+        // Given
+        givenUserAndSavedNotification();
+        when(unreadCounterRepository.increment(USER_ID)).thenReturn(0, 1);
+
+        // When
+        notificationService.createNotification(USER_ID, "Titre", "Message", NotificationType.INFO);
+
+        // Then
+        verify(unreadCounterRepository).initialize(USER_ID);
+        verify(unreadCounterRepository, times(2)).increment(USER_ID);
+    }
+
+    @Test
+    void shouldCountNotificationWhenCounterCreatedConcurrently() {
+        // Given
+        givenUserAndSavedNotification();
+        when(unreadCounterRepository.increment(USER_ID)).thenReturn(0, 1);
+        when(unreadCounterRepository.initialize(USER_ID)).thenThrow(new DuplicateKeyException("notification_unread_counter_pkey"));
+
+        // When
+        notificationService.createNotification(USER_ID, "Titre", "Message", NotificationType.INFO);
+
+        // Then
+        verify(unreadCounterRepository, times(2)).increment(USER_ID);
+        verify(notificationRelay).publish(any());
+    }
+
+    private void givenUserAndSavedNotification() {
+        User user = new User();
+        user.setId(USER_ID);
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+        when(notificationRepository.save(any(Notification.class))).thenAnswer(invocation -> {
+            Notification notification = invocation.getArgument(0);
+            notification.setId(99L);
+            return notification;
+        });
+    }
+
+    // Identifiants décroissants, une minute d'écart entre deux notifications
+    private static List<NotificationItemDto> items(long fromId, long toId) {
+        return LongStream.iterate(fromId, id -> id >= toId, id -> id - 1)
+                .mapToObj(id -> new NotificationItemDto(id, NotificationType.INFO, "Titre " + id, "Message",
+                        false, NOW.minusMinutes(fromId - id)))
+                .toList();
+    }
+}
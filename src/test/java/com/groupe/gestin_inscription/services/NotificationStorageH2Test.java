@@ -0,0 +1,139 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.model.Enums.NotificationStatus;
+import com.groupe.gestin_inscription.model.Enums.NotificationType;
+import com.groupe.gestin_inscription.model.Notification;
+import com.groupe.gestin_inscription.model.User;
+import com.groupe.gestin_inscription.repository.NotificationRepository;
+import com.groupe.gestin_inscription.repository.NotificationUnreadCounterRepository;
+import com.groupe.gestin_inscription.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Requêtes du compteur de non-lues, de l'archivage et de la résolution du login sur H2 (profil h2).
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationStorageH2Test {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 2, 10, 0);
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationUnreadCounterRepository unreadCounterRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM notification_archive");
+        notificationRepository.deleteAll();
+        unreadCounterRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void shouldInitializeCounterOnceThenIncrement() {
+        // Given
+        User user = user("paul", "paul@example.com");
+        notification(user, false);
+        notification(user, true);
+
+        // When
+        int missing = unreadCounterRepository.increment(user.getId());
+        int created = unreadCounterRepository.initialize(user.getId());
+        int again = unreadCounterRepository.initialize(user.getId());
+        unreadCounterRepository.increment(user.getId());
+
+        // Then
+        assertEquals(0, missing);
+        assertEquals(1, created);
+        assertEquals(0, again);
+        assertEquals(2, unreadCounterRepository.findById(user.getId()).orElseThrow().getUnreadCount());
+    }
+
+    @Test
+    void shouldMoveOldNotificationsToArchiveInBatches() {
+        // Given
+        User user = user("paul", "paul@example.com");
+        for (int i = 0; i < 3; i++) {
+            notification(user, true);
+        }
+        Notification recent = notification(user, true);
+        notification(user, false);
+        // Lues depuis 200 jours (archivées), non lue depuis 200 jours et lue d'hier (conservées)
+        jdbcTemplate.update("UPDATE notification SET date_creation = ? WHERE id <> ?", NOW.minusDays(200), recent.getId());
+        jdbcTemplate.update("UPDATE notification SET date_creation = ? WHERE id = ?", NOW.minusDays(1), recent.getId());
+
+        // When
+        int first = notificationRepository.archiveBatch(NOW.minusDays(90), NOW.minusDays(365), 2, NOW);
+        int second = notificationRepository.archiveBatch(NOW.minusDays(90), NOW.minusDays(365), 2, NOW);
+        int third = notificationRepository.archiveBatch(NOW.minusDays(90), NOW.minusDays(365), 2, NOW);
+
+        // Then
+        assertEquals(2, first);
+        assertEquals(1, second);
+        assertEquals(0, third);
+        assertEquals(2, notificationRepository.count());
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notification_archive", Integer.class));
+    }
+
+    @Test
+    void shouldPreferUsernameOverAnotherAccountsEmail() {
+        // Given
+        User byUsername = user("shared@example.com", "first@example.com");
+        User byEmail = user("second", "shared@example.com");
+
+        // When
+        Optional<Long> shared = userRepository.findIdByLogin("shared@example.com");
+        Optional<Long> emailOnly = userRepository.findIdByLogin("first@example.com");
+
+        // Then
+        assertEquals(Optional.of(byUsername.getId()), shared);
+        assertEquals(Optional.of(byUsername.getId()), emailOnly);
+        assertEquals(Optional.of(byEmail.getId()), userRepository.findIdByLogin("second"));
+        assertTrue(userRepository.findIdByLogin("inconnu").isEmpty());
+    }
+
+    private User user(String username, String email) {
+        User user = new User();
+        user.setFirstName("Paul");
+        user.setLastName("Kamga");
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPassword("secret");
+        return userRepository.save(user);
+    }
+
+    private Notification notification(User user, boolean read) {
+        Notification notification = new Notification();
+        notification.setUser(user);
+        notification.setTitre("Mise à jour");
+        notification.setMessage("Votre dossier a changé de statut");
+        notification.setType(NotificationType.INFO);
+        notification.setStatus(NotificationStatus.SENT);
+        notification.setRead(read);
+        return notificationRepository.save(notification);
+    }
+}
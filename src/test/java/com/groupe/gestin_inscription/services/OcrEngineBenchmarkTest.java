@@ -0,0 +1,78 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.services.serviceImpl.OcrEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mesure le débit de l'OCR (pages/seconde) sur un corpus local, pour dimensionner
+ * le matériel avant les pics de dépôt. Désactivé par défaut ; lancer par exemple :
+ * mvn test -Dtest=OcrEngineBenchmarkTest -Docr.benchmark.corpus=/chemin/corpus
+ *   [-Docr.benchmark.tessdata=/usr/share/tesseract-ocr/5/tessdata] [-Docr.benchmark.threads=8]
+ */
+@EnabledIfSystemProperty(named = "ocr.benchmark.corpus", matches = ".+")
+class OcrEngineBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 1;
+
+    @Test
+    void reportPagesPerSecond() throws Exception {
+        // Given
+        Path corpus = Path.of(System.getProperty("ocr.benchmark.corpus"));
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(corpus)) {
+            files = paths.filter(Files::isRegularFile)
+                    .filter(p -> p.toString().toLowerCase().matches(".*\\.(pdf|png|jpe?g|jfif|gif)$"))
+                    .toList();
+        }
+        assertTrue(!files.isEmpty(), "Corpus vide: " + corpus);
+
+        int threads = Integer.getInteger("ocr.benchmark.threads", Runtime.getRuntime().availableProcessors());
+        OcrEngine engine = new OcrEngine(
+                System.getProperty("ocr.benchmark.tessdata", "/usr/share/tesseract-ocr/5/tessdata"),
+                System.getProperty("ocr.benchmark.language", "fra+eng"),
+                threads, 300, 5, 3500, 60_000);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                runCorpus(engine, executor, files);
+            }
+
+            // When
+            long start = System.nanoTime();
+            int pages = runCorpus(engine, executor, files);
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            // Then
+            System.out.printf("OCR: %d fichiers, %d pages en %.2f s avec %d threads -> %.2f pages/s%n",
+                    files.size(), pages, seconds, threads, pages / seconds);
+            assertTrue(pages > 0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private int runCorpus(OcrEngine engine, ExecutorService executor, List<Path> files) throws Exception {
+        List<Future<OcrEngine.OcrResult>> results = new ArrayList<>();
+        for (Path file : files) {
+            results.add(executor.submit(() -> engine.recognize(file)));
+        }
+        int pages = 0;
+        for (Future<OcrEngine.OcrResult> result : results) {
+            pages += result.get().getPages();
+        }
+        return pages;
+    }
+}
@@ -0,0 +1,78 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.repository.DocumentRepository;
+import com.groupe.gestin_inscription.services.serviceImpl.ChunkedJobRunner;
+import com.groupe.gestin_inscription.services.serviceImpl.DocumentManagerService;
+import com.groupe.gestin_inscription.services.serviceImpl.DocumentSimilarityIndex;
+import com.groupe.gestin_inscription.services.serviceImpl.PerceptualHashBackfill;
+import com.groupe.gestin_inscription.services.serviceImpl.SchedulerLockService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PerceptualHashBackfillTest {
+
+    private static final long HASH = 0xF0F0F0F0L;
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private DocumentManagerService documentManagerService;
+
+    @Mock
+    private DocumentSimilarityIndex similarityIndex;
+
+    @Mock
+    private ChunkedJobRunner chunkedJobRunner;
+
+    @Mock
+    private SchedulerLockService schedulerLockService;
+
+    @InjectMocks
+    private PerceptualHashBackfill backfill;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldHashDocumentsWithoutFingerprintUnderLock() {
+        // Given
+        when(schedulerLockService.runExclusively(eq("perceptual-hash-backfill"), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        });
+        when(chunkedJobRunner.run(eq("perceptual-hash-backfill"), any(), any(), any())).thenAnswer(invocation -> {
+            ChunkedJobRunner.ChunkReader<Object[]> reader = invocation.getArgument(1);
+            ToLongFunction<Object[]> idOf = invocation.getArgument(2);
+            Consumer<Object[]> processor = invocation.getArgument(3);
+            List<Object[]> chunk = reader.read(LocalDateTime.now(), 0L, 200);
+            chunk.forEach(processor);
+            assertEquals(2L, idOf.applyAsLong(chunk.get(1)));
+            return (long) chunk.size();
+        });
+        when(documentRepository.findMissingPerceptualHashChunk(eq(0L), any()))
+                .thenReturn(List.of(new Object[]{1L, 10L, "/data/cni.png"}, new Object[]{2L, 20L, "/data/illisible.pdf"}));
+        when(documentManagerService.computePerceptualHash("/data/cni.png")).thenReturn(HASH);
+        when(documentManagerService.computePerceptualHash("/data/illisible.pdf")).thenReturn(null);
+
+        // When
+        backfill.backfill();
+
+        // Then
+        verify(documentRepository).updatePerceptualHash(1L, HASH);
+        verify(similarityIndex).add(1L, 10L, HASH);
+        verify(documentRepository, never()).updatePerceptualHash(eq(2L), any());
+        verify(similarityIndex, never()).add(eq(2L), any(), any());
+    }
+}
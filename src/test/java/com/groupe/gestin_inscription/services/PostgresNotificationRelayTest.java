@@ -0,0 +1,129 @@
+package com.groupe.gestin_inscription.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.groupe.gestin_inscription.dto.response.RealtimeNotificationDto;
+import com.groupe.gestin_inscription.model.Enums.NotificationType;
+import com.groupe.gestin_inscription.services.serviceImpl.PostgresNotificationRelay;
+import com.groupe.gestin_inscription.services.serviceImpl.RealtimeNotificationDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostgresNotificationRelayTest {
+
+    private static final String CHANNEL = "sigec_notifications";
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    @Mock
+    private RealtimeNotificationDispatcher dispatcher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PostgresNotificationRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new PostgresNotificationRelay(dataSource, new ObjectMapper(), dispatcher, meterRegistry);
+        ReflectionTestUtils.setField(relay, "channel", CHANNEL);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldNotifyOnSeparateConnectionOnlyAfterCommit() throws SQLException {
+        // Given
+        givenConnection();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        relay.publish(notification());
+
+        // Then
+        verifyNoInteractions(dataSource);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(statement).setString(1, CHANNEL);
+        verify(statement).execute();
+        verify(connection).close();
+        assertEquals(1.0, meterRegistry.counter("notifications.realtime.relayed").count());
+    }
+
+    @Test
+    void shouldNotNotifyWhenTransactionRollsBack() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        relay.publish(notification());
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Then
+        verifyNoInteractions(dataSource);
+    }
+
+    @Test
+    void shouldSwallowNotifyFailureAfterCommit() throws SQLException {
+        // Given
+        when(dataSource.getConnection()).thenThrow(new SQLException("connexion refusée"));
+        TransactionSynchronizationManager.initSynchronization();
+        relay.publish(notification());
+
+        // When / Then
+        assertDoesNotThrow(() -> TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit));
+        assertEquals(0.0, meterRegistry.counter("notifications.realtime.relayed").count());
+    }
+
+    @Test
+    void shouldNotifyImmediatelyOutsideTransaction() throws SQLException {
+        // Given
+        givenConnection();
+
+        // When
+        relay.publish(notification());
+
+        // Then
+        verify(statement).setString(eq(2), contains("\"userId\":42"));
+        verify(statement).execute();
+    }
+
+    private void givenConnection() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement("SELECT pg_notify(?, ?)")).thenReturn(statement);
+    }
+
+    private RealtimeNotificationDto notification() {
+        return new RealtimeNotificationDto(7L, 42L, NotificationType.INFO, "Dossier", "Votre dossier a été validé",
+                System.currentTimeMillis());
+    }
+}
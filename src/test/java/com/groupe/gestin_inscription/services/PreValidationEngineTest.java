@@ -0,0 +1,211 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.config.ProductionReadyConfig;
+import com.groupe.gestin_inscription.model.Document;
+import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import com.groupe.gestin_inscription.model.Enums.PreValidationJobStatus;
+import com.groupe.gestin_inscription.model.PreValidationJob;
+import com.groupe.gestin_inscription.repository.DocumentRepository;
+import com.groupe.gestin_inscription.repository.PreValidationJobRepository;
+import com.groupe.gestin_inscription.services.serviceImpl.ApplicationServiceImpl;
+import com.groupe.gestin_inscription.services.serviceImpl.DocumentManagerService;
+import com.groupe.gestin_inscription.services.serviceImpl.DocumentServiceImpl;
+import com.groupe.gestin_inscription.services.serviceImpl.DocumentSimilarityIndex;
+import com.groupe.gestin_inscription.services.serviceImpl.OcrEngine;
+import com.groupe.gestin_inscription.services.serviceImpl.PreValidationEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PreValidationEngineTest {
+
+    private static final long JOB_ID = 5L;
+    private static final long APPLICATION_ID = 31L;
+
+    @TempDir
+    Path storage;
+
+    @Mock
+    private PreValidationJobRepository jobRepository;
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private ApplicationServiceImpl applicationService;
+
+    @Mock
+    private OcrEngine ocrEngine;
+
+    @Mock
+    private DocumentSimilarityIndex similarityIndex;
+
+    private PreValidationEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        DocumentManagerService documentManagerService = new DocumentManagerService(documentRepository, ocrEngine, similarityIndex);
+        ReflectionTestUtils.setField(documentManagerService, "validationConfig",
+                ProductionReadyConfig.DocumentValidationConfig.builder().ocrEnabled(true).maxFileSize(1024 * 1024).build());
+        DocumentServiceImpl documentService = new DocumentServiceImpl();
+        ReflectionTestUtils.setField(documentService, "documentManagerService", documentManagerService);
+
+        engine = new PreValidationEngine(jobRepository, documentRepository, documentService, applicationService,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(engine, "poolSize", 2);
+        ReflectionTestUtils.setField(engine, "queueCapacity", 10);
+        ReflectionTestUtils.setField(engine, "maxInFlight", 4);
+        ReflectionTestUtils.setField(engine, "maxAttempts", 3);
+        ReflectionTestUtils.setField(engine, "lease", Duration.ofMinutes(5));
+        ReflectionTestUtils.invokeMethod(engine, "init");
+        ReflectionTestUtils.setField(engine, "started", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(engine, "shutdown");
+    }
+
+    @Test
+    void shouldRetryInsteadOfRejectingWhenOcrIsUnavailable() throws Exception {
+        // Given
+        givenClaimedJobWithTranscript(0);
+        when(ocrEngine.recognize(any())).thenThrow(new IOException("Aucune instance OCR disponible après 30000 ms"));
+
+        // When
+        engine.poll();
+
+        // Then
+        verify(jobRepository, timeout(5000)).finish(eq(JOB_ID), eq(PreValidationJobStatus.PENDING), isNull(),
+                contains("Aucune instance OCR disponible"));
+        verify(documentRepository, never()).updateValidationResult(any(), any(), any());
+        verify(applicationService, never()).updateApplicationStatus(any(), any(ApplicationStatus.class), any());
+    }
+
+    @Test
+    void shouldMarkJobFailedWithoutRejectingAfterLastAttempt() throws Exception {
+        // Given
+        givenClaimedJobWithTranscript(2);
+        when(ocrEngine.recognize(any())).thenThrow(new IllegalStateException("Initialisation de Tesseract impossible"));
+
+        // When
+        engine.poll();
+
+        // Then
+        verify(jobRepository, timeout(5000)).finish(eq(JOB_ID), eq(PreValidationJobStatus.FAILED), notNull(), anyString());
+        verify(applicationService, never()).updateApplicationStatus(any(), any(ApplicationStatus.class), any());
+    }
+
+    @Test
+    void shouldRequeueOnlyJobsWhoseLeaseExpired() {
+        // When
+        engine.recoverInterruptedJobs();
+
+        // Then
+        verify(jobRepository).requeueExpired(any(), eq(PreValidationJobStatus.RUNNING), eq(PreValidationJobStatus.PENDING));
+        verify(jobRepository, never()).claim(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldClaimWithLeaseAndExtendItWhileRunning() throws Exception {
+        // Given
+        givenClaimedJobWithTranscript(0);
+        CountDownLatch release = new CountDownLatch(1);
+        when(ocrEngine.recognize(any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new OcrEngine.OcrResult("Relevé de notes Licence 1 Informatique", 1, 0);
+        });
+        LocalDateTime before = LocalDateTime.now();
+
+        // When
+        engine.poll();
+        engine.heartbeat();
+        release.countDown();
+
+        // Then
+        ArgumentCaptor<LocalDateTime> leaseUntil = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(jobRepository).claim(eq(JOB_ID), any(), leaseUntil.capture(),
+                eq(PreValidationJobStatus.PENDING), eq(PreValidationJobStatus.RUNNING));
+        assertFalse(leaseUntil.getValue().isBefore(before.plusMinutes(5)));
+        verify(jobRepository).extendLease(eq(Set.of(JOB_ID)), any(), eq(PreValidationJobStatus.RUNNING));
+        verify(jobRepository, timeout(5000)).finish(eq(JOB_ID), any(), any(), any());
+    }
+
+    @Test
+    void shouldSkipPollWhenPoolQueueIsFull() {
+        // Given
+        ReflectionTestUtils.invokeMethod(engine, "shutdown");
+        ReflectionTestUtils.setField(engine, "poolSize", 1);
+        ReflectionTestUtils.setField(engine, "queueCapacity", 1);
+        ReflectionTestUtils.invokeMethod(engine, "init");
+        ReflectionTestUtils.setField(engine, "started", true);
+        CountDownLatch release = new CountDownLatch(1);
+        ThreadPoolTaskExecutor executor = (ThreadPoolTaskExecutor) ReflectionTestUtils.getField(engine, "executor");
+        executor.execute(() -> await(release));
+        executor.execute(() -> await(release));
+        when(jobRepository.countByStatus(PreValidationJobStatus.PENDING)).thenReturn(1L);
+
+        // When
+        engine.poll();
+        release.countDown();
+
+        // Then
+        verify(jobRepository, never()).findByStatusOrderByCreatedAtAsc(any(), any());
+        verify(jobRepository, never()).claim(any(), any(), any(), any(), any());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void givenClaimedJobWithTranscript(int previousAttempts) throws IOException {
+        Path file = storage.resolve("releve.png");
+        ImageIO.write(new BufferedImage(300, 400, BufferedImage.TYPE_BYTE_GRAY), "png", file.toFile());
+        Document transcript = new Document();
+        transcript.setId(9L);
+        transcript.setName("Relevé de notes");
+        transcript.setFilePath(file.toString());
+        transcript.setFileSizeMB(0.01);
+
+        PreValidationJob job = PreValidationJob.builder()
+                .id(JOB_ID)
+                .applicationId(APPLICATION_ID)
+                .status(PreValidationJobStatus.PENDING)
+                .attempts(previousAttempts)
+                .createdAt(LocalDateTime.now())
+                .build();
+        when(jobRepository.countByStatus(PreValidationJobStatus.PENDING)).thenReturn(1L);
+        when(jobRepository.findByStatusOrderByCreatedAtAsc(eq(PreValidationJobStatus.PENDING), any())).thenReturn(List.of(job));
+        when(jobRepository.claim(eq(JOB_ID), any(), any(), eq(PreValidationJobStatus.PENDING), eq(PreValidationJobStatus.RUNNING)))
+                .thenReturn(1);
+        when(documentRepository.findByApplicationId(APPLICATION_ID)).thenReturn(List.of(transcript));
+    }
+}
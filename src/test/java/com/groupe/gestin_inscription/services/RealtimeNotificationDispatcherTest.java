@@ -0,0 +1,105 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.dto.response.RealtimeNotificationDto;
+import com.groupe.gestin_inscription.model.Enums.NotificationType;
+import com.groupe.gestin_inscription.services.serviceImpl.RealtimeNotificationDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RealtimeNotificationDispatcherTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private SimpUserRegistry userRegistry;
+
+    @Mock
+    private SimpUser connectedUser;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RealtimeNotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new RealtimeNotificationDispatcher(messagingTemplate, userRegistry, meterRegistry);
+        ReflectionTestUtils.setField(dispatcher, "coalesceWindowMs", 100L);
+        ReflectionTestUtils.setField(dispatcher, "maxBatch", 3);
+        ReflectionTestUtils.invokeMethod(dispatcher, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(dispatcher, "shutdown");
+    }
+
+    @Test
+    void shouldCoalesceBurstIntoOneMessage() {
+        // Given
+        when(userRegistry.getUser("42")).thenReturn(connectedUser);
+
+        // When
+        dispatcher.deliver(notification(1L, 42L));
+        dispatcher.deliver(notification(2L, 42L));
+
+        // Then
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, timeout(1000).times(1))
+                .convertAndSendToUser(eq("42"), eq(RealtimeNotificationDispatcher.USER_DESTINATION), payload.capture());
+        assertEquals(List.of(1L, 2L), ((List<?>) payload.getValue()).stream()
+                .map(item -> ((RealtimeNotificationDto) item).getId()).toList());
+        assertEquals(1.0, meterRegistry.counter("notifications.realtime.coalesced").count());
+    }
+
+    @Test
+    void shouldFlushImmediatelyWhenBatchIsFull() {
+        // Given
+        when(userRegistry.getUser("42")).thenReturn(connectedUser);
+        ReflectionTestUtils.setField(dispatcher, "coalesceWindowMs", 60_000L);
+
+        // When
+        dispatcher.deliver(notification(1L, 42L));
+        dispatcher.deliver(notification(2L, 42L));
+        dispatcher.deliver(notification(3L, 42L));
+
+        // Then
+        verify(messagingTemplate, timeout(1000).times(1))
+                .convertAndSendToUser(eq("42"), eq(RealtimeNotificationDispatcher.USER_DESTINATION), any(Object.class));
+    }
+
+    @Test
+    void shouldIgnoreUsersNotConnectedToThisNode() throws InterruptedException {
+        // Given
+        when(userRegistry.getUser("7")).thenReturn(null);
+
+        // When
+        dispatcher.deliver(notification(1L, 7L));
+        Thread.sleep(200);
+
+        // Then
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    private static RealtimeNotificationDto notification(Long id, Long userId) {
+        return new RealtimeNotificationDto(id, userId, NotificationType.INFO, "Statut", "Votre dossier a changé",
+                System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,137 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.dto.response.ReviewQueueItemDto;
+import com.groupe.gestin_inscription.model.Administrator;
+import com.groupe.gestin_inscription.model.Application;
+import com.groupe.gestin_inscription.model.Document;
+import com.groupe.gestin_inscription.model.Enums.ApplicationStatus;
+import com.groupe.gestin_inscription.model.Enums.ValidationStatus;
+import com.groupe.gestin_inscription.model.User;
+import com.groupe.gestin_inscription.services.serviceImpl.ApplicationListingService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(ApplicationListingService.class)
+class ReviewQueueQueryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 2, 10, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationListingService applicationListingService;
+
+    @Test
+    void shouldIssueSameNumberOfQueriesWhateverTheQueueSize() {
+        // Given
+        Administrator agent = entityManager.persist(Administrator.builder().userName("agent1").email("agent1@sigec.com").build());
+        createApplications(3, agent);
+        long smallQueue = statementsFor(100);
+
+        createApplications(40, agent);
+        long largeQueue = statementsFor(100);
+
+        // Then
+        assertEquals(smallQueue, largeQueue);
+        assertTrue(largeQueue <= 2, "une requête pour la page, une pour le total");
+    }
+
+    @Test
+    void shouldCountDocumentsPerStatusAndSortOldestFirst() {
+        // Given
+        Administrator agent = entityManager.persist(Administrator.builder().userName("agent1").email("agent1@sigec.com").build());
+        Application recent = application(user("recent"), agent, ApplicationStatus.MANUAL_REVIEW, NOW.minusHours(1));
+        Application oldest = application(user("oldest"), null, ApplicationStatus.UNDER_REVIEW, NOW.minusDays(3));
+        document(oldest, ValidationStatus.VALIDATED);
+        document(oldest, ValidationStatus.PENDING);
+        document(oldest, ValidationStatus.PENDING);
+        application(user("approved"), agent, ApplicationStatus.APPROVED, NOW.minusDays(5));
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        Page<ReviewQueueItemDto> page = applicationListingService.reviewQueue(0, 10);
+
+        // Then
+        assertEquals(2, page.getTotalElements());
+        ReviewQueueItemDto first = page.getContent().get(0);
+        assertEquals(oldest.getId(), first.getId());
+        assertEquals("oldest", first.getApplicantFirstName());
+        assertNull(first.getAssignedAgentUserName());
+        assertEquals(3L, first.getDocumentsTotal());
+        assertEquals(1L, first.getDocumentsValidated());
+        assertEquals(2L, first.getDocumentsPending());
+        assertEquals(0L, first.getDocumentsRejected());
+        ReviewQueueItemDto second = page.getContent().get(1);
+        assertEquals(recent.getId(), second.getId());
+        assertEquals("agent1", second.getAssignedAgentUserName());
+        assertEquals(0L, second.getDocumentsTotal());
+    }
+
+    private long statementsFor(int pageSize) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        applicationListingService.reviewQueue(0, pageSize);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void createApplications(int count, Administrator agent) {
+        for (int i = 0; i < count; i++) {
+            Application application = application(user("candidat" + System.nanoTime()), agent,
+                    i % 2 == 0 ? ApplicationStatus.UNDER_REVIEW : ApplicationStatus.MANUAL_REVIEW, NOW.minusHours(i));
+            document(application, ValidationStatus.PENDING);
+            document(application, ValidationStatus.VALIDATED);
+        }
+    }
+
+    private User user(String firstName) {
+        User user = new User();
+        user.setFirstName(firstName);
+        user.setLastName("Test");
+        user.setUsername(firstName + "@example.com");
+        user.setEmail(firstName + "@example.com");
+        user.setPassword("secret");
+        return entityManager.persist(user);
+    }
+
+    private Application application(User applicant, Administrator agent, ApplicationStatus status, LocalDateTime submittedAt) {
+        Application application = new Application();
+        application.setApplicantName(applicant);
+        application.setAssignedAdmin(agent);
+        application.setStatus(status);
+        application.setSubmissionDate(submittedAt);
+        application.setLastUpdated(submittedAt);
+        return entityManager.persist(application);
+    }
+
+    private void document(Application application, ValidationStatus status) {
+        Document document = new Document();
+        document.setName("Relevé de notes");
+        document.setValidationStatus(status);
+        document.setApplication(application);
+        entityManager.persist(document);
+    }
+}
@@ -0,0 +1,79 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.repository.SchedulerLockRepository;
+import com.groupe.gestin_inscription.services.serviceImpl.SchedulerLockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verrous sur H2 (profil h2) : les requêtes du repository doivent rester du SQL standard.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SchedulerLockH2Test {
+
+    private static final String JOB = "weekly-report";
+
+    @Autowired
+    private SchedulerLockRepository lockRepository;
+
+    private SchedulerLockService first;
+    private SchedulerLockService second;
+
+    @BeforeEach
+    void setUp() {
+        first = lockService();
+        second = lockService();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(first, "shutdown");
+        ReflectionTestUtils.invokeMethod(second, "shutdown");
+        lockRepository.deleteAll();
+    }
+
+    @Test
+    void shouldCreateLockOnceAndSkipOtherReplica() {
+        // Given
+        AtomicInteger runs = new AtomicInteger();
+
+        // When
+        boolean ranFirst = first.runExclusively(JOB, () -> {
+            runs.incrementAndGet();
+            // Seconde réplique pendant que la première détient le verrou (ligne absente au départ)
+            assertFalse(second.runExclusively(JOB, runs::incrementAndGet));
+        });
+        boolean ranAgain = second.runExclusively(JOB, runs::incrementAndGet);
+
+        // Then
+        assertTrue(ranFirst);
+        assertFalse(ranAgain, "verrou conservé pendant min-hold après la fin");
+        assertEquals(1, runs.get());
+        assertEquals(1, lockRepository.count());
+    }
+
+    private SchedulerLockService lockService() {
+        SchedulerLockService lockService = new SchedulerLockService(lockRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(lockService, "lease", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(lockService, "minHold", Duration.ofMinutes(1));
+        ReflectionTestUtils.invokeMethod(lockService, "init");
+        return lockService;
+    }
+}
@@ -0,0 +1,163 @@
+package com.groupe.gestin_inscription.services;
+
+import com.groupe.gestin_inscription.repository.SchedulerLockRepository;
+import com.groupe.gestin_inscription.services.serviceImpl.SchedulerLockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SchedulerLockServiceTest {
+
+    private static final String JOB = "weekly-report";
+
+    @Mock
+    private SchedulerLockRepository lockRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SchedulerLockService lockService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lockService = new SchedulerLockService(lockRepository, meterRegistry);
+        ReflectionTestUtils.setField(lockService, "lease", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(lockService, "minHold", Duration.ofMinutes(1));
+        ReflectionTestUtils.invokeMethod(lockService, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(lockService, "shutdown");
+    }
+
+    @Test
+    void shouldRunTaskAndKeepLockForMinimumHold() {
+        // Given
+        when(lockRepository.acquire(eq(JOB), eq(lockService.getOwner()), any(), any())).thenReturn(1);
+        AtomicBoolean ran = new AtomicBoolean();
+        LocalDateTime before = LocalDateTime.now();
+
+        // When
+        boolean executed = lockService.runExclusively(JOB, () -> ran.set(true));
+
+        // Then
+        assertTrue(executed);
+        assertTrue(ran.get());
+        ArgumentCaptor<LocalDateTime> until = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(lockRepository).release(eq(JOB), eq(lockService.getOwner()), until.capture());
+        assertFalse(until.getValue().isBefore(before.plusMinutes(1)));
+        assertEquals(1.0, meterRegistry.counter("scheduler.lock.acquisitions", "name", JOB, "outcome", "acquired").count());
+    }
+
+    @Test
+    void shouldKeepLockForPeriodOfNonAlignedJob() {
+        // Given
+        when(lockRepository.acquire(eq(JOB), eq(lockService.getOwner()), any(), any())).thenReturn(1);
+        LocalDateTime before = LocalDateTime.now();
+
+        // When
+        lockService.runExclusively(JOB, Duration.ofMinutes(27), () -> { });
+
+        // Then
+        ArgumentCaptor<LocalDateTime> until = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(lockRepository).release(eq(JOB), eq(lockService.getOwner()), until.capture());
+        assertFalse(until.getValue().isBefore(before.plusMinutes(27)));
+        assertTrue(until.getValue().isBefore(before.plusMinutes(28)));
+    }
+
+    @Test
+    void shouldCreateLockRowOnFirstRun() {
+        // Given
+        when(lockRepository.acquire(eq(JOB), anyString(), any(), any())).thenReturn(0);
+        when(lockRepository.insert(eq(JOB), anyString(), any(), any())).thenReturn(1);
+
+        // When
+        boolean executed = lockService.runExclusively(JOB, () -> { });
+
+        // Then
+        assertTrue(executed);
+    }
+
+    @Test
+    void shouldSkipWhenAnotherReplicaHoldsLock() {
+        // Given
+        when(lockRepository.acquire(eq(JOB), anyString(), any(), any())).thenReturn(0);
+        when(lockRepository.insert(eq(JOB), anyString(), any(), any()))
+                .thenThrow(new DuplicateKeyException("scheduler_lock_pkey"));
+        AtomicBoolean ran = new AtomicBoolean();
+
+        // When
+        boolean executed = lockService.runExclusively(JOB, () -> ran.set(true));
+
+        // Then
+        assertFalse(executed);
+        assertFalse(ran.get());
+        verify(lockRepository, never()).release(anyString(), anyString(), any());
+        assertEquals(1.0, meterRegistry.counter("scheduler.lock.acquisitions", "name", JOB, "outcome", "skipped").count());
+    }
+
+    @Test
+    void shouldSkipWhenDatabaseUnavailable() {
+        // Given
+        when(lockRepository.acquire(eq(JOB), anyString(), any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("connexion refusée"));
+
+        // When
+        boolean executed = lockService.runExclusively(JOB, () -> fail("ne doit pas s'exécuter"));
+
+        // Then
+        assertFalse(executed);
+    }
+
+    @Test
+    void shouldReleaseLockWhenTaskFails() {
+        // Given
+        when(lockRepository.acquire(eq(JOB), anyString(), any(), any())).thenReturn(1);
+
+        // When
+        assertThrows(IllegalStateException.class,
+                () -> lockService.runExclusively(JOB, () -> { throw new IllegalStateException("échec"); }));
+
+        // Then
+        verify(lockRepository).release(eq(JOB), eq(lockService.getOwner()), any());
+    }
+
+    @Test
+    void shouldRenewLeaseDuringLongRun() {
+        // Given
+        ReflectionTestUtils.setField(lockService, "lease", Duration.ofMillis(150));
+        when(lockRepository.acquire(eq(JOB), anyString(), any(), any())).thenReturn(1);
+        when(lockRepository.extend(eq(JOB), eq(lockService.getOwner()), any(), any())).thenReturn(1);
+
+        // When
+        lockService.runExclusively(JOB, () -> sleep(400));
+
+        // Then
+        verify(lockRepository, atLeast(2)).extend(eq(JOB), eq(lockService.getOwner()), any(), any());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
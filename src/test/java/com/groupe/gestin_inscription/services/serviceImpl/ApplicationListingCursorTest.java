@@ -0,0 +1,63 @@
+package com.groupe.gestin_inscription.services.serviceImpl;
+
+import com.groupe.gestin_inscription.dto.response.ApplicationSummaryDto;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplicationListingCursorTest {
+
+    @Test
+    void shouldRoundTripCursor() {
+        // Given
+        LocalDateTime lastUpdated = LocalDateTime.of(2026, 3, 2, 10, 15, 30, 123_000_000);
+        ApplicationSummaryDto last = summary(42L, lastUpdated);
+
+        // When
+        ApplicationListingService.Cursor cursor = ApplicationListingService.decodeCursor(ApplicationListingService.encodeCursor(last));
+
+        // Then
+        assertEquals(lastUpdated, cursor.lastUpdated());
+        assertEquals(42L, cursor.id());
+    }
+
+    @Test
+    void shouldRoundTripCursorWithoutDate() {
+        // When
+        ApplicationListingService.Cursor cursor = ApplicationListingService.decodeCursor(
+                ApplicationListingService.encodeCursor(summary(7L, null)));
+
+        // Then
+        assertNull(cursor.lastUpdated());
+        assertEquals(7L, cursor.id());
+    }
+
+    @Test
+    void shouldTreatMissingCursorAsFirstPage() {
+        assertNull(ApplicationListingService.decodeCursor(null));
+        assertNull(ApplicationListingService.decodeCursor(" "));
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> ApplicationListingService.decodeCursor("%%%"));
+        assertThrows(IllegalArgumentException.class, () -> ApplicationListingService.decodeCursor(encode("sans-separateur")));
+        assertThrows(IllegalArgumentException.class, () -> ApplicationListingService.decodeCursor(encode("2026-13-40T10:00|1")));
+        assertThrows(IllegalArgumentException.class, () -> ApplicationListingService.decodeCursor(encode("2026-03-02T10:00|abc")));
+    }
+
+    private static ApplicationSummaryDto summary(Long id, LocalDateTime lastUpdated) {
+        ApplicationSummaryDto summary = new ApplicationSummaryDto();
+        summary.setId(id);
+        summary.setLastUpdated(lastUpdated);
+        return summary;
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}